@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.data.jdbc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a result set directly, through {@link ObservedResultSet} and through a JDK
+ * proxy timing {@code next()} the way an {@link InvocationHandler} would. Each iteration reads
+ * every column of 100 rows of an in-memory result set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObservedResultSetBenchmark {
+
+    private static final int ROWS = 100;
+
+    private static final SqlExecutionListener[] LISTENERS = {new SqlExecutionListener() {
+        @Override
+        public void onExecution(String fingerprint, long executionNanos, long updateCount) {
+        }
+
+        @Override
+        public void onFetch(String fingerprint, long fetchNanos, long rows) {
+        }
+    }};
+
+    private CachedRowSet rows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(4);
+        metaData.setColumnType(1, Types.BIGINT);
+        metaData.setColumnType(2, Types.VARCHAR);
+        metaData.setColumnType(3, Types.VARCHAR);
+        metaData.setColumnType(4, Types.INTEGER);
+        rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.setMetaData(metaData);
+        for (int i = 0; i < ROWS; i++) {
+            rows.moveToInsertRow();
+            rows.updateLong(1, i);
+            rows.updateString(2, "name-" + i);
+            rows.updateString(3, "user" + i + "@example.com");
+            rows.updateInt(4, i % 7);
+            rows.insertRow();
+        }
+        rows.moveToCurrentRow();
+    }
+
+    @Benchmark
+    public long direct() throws SQLException {
+        rows.beforeFirst();
+        return read(rows);
+    }
+
+    @Benchmark
+    public long observed() throws SQLException {
+        rows.beforeFirst();
+        ObservedResultSet resultSet = new ObservedResultSet(rows, "select", LISTENERS);
+        long sum = read(resultSet);
+        // What close() does, without closing the shared rows
+        resultSet.report();
+        return sum;
+    }
+
+    @Benchmark
+    public long reflectiveProxy() throws SQLException {
+        rows.beforeFirst();
+        return read((ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new TimingHandler(rows)));
+    }
+
+    private static long read(ResultSet resultSet) throws SQLException {
+        long sum = 0;
+        while (resultSet.next()) {
+            sum += resultSet.getLong(1) + resultSet.getString(2).length()
+                    + resultSet.getString(3).length() + resultSet.getInt(4);
+        }
+        return sum;
+    }
+
+    /**
+     * Times {@code next()} and delegates every call reflectively
+     */
+    private static final class TimingHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private long fetchNanos;
+
+        private TimingHandler(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            long start = "next".equals(method.getName()) ? System.nanoTime() : 0;
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (start != 0) {
+                    fetchNanos += System.nanoTime() - start;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares verifying a Supabase-style HS256 access token with the generic jjwt parser and
+ * with {@link Hs256TokenVerifier}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtVerificationBenchmark {
+
+    private JwtParser parser;
+    private Hs256TokenVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor("benchmark-secret-key-that-is-long-enough-for-hs256"
+                .getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifier = new Hs256TokenVerifier(key, Set.of("email", "role", "app_metadata"));
+
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .subject("eeb624e7-2ff9-460d-8678-03f61f914765")
+                .issuer("https://example.supabase.co/auth/v1")
+                .audience().add("authenticated").and()
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + TimeUnit.HOURS.toMillis(1)))
+                .claim("email", "user@example.com")
+                .claim("role", "authenticated")
+                .claim("app_metadata", Map.of("provider", "email", "providers", List.of("email"),
+                        "skutter_role", "PROJECT_ADMIN"))
+                .claim("user_metadata", Map.of("full_name", "Example User"))
+                .claim("aal", "aal1")
+                .claim("session_id", "4f1e3c2a-9b7d-4c1e-8f2a-6d5b3a1c9e7f")
+                .claim("is_anonymous", false)
+                .signWith(key)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims jjwtParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims hs256FastPath() {
+        return verifier.verify(token, System.currentTimeMillis());
+    }
+}
@@ -151,6 +151,62 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, headers, status);
     }
 
+    /**
+     * Handles requests shed because the service is overloaded.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+
+        log.debug("Service overloaded: {}. Correlation ID: {}", ex.getMessage(), getCorrelationId(request));
+
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        String errorCode = "service_overloaded";
+
+        ApiErrorResponse errorResponse = buildApiErrorResponse(status, errorCode, "Service Overloaded", ex.getMessage(), request);
+        HttpHeaders headers = createCommonHeaders(request);
+        headers.add(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfterSeconds())));
+        addLinkHeader(headers, status);
+
+        return new ResponseEntity<>(errorResponse, headers, status);
+    }
+
+    /**
+     * Handles pagination cursors that are malformed or do not match the requested sort.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidCursorException(
+            InvalidCursorException ex, HttpServletRequest request) {
+
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        String errorCode = "invalid_cursor";
+        log.debug("Invalid cursor: {}. Correlation ID: {}", ex.getMessage(), getCorrelationId(request));
+
+        ApiErrorResponse errorResponse = buildApiErrorResponse(status, errorCode, "Invalid Cursor", ex.getMessage(), request);
+        HttpHeaders headers = createCommonHeaders(request);
+        addLinkHeader(headers, status);
+
+        return new ResponseEntity<>(errorResponse, headers, status);
+    }
+
+    /**
+     * Handles requests sorting by a property that may not be sorted by.
+     */
+    @ExceptionHandler(InvalidSortException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidSortException(
+            InvalidSortException ex, HttpServletRequest request) {
+
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        String errorCode = "invalid_sort";
+        log.debug("Invalid sort: {}. Correlation ID: {}", ex.getMessage(), getCorrelationId(request));
+
+        ApiErrorResponse errorResponse = buildApiErrorResponse(status, errorCode, "Invalid Sort", ex.getMessage(), request);
+        HttpHeaders headers = createCommonHeaders(request);
+        addLinkHeader(headers, status);
+
+        return new ResponseEntity<>(errorResponse, headers, status);
+    }
+
     /**
      * Handles validation errors from @Valid annotation.
      */
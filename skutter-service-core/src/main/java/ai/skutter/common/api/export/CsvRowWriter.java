@@ -0,0 +1,97 @@
+package ai.skutter.common.api.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes rows as RFC 4180 CSV with a header line of column labels.
+ * <p>
+ * Text cells starting with {@code =}, {@code +}, {@code -}, {@code @}, a tab or a carriage
+ * return are prefixed with {@code '} so spreadsheet applications show them as text instead of
+ * evaluating them as formulas. Numbers and JSON values are written as they are.
+ */
+class CsvRowWriter implements ExportRowWriter {
+
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+
+    CsvRowWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+    }
+
+    @Override
+    public void start(String[] columns) throws IOException {
+        write((Object[]) columns);
+    }
+
+    @Override
+    public void write(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(escapeFormula(values[i], format(values[i])));
+        }
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String field) throws IOException {
+        if (!needsQuoting(field)) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuoting(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String escapeFormula(Object value, String field) {
+        if (field.isEmpty() || value instanceof Number || value instanceof RawJson) {
+            return field;
+        }
+        return switch (field.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + field;
+            default -> field;
+        };
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof RawJson rawJson) {
+            return rawJson.json();
+        }
+        if (value instanceof Object[] array) {
+            return Arrays.deepToString(array);
+        }
+        return value.toString();
+    }
+}
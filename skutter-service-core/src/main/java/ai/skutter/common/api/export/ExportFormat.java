@@ -0,0 +1,62 @@
+package ai.skutter.common.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Output formats supported by {@link StreamingExporter}
+ */
+public enum ExportFormat {
+
+    /**
+     * One JSON object per line. JSON and JSONB columns are embedded as JSON, not as strings.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        ExportRowWriter newWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonRowWriter(out, objectMapper);
+        }
+    },
+
+    /**
+     * Comma-separated values with a header line, UTF-8, CRLF line endings (RFC 4180)
+     */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        @Override
+        ExportRowWriter newWriter(OutputStream out, ObjectMapper objectMapper) {
+            return new CsvRowWriter(out);
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolve a format from a request parameter such as {@code format=csv}
+     *
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static ExportFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    abstract ExportRowWriter newWriter(OutputStream out, ObjectMapper objectMapper) throws IOException;
+}
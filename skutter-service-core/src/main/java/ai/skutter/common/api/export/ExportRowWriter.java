@@ -0,0 +1,30 @@
+package ai.skutter.common.api.export;
+
+import java.io.IOException;
+
+/**
+ * Incremental writer of exported rows in one {@link ExportFormat}
+ */
+interface ExportRowWriter {
+
+    /**
+     * Begin the export; called once, also for empty results
+     */
+    void start(String[] columns) throws IOException;
+
+    /**
+     * Write one row, values in column order
+     */
+    void write(Object[] values) throws IOException;
+
+    /**
+     * Push buffered rows to the client
+     */
+    void flush() throws IOException;
+
+    /**
+     * JSON column value, written verbatim to NDJSON and as text to CSV
+     */
+    record RawJson(String json) {
+    }
+}
@@ -0,0 +1,55 @@
+package ai.skutter.common.api.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes each row as one JSON object per line, keyed by column label
+ */
+class NdjsonRowWriter implements ExportRowWriter {
+
+    private final JsonGenerator generator;
+    private SerializableString[] fieldNames;
+
+    NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows are separated by the explicit newline below instead of the default root separator
+        this.generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+    }
+
+    @Override
+    public void start(String[] columns) {
+        fieldNames = new SerializableString[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            fieldNames[i] = new SerializedString(columns[i]);
+        }
+    }
+
+    @Override
+    public void write(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            generator.writeFieldName(fieldNames[i]);
+            if (values[i] instanceof RawJson rawJson) {
+                generator.writeRawValue(rawJson.json());
+            } else {
+                generator.writeObject(values[i]);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
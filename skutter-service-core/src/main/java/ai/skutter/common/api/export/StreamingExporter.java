@@ -0,0 +1,228 @@
+package ai.skutter.common.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the result of a query to the client as NDJSON or CSV.
+ * <p>
+ * The query runs in a read-only transaction (so it may be routed to a read replica) with a JDBC
+ * fetch size, which makes the PostgreSQL driver read the result through a server-side cursor a
+ * batch at a time. Rows are serialized as they are read and flushed every few hundred rows, so
+ * memory use is bounded by one fetch batch and the writer buffer, whatever the result size.
+ * <p>
+ * Writes to the response block while the client is not reading, which in turn stops the
+ * cursor from being advanced, so a slow client slows the export down rather than buffering it.
+ * When the client disconnects the next write fails, the transaction is rolled back and the
+ * cursor is closed.
+ * <p>
+ * The response is written on an MVC async thread. The caller's security context (and with it
+ * the RLS user ID) and MDC are carried over to it. Exports longer than
+ * {@code spring.mvc.async.request-timeout} are cut off, so set it accordingly.
+ * <p>
+ * Metrics: {@code skutter.export.rows} counts rows written per export and format (its rate is
+ * the export throughput) and {@code skutter.export.duration} times each export by outcome.
+ */
+@Slf4j
+public class StreamingExporter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int flushRows;
+
+    /**
+     * @param fetchSize rows read from the server-side cursor per round trip
+     * @param flushRows rows written between flushes to the client
+     */
+    public StreamingExporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry, int fetchSize, int flushRows) {
+        if (fetchSize < 1 || flushRows < 1) {
+            throw new IllegalArgumentException("fetchSize and flushRows must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Build a download response streaming the query result
+     *
+     * @param name   export name, used for the file name and the metric tag; keep it a constant
+     * @param format output format
+     * @param sql    the query; columns are exported under their labels
+     * @param args   query parameters
+     */
+    public ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, String sql, Object... args) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(stream(name, format, sql, args));
+    }
+
+    /**
+     * Response body streaming the query result, for controllers that set their own headers
+     */
+    public StreamingResponseBody stream(String name, ExportFormat format, String sql, Object... args) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return outputStream -> {
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContextHolder.setContext(securityContext);
+            setMdc(mdc);
+            try {
+                write(name, format, sql, args, outputStream);
+            } finally {
+                SecurityContextHolder.setContext(previousContext);
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private void write(String name, ExportFormat format, String sql, Object[] args, OutputStream outputStream) throws IOException {
+        Counter rowCounter = Counter.builder("skutter.export.rows")
+                .description("Rows written by streaming exports")
+                .tag("export", name)
+                .tag("format", format.name())
+                .register(meterRegistry);
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        String outcome = "error";
+        try {
+            ExportRowWriter writer = format.newWriter(outputStream, objectMapper);
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql, (ResultSetExtractor<Void>) resultSet -> {
+                        copy(resultSet, writer, rowCounter, rows);
+                        return null;
+                    }, args));
+            outcome = "success";
+        } catch (UncheckedIOException e) {
+            // Writing failed: the client went away or the async request timed out
+            outcome = "cancelled";
+            throw e.getCause();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Timer.builder("skutter.export.duration")
+                    .description("Duration of streaming exports")
+                    .tag("export", name)
+                    .tag("format", format.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            log.info("Export {} ({}) {}: {} rows in {} ms ({} rows/s)", name, format, outcome, rows[0],
+                    TimeUnit.NANOSECONDS.toMillis(nanos), nanos > 0 ? rows[0] * 1_000_000_000L / nanos : rows[0]);
+        }
+    }
+
+    private void copy(ResultSet resultSet, ExportRowWriter writer, Counter rowCounter, long[] rows) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columns = new String[columnCount];
+        String[] typeNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+            typeNames[i] = metaData.getColumnTypeName(i + 1);
+        }
+        Object[] values = new Object[columnCount];
+        long unflushed = 0;
+        try {
+            writer.start(columns);
+            while (resultSet.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = readValue(resultSet, i + 1, typeNames[i]);
+                }
+                writer.write(values);
+                rows[0]++;
+                if (++unflushed == flushRows) {
+                    writer.flush();
+                    rowCounter.increment(unflushed);
+                    unflushed = 0;
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Export interrupted");
+                    }
+                }
+            }
+            writer.flush();
+            rowCounter.increment(unflushed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read a column as a value both writers can serialize
+     */
+    static Object readValue(ResultSet resultSet, int column, String typeName) throws SQLException {
+        switch (typeName) {
+            case "timestamptz":
+                return resultSet.getObject(column, OffsetDateTime.class);
+            case "timestamp":
+                return resultSet.getObject(column, LocalDateTime.class);
+            case "date":
+                return resultSet.getObject(column, LocalDate.class);
+            case "json", "jsonb": {
+                String json = resultSet.getString(column);
+                return json == null ? null : new ExportRowWriter.RawJson(json);
+            }
+            default:
+                break;
+        }
+        Object value = resultSet.getObject(column);
+        if (value == null || value instanceof Number || value instanceof Boolean
+                || value instanceof String || value instanceof UUID) {
+            return value;
+        }
+        if (value instanceof Array array) {
+            return array.getArray();
+        }
+        // Driver-specific types (enums, intervals, PostGIS geometries) as their text form
+        return resultSet.getString(column);
+    }
+
+    private static void setMdc(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
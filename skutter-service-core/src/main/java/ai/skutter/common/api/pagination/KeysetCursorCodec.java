@@ -0,0 +1,216 @@
+package ai.skutter.common.api.pagination;
+
+import ai.skutter.common.api.exception.InvalidCursorException;
+import ai.skutter.common.util.FastHash;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes the sort-key tuple of a row into an opaque, URL-safe cursor.
+ * <p>
+ * The cursor is a small binary record: a format version, a 32-bit signature of the sort it was
+ * issued for, and each key value prefixed with a one-byte type tag so it decodes to the same
+ * Java type (which JPA criteria comparisons require). A timestamp plus UUID key encodes to
+ * 48 characters.
+ * <p>
+ * Cursors are not signed. Their values are only ever used as bind parameters of a range
+ * predicate added to the caller's own query, so a forged cursor can skip around within the
+ * rows the caller may already see but cannot widen the query.
+ */
+public final class KeysetCursorCodec {
+
+    private static final byte VERSION = 1;
+
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte UUID_VALUE = 4;
+    private static final byte INSTANT = 5;
+    private static final byte OFFSET_DATE_TIME = 6;
+    private static final byte LOCAL_DATE_TIME = 7;
+    private static final byte LOCAL_DATE = 8;
+    private static final byte BOOLEAN = 9;
+    private static final byte DOUBLE = 10;
+    private static final byte BIG_DECIMAL = 11;
+    private static final byte SHORT = 12;
+
+    private KeysetCursorCodec() {
+    }
+
+    /**
+     * Encode key values, in sort order, for the given sort
+     *
+     * @throws IllegalArgumentException if a value is null or of an unsupported type
+     */
+    public static String encode(Sort sort, Object[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + values.length * 12);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(signature(sort));
+            out.writeByte(values.length);
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decode a cursor issued for the given sort
+     *
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another sort
+     */
+    public static Object[] decode(Sort sort, String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor is not valid Base64", e);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException("Unsupported cursor version");
+            }
+            if (in.readInt() != signature(sort)) {
+                throw new InvalidCursorException("Cursor was issued for a different sort order");
+            }
+            int count = in.readUnsignedByte();
+            if (count != sortSize(sort)) {
+                throw new InvalidCursorException("Cursor has " + count + " key values but the sort has " + sortSize(sort));
+            }
+            Object[] values = new Object[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = readValue(in);
+            }
+            if (in.available() > 0) {
+                throw new InvalidCursorException("Cursor has trailing data");
+            }
+            return values;
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof InvalidCursorException invalid) {
+                throw invalid;
+            }
+            throw new InvalidCursorException("Cursor is malformed", e);
+        }
+    }
+
+    /**
+     * Signature binding a cursor to the properties and directions of the sort
+     */
+    static int signature(Sort sort) {
+        StringBuilder key = new StringBuilder();
+        for (Sort.Order order : sort) {
+            key.append(order.getProperty()).append(order.isAscending() ? '+' : '-').append(',');
+        }
+        return (int) FastHash.hash64(key);
+    }
+
+    private static int sortSize(Sort sort) {
+        return sort.toList().size();
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("Keyset sort keys must not be null");
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            out.writeUTF(s);
+        } else if (value instanceof Enum<?> e) {
+            // Converted back to the attribute's enum type by KeysetPageQuery
+            out.writeByte(STRING);
+            out.writeUTF(e.name());
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeShort(s);
+        } else if (value instanceof UUID u) {
+            out.writeByte(UUID_VALUE);
+            out.writeLong(u.getMostSignificantBits());
+            out.writeLong(u.getLeastSignificantBits());
+        } else if (value instanceof Instant t) {
+            out.writeByte(INSTANT);
+            writeInstant(out, t);
+        } else if (value instanceof OffsetDateTime t) {
+            out.writeByte(OFFSET_DATE_TIME);
+            writeInstant(out, t.toInstant());
+            out.writeInt(t.getOffset().getTotalSeconds());
+        } else if (value instanceof LocalDateTime t) {
+            out.writeByte(LOCAL_DATE_TIME);
+            writeInstant(out, t.toInstant(ZoneOffset.UTC));
+        } else if (value instanceof LocalDate d) {
+            out.writeByte(LOCAL_DATE);
+            out.writeLong(d.toEpochDay());
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof BigDecimal d) {
+            byte[] unscaled = d.unscaledValue().toByteArray();
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(d.scale());
+            out.writeShort(unscaled.length);
+            out.write(unscaled);
+        } else {
+            throw new IllegalArgumentException("Unsupported keyset sort key type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case STRING -> in.readUTF();
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case SHORT -> in.readShort();
+            case UUID_VALUE -> new UUID(in.readLong(), in.readLong());
+            case INSTANT -> readInstant(in);
+            case OFFSET_DATE_TIME -> {
+                Instant instant = readInstant(in);
+                yield instant.atOffset(ZoneOffset.ofTotalSeconds(in.readInt()));
+            }
+            case LOCAL_DATE_TIME -> LocalDateTime.ofInstant(readInstant(in), ZoneOffset.UTC);
+            case LOCAL_DATE -> LocalDate.ofEpochDay(in.readLong());
+            case BOOLEAN -> in.readBoolean();
+            case DOUBLE -> in.readDouble();
+            case BIG_DECIMAL -> {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedShort()];
+                in.readFully(unscaled);
+                yield new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            default -> throw new InvalidCursorException("Unknown cursor value type " + tag);
+        };
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+}
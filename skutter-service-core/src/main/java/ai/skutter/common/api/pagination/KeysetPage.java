@@ -0,0 +1,35 @@
+package ai.skutter.common.api.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of rows read by {@link KeysetPageQuery}, in page order, with its cursors.
+ *
+ * @param <T> The type of the content in the page.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final PagedResponse.Cursor cursor;
+
+    /**
+     * Build the API response, with next/prev links carrying the cursors
+     */
+    public PagedResponse<T> toResponse(UriComponentsBuilder uriBuilder) {
+        return new PagedResponse<>(content, cursor, uriBuilder);
+    }
+
+    /**
+     * Map the content, e.g. from entities to DTOs, keeping the cursors
+     */
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(content.stream().<R>map(mapper).toList(), cursor);
+    }
+}
@@ -0,0 +1,420 @@
+package ai.skutter.common.api.pagination;
+
+import ai.skutter.common.api.exception.InvalidCursorException;
+import ai.skutter.common.api.exception.InvalidSortException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.ClassUtils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination for a {@link CursorPageRequest}.
+ * <p>
+ * The request's sort, extended with the id property as a unique tiebreaker, defines the key of
+ * each row. Instead of skipping {@code OFFSET n} rows, the next page is selected with a range
+ * predicate on that key, e.g. {@code (created_at, id) > (?, ?)}, so with an index on the sort
+ * columns every page costs the same regardless of depth. The last row's key is encoded into the
+ * opaque cursor by {@link KeysetCursorCodec}.
+ * <p>
+ * {@link CursorPageRequest.SortDirection#BEFORE BEFORE} pages are read by reversing the sort and
+ * seeking from the cursor, then reversing the rows back. One row more than the limit is fetched
+ * to determine whether another page exists. Sort keys must not be null.
+ * <p>
+ * Cursor values are checked against the type of their sort key (the entity attribute for JPA,
+ * the {@link SortColumns} type for JDBC), so a forged cursor is rejected with
+ * {@link InvalidCursorException} rather than failing the query. JDBC queries only sort by
+ * properties registered in {@link SortColumns}; JPA queries do when built with
+ * {@link #of(CursorPageRequest, SortColumns)}, which rejects other sorts before any query runs.
+ * <pre>
+ * KeysetPageQuery keyset = KeysetPageQuery.of(pageRequest, ORDER_SORT_COLUMNS);
+ * KeysetPage&lt;Order&gt; page = keyset.toPage(keyset.fetch(orderRepository, byCustomer(customerId)));
+ * return page.toResponse(uriBuilder);
+ * </pre>
+ */
+public final class KeysetPageQuery {
+
+    /**
+     * Default unique tiebreaker property
+     */
+    public static final String DEFAULT_ID_PROPERTY = "id";
+
+    private final Sort sort;
+    private final Sort querySort;
+    private final Object[] cursorValues;
+    private final String cursor;
+    private final boolean before;
+    private final int limit;
+
+    private KeysetPageQuery(Sort sort, String cursor, boolean before, int limit) {
+        this.sort = sort;
+        this.querySort = before ? reverse(sort) : sort;
+        this.cursor = cursor;
+        this.cursorValues = cursor == null || cursor.isEmpty() ? null : KeysetCursorCodec.decode(sort, cursor);
+        this.before = before;
+        this.limit = limit;
+    }
+
+    /**
+     * Keyset query for the request, using {@value #DEFAULT_ID_PROPERTY} as the tiebreaker
+     *
+     * @throws ai.skutter.common.api.exception.InvalidCursorException if the request's cursor is invalid
+     */
+    public static KeysetPageQuery of(CursorPageRequest request) {
+        return of(request, DEFAULT_ID_PROPERTY);
+    }
+
+    /**
+     * Keyset query for the request, with the given unique property as the tiebreaker
+     *
+     * @throws ai.skutter.common.api.exception.InvalidCursorException if the request's cursor is invalid
+     */
+    public static KeysetPageQuery of(CursorPageRequest request, String idProperty) {
+        return new KeysetPageQuery(keySort(request, idProperty), request.getCursor(), request.isBefore(), request.getSize());
+    }
+
+    /**
+     * Keyset query for the request, using {@value #DEFAULT_ID_PROPERTY} as the tiebreaker and
+     * only sorting by the properties registered in {@code sortColumns}
+     *
+     * @throws InvalidSortException if the sort (with the tiebreaker) has a property not in {@code sortColumns}
+     * @throws ai.skutter.common.api.exception.InvalidCursorException if the request's cursor is invalid
+     */
+    public static KeysetPageQuery of(CursorPageRequest request, SortColumns sortColumns) {
+        return of(request, DEFAULT_ID_PROPERTY, sortColumns);
+    }
+
+    /**
+     * Keyset query for the request, with the given unique property as the tiebreaker and only
+     * sorting by the properties registered in {@code sortColumns}
+     *
+     * @throws InvalidSortException if the sort (with the tiebreaker) has a property not in {@code sortColumns}
+     * @throws ai.skutter.common.api.exception.InvalidCursorException if the request's cursor is invalid
+     */
+    public static KeysetPageQuery of(CursorPageRequest request, String idProperty, SortColumns sortColumns) {
+        Sort sort = keySort(request, idProperty);
+        sortColumns.validate(sort);
+        return new KeysetPageQuery(sort, request.getCursor(), request.isBefore(), request.getSize());
+    }
+
+    private static Sort keySort(CursorPageRequest request, String idProperty) {
+        Sort requested = request.getSort() == null ? Sort.unsorted() : request.getSort();
+        return requested.getOrderFor(idProperty) != null ? requested : requested.and(Sort.by(idProperty));
+    }
+
+    /**
+     * Sort defining the key, in page order
+     */
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Sort the query must use; reversed for BEFORE pages
+     */
+    public Sort getQuerySort() {
+        return querySort;
+    }
+
+    /**
+     * Number of rows the query must fetch: one more than the page size
+     */
+    public int getFetchSize() {
+        return limit + 1;
+    }
+
+    /**
+     * Whether the request carried a cursor, i.e. is not for the first (or, for BEFORE, last) page
+     */
+    public boolean hasCursor() {
+        return cursorValues != null;
+    }
+
+    // --- JPA ---
+
+    /**
+     * Specification restricting rows to those after the cursor in query order.
+     * Matches everything when there is no cursor.
+     */
+    public <T> Specification<T> toSpecification() {
+        return (root, query, cb) -> cursorValues == null ? null : seekPredicate(root, cb);
+    }
+
+    /**
+     * Fetch the rows for this page from a repository, without a count query. Build the query with
+     * {@link #of(CursorPageRequest, SortColumns)} to restrict which properties clients may sort by.
+     *
+     * @param specification the caller's filter, may be null
+     * @return the fetched rows in query order; pass them to {@link #toPage(List)}
+     * @throws InvalidSortException if the sort has a property the entity does not have
+     */
+    public <T> List<T> fetch(JpaSpecificationExecutor<T> repository, Specification<T> specification) {
+        Specification<T> combined = Specification.where(specification).and(toSpecification());
+        try {
+            return repository.findBy(combined, query -> query.sortBy(querySort).limit(getFetchSize()).all());
+        } catch (PropertyReferenceException e) {
+            throw new InvalidSortException("Sorting by " + querySort + " is not supported", e);
+        }
+    }
+
+    private Predicate seekPredicate(Root<?> root, CriteriaBuilder cb) {
+        List<Sort.Order> orders = querySort.toList();
+        List<Path<?>> paths = new ArrayList<>(orders.size());
+        List<Object> values = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            String property = orders.get(i).getProperty();
+            Path<?> path = resolve(root, property);
+            paths.add(path);
+            values.add(checkCursorValue(property, path.getJavaType(), cursorValues[i]));
+        }
+        // Expanded form of the row comparison: (a > ?) OR (a = ? AND b > ?) OR ...
+        List<Predicate> alternatives = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> terms = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                terms.add(cb.equal(paths.get(j), values.get(j)));
+            }
+            terms.add(compare(cb, paths.get(i), values.get(i), orders.get(i).isAscending(), false));
+            alternatives.add(cb.and(terms.toArray(Predicate[]::new)));
+        }
+        // Redundant bound on the leading key lets the planner start an index range scan at the cursor
+        Predicate leading = compare(cb, paths.get(0), values.get(0), orders.get(0).isAscending(), true);
+        return cb.and(leading, cb.or(alternatives.toArray(Predicate[]::new)));
+    }
+
+    private static Path<?> resolve(Root<?> root, String property) {
+        Path<?> path = root;
+        try {
+            for (String part : property.split("\\.")) {
+                path = path.get(part);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSortException("Sorting by '" + property + "' is not supported", e);
+        }
+        return path;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Path<?> path, Object value, boolean ascending, boolean inclusive) {
+        Expression<Comparable> expression = (Expression<Comparable>) path;
+        Comparable bound = (Comparable) value;
+        if (ascending) {
+            return inclusive ? cb.greaterThanOrEqualTo(expression, bound) : cb.greaterThan(expression, bound);
+        }
+        return inclusive ? cb.lessThanOrEqualTo(expression, bound) : cb.lessThan(expression, bound);
+    }
+
+    /**
+     * Check a decoded cursor value against the type of its sort key, converting enum names
+     *
+     * @param type the key's type, or null if unknown
+     * @throws InvalidCursorException if the value is not of the key's type
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object checkCursorValue(String property, Class<?> type, Object value) {
+        if (type == null) {
+            return value;
+        }
+        Class<?> expected = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (expected.isEnum() && value instanceof String name) {
+            try {
+                return Enum.valueOf((Class<? extends Enum>) expected, name);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException("Cursor value for '" + property + "' is not a valid " + expected.getSimpleName(), e);
+            }
+        }
+        if (!expected.isInstance(value)) {
+            throw new InvalidCursorException("Cursor value for '" + property + "' is not a " + expected.getSimpleName());
+        }
+        return value;
+    }
+
+    // --- JDBC ---
+
+    /**
+     * SQL fragment restricting rows to those after the cursor in query order, or null when there
+     * is no cursor. Uses a row comparison when all keys share a direction and the expanded form
+     * otherwise.
+     *
+     * @param sortColumns the sortable properties and their columns
+     * @throws InvalidSortException if the sort has a property not in {@code sortColumns}
+     * @throws InvalidCursorException if a cursor value is not of its property's type
+     */
+    public SqlPredicate toSqlPredicate(SortColumns sortColumns) {
+        sortColumns.validate(querySort);
+        if (cursorValues == null) {
+            return null;
+        }
+        List<Sort.Order> orders = querySort.toList();
+        List<String> columns = new ArrayList<>(orders.size());
+        List<Object> values = new ArrayList<>(orders.size());
+        boolean uniform = true;
+        for (int i = 0; i < orders.size(); i++) {
+            String property = orders.get(i).getProperty();
+            columns.add(sortColumns.column(property));
+            values.add(toJdbcValue(checkCursorValue(property, sortColumns.type(property), cursorValues[i])));
+            uniform &= orders.get(i).getDirection() == orders.get(0).getDirection();
+        }
+
+        List<Object> parameters = new ArrayList<>();
+        if (uniform) {
+            String operator = orders.get(0).isAscending() ? " > " : " < ";
+            String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+            parameters.addAll(values);
+            String sql = columns.size() == 1
+                    ? columns.get(0) + operator + "?"
+                    : "(" + String.join(", ", columns) + ")" + operator + "(" + placeholders + ")";
+            return new SqlPredicate(sql, parameters);
+        }
+
+        StringJoiner alternatives = new StringJoiner(" OR ", "(", ")");
+        for (int i = 0; i < orders.size(); i++) {
+            StringJoiner terms = new StringJoiner(" AND ", "(", ")");
+            for (int j = 0; j < i; j++) {
+                terms.add(columns.get(j) + " = ?");
+                parameters.add(values.get(j));
+            }
+            terms.add(columns.get(i) + (orders.get(i).isAscending() ? " > ?" : " < ?"));
+            parameters.add(values.get(i));
+            alternatives.add(terms.toString());
+        }
+        parameters.add(0, values.get(0));
+        String leading = columns.get(0) + (orders.get(0).isAscending() ? " >= ?" : " <= ?");
+        return new SqlPredicate(leading + " AND " + alternatives, parameters);
+    }
+
+    /**
+     * ORDER BY expression list for the query sort, without the {@code ORDER BY} keyword
+     *
+     * @throws InvalidSortException if the sort has a property not in {@code sortColumns}
+     */
+    public String toOrderByClause(SortColumns sortColumns) {
+        StringJoiner clause = new StringJoiner(", ");
+        for (Sort.Order order : querySort) {
+            clause.add(sortColumns.column(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return clause.toString();
+    }
+
+    /**
+     * Fetch the rows for this page with JdbcTemplate.
+     * <p>
+     * The caller's query is wrapped as {@code SELECT * FROM (sql) WHERE <seek> ORDER BY ... LIMIT n};
+     * it must select the sort columns under the names registered in {@code sortColumns} and must
+     * not have its own ORDER BY or LIMIT, so that PostgreSQL can flatten the subquery and use the index.
+     *
+     * @param sortColumns the sortable properties and their output column names
+     * @return the fetched rows in query order; pass them to {@link #toPage(List, Function)}
+     * @throws InvalidSortException if the sort has a property not in {@code sortColumns}
+     * @throws InvalidCursorException if a cursor value is not of its property's type
+     */
+    public <T> List<T> fetch(JdbcTemplate jdbcTemplate, SortColumns sortColumns, String sql, RowMapper<T> rowMapper,
+                             Object... args) {
+        StringBuilder paged = new StringBuilder("SELECT * FROM (").append(sql).append(") keyset_page");
+        List<Object> parameters = new ArrayList<>(List.of(args));
+        SqlPredicate predicate = toSqlPredicate(sortColumns);
+        if (predicate != null) {
+            paged.append(" WHERE ").append(predicate.sql());
+            parameters.addAll(predicate.parameters());
+        }
+        paged.append(" ORDER BY ").append(toOrderByClause(sortColumns)).append(" LIMIT ?");
+        parameters.add(getFetchSize());
+        return jdbcTemplate.query(paged.toString(), rowMapper, parameters.toArray());
+    }
+
+    /**
+     * Map a camelCase property to a snake_case column name, e.g. {@code createdAt} to {@code created_at}
+     */
+    public static String snakeCase(String property) {
+        StringBuilder column = new StringBuilder(property.length() + 4);
+        for (int i = 0; i < property.length(); i++) {
+            char c = property.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    column.append('_');
+                }
+                column.append(Character.toLowerCase(c));
+            } else {
+                column.append(c == '.' ? '_' : c);
+            }
+        }
+        return column.toString();
+    }
+
+    private static Object toJdbcValue(Object value) {
+        // PgJDBC binds OffsetDateTime but not Instant
+        return value instanceof Instant instant ? instant.atOffset(ZoneOffset.UTC) : value;
+    }
+
+    // --- Results ---
+
+    /**
+     * Build the page from fetched rows, reading sort keys as bean properties of each row
+     */
+    public <T> KeysetPage<T> toPage(List<T> fetched) {
+        return toPage(fetched, this::readKey);
+    }
+
+    /**
+     * Build the page from fetched rows
+     *
+     * @param keyExtractor returns a row's sort-key values in {@link #getSort()} order
+     */
+    public <T> KeysetPage<T> toPage(List<T> fetched, Function<? super T, Object[]> keyExtractor) {
+        boolean more = fetched.size() > limit;
+        List<T> content = new ArrayList<>(more ? fetched.subList(0, limit) : fetched);
+        if (before) {
+            Collections.reverse(content);
+        }
+        boolean hasNext = before ? hasCursor() : more;
+        boolean hasPrevious = before ? more : hasCursor();
+        String next = null;
+        String previous = null;
+        if (!content.isEmpty()) {
+            next = hasNext ? KeysetCursorCodec.encode(sort, keyExtractor.apply(content.get(content.size() - 1))) : null;
+            previous = hasPrevious ? KeysetCursorCodec.encode(sort, keyExtractor.apply(content.get(0))) : null;
+        }
+        return new KeysetPage<>(content, new PagedResponse.Cursor(cursor, next, previous, next != null, previous != null));
+    }
+
+    private Object[] readKey(Object row) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        List<Sort.Order> orders = sort.toList();
+        Object[] key = new Object[orders.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = wrapper.getPropertyValue(orders.get(i).getProperty());
+        }
+        return key;
+    }
+
+    private static Sort reverse(Sort sort) {
+        List<Sort.Order> reversed = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            reversed.add(order.with(order.getDirection().isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC));
+        }
+        return Sort.by(reversed);
+    }
+
+    /**
+     * SQL fragment with its positional parameters
+     */
+    public record SqlPredicate(String sql, List<Object> parameters) {
+    }
+}
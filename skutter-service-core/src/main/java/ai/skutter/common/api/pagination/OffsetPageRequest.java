@@ -26,6 +26,27 @@ public class OffsetPageRequest {
 
     private String sort; // e.g., "field,asc" or "field,desc"
 
+    /**
+     * How the total is reported by responses built with {@link SlicePagination}.
+     * Clients ask for an exact count with {@code count=EXACT}.
+     */
+    private CountMode count = CountMode.NONE;
+
+    public enum CountMode {
+        /**
+         * No total; has_next is determined by fetching one extra row
+         */
+        NONE,
+        /**
+         * Planner estimate of the total, flagged as estimated
+         */
+        ESTIMATED,
+        /**
+         * Exact total from a COUNT query
+         */
+        EXACT
+    }
+
     public Pageable toPageable() {
         Sort sorting = Sort.unsorted();
         if (sort != null && !sort.isBlank()) {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
@@ -30,6 +31,24 @@ public class PagedResponse<T> extends RepresentationModel<PagedResponse<T>> {
         addPaginationLinks(page, uriBuilder);
     }
 
+    /**
+     * Response for a slice fetched without a count query; total_elements and total_pages are omitted
+     */
+    public PagedResponse(Slice<T> slice, UriComponentsBuilder uriBuilder) {
+        this.content = slice.getContent();
+        this.metadata = new PageMetadata(slice, null, false);
+        addSliceLinks(slice, uriBuilder);
+    }
+
+    /**
+     * Response for a slice with an estimated total, flagged with total_estimated
+     */
+    public PagedResponse(Slice<T> slice, long estimatedTotal, UriComponentsBuilder uriBuilder) {
+        this.content = slice.getContent();
+        this.metadata = new PageMetadata(slice, estimatedTotal, true);
+        addSliceLinks(slice, uriBuilder);
+    }
+
     public PagedResponse(List<T> content, Cursor cursor, UriComponentsBuilder uriBuilder) {
         this.content = content;
         this.metadata = new PageMetadata(cursor, content.size());
@@ -59,6 +78,26 @@ public class PagedResponse<T> extends RepresentationModel<PagedResponse<T>> {
         }
     }
 
+    private void addSliceLinks(Slice<T> slice, UriComponentsBuilder uriBuilder) {
+        // Self link
+        add(Link.of(uriBuilder.replaceQueryParam("page", slice.getNumber()).replaceQueryParam("size", slice.getSize()).toUriString(), IanaLinkRelations.SELF.value()));
+
+        // First link
+        add(Link.of(uriBuilder.replaceQueryParam("page", 0).toUriString(), IanaLinkRelations.FIRST.value()));
+
+        // No last link: the last page is unknown without a count
+
+        // Next link
+        if (slice.hasNext()) {
+            add(Link.of(uriBuilder.replaceQueryParam("page", slice.getNumber() + 1).toUriString(), IanaLinkRelations.NEXT.value()));
+        }
+
+        // Previous link
+        if (slice.hasPrevious()) {
+            add(Link.of(uriBuilder.replaceQueryParam("page", slice.getNumber() - 1).toUriString(), IanaLinkRelations.PREV.value()));
+        }
+    }
+
     private void addCursorLinks(Cursor cursor, UriComponentsBuilder uriBuilder) {
         // Self link - reflects the current request that generated this response
         UriComponentsBuilder selfBuilder = uriBuilder;
@@ -85,6 +124,8 @@ public class PagedResponse<T> extends RepresentationModel<PagedResponse<T>> {
         private Long totalElements;
         @JsonProperty("total_pages")
         private Integer totalPages;
+        @JsonProperty("total_estimated")
+        private Boolean totalEstimated;
         private int number; // Current page number (for offset)
         @JsonProperty("has_next")
         private Boolean hasNext;
@@ -103,6 +144,18 @@ public class PagedResponse<T> extends RepresentationModel<PagedResponse<T>> {
             this.hasPrevious = page.hasPrevious();
         }
 
+        // Constructor for Slice Pagination, with an optional estimated total
+        public PageMetadata(Slice<?> slice, Long estimatedTotal, boolean estimated) {
+            this.size = slice.getSize();
+            this.number = slice.getNumber();
+            this.hasNext = slice.hasNext();
+            this.hasPrevious = slice.hasPrevious();
+            this.totalElements = estimatedTotal;
+            this.totalPages = estimatedTotal == null || slice.getSize() == 0 ? null
+                    : (int) ((estimatedTotal + slice.getSize() - 1) / slice.getSize());
+            this.totalEstimated = estimatedTotal == null ? null : estimated;
+        }
+
         // Constructor for Cursor Pagination
         public PageMetadata(Cursor cursor, int currentSize) {
             this.size = currentSize;
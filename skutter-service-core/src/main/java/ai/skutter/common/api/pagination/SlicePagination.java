@@ -0,0 +1,151 @@
+package ai.skutter.common.api.pagination;
+
+import ai.skutter.common.api.exception.InvalidSortException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.LongSupplier;
+
+/**
+ * Offset pagination without a count query.
+ * <p>
+ * {@code PagedResponse(Page, ...)} needs {@code COUNT(*)} for the totals, which under RLS costs
+ * about as much as the page itself. The fetch methods here read one row more than the page size
+ * and return a {@link Slice} whose {@code hasNext} comes from that extra row.
+ * {@link #toResponse} then reports the total according to the request's
+ * {@link OffsetPageRequest.CountMode}: none, a planner estimate (see
+ * {@code ai.skutter.common.data.jdbc.RowCountEstimator}), or an exact count when the client
+ * asks for it. When a total is requested and the last page has been reached, the exact total
+ * follows from the offset and is reported without counting. JDBC queries only sort by the
+ * properties registered in a {@link SortColumns} whitelist.
+ * <pre>
+ * Pageable pageable = pageRequest.toPageable();
+ * Slice&lt;Order&gt; slice = SlicePagination.fetch(entityManager, Order.class, byCustomer(customerId), pageable);
+ * return SlicePagination.toResponse(pageRequest.getCount(), slice,
+ *         () -&gt; orderRepository.count(byCustomer(customerId)),
+ *         () -&gt; rowCountEstimator.estimateTable("orders"),
+ *         uriBuilder);
+ * </pre>
+ */
+public final class SlicePagination {
+
+    private SlicePagination() {
+    }
+
+    /**
+     * Fetch a slice of entities matching the specification with JPA
+     *
+     * @param specification the filter, may be null
+     * @throws InvalidSortException if the pageable sorts by a property the entity does not have
+     */
+    public static <T> Slice<T> fetch(EntityManager entityManager, Class<T> type, Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        query.select(root);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            try {
+                query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+            } catch (IllegalArgumentException | PropertyReferenceException e) {
+                throw new InvalidSortException("Sorting by " + pageable.getSort() + " is not supported", e);
+            }
+        }
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+        return toSlice(typedQuery.getResultList(), pageable);
+    }
+
+    /**
+     * Fetch a slice with JdbcTemplate. ORDER BY (sort properties mapped to the columns registered
+     * in {@code sortColumns}), LIMIT and OFFSET are appended to the query.
+     *
+     * @param sortColumns the sortable properties and their columns
+     * @param sql         the query without ORDER BY, LIMIT or OFFSET
+     * @throws InvalidSortException if the pageable sorts by a property not in {@code sortColumns}
+     */
+    public static <T> Slice<T> fetch(JdbcTemplate jdbcTemplate, SortColumns sortColumns, String sql, RowMapper<T> rowMapper,
+                                     Pageable pageable, Object... args) {
+        StringBuilder paged = new StringBuilder(sql);
+        List<Object> parameters = new ArrayList<>(List.of(args));
+        if (pageable.getSort().isSorted()) {
+            StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+            for (Sort.Order order : pageable.getSort()) {
+                orderBy.add(sortColumns.column(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+            }
+            paged.append(orderBy);
+        }
+        if (pageable.isPaged()) {
+            paged.append(" LIMIT ? OFFSET ?");
+            parameters.add(pageable.getPageSize() + 1);
+            parameters.add(pageable.getOffset());
+        }
+        return toSlice(jdbcTemplate.query(paged.toString(), rowMapper, parameters.toArray()), pageable);
+    }
+
+    /**
+     * Build a slice from rows fetched with a limit of page size + 1
+     */
+    public static <T> Slice<T> toSlice(List<T> fetched, Pageable pageable) {
+        boolean hasNext = pageable.isPaged() && fetched.size() > pageable.getPageSize();
+        List<T> content = hasNext ? fetched.subList(0, pageable.getPageSize()) : fetched;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Build the response for a slice, reporting the total as the client requested
+     *
+     * @param exactCount     runs the COUNT query; only called for {@code EXACT} when the total cannot be derived
+     * @param estimatedCount returns a planner estimate, negative if unknown; only called for {@code ESTIMATED}
+     */
+    public static <T> PagedResponse<T> toResponse(OffsetPageRequest.CountMode mode, Slice<T> slice,
+                                                  LongSupplier exactCount, LongSupplier estimatedCount,
+                                                  UriComponentsBuilder uriBuilder) {
+        OffsetPageRequest.CountMode effective = mode == null ? OffsetPageRequest.CountMode.NONE : mode;
+        // On a non-empty last page (or an empty first page) the total follows from the offset
+        boolean derivable = !slice.hasNext() && (slice.hasContent() || !slice.hasPrevious());
+        if (effective != OffsetPageRequest.CountMode.NONE && derivable) {
+            long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+            return new PagedResponse<>(new PageImpl<>(slice.getContent(), slice.getPageable(), offset + slice.getNumberOfElements()),
+                    uriBuilder);
+        }
+        if (effective == OffsetPageRequest.CountMode.EXACT) {
+            return new PagedResponse<>(new PageImpl<>(slice.getContent(), slice.getPageable(), exactCount.getAsLong()), uriBuilder);
+        }
+        if (effective == OffsetPageRequest.CountMode.ESTIMATED) {
+            long estimate = estimatedCount.getAsLong();
+            if (estimate >= 0) {
+                // Never report fewer rows than the client has already been shown plus the known next one
+                long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+                return new PagedResponse<>(slice, Math.max(estimate, seen), uriBuilder);
+            }
+        }
+        return new PagedResponse<>(slice, uriBuilder);
+    }
+}
@@ -0,0 +1,104 @@
+package ai.skutter.common.api.pagination;
+
+import ai.skutter.common.api.exception.InvalidSortException;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The sort properties a JDBC query accepts, each mapped to a trusted SQL column expression and
+ * the Java type of its values.
+ * <p>
+ * Sort properties come from the client ({@code sort=createdAt,desc}), so they are never pasted
+ * into SQL: only the expressions registered here are, and any other property is rejected with
+ * {@link InvalidSortException} (answered with {@code 400 invalid_sort}). Keyset cursor values are
+ * checked against the registered types. Register the keyset tiebreaker ({@code id}) too.
+ * <pre>
+ * private static final SortColumns ORDER_SORT = SortColumns.builder()
+ *         .column("createdAt", OffsetDateTime.class)          // created_at
+ *         .column("total", "total_cents", Long.class)
+ *         .column("id", UUID.class)
+ *         .build();
+ * </pre>
+ */
+public final class SortColumns {
+
+    private final Map<String, Column> columns;
+
+    private SortColumns(Map<String, Column> columns) {
+        this.columns = Map.copyOf(columns);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Column expression for a sort property
+     *
+     * @throws InvalidSortException if the property may not be sorted by
+     */
+    public String column(String property) {
+        return lookup(property).expression();
+    }
+
+    /**
+     * Java type of a sort property's values, primitives boxed
+     *
+     * @throws InvalidSortException if the property may not be sorted by
+     */
+    public Class<?> type(String property) {
+        return lookup(property).type();
+    }
+
+    /**
+     * Check that every property of the sort may be sorted by
+     *
+     * @throws InvalidSortException for the first property that may not
+     */
+    public void validate(Sort sort) {
+        for (Sort.Order order : sort) {
+            lookup(order.getProperty());
+        }
+    }
+
+    private Column lookup(String property) {
+        Column column = columns.get(property);
+        if (column == null) {
+            throw new InvalidSortException("Sorting by '" + property + "' is not supported");
+        }
+        return column;
+    }
+
+    private record Column(String expression, Class<?> type) {
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Allow sorting by a property stored in the column named per {@link KeysetPageQuery#snakeCase}
+         */
+        public Builder column(String property, Class<?> type) {
+            return column(property, KeysetPageQuery.snakeCase(property), type);
+        }
+
+        /**
+         * Allow sorting by a property stored in the given column expression
+         */
+        public Builder column(String property, String expression, Class<?> type) {
+            columns.put(property, new Column(expression, ClassUtils.resolvePrimitiveIfNecessary(type)));
+            return this;
+        }
+
+        public SortColumns build() {
+            return new SortColumns(columns);
+        }
+    }
+}
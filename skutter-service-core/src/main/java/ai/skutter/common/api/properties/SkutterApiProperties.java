@@ -1,8 +1,13 @@
 package ai.skutter.common.api.properties;
 
+import ai.skutter.common.api.ratelimit.RateLimitAlgorithm;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration properties for API features.
@@ -17,6 +22,16 @@ public class SkutterApiProperties {
      */
     private final RateLimit rateLimit = new RateLimit();
 
+    /**
+     * Adaptive concurrency limiting configuration.
+     */
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    /**
+     * Memory-pressure load shedding configuration.
+     */
+    private final LoadShedding loadShedding = new LoadShedding();
+
     /**
      * API Documentation configuration.
      */
@@ -43,6 +58,152 @@ public class SkutterApiProperties {
          * Refresh period.
          */
         private Duration refreshPeriod = Duration.ofMinutes(1);
+
+        /**
+         * Algorithm used by the default policy and by policies that do not set their own.
+         */
+        private RateLimitAlgorithm algorithm = RateLimitAlgorithm.TOKEN_BUCKET;
+
+        /**
+         * Named policies, matched in declaration order. Requests not matching any policy
+         * use the limit, refresh period and algorithm above.
+         */
+        private Map<String, Policy> policies = new LinkedHashMap<>();
+
+        /**
+         * Where per-key state is kept. HEAP keeps one counter object per key; STRIPED keeps
+         * packed state in fixed-size primitive tables for very large numbers of keys.
+         */
+        private Store store = Store.HEAP;
+
+        /**
+         * Total number of key slots preallocated by the STRIPED store (16 bytes each).
+         */
+        private int storeCapacity = 1 << 20;
+
+        /**
+         * Number of independently locked stripes in the STRIPED store.
+         */
+        private int storeStripes = 64;
+
+        public enum Store {
+            HEAP, STRIPED
+        }
+
+        @Data
+        public static class Policy {
+            /**
+             * Ant-style path patterns the policy applies to.
+             */
+            private List<String> pathPatterns = new ArrayList<>();
+
+            /**
+             * Maximum requests per refresh period. Defaults to the global limit.
+             */
+            private Integer limit;
+
+            /**
+             * Refresh period. Defaults to the global refresh period.
+             */
+            private Duration refreshPeriod;
+
+            /**
+             * Algorithm. Defaults to the global algorithm.
+             */
+            private RateLimitAlgorithm algorithm;
+        }
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        /**
+         * Enable or disable adaptive concurrency limiting.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Concurrency limit each route group starts with.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Lower bound for the concurrency limit.
+         */
+        private int minLimit = 4;
+
+        /**
+         * Upper bound for the concurrency limit.
+         */
+        private int maxLimit = 200;
+
+        /**
+         * Weight given to each new limit estimate (0-1). Lower values react more slowly.
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Ratio of latency above the baseline that is tolerated before the limit shrinks.
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Number of samples in the short-term latency average.
+         */
+        private int shortWindow = 10;
+
+        /**
+         * Number of samples in the long-term (baseline) latency average.
+         */
+        private int longWindow = 600;
+
+        /**
+         * Retry-After value returned with rejected requests.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * Route groups keyed by name, each with the Ant-style path patterns it covers.
+         * Requests not matching any group share the "default" group.
+         */
+        private Map<String, List<String>> routeGroups = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class LoadShedding {
+        /**
+         * Enable or disable memory-pressure load shedding.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Old-gen occupancy after GC (0-1) at which anonymous and large-page requests are shed.
+         */
+        private double elevatedThreshold = 0.75;
+
+        /**
+         * Old-gen occupancy after GC (0-1) at which all requests outside the excluded paths are shed.
+         */
+        private double criticalThreshold = 0.90;
+
+        /**
+         * Page size above which a request is treated as low priority.
+         */
+        private int largePageSize = 500;
+
+        /**
+         * Query parameters inspected for the requested page size.
+         */
+        private List<String> pageSizeParameters = new ArrayList<>(List.of("size", "limit"));
+
+        /**
+         * Ant-style path patterns that are never shed.
+         */
+        private List<String> excludePaths = new ArrayList<>(List.of("/actuator/**"));
+
+        /**
+         * Retry-After value returned with shed requests.
+         */
+        private Duration retryAfter = Duration.ofSeconds(5);
     }
 
     @Data
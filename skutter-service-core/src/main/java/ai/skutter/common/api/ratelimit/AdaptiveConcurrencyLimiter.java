@@ -0,0 +1,153 @@
+package ai.skutter.common.api.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-based concurrency limiter for a single route group.
+ * <p>
+ * Tracks the number of in-flight requests and compares a short-term average of the
+ * observed round-trip time against a long-term baseline. While latency stays close to
+ * the baseline the limit grows by a small queue allowance; once latency rises above the
+ * baseline (for example because Postgres slows down and requests queue for Hikari
+ * connections) the limit shrinks proportionally, so excess requests are rejected
+ * instead of piling up on the connection pool.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final String group;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double shortAlpha;
+    private final double longAlpha;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String group, int initialLimit, int minLimit, int maxLimit,
+                                      double smoothing, double rttTolerance, int shortWindow, int longWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.group = group;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.shortAlpha = 2.0 / (Math.max(1, shortWindow) + 1);
+        this.longAlpha = 2.0 / (Math.max(1, longWindow) + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        log.debug("Created concurrency limiter for group '{}': initialLimit={}, minLimit={}, maxLimit={}",
+                group, this.limit, minLimit, maxLimit);
+    }
+
+    /**
+     * Try to reserve a slot for a new request
+     *
+     * @return true if the request may proceed, false if the current limit has been reached
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot previously obtained with {@link #tryAcquire()} and feed the
+     * observed round-trip time into the limit calculation.
+     *
+     * @param rttNanos round-trip time of the request in nanoseconds
+     */
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (rttNanos > 0) {
+            onSample(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    /**
+     * Release a slot previously obtained with {@link #tryAcquire()} without feeding a
+     * round-trip time sample, for requests whose duration says nothing about latency
+     * (asynchronous handlers that run as long as the client keeps reading).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos += shortAlpha * (rttNanos - shortRttNanos);
+        longRttNanos += longAlpha * (rttNanos - longRttNanos);
+
+        // If the baseline has drifted far above current latency, pull it down so the limit can recover
+        if (longRttNanos / shortRttNanos > 2.0) {
+            longRttNanos *= 0.95;
+        }
+
+        double currentLimit = limit;
+
+        // Don't grow the limit when the group is not using it (app-limited)
+        if (inFlightAtCompletion < currentLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(currentLimit);
+        double newLimit = currentLimit * gradient + queueSize;
+        newLimit = currentLimit * (1 - smoothing) + newLimit * smoothing;
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        if ((int) newLimit != (int) currentLimit) {
+            log.debug("Concurrency limit for group '{}' changed {} -> {} (shortRtt={}us, baselineRtt={}us)",
+                    group, (int) currentLimit, (int) newLimit,
+                    (long) (shortRttNanos / 1000), (long) (longRttNanos / 1000));
+        }
+        limit = newLimit;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * Current concurrency limit (number of requests allowed in flight)
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Number of requests currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Total number of requests rejected by this limiter
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
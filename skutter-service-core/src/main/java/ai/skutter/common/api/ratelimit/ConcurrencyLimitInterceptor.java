@@ -0,0 +1,132 @@
+package ai.skutter.common.api.ratelimit;
+
+import ai.skutter.common.api.exception.ServiceOverloadedException;
+import ai.skutter.common.api.properties.SkutterApiProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interceptor that applies an adaptive concurrency limit per route group.
+ * Requests beyond the current limit are rejected with a {@link ServiceOverloadedException} (HTTP 503).
+ * <p>
+ * Asynchronous handlers (such as streaming exports) release their slot as soon as the handler
+ * returns and concurrent handling starts, without a latency sample: their lifetime is bounded by
+ * the client rather than by the protected resources, and would otherwise shrink the limit.
+ */
+@Slf4j
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    static final String DEFAULT_GROUP = "default";
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final SkutterApiProperties.ConcurrencyLimit properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ConcurrencyLimitInterceptor(SkutterApiProperties.ConcurrencyLimit properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        log.info("Initializing ConcurrencyLimitInterceptor: initialLimit={}, minLimit={}, maxLimit={}, route groups={}",
+                properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getRouteGroups().keySet());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The slot acquired on the initial dispatch was released when concurrent handling started
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String group = resolveGroup(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(group, this::createLimiter);
+
+        if (!limiter.tryAcquire()) {
+            log.debug("Concurrency limit reached for group '{}' (limit={}, inFlight={}). Request rejected: {} {}",
+                    group, limiter.getLimit(), limiter.getInFlight(), request.getMethod(), request.getRequestURI());
+            throw new ServiceOverloadedException("Service is temporarily overloaded. Please try again later.",
+                    properties.getRetryAfter().getSeconds());
+        }
+
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object limiter = request.getAttribute(LIMITER_ATTRIBUTE);
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (limiter instanceof AdaptiveConcurrencyLimiter concurrencyLimiter && start instanceof Long startNanos) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            concurrencyLimiter.release(System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(LIMITER_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * Resolves the route group for the request from the configured path patterns.
+     * Requests not matching any group share the default group.
+     */
+    String resolveGroup(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (Map.Entry<String, List<String>> entry : properties.getRouteGroups().entrySet()) {
+            for (String pattern : entry.getValue()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return DEFAULT_GROUP;
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String group) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                group,
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getSmoothing(),
+                properties.getRttTolerance(),
+                properties.getShortWindow(),
+                properties.getLongWindow());
+
+        Gauge.builder("skutter.api.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("skutter.api.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently in flight")
+                .tag("group", group)
+                .register(meterRegistry);
+        FunctionCounter.builder("skutter.api.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .description("Requests rejected by the adaptive concurrency limiter")
+                .tag("group", group)
+                .register(meterRegistry);
+
+        return limiter;
+    }
+}
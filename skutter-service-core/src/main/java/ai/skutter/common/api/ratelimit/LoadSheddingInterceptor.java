@@ -0,0 +1,129 @@
+package ai.skutter.common.api.ratelimit;
+
+import ai.skutter.common.api.exception.ServiceOverloadedException;
+import ai.skutter.common.api.properties.SkutterApiProperties;
+import ai.skutter.common.util.MemoryPressureMonitor;
+import ai.skutter.common.util.MemoryPressureMonitor.PressureLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Interceptor that sheds traffic while the JVM is under memory pressure.
+ * <p>
+ * At {@link PressureLevel#ELEVATED} anonymous and large-page requests are rejected; at
+ * {@link PressureLevel#CRITICAL} every request outside the excluded paths is rejected.
+ * The pressure level is maintained by {@link MemoryPressureMonitor} from GC notifications,
+ * so admission costs a single volatile read for most requests.
+ */
+@Slf4j
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    private final SkutterApiProperties.LoadShedding properties;
+    private final MemoryPressureMonitor monitor;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final Counter anonymousRejected;
+    private final Counter largePageRejected;
+    private final Counter criticalRejected;
+
+    public LoadSheddingInterceptor(SkutterApiProperties.LoadShedding properties,
+                                   MemoryPressureMonitor monitor,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.monitor = monitor;
+
+        Gauge.builder("skutter.api.load-shedding.pressure", monitor, m -> m.getLevel().ordinal())
+                .description("Memory pressure level (0=normal, 1=elevated, 2=critical)")
+                .register(meterRegistry);
+        Gauge.builder("skutter.api.load-shedding.old-gen-occupancy", monitor, MemoryPressureMonitor::getOccupancy)
+                .description("Old-generation occupancy after the most recent garbage collection")
+                .register(meterRegistry);
+        this.anonymousRejected = rejectedCounter(meterRegistry, "anonymous");
+        this.largePageRejected = rejectedCounter(meterRegistry, "large_page");
+        this.criticalRejected = rejectedCounter(meterRegistry, "critical");
+
+        log.info("Initializing LoadSheddingInterceptor: elevatedThreshold={}, criticalThreshold={}, largePageSize={}",
+                properties.getElevatedThreshold(), properties.getCriticalThreshold(), properties.getLargePageSize());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PressureLevel level = monitor.getLevel();
+        if (level == PressureLevel.NORMAL || request.getDispatcherType() == DispatcherType.ASYNC || isExcluded(request)) {
+            return true;
+        }
+
+        if (level == PressureLevel.CRITICAL) {
+            reject(request, criticalRejected, level);
+        } else if (isAnonymous()) {
+            reject(request, anonymousRejected, level);
+        } else if (isLargePage(request)) {
+            reject(request, largePageRejected, level);
+        }
+        return true;
+    }
+
+    private void reject(HttpServletRequest request, Counter counter, PressureLevel level) {
+        counter.increment();
+        log.debug("Shedding request under {} memory pressure (occupancy={}): {} {}",
+                level, monitor.getOccupancy(), request.getMethod(), request.getRequestURI());
+        throw new ServiceOverloadedException("Service is temporarily overloaded. Please try again later.",
+                properties.getRetryAfter().getSeconds());
+    }
+
+    private boolean isExcluded(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (String pattern : properties.getExcludePaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null
+                || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken;
+    }
+
+    /**
+     * A request is large-page when any of the configured page-size parameters exceeds the threshold
+     */
+    boolean isLargePage(HttpServletRequest request) {
+        for (String parameter : properties.getPageSizeParameters()) {
+            String value = request.getParameter(parameter);
+            if (value == null) {
+                continue;
+            }
+            try {
+                if (Integer.parseInt(value.trim()) > properties.getLargePageSize()) {
+                    return true;
+                }
+            } catch (NumberFormatException e) {
+                // Malformed sizes are rejected later by parameter validation
+            }
+        }
+        return false;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("skutter.api.load-shedding.rejected")
+                .description("Requests rejected by memory-pressure load shedding")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
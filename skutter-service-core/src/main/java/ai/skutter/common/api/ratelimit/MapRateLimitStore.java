@@ -0,0 +1,41 @@
+package ai.skutter.common.api.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate limit store keeping one {@link RateLimitCounter} object per key in a concurrent map.
+ * Simple and exact, but costs well over 100 bytes per key.
+ */
+@Slf4j
+public class MapRateLimitStore implements RateLimitStore {
+
+    private final Map<String, RateLimitCounter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryConsume(RateLimitPolicy policy, String key) {
+        return counters.computeIfAbsent(policy.getName() + "|" + key, k -> {
+            log.debug("Creating new rate limit counter for key: {}", k);
+            return policy.newCounter();
+        }).tryConsume();
+    }
+
+    @Override
+    public int getRemaining(RateLimitPolicy policy, String key) {
+        RateLimitCounter counter = counters.get(policy.getName() + "|" + key);
+        return counter != null ? counter.getRemaining() : policy.getLimit();
+    }
+
+    @Override
+    public long getResetTimeSeconds(RateLimitPolicy policy, String key) {
+        RateLimitCounter counter = counters.get(policy.getName() + "|" + key);
+        return counter != null ? counter.getResetTimeSeconds() : 0;
+    }
+
+    @Override
+    public int size() {
+        return counters.size();
+    }
+}
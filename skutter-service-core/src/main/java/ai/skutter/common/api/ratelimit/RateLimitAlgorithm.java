@@ -0,0 +1,155 @@
+package ai.skutter.common.api.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Rate limiting algorithms selectable per policy.
+ * <p>
+ * Besides creating standalone {@link RateLimitCounter} objects, each algorithm can operate on
+ * its state packed into a single {@code long}, which lets {@link StripedRateLimitStore} keep
+ * millions of keys in primitive arrays. The packed operations are pure functions of the
+ * state and the current time; callers are responsible for publishing the returned state.
+ */
+public enum RateLimitAlgorithm {
+
+    /**
+     * Token bucket refilled to capacity once per period. Cheapest, but admits up to twice the
+     * limit across a period boundary.
+     * <p>
+     * Packed layout: milliseconds since {@link #PACKED_EPOCH_MILLIS} of the last refill in the
+     * upper 40 bits, remaining tokens in the lower 24 bits. Times before the epoch are rejected.
+     */
+    TOKEN_BUCKET {
+        private static final int TOKEN_BITS = 24;
+        private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+        @Override
+        public RateLimitCounter newCounter(int limit, Duration period) {
+            return new RateLimitBucket(limit, period);
+        }
+
+        @Override
+        public int getMaxPackedLimit() {
+            return (int) TOKEN_MASK - 1;
+        }
+
+        @Override
+        public long initialState(long nowMillis, int limit, long periodMillis) {
+            return pack(nowMillis, limit);
+        }
+
+        @Override
+        public long tryConsume(long state, long nowMillis, int limit, long periodMillis) {
+            long refilled = refill(state, nowMillis, limit, periodMillis);
+            return (refilled & TOKEN_MASK) > 0 ? refilled - 1 : REJECTED;
+        }
+
+        @Override
+        public int getRemaining(long state, long nowMillis, int limit, long periodMillis) {
+            return (int) (refill(state, nowMillis, limit, periodMillis) & TOKEN_MASK);
+        }
+
+        @Override
+        public long getResetTimeSeconds(long state, long nowMillis, int limit, long periodMillis) {
+            long nextRefill = lastRefill(state) + periodMillis;
+            return Math.max(0, (nextRefill - nowMillis) / 1000);
+        }
+
+        private long refill(long state, long nowMillis, int limit, long periodMillis) {
+            return nowMillis - lastRefill(state) >= periodMillis ? pack(nowMillis, limit) : state;
+        }
+
+        private long lastRefill(long state) {
+            return (state >>> TOKEN_BITS) + PACKED_EPOCH_MILLIS;
+        }
+
+        private long pack(long refillMillis, long tokens) {
+            long offset = refillMillis - PACKED_EPOCH_MILLIS;
+            if (offset < 0 || offset >= 1L << (64 - TOKEN_BITS)) {
+                // A negative offset would set the sign bit and decode as a refill time far in the future
+                throw new IllegalArgumentException("Time " + refillMillis + " is outside the packed range starting at "
+                        + PACKED_EPOCH_MILLIS + " (2025-01-01T00:00:00Z)");
+            }
+            return (offset << TOKEN_BITS) | tokens;
+        }
+    },
+
+    /**
+     * Sliding window counter weighting the previous window by its remaining overlap.
+     * Smooths bursts at window boundaries at the cost of a slightly approximate count.
+     * See {@link SlidingWindowCounter} for the packed layout.
+     */
+    SLIDING_WINDOW {
+        @Override
+        public RateLimitCounter newCounter(int limit, Duration period) {
+            return new SlidingWindowCounter(limit, period);
+        }
+
+        @Override
+        public int getMaxPackedLimit() {
+            return SlidingWindowCounter.MAX_LIMIT;
+        }
+
+        @Override
+        public long initialState(long nowMillis, int limit, long periodMillis) {
+            return SlidingWindowCounter.pack(nowMillis / periodMillis, 0, 0);
+        }
+
+        @Override
+        public long tryConsume(long state, long nowMillis, int limit, long periodMillis) {
+            return SlidingWindowCounter.tryConsume(state, nowMillis, limit, periodMillis);
+        }
+
+        @Override
+        public int getRemaining(long state, long nowMillis, int limit, long periodMillis) {
+            long advanced = SlidingWindowCounter.advance(state, nowMillis / periodMillis);
+            return Math.max(0, limit - SlidingWindowCounter.estimate(advanced, nowMillis, periodMillis));
+        }
+
+        @Override
+        public long getResetTimeSeconds(long state, long nowMillis, int limit, long periodMillis) {
+            return (periodMillis - nowMillis % periodMillis + 999) / 1000;
+        }
+    };
+
+    /**
+     * Returned by {@link #tryConsume(long, long, int, long)} when the request is over the limit.
+     * No valid packed state equals this value.
+     */
+    public static final long REJECTED = SlidingWindowCounter.REJECTED;
+
+    /**
+     * Base for packed timestamps (2025-01-01T00:00:00Z), giving 40 bits of milliseconds about 34 years of range
+     */
+    static final long PACKED_EPOCH_MILLIS = 1_735_689_600_000L;
+
+    /**
+     * Create a counter for a single rate limiting key
+     */
+    public abstract RateLimitCounter newCounter(int limit, Duration period);
+
+    /**
+     * Largest limit representable in packed state
+     */
+    public abstract int getMaxPackedLimit();
+
+    /**
+     * Packed state of a key that has not made any requests yet
+     */
+    public abstract long initialState(long nowMillis, int limit, long periodMillis);
+
+    /**
+     * Packed state after admitting one request, or {@link #REJECTED} if the key is over the limit
+     */
+    public abstract long tryConsume(long state, long nowMillis, int limit, long periodMillis);
+
+    /**
+     * Requests that would currently be admitted for the packed state
+     */
+    public abstract int getRemaining(long state, long nowMillis, int limit, long periodMillis);
+
+    /**
+     * Seconds until capacity is next restored for the packed state
+     */
+    public abstract long getResetTimeSeconds(long state, long nowMillis, int limit, long periodMillis);
+}
@@ -1,21 +1,20 @@
 package ai.skutter.common.api.ratelimit;
 
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.time.Instant;
 
 /**
- * Token bucket implementation for rate limiting
+ * Token bucket implementation for rate limiting.
+ * The bucket is refilled to capacity once a full refill period has elapsed.
  */
 @Slf4j
-public class RateLimitBucket {
+public class RateLimitBucket implements RateLimitCounter {
 
     private final int capacity;
     private final Duration refillPeriod;
     
-    @Getter
     private int tokens;
     private Instant lastRefillTime;
 
@@ -36,7 +35,8 @@ public class RateLimitBucket {
      * 
      * @return true if a token was consumed, false if no tokens are available
      */
-    public boolean tryConsume() {
+    @Override
+    public synchronized boolean tryConsume() {
         refillIfNeeded();
         
         if (tokens > 0) {
@@ -52,16 +52,28 @@ public class RateLimitBucket {
     /**
      * Get the number of tokens remaining in the bucket
      */
-    public int getRemaining() {
+    @Override
+    public synchronized int getRemaining() {
         refillIfNeeded();
         log.trace("Current remaining tokens: {}", tokens);
         return tokens;
     }
 
+    /**
+     * Get the number of tokens remaining in the bucket
+     *
+     * @deprecated Use {@link #getRemaining()} instead, which also applies a due refill.
+     */
+    @Deprecated
+    public int getTokens() {
+        return getRemaining();
+    }
+
     /**
      * Get the time in seconds until the bucket will be refilled
      */
-    public long getResetTimeSeconds() {
+    @Override
+    public synchronized long getResetTimeSeconds() {
         Instant now = Instant.now();
         Instant nextRefillTime = lastRefillTime.plus(refillPeriod);
         
@@ -0,0 +1,24 @@
+package ai.skutter.common.api.ratelimit;
+
+/**
+ * Per-key request counter used by {@link RateLimitInterceptor}
+ */
+public interface RateLimitCounter {
+
+    /**
+     * Try to admit one request
+     *
+     * @return true if the request is within the limit, false if it should be rejected
+     */
+    boolean tryConsume();
+
+    /**
+     * Get the number of requests that would currently be admitted
+     */
+    int getRemaining();
+
+    /**
+     * Get the time in seconds until capacity is next restored
+     */
+    long getResetTimeSeconds();
+}
@@ -1,62 +1,122 @@
 package ai.skutter.common.api.ratelimit;
 
 import ai.skutter.common.api.exception.RateLimitExceededException;
+import ai.skutter.common.api.properties.SkutterApiProperties;
 import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import ai.skutter.common.security.logging.SecurityEventAggregator;
+import ai.skutter.common.security.logging.SecurityEventType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.UrlPathHelper;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interceptor for rate limiting incoming requests based on IP address or authenticated user.
+ * Each request is matched to a {@link RateLimitPolicy} by path, and counted against that
+ * policy's limit with the policy's algorithm.
  */
 @Slf4j
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final int limit;
-    private final Duration refreshPeriod;
-    private final Map<String, RateLimitBucket> buckets;
+    private final List<RateLimitPolicy> policies;
+    private final RateLimitPolicy defaultPolicy;
+    private final RateLimitStore store;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private SecurityEventAggregator securityEvents = SecurityEventAggregator.NOOP;
 
     public RateLimitInterceptor(int limit, Duration refreshPeriod) {
-        this.limit = limit;
-        this.refreshPeriod = refreshPeriod;
-        this.buckets = new ConcurrentHashMap<>();
-        log.info("Initializing RateLimitInterceptor: Limit={} requests per {} seconds", 
-                limit, refreshPeriod.getSeconds());
+        this(List.of(), new RateLimitPolicy(RateLimitPolicy.DEFAULT_POLICY, List.of("/**"), limit, refreshPeriod,
+                RateLimitAlgorithm.TOKEN_BUCKET), new MapRateLimitStore());
+    }
+
+    public RateLimitInterceptor(SkutterApiProperties.RateLimit properties) {
+        this(toPolicies(properties), new RateLimitPolicy(RateLimitPolicy.DEFAULT_POLICY, List.of("/**"),
+                properties.getLimit(), properties.getRefreshPeriod(), properties.getAlgorithm()), toStore(properties));
+    }
+
+    public RateLimitInterceptor(List<RateLimitPolicy> policies, RateLimitPolicy defaultPolicy, RateLimitStore store) {
+        this.policies = List.copyOf(policies);
+        this.defaultPolicy = defaultPolicy;
+        this.store = store;
+        this.policies.forEach(store::validate);
+        store.validate(defaultPolicy);
+        log.info("Initializing RateLimitInterceptor: Limit={} requests per {} seconds ({}), policies={}, store={}",
+                defaultPolicy.getLimit(), defaultPolicy.getRefreshPeriod().getSeconds(), defaultPolicy.getAlgorithm(),
+                this.policies.stream().map(RateLimitPolicy::getName).toList(), store.getClass().getSimpleName());
+    }
+
+    @Autowired(required = false)
+    public void setSecurityEventAggregator(SecurityEventAggregator securityEvents) {
+        this.securityEvents = securityEvents;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         log.trace("RateLimitInterceptor preHandle executing for request: {} {}", request.getMethod(), request.getRequestURI());
 
+        RateLimitPolicy policy = resolvePolicy(request);
         String key = resolveKey(request);
-        log.trace("Rate limiting key resolved to: {}", key);
-
-        RateLimitBucket bucket = buckets.computeIfAbsent(key, k -> {
-            log.debug("Creating new rate limit bucket for key: {}", k);
-            return new RateLimitBucket(limit, refreshPeriod);
-        });
+        log.trace("Rate limiting key resolved to: {} (policy {})", key, policy.getName());
 
-        boolean allowed = bucket.tryConsume();
+        boolean allowed = store.tryConsume(policy, key);
         if (allowed) {
-            log.trace("Request allowed for key: {}. Tokens remaining: {}", key, bucket.getAvailableTokens());
+            log.trace("Request allowed for key: {}", key);
             return true;
         } else {
-            log.warn("Rate limit exceeded for key: {}. Request denied: {} {}", key, request.getMethod(), request.getRequestURI());
-            response.addHeader("X-RateLimit-Remaining", String.valueOf(bucket.getAvailableTokens()));
-            response.addHeader("X-RateLimit-Retry-After-Seconds", String.valueOf(bucket.getSecondsUntilNextRefill()));
+            securityEvents.record(SecurityEventType.RATE_LIMITED, key, policy.getName());
+            response.addHeader("X-RateLimit-Remaining", String.valueOf(store.getRemaining(policy, key)));
+            response.addHeader("X-RateLimit-Retry-After-Seconds", String.valueOf(store.getResetTimeSeconds(policy, key)));
             
             throw new RateLimitExceededException("Rate limit exceeded. Please try again later."); 
         }
     }
 
+    /**
+     * Resolves the policy for the request. Configured policies are matched in order;
+     * requests matching none use the default policy.
+     */
+    RateLimitPolicy resolvePolicy(HttpServletRequest request) {
+        if (policies.isEmpty()) {
+            return defaultPolicy;
+        }
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(path, pathMatcher)) {
+                return policy;
+            }
+        }
+        return defaultPolicy;
+    }
+
+    private static RateLimitStore toStore(SkutterApiProperties.RateLimit properties) {
+        return switch (properties.getStore()) {
+            case STRIPED -> new StripedRateLimitStore(properties.getStoreCapacity(), properties.getStoreStripes());
+            case HEAP -> new MapRateLimitStore();
+        };
+    }
+
+    private static List<RateLimitPolicy> toPolicies(SkutterApiProperties.RateLimit properties) {
+        List<RateLimitPolicy> policies = new ArrayList<>();
+        properties.getPolicies().forEach((name, policy) -> policies.add(new RateLimitPolicy(
+                name,
+                policy.getPathPatterns(),
+                policy.getLimit() != null ? policy.getLimit() : properties.getLimit(),
+                policy.getRefreshPeriod() != null ? policy.getRefreshPeriod() : properties.getRefreshPeriod(),
+                policy.getAlgorithm() != null ? policy.getAlgorithm() : properties.getAlgorithm())));
+        return policies;
+    }
+
     /**
      * Resolves the key for rate limiting. Uses the stable user ID from SupabaseUserDetails
      * if available, otherwise falls back to IP address.
@@ -100,58 +160,4 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         log.trace("Using IP address for rate limiting: {}", ipAddress);
         return "ip-" + ipAddress;
     }
-
-    private static class RateLimitBucket {
-        private final int capacity;
-        private final Duration refillPeriod;
-        private final long refillTokens;
-        private long availableTokens;
-        private long lastRefillTimestamp;
-
-        public RateLimitBucket(int capacity, Duration refillPeriod) {
-            this.capacity = capacity;
-            this.refillPeriod = refillPeriod;
-            this.refillTokens = capacity;
-            this.availableTokens = capacity;
-            this.lastRefillTimestamp = System.currentTimeMillis();
-             log.trace("Bucket created: capacity={}, refillPeriod={}s", capacity, refillPeriod.getSeconds());
-        }
-
-        public synchronized boolean tryConsume() {
-            refill();
-            if (availableTokens > 0) {
-                availableTokens--;
-                 log.trace("Token consumed. Remaining: {}", availableTokens);
-                return true;
-            } else {
-                 log.trace("No tokens available to consume.");
-                return false;
-            }
-        }
-
-        private void refill() {
-            long now = System.currentTimeMillis();
-            long durationSinceLastRefill = now - lastRefillTimestamp;
-            long periodsPassed = durationSinceLastRefill / refillPeriod.toMillis();
-
-            if (periodsPassed > 0) {
-                long tokensToAdd = periodsPassed * refillTokens;
-                this.availableTokens = Math.min(capacity, availableTokens + tokensToAdd);
-                this.lastRefillTimestamp = now;
-                 log.trace("Refilled {} tokens. New balance: {}. Periods passed: {}", tokensToAdd, availableTokens, periodsPassed);
-            }
-        }
-        
-        public synchronized long getAvailableTokens() {
-            refill();
-            return availableTokens;
-        }
-
-        public synchronized long getSecondsUntilNextRefill() {
-            long now = System.currentTimeMillis();
-            long millisSinceLastRefill = now - lastRefillTimestamp;
-            long millisToNextRefill = refillPeriod.toMillis() - (millisSinceLastRefill % refillPeriod.toMillis());
-            return Math.max(0, millisToNextRefill / 1000);
-        }
-    }
-} 
\ No newline at end of file
+}
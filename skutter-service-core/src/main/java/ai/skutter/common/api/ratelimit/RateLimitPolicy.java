@@ -0,0 +1,66 @@
+package ai.skutter.common.api.ratelimit;
+
+import ai.skutter.common.util.FastHash;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.util.PathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A named rate limit applied to the requests matching its path patterns
+ */
+@Getter
+public class RateLimitPolicy {
+
+    /**
+     * Name of the policy applied to requests not matching any configured policy
+     */
+    public static final String DEFAULT_POLICY = "default";
+
+    private final String name;
+    private final List<String> pathPatterns;
+    private final int limit;
+    private final Duration refreshPeriod;
+    private final RateLimitAlgorithm algorithm;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final long periodMillis;
+
+    /**
+     * Hash of the policy name, mixed into key hashes by compact stores
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final long nameHash;
+
+    public RateLimitPolicy(String name, List<String> pathPatterns, int limit, Duration refreshPeriod,
+                           RateLimitAlgorithm algorithm) {
+        this.name = name;
+        this.pathPatterns = List.copyOf(pathPatterns);
+        this.limit = limit;
+        this.refreshPeriod = refreshPeriod;
+        this.algorithm = algorithm;
+        this.periodMillis = refreshPeriod.toMillis();
+        this.nameHash = FastHash.hash64(name);
+    }
+
+    /**
+     * Check whether the policy applies to the given application path
+     */
+    public boolean matches(String path, PathMatcher pathMatcher) {
+        for (String pattern : pathPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Create a counter enforcing this policy for a single key
+     */
+    public RateLimitCounter newCounter() {
+        return algorithm.newCounter(limit, refreshPeriod);
+    }
+}
@@ -0,0 +1,39 @@
+package ai.skutter.common.api.ratelimit;
+
+/**
+ * Holds the rate limiting state of every client key, per {@link RateLimitPolicy}
+ */
+public interface RateLimitStore {
+
+    /**
+     * Check that the store can enforce the given policy. Called once per policy when the
+     * interceptor is created, so an unsupported configuration fails at startup rather than
+     * on every request.
+     *
+     * @throws IllegalArgumentException if the policy cannot be enforced by this store
+     */
+    default void validate(RateLimitPolicy policy) {
+    }
+
+    /**
+     * Try to admit one request for the key under the given policy
+     *
+     * @return true if the request is within the limit, false if it should be rejected
+     */
+    boolean tryConsume(RateLimitPolicy policy, String key);
+
+    /**
+     * Get the number of requests that would currently be admitted for the key
+     */
+    int getRemaining(RateLimitPolicy policy, String key);
+
+    /**
+     * Get the time in seconds until capacity is next restored for the key
+     */
+    long getResetTimeSeconds(RateLimitPolicy policy, String key);
+
+    /**
+     * Get the number of keys currently tracked
+     */
+    int size();
+}
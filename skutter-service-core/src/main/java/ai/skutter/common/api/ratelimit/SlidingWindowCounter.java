@@ -0,0 +1,152 @@
+package ai.skutter.common.api.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window counter for rate limiting.
+ * <p>
+ * Requests are counted in fixed windows, and the previous window's count is weighted by the
+ * fraction of it that still overlaps the sliding window:
+ * {@code estimate = previous * (1 - elapsed / window) + current}. Unlike the token bucket this
+ * does not admit a full second burst right after a window boundary.
+ * <p>
+ * The window index and both counts are packed into a single {@code long} and updated with CAS,
+ * so a counter is one object with one primitive field and no locking:
+ * <pre>
+ *  63        40 39              20 19               0
+ * [window index][previous count  ][current count    ]
+ * </pre>
+ * The window index is stored modulo 2<sup>24</sup>, which is only ever compared with the
+ * current and preceding window.
+ */
+public class SlidingWindowCounter implements RateLimitCounter {
+
+    static final int COUNT_BITS = 20;
+    static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    static final int WINDOW_BITS = 24;
+    static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+    private static final int PREVIOUS_SHIFT = COUNT_BITS;
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+
+    /**
+     * Largest supported limit. One below the count mask so a packed state is never all ones.
+     */
+    public static final int MAX_LIMIT = (int) COUNT_MASK - 1;
+
+    /**
+     * Returned by {@link #tryConsume(long, long, int, long)} when the request is over the limit
+     */
+    static final long REJECTED = -1L;
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(SlidingWindowCounter.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    @SuppressWarnings("unused") // accessed through STATE
+    private volatile long state;
+
+    public SlidingWindowCounter(int limit, Duration window) {
+        this(limit, window, System::currentTimeMillis);
+    }
+
+    SlidingWindowCounter(int limit, Duration window, LongSupplier clock) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("window must be at least 1ms");
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.state = pack(clock.getAsLong() / windowMillis, 0, 0);
+    }
+
+    @Override
+    public boolean tryConsume() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = (long) STATE.getVolatile(this);
+            long next = tryConsume(current, now, limit, windowMillis);
+            if (next == REJECTED) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int getRemaining() {
+        long now = clock.getAsLong();
+        return Math.max(0, limit - estimate(advance((long) STATE.getVolatile(this), now / windowMillis), now, windowMillis));
+    }
+
+    /**
+     * Time until the current window ends and the weight of its count starts to decay
+     */
+    @Override
+    public long getResetTimeSeconds() {
+        long now = clock.getAsLong();
+        return (windowMillis - now % windowMillis + 999) / 1000;
+    }
+
+    // --- Packed state operations, shared with stores that keep state in primitive arrays ---
+
+    /**
+     * Compute the state after admitting one request, or {@link #REJECTED} if the estimated
+     * count has reached the limit. Counts never exceed {@link #MAX_LIMIT}, so a valid state is
+     * never equal to {@code REJECTED}.
+     */
+    static long tryConsume(long state, long nowMillis, int limit, long windowMillis) {
+        long advanced = advance(state, nowMillis / windowMillis);
+        if (estimate(advanced, nowMillis, windowMillis) >= limit) {
+            return REJECTED;
+        }
+        return advanced + 1;
+    }
+
+    /**
+     * Roll the state forward to the given window, carrying the current count into the
+     * previous slot when exactly one window has passed and dropping both otherwise
+     */
+    static long advance(long state, long windowIndex) {
+        long stored = state >>> WINDOW_SHIFT;
+        long target = windowIndex & WINDOW_MASK;
+        if (stored == target) {
+            return state;
+        }
+        if (stored == ((windowIndex - 1) & WINDOW_MASK)) {
+            return pack(windowIndex, state & COUNT_MASK, 0);
+        }
+        return pack(windowIndex, 0, 0);
+    }
+
+    /**
+     * Weighted request count over the sliding window ending at {@code nowMillis}
+     */
+    static int estimate(long state, long nowMillis, long windowMillis) {
+        long previous = (state >>> PREVIOUS_SHIFT) & COUNT_MASK;
+        long current = state & COUNT_MASK;
+        long remainingMillis = windowMillis - nowMillis % windowMillis;
+        return (int) (previous * remainingMillis / windowMillis + current);
+    }
+
+    static long pack(long windowIndex, long previous, long current) {
+        return ((windowIndex & WINDOW_MASK) << WINDOW_SHIFT) | (previous << PREVIOUS_SHIFT) | current;
+    }
+}
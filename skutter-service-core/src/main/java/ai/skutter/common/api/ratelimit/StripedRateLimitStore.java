@@ -0,0 +1,213 @@
+package ai.skutter.common.api.ratelimit;
+
+import ai.skutter.common.util.FastHash;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Compact rate limit store for very large numbers of client keys.
+ * <p>
+ * Keys are hashed to 64 bits and kept in fixed-size open-addressed tables of primitive
+ * {@code long}s: one slot holds a fingerprint and the algorithm's packed state, 16 bytes per
+ * slot with no per-key objects. The tables are split into independently locked stripes
+ * selected by the high bits of the hash.
+ * <p>
+ * A fingerprint is the upper 48 bits of the key's hash plus a 16-bit coarse last-access time
+ * in seconds. Two keys are only confused if they share a probe window and all 48 bits. The
+ * tables never grow: when every slot in a key's probe window is taken, the least recently
+ * used entry is replaced, which resets that key's budget. Size the store so evictions stay
+ * rare; see {@link #getEvictionCount()}.
+ */
+@Slf4j
+public class StripedRateLimitStore implements RateLimitStore {
+
+    /**
+     * Slots inspected for a key before evicting
+     */
+    private static final int PROBE_LIMIT = 8;
+
+    private static final long STAMP_MASK = 0xFFFFL;
+    private static final long TAG_MASK = ~STAMP_MASK;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final LongSupplier clock;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity total number of slots across all stripes (rounded up to a power of two)
+     * @param stripes  number of independently locked stripes (rounded up to a power of two)
+     */
+    public StripedRateLimitStore(int capacity, int stripes) {
+        this(capacity, stripes, System::currentTimeMillis);
+    }
+
+    StripedRateLimitStore(int capacity, int stripes, LongSupplier clock) {
+        if (capacity < 1 || stripes < 1 || stripes > capacity) {
+            throw new IllegalArgumentException("capacity and stripes must be positive and stripes <= capacity");
+        }
+        int stripeCount = ceilingPowerOfTwo(stripes);
+        int stripeCapacity = Math.max(PROBE_LIMIT, ceilingPowerOfTwo(capacity) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripeCount);
+        this.clock = clock;
+        log.info("Initializing StripedRateLimitStore: {} stripes x {} slots ({} KB)",
+                stripeCount, stripeCapacity, (long) stripeCount * stripeCapacity * 16 / 1024);
+    }
+
+    /**
+     * Rejects limits that do not fit the algorithm's packed state. {@link #tryConsume} relies
+     * on this having been called for every policy it is given.
+     */
+    @Override
+    public void validate(RateLimitPolicy policy) {
+        if (policy.getLimit() > policy.getAlgorithm().getMaxPackedLimit()) {
+            throw new IllegalArgumentException("Rate limit " + policy.getLimit() + " of policy '" + policy.getName()
+                    + "' exceeds the maximum of " + policy.getAlgorithm().getMaxPackedLimit() + " supported by the striped store");
+        }
+    }
+
+    @Override
+    public boolean tryConsume(RateLimitPolicy policy, String key) {
+        long hash = hash(policy, key);
+        Stripe stripe = stripeFor(hash);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            int slot = stripe.findOrClaim(hash, policy, now);
+            long next = policy.getAlgorithm().tryConsume(stripe.states[slot], now, policy.getLimit(), policy.getPeriodMillis());
+            if (next == RateLimitAlgorithm.REJECTED) {
+                return false;
+            }
+            stripe.states[slot] = next;
+            return true;
+        }
+    }
+
+    @Override
+    public int getRemaining(RateLimitPolicy policy, String key) {
+        long hash = hash(policy, key);
+        Stripe stripe = stripeFor(hash);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            int slot = stripe.find(hash);
+            return slot < 0 ? policy.getLimit()
+                    : policy.getAlgorithm().getRemaining(stripe.states[slot], now, policy.getLimit(), policy.getPeriodMillis());
+        }
+    }
+
+    @Override
+    public long getResetTimeSeconds(RateLimitPolicy policy, String key) {
+        long hash = hash(policy, key);
+        Stripe stripe = stripeFor(hash);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            int slot = stripe.find(hash);
+            return slot < 0 ? 0
+                    : policy.getAlgorithm().getResetTimeSeconds(stripe.states[slot], now, policy.getLimit(), policy.getPeriodMillis());
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Number of live entries replaced because their probe window was full
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    private static long hash(RateLimitPolicy policy, String key) {
+        long hash = FastHash.combine(policy.getNameHash(), FastHash.hash64(key));
+        // An all-zero fingerprint marks an empty slot
+        return (hash & TAG_MASK) != 0 ? hash : hash | (1L << 16);
+    }
+
+    private static long stamp(long nowMillis) {
+        return (nowMillis / 1000) & STAMP_MASK;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private final class Stripe {
+        private final long[] fingerprints;
+        private final long[] states;
+        private final int mask;
+        private int size;
+
+        private Stripe(int capacity) {
+            this.fingerprints = new long[capacity];
+            this.states = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int find(long hash) {
+            long tag = hash & TAG_MASK;
+            int start = (int) hash & mask;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int slot = (start + i) & mask;
+                long fingerprint = fingerprints[slot];
+                if ((fingerprint & TAG_MASK) == tag) {
+                    return slot;
+                }
+                if (fingerprint == 0) {
+                    // Slots are never emptied, so the key cannot be further along the probe sequence
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private int findOrClaim(long hash, RateLimitPolicy policy, long now) {
+            long tag = hash & TAG_MASK;
+            long stamp = stamp(now);
+            int start = (int) hash & mask;
+            int victim = start;
+            long victimAge = -1;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int slot = (start + i) & mask;
+                long fingerprint = fingerprints[slot];
+                if ((fingerprint & TAG_MASK) == tag) {
+                    fingerprints[slot] = tag | stamp;
+                    return slot;
+                }
+                if (fingerprint == 0) {
+                    size++;
+                    return claim(slot, tag | stamp, policy, now);
+                }
+                long age = (stamp - (fingerprint & STAMP_MASK)) & STAMP_MASK;
+                if (age > victimAge) {
+                    victim = slot;
+                    victimAge = age;
+                }
+            }
+            evictions.increment();
+            return claim(victim, tag | stamp, policy, now);
+        }
+
+        private int claim(int slot, long fingerprint, RateLimitPolicy policy, long now) {
+            fingerprints[slot] = fingerprint;
+            states[slot] = policy.getAlgorithm().initialState(now, policy.getLimit(), policy.getPeriodMillis());
+            return slot;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ai.skutter.common.client;
 
+import ai.skutter.common.observability.filter.CorrelationIdFilter;
+import ai.skutter.common.security.internal.InternalAuthCodec;
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
@@ -18,17 +21,39 @@ import java.io.IOException;
 /**
  * RestTemplate interceptor to propagate the Authorization header (JWT) from the
  * incoming request to the outgoing request, if available.
+ * <p>
+ * When an {@link InternalAuthCodec} is configured and the caller was authenticated as a
+ * Skutter user, a compact signed internal auth context is sent instead and the user's JWT
+ * is not forwarded.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class SecurityContextClientInterceptor implements ClientHttpRequestInterceptor {
 
     private static final String AUTHORIZATION_HEADER = HttpHeaders.AUTHORIZATION;
 
+    private final InternalAuthCodec internalAuthCodec;
+    private final String internalAuthHeader;
+
+    public SecurityContextClientInterceptor() {
+        this(null, null);
+    }
+
+    /**
+     * @param internalAuthCodec  codec used to mint the internal auth context, or null to always forward the JWT
+     * @param internalAuthHeader header the context is sent in
+     */
+    public SecurityContextClientInterceptor(InternalAuthCodec internalAuthCodec, String internalAuthHeader) {
+        this.internalAuthCodec = internalAuthCodec;
+        this.internalAuthHeader = internalAuthHeader;
+    }
+
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
             throws IOException {
-        
+        if (internalAuthCodec != null && propagateInternalContext(request)) {
+            return execution.execute(request, body);
+        }
+
         // Try to get the Authorization header from the current request context
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attributes != null) {
@@ -48,4 +73,18 @@ public class SecurityContextClientInterceptor implements ClientHttpRequestInterc
         
         return execution.execute(request, body);
     }
-} 
\ No newline at end of file
+
+    private boolean propagateInternalContext(HttpRequest request) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof SupabaseUserDetails user)
+                || user.getRoleMask() == 0) {
+            return false;
+        }
+        if (!request.getHeaders().containsKey(internalAuthHeader)) {
+            log.debug("Propagating internal auth context to downstream request");
+            request.getHeaders().add(internalAuthHeader, internalAuthCodec.encode(
+                    user.getUserId(), user.getRoleMask(), MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY)));
+        }
+        return true;
+    }
+}
@@ -21,7 +21,12 @@ package ai.skutter.common.config;
 
 import ai.skutter.common.api.exception.GlobalExceptionHandler;
 import ai.skutter.common.api.properties.SkutterApiProperties;
+import ai.skutter.common.api.ratelimit.ConcurrencyLimitInterceptor;
+import ai.skutter.common.api.ratelimit.LoadSheddingInterceptor;
 import ai.skutter.common.api.ratelimit.RateLimitInterceptor;
+import ai.skutter.common.util.MemoryPressureMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
@@ -31,6 +36,7 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -51,6 +57,10 @@ public class SkutterApiAutoConfiguration implements WebMvcConfigurer {
     private static final Logger log = LoggerFactory.getLogger(SkutterApiAutoConfiguration.class);
 
     private RateLimitInterceptor rateLimitInterceptor;
+
+    private ObjectProvider<ConcurrencyLimitInterceptor> concurrencyLimitInterceptor;
+
+    private ObjectProvider<LoadSheddingInterceptor> loadSheddingInterceptor;
     
     private final SkutterApiProperties apiProperties;
 
@@ -63,8 +73,28 @@ public class SkutterApiAutoConfiguration implements WebMvcConfigurer {
         this.rateLimitInterceptor = rateLimitInterceptor;
     }
 
+    @Autowired
+    public void setConcurrencyLimitInterceptor(ObjectProvider<ConcurrencyLimitInterceptor> concurrencyLimitInterceptor) {
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+    }
+
+    @Autowired
+    public void setLoadSheddingInterceptor(ObjectProvider<LoadSheddingInterceptor> loadSheddingInterceptor) {
+        this.loadSheddingInterceptor = loadSheddingInterceptor;
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Runs first so shed requests do no further work while the heap is under pressure
+        LoadSheddingInterceptor sheddingInterceptor =
+                loadSheddingInterceptor != null ? loadSheddingInterceptor.getIfAvailable() : null;
+        if (sheddingInterceptor != null) {
+            log.info("Registering LoadSheddingInterceptor for path /** with order -1");
+            registry.addInterceptor(sheddingInterceptor)
+                    .addPathPatterns("/**")
+                    .order(-1);
+        }
+
         log.info("Evaluating conditions for RateLimitInterceptor registration...");
         boolean isBeanPresent = (rateLimitInterceptor != null);
         boolean isEnabledProperty = apiProperties.getRateLimit().isEnabled();
@@ -79,6 +109,16 @@ public class SkutterApiAutoConfiguration implements WebMvcConfigurer {
         } else {
              log.warn("RateLimitInterceptor NOT registered. Bean present: {}, Enabled property: {}", isBeanPresent, isEnabledProperty);
         }
+
+        // Runs after the rate limiter so rejected clients never occupy a concurrency slot
+        ConcurrencyLimitInterceptor concurrencyInterceptor =
+                concurrencyLimitInterceptor != null ? concurrencyLimitInterceptor.getIfAvailable() : null;
+        if (concurrencyInterceptor != null) {
+            log.info("Registering ConcurrencyLimitInterceptor for path /** with order 1");
+            registry.addInterceptor(concurrencyInterceptor)
+                    .addPathPatterns("/**")
+                    .order(1);
+        }
     }
 
     @Bean
@@ -90,9 +130,40 @@ public class SkutterApiAutoConfiguration implements WebMvcConfigurer {
     @Bean
     @ConditionalOnMissingBean
     public RateLimitInterceptor rateLimitInterceptor(SkutterApiProperties apiProperties) {
-        return new RateLimitInterceptor(
-            apiProperties.getRateLimit().getLimit(), 
-            apiProperties.getRateLimit().getRefreshPeriod()
+        return new RateLimitInterceptor(apiProperties.getRateLimit());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.api.concurrency-limit", name = "enabled", havingValue = "true")
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(SkutterApiProperties apiProperties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConcurrencyLimitInterceptor(
+            apiProperties.getConcurrencyLimit(),
+            meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+        );
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.api.load-shedding", name = "enabled", havingValue = "true")
+    public MemoryPressureMonitor memoryPressureMonitor(SkutterApiProperties apiProperties) {
+        return new MemoryPressureMonitor(
+            apiProperties.getLoadShedding().getElevatedThreshold(),
+            apiProperties.getLoadShedding().getCriticalThreshold()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.api.load-shedding", name = "enabled", havingValue = "true")
+    public LoadSheddingInterceptor loadSheddingInterceptor(SkutterApiProperties apiProperties,
+                                                           MemoryPressureMonitor memoryPressureMonitor,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LoadSheddingInterceptor(
+            apiProperties.getLoadShedding(),
+            memoryPressureMonitor,
+            meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
         );
     }
 
@@ -23,6 +23,9 @@ package ai.skutter.common.config;
 import ai.skutter.common.client.CorrelationIdClientInterceptor;
 import ai.skutter.common.client.SecurityContextClientInterceptor;
 import ai.skutter.common.observability.properties.SkutterObservabilityProperties;
+import ai.skutter.common.security.internal.InternalAuthCodec;
+import ai.skutter.common.security.properties.SkutterSecurityProperties;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -52,8 +55,14 @@ public class SkutterClientAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "skutter.security", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public SecurityContextClientInterceptor securityContextClientInterceptor() {
-        return new SecurityContextClientInterceptor();
+    public SecurityContextClientInterceptor securityContextClientInterceptor(
+            ObjectProvider<InternalAuthCodec> internalAuthCodec,
+            ObjectProvider<SkutterSecurityProperties> securityProperties) {
+        InternalAuthCodec codec = internalAuthCodec.getIfAvailable();
+        if (codec == null) {
+            return new SecurityContextClientInterceptor();
+        }
+        return new SecurityContextClientInterceptor(codec, securityProperties.getObject().getInternal().getHeaderName());
     }
 
     /**
@@ -20,23 +20,54 @@
 
 package ai.skutter.common.config;
 
+import ai.skutter.common.api.export.StreamingExporter;
 import ai.skutter.common.data.auditing.AuditingConfig;
-import ai.skutter.common.data.jdbc.PostgresSetUserIdInterceptor;
+import ai.skutter.common.data.jdbc.ObservedDataSource;
+import ai.skutter.common.data.jdbc.ReadReplicaDataSources;
+import ai.skutter.common.data.jdbc.RequestQueryTracker;
+import ai.skutter.common.data.jdbc.RowCountEstimator;
+import ai.skutter.common.data.jdbc.SqlExecutionListener;
+import ai.skutter.common.data.jdbc.SqlFingerprinter;
+import ai.skutter.common.data.jdbc.SqlMetricsRecorder;
+import ai.skutter.common.data.jdbc.UserIdPropagatingDataSource;
 import ai.skutter.common.data.properties.SkutterDataProperties;
+import ai.skutter.common.observability.filter.QueryStatsFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.List;
 
-@AutoConfiguration
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
 @EnableConfigurationProperties(SkutterDataProperties.class)
 @ComponentScan("ai.skutter.common.data")
 @Import(AuditingConfig.class)
@@ -48,12 +79,160 @@ public class SkutterDataAutoConfiguration {
         this.dataProperties = dataProperties;
     }
 
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "skutter.data.read-replica", name = "enabled", havingValue = "true")
+    public ReadReplicaDataSources readReplicaDataSources(DataSourceProperties dataSourceProperties,
+                                                         Environment environment,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        SkutterDataProperties.ReadReplica readReplica = dataProperties.getReadReplica();
+        if (!StringUtils.hasText(readReplica.getUrl())) {
+            throw new IllegalStateException("skutter.data.read-replica.url must be set when read replica routing is enabled");
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(readReplica.getUrl())
+                .username(readReplica.getUsername() != null ? readReplica.getUsername() : dataSourceProperties.determineUsername())
+                .password(readReplica.getPassword() != null ? readReplica.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(readReplica.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        return new ReadReplicaDataSources(primary, replica, readReplica.getMaxLag(), readReplica.getLagCheckInterval(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * The application's DataSource when read replica routing is enabled, replacing Spring Boot's single pool
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "skutter.data.read-replica", name = "enabled", havingValue = "true")
+    public DataSource dataSource(ReadReplicaDataSources readReplicaDataSources) {
+        return readReplicaDataSources.createRoutedDataSource();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RowCountEstimator rowCountEstimator(DataSource dataSource) {
+        SkutterDataProperties.CountEstimates countEstimates = dataProperties.getCountEstimates();
+        return new RowCountEstimator(new JdbcTemplate(dataSource), countEstimates.getCacheTtl(), countEstimates.getMaximumShapes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public StreamingExporter streamingExporter(DataSource dataSource,
+                                               ObjectProvider<PlatformTransactionManager> transactionManager,
+                                               ObjectProvider<ObjectMapper> objectMapper,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        SkutterDataProperties.Export export = dataProperties.getExport();
+        return new StreamingExporter(dataSource,
+                transactionManager.getIfAvailable(() -> new DataSourceTransactionManager(dataSource)),
+                objectMapper.getIfAvailable(() -> new ObjectMapper().findAndRegisterModules()),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                export.getFetchSize(), export.getFlushRows());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.data.sql-metrics", name = "enabled", havingValue = "true")
+    public SqlMetricsRecorder sqlMetricsRecorder(ObjectProvider<MeterRegistry> meterRegistry) {
+        SkutterDataProperties.SqlMetrics sqlMetrics = dataProperties.getSqlMetrics();
+        return new SqlMetricsRecorder(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                sqlMetrics.getMaxFingerprints(), sqlMetrics.getMaxTagLength());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.data.query-stats", name = "enabled", havingValue = "true")
+    public RequestQueryTracker requestQueryTracker() {
+        return new RequestQueryTracker();
+    }
+
     @Bean
-    @ConditionalOnProperty(prefix = "skutter.data", name = "enable-user-id-propagation", havingValue = "true")
-    public PostgresSetUserIdInterceptor postgresSetUserIdInterceptor(JdbcTemplate jdbcTemplate) {
-        return new PostgresSetUserIdInterceptor(jdbcTemplate);
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "skutter.data.query-stats", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilterRegistration(RequestQueryTracker requestQueryTracker,
+                                                                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                                                                 Environment environment) {
+        SkutterDataProperties.QueryStats queryStats = dataProperties.getQueryStats();
+        boolean exposeHeaders = queryStats.getExposeHeaders() != null
+                ? queryStats.getExposeHeaders()
+                : !environment.acceptsProfiles(Profiles.of("prod", "production"));
+        FilterRegistrationBean<QueryStatsFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new QueryStatsFilter(requestQueryTracker,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), queryStats.getRepeatThreshold(), exposeHeaders));
+        // Directly after CorrelationIdFilter, so N+1 warnings are logged with the correlation ID
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registrationBean;
     }
-    
+
+    /**
+     * DataSource wrappers, applied to every DataSource bean in a fixed nesting order
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class DataSourceWrapperConfiguration {
+
+        /**
+         * Wrap DataSources so the authenticated user's ID is applied to each connection for RLS.
+         * Runs before {@link #observedDataSourcePostProcessor}, so this wrapper sits inside the
+         * observed one and its {@code set_config} statements are not counted as application queries.
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "skutter.data", name = "enable-user-id-propagation", havingValue = "true", matchIfMissing = true)
+        public static BeanPostProcessor userIdPropagatingDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new DataSourcePostProcessor(Ordered.LOWEST_PRECEDENCE - 20) {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof UserIdPropagatingDataSource)) {
+                        return new UserIdPropagatingDataSource(dataSource,
+                                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        /**
+         * Wrap DataSources to report statement timings when any {@link SqlExecutionListener} is configured.
+         * Runs after the other DataSource wrappers, so the observed wrapper is the outermost one.
+         */
+        @Bean
+        public static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<SqlExecutionListener> listeners) {
+            return new DataSourcePostProcessor(Ordered.LOWEST_PRECEDENCE - 10) {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ObservedDataSource)) {
+                        List<SqlExecutionListener> configured = listeners.orderedStream().toList();
+                        if (!configured.isEmpty()) {
+                            return new ObservedDataSource(dataSource, new SqlFingerprinter(), configured);
+                        }
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        /**
+         * DataSource-wrapping post-processor with an explicit order, so wrappers nest deterministically
+         */
+        private abstract static class DataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+            private final int order;
+
+            DataSourcePostProcessor(int order) {
+                this.order = order;
+            }
+
+            @Override
+            public int getOrder() {
+                return order;
+            }
+        }
+    }
+
     /**
      * Configure Flyway with custom settings if needed
      */
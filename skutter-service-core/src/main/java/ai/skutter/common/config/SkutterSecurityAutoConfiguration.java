@@ -21,13 +21,30 @@
 package ai.skutter.common.config;
 
 import ai.skutter.common.security.access.SkutterMethodSecurityExpressionHandler;
+import ai.skutter.common.security.internal.InternalAuthCodec;
+import ai.skutter.common.security.internal.InternalAuthFilter;
+import ai.skutter.common.security.jwt.InvalidTokenBlocklist;
 import ai.skutter.common.security.jwt.JwtAuthenticationFilter;
 import ai.skutter.common.security.jwt.JwtTokenProvider;
 import ai.skutter.common.security.jwt.SupabaseJwtProcessor;
+import ai.skutter.common.security.logging.SecurityEventAggregator;
 import ai.skutter.common.security.logging.SecurityLoggingFilter;
+import ai.skutter.common.security.project.IndexedProjectMembershipService;
+import ai.skutter.common.security.project.FilterByProjectRole;
+import ai.skutter.common.security.project.JdbcProjectMembershipService;
+import ai.skutter.common.security.project.ProjectAuthorizer;
+import ai.skutter.common.security.project.ProjectFilterMethodInterceptor;
+import ai.skutter.common.security.project.ProjectMembershipIndexLoader;
+import ai.skutter.common.security.project.ProjectMembershipService;
 import ai.skutter.common.security.properties.SkutterSecurityProperties;
 import ai.skutter.common.security.entrypoint.CustomBearerAuthenticationEntryPoint;
 import ai.skutter.common.security.handler.CustomBearerAccessDeniedHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -35,7 +52,10 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -49,6 +69,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.access.AccessDeniedHandler;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 @AutoConfiguration
@@ -64,8 +86,33 @@ public class SkutterSecurityAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public SupabaseJwtProcessor supabaseJwtProcessor(JwtTokenProvider jwtTokenProvider) {
-        return new SupabaseJwtProcessor(jwtTokenProvider);
+    public SupabaseJwtProcessor supabaseJwtProcessor(JwtTokenProvider jwtTokenProvider,
+                                                     SkutterSecurityProperties securityProperties) {
+        return new SupabaseJwtProcessor(jwtTokenProvider, securityProperties);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.security.events", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SecurityEventAggregator securityEventAggregator(SkutterSecurityProperties securityProperties,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        SkutterSecurityProperties.Events events = securityProperties.getEvents();
+        SecurityEventAggregator aggregator = new SecurityEventAggregator(events.getSummaryInterval(),
+                events.getExemplarsPerInterval(), events.getMaxKeysPerType(), events.getTopKeys());
+        aggregator.bindTo(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        return aggregator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.security.jwt.blocklist", name = "enabled", havingValue = "true")
+    public InvalidTokenBlocklist invalidTokenBlocklist(SkutterSecurityProperties securityProperties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        SkutterSecurityProperties.Jwt.Blocklist blocklist = securityProperties.getJwt().getBlocklist();
+        InvalidTokenBlocklist invalidTokenBlocklist = new InvalidTokenBlocklist(blocklist.getMaxFailures(),
+                blocklist.getWindow(), blocklist.getBlockDuration(), blocklist.getMaximumSources());
+        invalidTokenBlocklist.bindTo(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        return invalidTokenBlocklist;
     }
 
     @Bean
@@ -77,6 +124,25 @@ public class SkutterSecurityAutoConfiguration {
         return new JwtAuthenticationFilter(jwtTokenProvider, supabaseJwtProcessor, securityProperties);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.security.internal", name = "enabled", havingValue = "true")
+    public InternalAuthCodec internalAuthCodec(SkutterSecurityProperties securityProperties) {
+        SkutterSecurityProperties.Internal internal = securityProperties.getInternal();
+        if (internal.getSecret() == null || internal.getSecret().isBlank()) {
+            throw new IllegalStateException("skutter.security.internal.secret must be set when internal auth is enabled");
+        }
+        return new InternalAuthCodec(internal.getSecret().getBytes(StandardCharsets.UTF_8), internal.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "skutter.security.internal", name = "enabled", havingValue = "true")
+    public InternalAuthFilter internalAuthFilter(InternalAuthCodec internalAuthCodec,
+                                                 SkutterSecurityProperties securityProperties) {
+        return new InternalAuthFilter(internalAuthCodec, securityProperties.getInternal().getHeaderName());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public SecurityLoggingFilter securityLoggingFilter() {
@@ -88,8 +154,56 @@ public class SkutterSecurityAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
-        return new SkutterMethodSecurityExpressionHandler();
+    public MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            ObjectProvider<ProjectMembershipService> projectMembershipService) {
+        SkutterMethodSecurityExpressionHandler handler = new SkutterMethodSecurityExpressionHandler();
+        handler.setProjectMembershipService(projectMembershipService.getIfAvailable());
+        return handler;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ProjectMembershipService.class)
+    @ConditionalOnProperty(prefix = "skutter.security.project-membership", name = "enabled", havingValue = "true")
+    public ProjectMembershipService projectMembershipService(DataSource dataSource,
+                                                             SkutterSecurityProperties securityProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        SkutterSecurityProperties.ProjectMembership membership = securityProperties.getProjectMembership();
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        if (membership.getStore() == SkutterSecurityProperties.ProjectMembership.Store.INDEX) {
+            IndexedProjectMembershipService service = new IndexedProjectMembershipService(
+                    new ProjectMembershipIndexLoader(dataSource, membership.getIndexFetchSize()),
+                    membership.getIndexRefreshInterval());
+            service.bindTo(registry);
+            // Loads in the background, so a large index does not hold up startup
+            service.start();
+            return service;
+        }
+        JdbcProjectMembershipService service = new JdbcProjectMembershipService(new JdbcTemplate(dataSource),
+                membership.getCacheTtl(), membership.getMaximumUsers());
+        service.bindTo(registry);
+        return service;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProjectAuthorizer projectAuthorizer(ObjectProvider<ProjectMembershipService> projectMembershipService,
+                                               ObjectProvider<DataSource> dataSource) {
+        DataSource source = dataSource.getIfAvailable();
+        return new ProjectAuthorizer(projectMembershipService.getIfAvailable(),
+                source != null ? new JdbcTemplate(source) : null);
+    }
+
+    /**
+     * Bulk result filtering for {@link FilterByProjectRole} methods, ordered with the built-in post-filter
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor projectFilterAdvisor(ObjectProvider<ProjectAuthorizer> projectAuthorizer) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                ProjectFilterMethodInterceptor.pointcut(),
+                new ProjectFilterMethodInterceptor(projectAuthorizer::getObject));
+        advisor.setOrder(AuthorizationInterceptorsOrder.POST_FILTER.getOrder());
+        return advisor;
     }
 
     @Configuration
@@ -103,13 +217,16 @@ public class SkutterSecurityAutoConfiguration {
         private final SkutterSecurityProperties securityProperties;
         private final AuthenticationEntryPoint customAuthenticationEntryPoint;
         private final AccessDeniedHandler customAccessDeniedHandler;
+        private final ObjectProvider<InternalAuthFilter> internalAuthFilter;
 
         public SecurityConfiguration(JwtAuthenticationFilter jwtAuthenticationFilter,
                                     SecurityLoggingFilter securityLoggingFilter,
                                     SkutterSecurityProperties securityProperties,
                                     CustomBearerAuthenticationEntryPoint customAuthenticationEntryPoint,
-                                    CustomBearerAccessDeniedHandler customAccessDeniedHandler) {
+                                    CustomBearerAccessDeniedHandler customAccessDeniedHandler,
+                                    ObjectProvider<InternalAuthFilter> internalAuthFilter) {
             this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+            this.internalAuthFilter = internalAuthFilter;
             this.securityLoggingFilter = securityLoggingFilter;
             this.securityProperties = securityProperties;
             this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
@@ -192,6 +309,9 @@ public class SkutterSecurityAutoConfiguration {
 
             // Add JWT filter before UsernamePasswordAuthenticationFilter
             http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+
+            // Internal service calls authenticate by their signed context and skip JWT verification
+            internalAuthFilter.ifAvailable(filter -> http.addFilterBefore(filter, JwtAuthenticationFilter.class));
             
             // Add logging filter
             http.addFilterAfter(securityLoggingFilter, JwtAuthenticationFilter.class);
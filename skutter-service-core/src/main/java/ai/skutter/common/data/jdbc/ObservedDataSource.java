@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * DataSource wrapper that times every statement and result set and reports them, keyed by
+ * SQL fingerprint, to {@link SqlExecutionListener}s.
+ * <p>
+ * Connections and statements are wrapped in JDK proxies. Per statement the overhead is two
+ * {@link System#nanoTime()} calls, a memoized fingerprint lookup and the listener calls. Result
+ * sets, which are called once per column per row, are wrapped in a plain delegating
+ * {@link ObservedResultSet} instead: only advancing it is timed, and column getters cost one
+ * direct delegate call.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final SqlFingerprinter fingerprinter;
+    private final SqlExecutionListener[] listeners;
+
+    public ObservedDataSource(DataSource targetDataSource, SqlFingerprinter fingerprinter,
+                              List<? extends SqlExecutionListener> listeners) {
+        super(targetDataSource);
+        this.fingerprinter = fingerprinter;
+        this.listeners = listeners.toArray(new SqlExecutionListener[0]);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Handles identity methods on a proxy so proxies behave as distinct objects
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class
+                && (method.getName().equals("equals") || method.getName().equals("hashCode"));
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = invokeTarget(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, fingerprinter.fingerprint((String) args[0])));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, fingerprinter.fingerprint((String) args[0])));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedFingerprint;
+        private String lastFingerprint;
+        private ObservedResultSet openResultSet;
+
+        private StatementHandler(Statement target, String preparedFingerprint) {
+            this.target = target;
+            this.preparedFingerprint = preparedFingerprint;
+            this.lastFingerprint = preparedFingerprint;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "addBatch" -> {
+                    if (preparedFingerprint == null && args != null && args.length == 1) {
+                        lastFingerprint = fingerprinter.fingerprint((String) args[0]);
+                    }
+                }
+                case "getResultSet" -> {
+                    Object result = invokeTarget(target, method, args);
+                    return result != null ? wrap((ResultSet) result) : null;
+                }
+                case "close" -> closeResultSet();
+                default -> {
+                }
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String fingerprint = args != null && args.length > 0 && args[0] instanceof String sql
+                    ? fingerprinter.fingerprint(sql)
+                    : lastFingerprint != null ? lastFingerprint : UNKNOWN;
+            lastFingerprint = fingerprint;
+            closeResultSet();
+            long updateCount = -1;
+            long start = System.nanoTime();
+            try {
+                Object result = invokeTarget(target, method, args);
+                updateCount = updateCount(result);
+                return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                for (SqlExecutionListener listener : listeners) {
+                    listener.onExecution(fingerprint, elapsed, updateCount);
+                }
+            }
+        }
+
+        private ResultSet wrap(ResultSet resultSet) {
+            closeResultSet();
+            openResultSet = new ObservedResultSet(resultSet, lastFingerprint, listeners);
+            return openResultSet;
+        }
+
+        private void closeResultSet() {
+            if (openResultSet != null) {
+                openResultSet.report();
+                openResultSet = null;
+            }
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer count) {
+                return count;
+            }
+            if (result instanceof Long count) {
+                return count;
+            }
+            if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(0, count);
+                }
+                return total;
+            }
+            if (result instanceof long[] counts) {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(0, count);
+                }
+                return total;
+            }
+            return -1;
+        }
+    }
+}
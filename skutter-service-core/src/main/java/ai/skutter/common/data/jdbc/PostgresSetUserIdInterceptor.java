@@ -36,9 +36,13 @@ import java.util.Optional;
 /**
  * Intercepts database connections to set the current user ID in the Postgres session
  * using SET LOCAL for row-level security and audit logging.
+ *
+ * @deprecated never registered with a transaction and costs a round-trip per call; use
+ * {@link UserIdPropagatingDataSource}, enabled unless {@code skutter.data.enable-user-id-propagation=false}
  */
 @Slf4j
 @Component
+@Deprecated
 public class PostgresSetUserIdInterceptor {
 
     private final JdbcTemplate jdbcTemplate;
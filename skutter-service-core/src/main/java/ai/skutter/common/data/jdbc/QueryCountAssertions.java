@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Assertions on the statements a block of code executes, so N+1 regressions fail tests.
+ * Requires the {@link RequestQueryTracker} bean, enabled by
+ * {@code skutter.data.query-stats.enabled=true}.
+ * <pre>
+ * QueryCountAssertions queries = new QueryCountAssertions(tracker);
+ * queries.assertNoRepeatedStatements(3, () -&gt; projectService.listProjects());
+ * queries.assertMaxQueries(2, () -&gt; controller.getProject(id));
+ * </pre>
+ */
+public class QueryCountAssertions {
+
+    private final RequestQueryTracker tracker;
+
+    public QueryCountAssertions(RequestQueryTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Run the block and return the statements it executed on this thread
+     * (and on threads sharing its MDC)
+     */
+    public RequestQueryStats capture(Runnable block) {
+        return captureResult(() -> {
+            block.run();
+            return null;
+        }).stats();
+    }
+
+    /**
+     * Run the block and return its result with the statements it executed
+     */
+    public <T> Captured<T> captureResult(Supplier<T> block) {
+        String previous = MDC.get(RequestQueryTracker.MDC_KEY);
+        String key = tracker.begin().getKey();
+        MDC.put(RequestQueryTracker.MDC_KEY, key);
+        RequestQueryStats stats = null;
+        try {
+            T result = block.get();
+            stats = tracker.end(key);
+            return new Captured<>(result, stats);
+        } finally {
+            if (stats == null) {
+                tracker.end(key);
+            }
+            if (previous != null) {
+                MDC.put(RequestQueryTracker.MDC_KEY, previous);
+            } else {
+                MDC.remove(RequestQueryTracker.MDC_KEY);
+            }
+        }
+    }
+
+    /**
+     * Fail if the block executes more than the given number of statements
+     */
+    public RequestQueryStats assertMaxQueries(int maxQueries, Runnable block) {
+        RequestQueryStats stats = capture(block);
+        if (stats.getQueryCount() > maxQueries) {
+            throw new AssertionError("Expected at most " + maxQueries + " statements but " + stats.getQueryCount()
+                    + " were executed: " + stats.getFingerprintCounts());
+        }
+        return stats;
+    }
+
+    /**
+     * Fail if any statement fingerprint runs more than the given number of times in the block
+     */
+    public RequestQueryStats assertNoRepeatedStatements(int maxRepeats, Runnable block) {
+        RequestQueryStats stats = capture(block);
+        Map<String, Integer> repeated = stats.getRepeatedFingerprints(maxRepeats);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Statements executed more than " + maxRepeats
+                    + " times, likely an N+1 access pattern: " + repeated);
+        }
+        return stats;
+    }
+
+    /**
+     * Result of a captured block with the statements it executed
+     */
+    public record Captured<T>(T result, RequestQueryStats stats) {
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Owns the primary and replica pools, the replica lag monitor and the routing DataSource in
+ * front of them, and closes them together.
+ * <p>
+ * The pools are deliberately not exposed as DataSource beans, so wrappers applied to
+ * DataSource beans (user ID propagation, SQL metrics) are applied once, to the routed
+ * DataSource, and cover both pools.
+ */
+@Slf4j
+public class ReadReplicaDataSources implements AutoCloseable {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    @Getter
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadReplicaRoutingDataSource routing;
+
+    public ReadReplicaDataSources(DataSource primary, DataSource replica, Duration maxLag, Duration lagCheckInterval,
+                                  MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = new ReplicaLagMonitor(replica, maxLag, lagCheckInterval);
+        this.lagMonitor.bindTo(meterRegistry);
+        this.routing = new ReadReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+        this.routing.afterPropertiesSet();
+    }
+
+    public void start() {
+        lagMonitor.start();
+    }
+
+    /**
+     * DataSource for the application: routes per transaction and fetches the physical
+     * connection only when the first statement runs, once the read-only flag is known
+     */
+    public DataSource createRoutedDataSource() {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        closeQuietly(replica);
+        closeQuietly(primary);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close DataSource: {}", e.getMessage());
+            }
+        }
+    }
+}
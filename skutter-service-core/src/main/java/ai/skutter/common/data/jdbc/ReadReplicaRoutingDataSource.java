@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes {@code @Transactional(readOnly = true)} work to a read replica and everything else to
+ * the primary.
+ * <p>
+ * Reads fall back to the primary while the {@link ReplicaLagMonitor} reports the replica as
+ * lagging or unreachable, and once the current unit of work has fetched a connection for
+ * anything but a read-only transaction (including work outside any transaction), so it always
+ * reads its own writes. The unit of work is the current web request, held as a request
+ * attribute so nothing outlives it; without a request (scheduled, executor or async work) it
+ * is the enclosing read-write transaction, so read-only transactions nested in it read from the
+ * primary. Writes with neither a request nor a transaction are not remembered.
+ * <p>
+ * The routing decision is made when a connection is fetched, so this DataSource must be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy};
+ * transaction managers fetch the connection before the read-only flag is published.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    static final String WROTE_ATTRIBUTE = ReadReplicaRoutingDataSource.class.getName() + ".WROTE";
+
+    // Set while a read-write transaction outside a request is active, cleared when it completes
+    private static final ThreadLocal<Boolean> WROTE_IN_TRANSACTION = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaReads;
+    private final Counter lagFallbacks;
+    private final Counter stickyReads;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaReads = readCounter(meterRegistry, "replica", "read_only");
+        this.lagFallbacks = readCounter(meterRegistry, "primary", "replica_unavailable");
+        this.stickyReads = readCounter(meterRegistry, "primary", "read_your_writes");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite();
+            return Target.PRIMARY;
+        }
+        if (hasWritten()) {
+            stickyReads.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagFallbacks.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    private static void recordWrite() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive() && WROTE_IN_TRANSACTION.get() == null) {
+            WROTE_IN_TRANSACTION.set(Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    WROTE_IN_TRANSACTION.remove();
+                }
+            });
+        }
+    }
+
+    private static boolean hasWritten() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        return WROTE_IN_TRANSACTION.get() != null;
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("skutter.data.routing.reads")
+                .description("Read-only transactions by the pool they were routed to")
+                .tags("target", target, "reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures how far a PostgreSQL streaming replica lags behind its primary and
+ * decides whether reads may be sent to it.
+ * <p>
+ * Lag is the age of the last replayed transaction, or zero when everything received has been
+ * replayed (an idle primary otherwise looks like a lagging replica). Having replayed everything
+ * received only means the replica is current while it is still receiving, so the replica is
+ * also unusable unless its WAL receiver is streaming. Reading {@code pg_stat_wal_receiver}
+ * requires the replica user to have {@code pg_read_all_stats} (or {@code pg_monitor}); without
+ * it the status reads as null and the replica is never used. The replica is also unusable while
+ * the lag exceeds the limit, when the last check failed, or before the first check.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    static final String LAG_QUERY = """
+            SELECT r.pid, r.status,
+                   CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            FROM (SELECT 1) AS one
+            LEFT JOIN pg_stat_wal_receiver r ON true""";
+
+    private static final String STREAMING = "streaming";
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+
+    private volatile long lagMillis = -1;
+    private volatile boolean usable;
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param maxLag        largest lag at which the replica still serves reads
+     * @param checkInterval how often the lag is measured
+     */
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval) {
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkInterval = checkInterval;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = checkInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::check, 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Whether reads may currently be sent to the replica
+     */
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * Last measured lag in milliseconds, or -1 if the last check failed or the replica was not streaming
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Measure the lag once
+     */
+    void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            Object receiverPid = rs.getObject(1);
+            String receiverStatus = rs.getString(2);
+            if (STREAMING.equals(receiverStatus)) {
+                lagMillis = (long) rs.getDouble(3);
+                usable = lagMillis <= maxLagMillis;
+            } else {
+                lagMillis = -1;
+                usable = false;
+                if (wasUsable) {
+                    log.warn("Replica WAL receiver is {}, routing reads to the primary", receiverPid == null
+                            ? "not running" : receiverStatus != null ? receiverStatus : "not visible (grant pg_read_all_stats)");
+                }
+            }
+        } catch (SQLException e) {
+            lagMillis = -1;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Replica lag check failed, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (wasUsable && !usable && lagMillis >= 0) {
+            log.warn("Replica lag {} ms exceeds {} ms, routing reads to the primary", lagMillis, maxLagMillis);
+        } else if (!wasUsable && usable) {
+            log.info("Replica lag {} ms, routing read-only transactions to the replica", lagMillis);
+        }
+    }
+
+    /**
+     * Register a lag gauge
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("skutter.data.replica.lag", this, ReplicaLagMonitor::getLagMillis)
+                .description("Replication lag of the read replica (-1 if unreachable or not streaming)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+}
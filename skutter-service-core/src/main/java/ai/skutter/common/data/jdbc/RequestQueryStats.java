@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statements executed on behalf of one request or captured block: how many, how long they took
+ * in total, and how often each fingerprint ran
+ */
+public class RequestQueryStats {
+
+    private final String key;
+    private int queryCount;
+    private long dbTimeNanos;
+    private final Map<String, Integer> fingerprintCounts = new HashMap<>();
+
+    public RequestQueryStats(String key) {
+        this.key = key;
+    }
+
+    synchronized void recordExecution(String fingerprint, long nanos) {
+        queryCount++;
+        dbTimeNanos += nanos;
+        fingerprintCounts.merge(fingerprint, 1, Integer::sum);
+    }
+
+    synchronized void recordFetch(long nanos) {
+        dbTimeNanos += nanos;
+    }
+
+    /**
+     * Key generated by {@link RequestQueryTracker#begin()} that the statements were recorded under
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public synchronized int getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Time spent executing statements and reading their results
+     */
+    public synchronized long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    /**
+     * Executions per fingerprint
+     */
+    public synchronized Map<String, Integer> getFingerprintCounts() {
+        return Map.copyOf(fingerprintCounts);
+    }
+
+    /**
+     * Fingerprints that ran more than the threshold, the usual sign of an N+1 access pattern,
+     * most frequent first
+     */
+    public synchronized Map<String, Integer> getRepeatedFingerprints(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        fingerprintCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() > threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RequestQueryStats{key=" + key + ", queries=" + queryCount + ", dbTimeMs=" + dbTimeNanos / 1_000_000 + "}";
+    }
+}
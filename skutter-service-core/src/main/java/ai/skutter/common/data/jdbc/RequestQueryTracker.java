@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attributes executed statements to the request or captured block they belong to, identified
+ * by a key generated in {@link #begin()} and carried in the MDC under {@link #MDC_KEY}, so work
+ * handed to other threads with the same MDC is counted too. The key is generated here rather
+ * than taken from the client-supplied correlation ID, so concurrent requests sharing a
+ * correlation ID are still counted separately.
+ * <p>
+ * Statements are only recorded while tracking of their key is active, between
+ * {@link #begin()} and {@link #end(String)}; the caller puts the key in the MDC for that time.
+ */
+public class RequestQueryTracker implements SqlExecutionListener {
+
+    public static final String MDC_KEY = "queryStatsKey";
+
+    private final Map<String, RequestQueryStats> active = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Start recording statements under a new key, available from {@link RequestQueryStats#getKey()}
+     */
+    public RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats("q-" + sequence.incrementAndGet());
+        active.put(stats.getKey(), stats);
+        return stats;
+    }
+
+    /**
+     * Stop recording statements for a key
+     *
+     * @return what was recorded, or null if tracking was not active
+     */
+    public RequestQueryStats end(String key) {
+        return active.remove(key);
+    }
+
+    /**
+     * Get the statistics being recorded for the current thread's key
+     *
+     * @return the statistics, or null if tracking is not active
+     */
+    public RequestQueryStats current() {
+        String key = MDC.get(MDC_KEY);
+        return key != null ? active.get(key) : null;
+    }
+
+    @Override
+    public void onExecution(String fingerprint, long executionNanos, long updateCount) {
+        RequestQueryStats stats = current();
+        if (stats != null) {
+            stats.recordExecution(fingerprint, executionNanos);
+        }
+    }
+
+    @Override
+    public void onFetch(String fingerprint, long fetchNanos, long rows) {
+        RequestQueryStats stats = current();
+        if (stats != null) {
+            stats.recordFetch(fetchNanos);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row count estimates from the PostgreSQL planner, for paged responses that show a total
+ * without running {@code COUNT(*)}.
+ * <p>
+ * {@link #estimate(String, Object...)} runs {@code EXPLAIN} on the unpaged query and takes the
+ * planner's row estimate for the top plan node; the query is planned but not executed, and
+ * row-level security policies are included in the estimate as they are for the real query.
+ * {@link #estimateTable(String)} reads {@code pg_class.reltuples} for unfiltered listings.
+ * <p>
+ * Query estimates are cached per query shape (the SQL fingerprint), parameter values and
+ * authenticated user, so a tenant-filtered listing such as {@code WHERE project_id = ?} is
+ * planned once per project and user per cache period and never shows one caller another's
+ * estimate. Table estimates are cached per table. Estimates are only as good as the table
+ * statistics and may be far off for selective or correlated filters.
+ */
+public class RowCountEstimator {
+
+    /**
+     * Estimate returned when the planner could not provide one
+     */
+    public static final long UNKNOWN = -1;
+
+    static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final String TABLE_ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Object, Long> estimates;
+
+    /**
+     * @param maximumEntries maximum number of cached estimates, counting each combination of
+     *                       query shape, parameters and user, and each table
+     */
+    public RowCountEstimator(JdbcTemplate jdbcTemplate, Duration cacheTtl, int maximumEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.estimates = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(maximumEntries)
+                .build();
+    }
+
+    /**
+     * Estimated number of rows the query returns, or {@link #UNKNOWN}
+     *
+     * @param sql  the query without ORDER BY, LIMIT or OFFSET
+     * @param args query parameters; estimates for different values are cached separately
+     */
+    public long estimate(String sql, Object... args) {
+        QueryKey key = new QueryKey(SqlFingerprinter.normalize(sql), Arrays.asList(args.clone()),
+                UserIdPropagatingDataSource.currentUserId());
+        return cached(key, () -> {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+            return parsePlanRows(plan);
+        });
+    }
+
+    /**
+     * Estimated number of rows in a table, or {@link #UNKNOWN} if it has never been analyzed
+     *
+     * @param table table name, optionally schema-qualified
+     */
+    public long estimateTable(String table) {
+        return cached("table:" + table, () -> {
+            Long rows = jdbcTemplate.queryForObject(TABLE_ESTIMATE_SQL, Long.class, table);
+            // reltuples is -1 for tables that have never been vacuumed or analyzed
+            return rows == null || rows < 0 ? UNKNOWN : rows;
+        });
+    }
+
+    /**
+     * Drop all cached estimates, e.g. after a bulk load
+     */
+    public void invalidateAll() {
+        estimates.invalidateAll();
+    }
+
+    static long parsePlanRows(String plan) {
+        if (plan == null) {
+            return UNKNOWN;
+        }
+        // The top node's fields precede its child plans, so the first match is the top-level estimate
+        Matcher matcher = PLAN_ROWS.matcher(plan);
+        if (!matcher.find()) {
+            return UNKNOWN;
+        }
+        try {
+            return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            // Beyond the range of long, far past any count worth showing
+            return UNKNOWN;
+        }
+    }
+
+    private long cached(Object key, LongSupplier loader) {
+        Long estimate = estimates.getIfPresent(key);
+        if (estimate == null) {
+            // Concurrent misses may plan the same shape twice, which is cheaper than serializing them
+            estimate = loader.getAsLong();
+            estimates.put(key, estimate);
+        }
+        return estimate;
+    }
+
+    /**
+     * Cache key of a query estimate. The user is part of the key because row-level security
+     * policies make the estimate depend on who asks.
+     */
+    private record QueryKey(String shape, List<Object> args, String userId) {
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+/**
+ * Receives timings of statements executed through an {@link ObservedDataSource}.
+ * Called on the executing thread, so implementations must be cheap and must not throw.
+ */
+public interface SqlExecutionListener {
+
+    /**
+     * A statement finished executing
+     *
+     * @param fingerprint    normalized SQL, see {@link SqlFingerprinter}
+     * @param executionNanos time spent in the execute call
+     * @param updateCount    rows affected by an update, or -1 for queries
+     */
+    void onExecution(String fingerprint, long executionNanos, long updateCount);
+
+    /**
+     * A result set was closed
+     *
+     * @param fetchNanos time spent advancing the result set
+     * @param rows       rows read from the result set
+     */
+    void onFetch(String fingerprint, long fetchNanos, long rows);
+}
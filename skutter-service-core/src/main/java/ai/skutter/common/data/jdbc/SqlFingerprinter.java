@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL into a fingerprint that identifies the statement shape independent of its
+ * literal values, e.g. {@code SELECT * FROM t WHERE id = 42 AND name IN ('a', 'b')} becomes
+ * {@code select * from t where id = ? and name in (?+)}.
+ * <p>
+ * String, numeric and dollar-quoted literals and {@code $n} placeholders become {@code ?},
+ * comments are dropped, whitespace is collapsed, unquoted text is lower-cased and lists of
+ * placeholders collapse to {@code (?+)}. Quoted identifiers are kept as written.
+ * <p>
+ * Applications issue a small set of distinct SQL strings, mostly as the same string instances,
+ * so fingerprints are memoized; the memo is cleared if it ever exceeds its bound.
+ */
+public class SqlFingerprinter {
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+
+    private final Map<String, String> memo = new ConcurrentHashMap<>();
+    private final int maxMemoized;
+
+    public SqlFingerprinter() {
+        this(10_000);
+    }
+
+    /**
+     * @param maxMemoized number of distinct SQL strings whose fingerprints are memoized
+     */
+    public SqlFingerprinter(int maxMemoized) {
+        this.maxMemoized = maxMemoized;
+    }
+
+    /**
+     * Get the fingerprint of a SQL string
+     */
+    public String fingerprint(String sql) {
+        String fingerprint = memo.get(sql);
+        if (fingerprint == null) {
+            fingerprint = normalize(sql);
+            if (memo.size() >= maxMemoized) {
+                memo.clear();
+            }
+            memo.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Normalize SQL without memoization
+     */
+    public static String normalize(String sql) {
+        int length = sql.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                i++;
+                continue;
+            }
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                i = skipLineComment(sql, i);
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = skipBlockComment(sql, i);
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                i = skipStringLiteral(sql, i);
+                out.append('?');
+            } else if (c == '"') {
+                int end = sql.indexOf('"', i + 1);
+                end = end < 0 ? length : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (c == '$' && i + 1 < length && Character.isDigit(sql.charAt(i + 1))) {
+                i = skipDigits(sql, i + 1);
+                out.append('?');
+            } else if (c == '$' && isDollarQuoteStart(sql, i)) {
+                i = skipDollarQuoted(sql, i);
+                out.append('?');
+            } else if (Character.isDigit(c) && !endsWithIdentifierChar(out)) {
+                i = skipNumber(sql, i);
+                out.append('?');
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        String normalized = out.toString();
+        return normalized.indexOf('?') >= 0
+                ? PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?+)")
+                : normalized;
+    }
+
+    /**
+     * Leading keyword of a fingerprint, such as {@code select} or {@code insert}
+     */
+    public static String operation(String fingerprint) {
+        int end = 0;
+        while (end < fingerprint.length() && Character.isLetter(fingerprint.charAt(end))) {
+            end++;
+        }
+        return end > 0 ? fingerprint.substring(0, end) : "other";
+    }
+
+    private static int skipLineComment(String sql, int i) {
+        int end = sql.indexOf('\n', i);
+        return end < 0 ? sql.length() : end + 1;
+    }
+
+    private static int skipBlockComment(String sql, int i) {
+        int end = sql.indexOf("*/", i + 2);
+        return end < 0 ? sql.length() : end + 2;
+    }
+
+    private static int skipStringLiteral(String sql, int i) {
+        int j = i + 1;
+        while (j < sql.length()) {
+            if (sql.charAt(j) == '\'') {
+                if (j + 1 < sql.length() && sql.charAt(j + 1) == '\'') {
+                    j += 2;
+                    continue;
+                }
+                return j + 1;
+            }
+            j++;
+        }
+        return j;
+    }
+
+    private static boolean isDollarQuoteStart(String sql, int i) {
+        int j = i + 1;
+        while (j < sql.length() && (Character.isLetterOrDigit(sql.charAt(j)) || sql.charAt(j) == '_')) {
+            j++;
+        }
+        return j < sql.length() && sql.charAt(j) == '$';
+    }
+
+    private static int skipDollarQuoted(String sql, int i) {
+        int tagEnd = sql.indexOf('$', i + 1) + 1;
+        String tag = sql.substring(i, tagEnd);
+        int end = sql.indexOf(tag, tagEnd);
+        return end < 0 ? sql.length() : end + tag.length();
+    }
+
+    private static int skipDigits(String sql, int i) {
+        while (i < sql.length() && Character.isDigit(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipNumber(String sql, int i) {
+        int j = skipDigits(sql, i);
+        if (j < sql.length() && sql.charAt(j) == '.') {
+            j = skipDigits(sql, j + 1);
+        }
+        if (j < sql.length() && (sql.charAt(j) == 'e' || sql.charAt(j) == 'E')) {
+            int k = j + 1;
+            if (k < sql.length() && (sql.charAt(k) == '+' || sql.charAt(k) == '-')) {
+                k++;
+            }
+            if (k < sql.length() && Character.isDigit(sql.charAt(k))) {
+                j = skipDigits(sql, k);
+            }
+        }
+        return j;
+    }
+
+    private static boolean endsWithIdentifierChar(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '"';
+    }
+}
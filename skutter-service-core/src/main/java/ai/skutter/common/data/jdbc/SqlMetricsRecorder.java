@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import ai.skutter.common.util.FastHash;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records statement execution time, fetch time and row counts as Micrometer meters tagged by
+ * SQL fingerprint.
+ * <p>
+ * Tag cardinality is capped: meters exist for at most {@code maxFingerprints} fingerprints at
+ * a time, kept in an LRU, and the meters of an evicted fingerprint are removed from the
+ * registry. Fingerprints longer than {@code maxTagLength} are truncated and suffixed with a
+ * hash so distinct statements keep distinct tags.
+ */
+public class SqlMetricsRecorder implements SqlExecutionListener {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxTagLength;
+    private final Cache<String, Meters> meters;
+
+    public SqlMetricsRecorder(MeterRegistry meterRegistry, int maxFingerprints, int maxTagLength) {
+        this.meterRegistry = meterRegistry;
+        this.maxTagLength = maxTagLength;
+        this.meters = CacheBuilder.newBuilder()
+                .maximumSize(maxFingerprints)
+                .removalListener((RemovalListener<String, Meters>) removal -> removal.getValue().remove())
+                .build();
+    }
+
+    @Override
+    public void onExecution(String fingerprint, long executionNanos, long updateCount) {
+        Meters fingerprintMeters = metersFor(fingerprint);
+        fingerprintMeters.execution.record(executionNanos, TimeUnit.NANOSECONDS);
+        if (updateCount >= 0) {
+            fingerprintMeters.rows.record(updateCount);
+        }
+    }
+
+    @Override
+    public void onFetch(String fingerprint, long fetchNanos, long rows) {
+        Meters fingerprintMeters = metersFor(fingerprint);
+        fingerprintMeters.fetch.record(fetchNanos, TimeUnit.NANOSECONDS);
+        fingerprintMeters.rows.record(rows);
+    }
+
+    private Meters metersFor(String fingerprint) {
+        Meters existing = meters.getIfPresent(fingerprint);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            return meters.get(fingerprint, () -> new Meters(fingerprint));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String tagValue(String fingerprint) {
+        if (fingerprint.length() <= maxTagLength) {
+            return fingerprint;
+        }
+        String hash = Long.toHexString(FastHash.hash64(fingerprint));
+        return fingerprint.substring(0, Math.max(0, maxTagLength - hash.length() - 1)) + "#" + hash;
+    }
+
+    private final class Meters {
+        private final Timer execution;
+        private final Timer fetch;
+        private final DistributionSummary rows;
+
+        private Meters(String fingerprint) {
+            String tag = tagValue(fingerprint);
+            String operation = SqlFingerprinter.operation(fingerprint);
+            this.execution = Timer.builder("skutter.data.sql.execution")
+                    .description("Time spent executing statements")
+                    .tags("fingerprint", tag, "operation", operation)
+                    .register(meterRegistry);
+            this.fetch = Timer.builder("skutter.data.sql.fetch")
+                    .description("Time spent reading result sets")
+                    .tags("fingerprint", tag, "operation", operation)
+                    .register(meterRegistry);
+            this.rows = DistributionSummary.builder("skutter.data.sql.rows")
+                    .description("Rows read or affected per statement")
+                    .tags("fingerprint", tag, "operation", operation)
+                    .register(meterRegistry);
+        }
+
+        private void remove() {
+            meterRegistry.remove(execution);
+            meterRegistry.remove(fetch);
+            meterRegistry.remove(rows);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * DataSource wrapper that keeps the {@code skutter.app.current_user_id} setting of each
+ * connection in line with the authenticated user, for row-level security and audit logging.
+ * <p>
+ * The value is bound as a parameter of {@code set_config(...)}, never concatenated into SQL,
+ * and applied lazily before the first statement that needs it. Inside a transaction it is
+ * applied transaction-locally, so the database itself discards it on commit or rollback, however
+ * the transaction ends, and it is applied again only if the transaction ends through this
+ * connection or the authenticated user changes. Anonymous work applies an empty string.
+ * <p>
+ * In auto-commit mode every statement is its own transaction, so the setting is applied at
+ * session scope instead, and again only when the authenticated user changes. A session-scoped
+ * user ID is reset when the connection is closed, so a connection never carries a user's ID
+ * back to the pool.
+ */
+@Slf4j
+public class UserIdPropagatingDataSource extends DelegatingDataSource {
+
+    public static final String SETTING = "skutter.app.current_user_id";
+
+    static final String SET_LOCAL_CONFIG = "SELECT set_config('" + SETTING + "', ?, true)";
+
+    static final String SET_SESSION_CONFIG = "SELECT set_config('" + SETTING + "', ?, false)";
+
+    private static final Class<?>[] PROXY_INTERFACES = {Connection.class};
+
+    private final Counter applied;
+    private final Counter skipped;
+
+    public UserIdPropagatingDataSource(DataSource targetDataSource, MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.applied = Counter.builder("skutter.data.rls.user_id")
+                .description("Statements preceded by applying the user ID setting, by whether the round-trip was needed")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("skutter.data.rls.user_id")
+                .description("Statements preceded by applying the user ID setting, by whether the round-trip was needed")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), PROXY_INTERFACES,
+                new UserIdConnectionHandler(connection));
+    }
+
+    /**
+     * Get the ID of the authenticated user, or an empty string for anonymous work
+     */
+    static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof SupabaseUserDetails userDetails
+                && userDetails.getUserId() != null) {
+            return userDetails.getUserId();
+        }
+        return "";
+    }
+
+    private final class UserIdConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        // Value applied in the current transaction, null when none has been
+        private String appliedInTransaction;
+        // Value applied at session scope through this handle, null when none has been
+        private String appliedToSession;
+        // Auto-commit mode of the target, null until first read
+        private Boolean autoCommit;
+
+        private UserIdConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "createStatement", "prepareStatement", "prepareCall" -> applyUserId();
+                // Each ends the transaction (or, for a savepoint rollback, may revert the setting)
+                case "commit", "rollback" -> appliedInTransaction = null;
+                case "setAutoCommit" -> {
+                    appliedInTransaction = null;
+                    autoCommit = (Boolean) args[0];
+                }
+                case "close" -> {
+                    resetSession();
+                    appliedInTransaction = null;
+                    autoCommit = null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "unwrap", "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return "unwrap".equals(method.getName()) ? proxy : true;
+                    }
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private void applyUserId() throws SQLException {
+            String userId = currentUserId();
+            if (autoCommit == null) {
+                autoCommit = target.getAutoCommit();
+            }
+            String current = autoCommit ? appliedToSession : appliedInTransaction;
+            if (userId.equals(current)) {
+                skipped.increment();
+                return;
+            }
+            setConfig(autoCommit ? SET_SESSION_CONFIG : SET_LOCAL_CONFIG, userId);
+            if (autoCommit) {
+                appliedToSession = userId;
+            } else {
+                appliedInTransaction = userId;
+            }
+            applied.increment();
+            log.trace("Applied {} for user {}", SETTING, userId);
+        }
+
+        private void resetSession() {
+            if (appliedToSession == null || appliedToSession.isEmpty()) {
+                appliedToSession = null;
+                return;
+            }
+            try {
+                setConfig(SET_SESSION_CONFIG, "");
+            } catch (SQLException e) {
+                // The next borrower applies its own value before its first statement anyway
+                log.warn("Failed to reset {} on close: {}", SETTING, e.getMessage());
+            }
+            appliedToSession = null;
+        }
+
+        private void setConfig(String sql, String userId) throws SQLException {
+            try (PreparedStatement statement = target.prepareStatement(sql)) {
+                statement.setString(1, userId);
+                statement.execute();
+            }
+        }
+    }
+}
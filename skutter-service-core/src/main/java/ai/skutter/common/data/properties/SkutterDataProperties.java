@@ -22,6 +22,8 @@ package ai.skutter.common.data.properties;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @Data
 @ConfigurationProperties(prefix = "skutter.data")
 public class SkutterDataProperties {
@@ -42,6 +44,31 @@ public class SkutterDataProperties {
      * PostGIS configuration
      */
     private final PostGis postGis = new PostGis();
+
+    /**
+     * Per-statement SQL metrics
+     */
+    private final SqlMetrics sqlMetrics = new SqlMetrics();
+
+    /**
+     * Per-request statement counting and N+1 detection
+     */
+    private final QueryStats queryStats = new QueryStats();
+
+    /**
+     * Routing of read-only transactions to a read replica
+     */
+    private final ReadReplica readReplica = new ReadReplica();
+
+    /**
+     * Planner-based row count estimates for paged responses
+     */
+    private final CountEstimates countEstimates = new CountEstimates();
+
+    /**
+     * Streaming NDJSON/CSV exports
+     */
+    private final Export export = new Export();
     
     /**
      * @deprecated Use standard spring.flyway.* properties instead.
@@ -82,4 +109,105 @@ public class SkutterDataProperties {
          */
         private int defaultSrid = 4326;
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class SqlMetrics {
+        /**
+         * Record execution time, fetch time and row counts per SQL fingerprint
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of fingerprints with their own meters; the least recently used are dropped
+         */
+        private int maxFingerprints = 200;
+
+        /**
+         * Maximum length of the fingerprint tag value
+         */
+        private int maxTagLength = 200;
+    }
+
+    @Data
+    public static class QueryStats {
+        /**
+         * Count statements and database time per request
+         */
+        private boolean enabled = false;
+
+        /**
+         * Executions of one SQL fingerprint within a request above which the request is flagged as likely N+1
+         */
+        private int repeatThreshold = 10;
+
+        /**
+         * Add X-Query-* headers to responses. Defaults to true unless a prod or production profile is active.
+         */
+        private Boolean exposeHeaders;
+    }
+
+    @Data
+    public static class ReadReplica {
+        /**
+         * Send @Transactional(readOnly = true) work to the replica
+         */
+        private boolean enabled = false;
+
+        /**
+         * JDBC URL of the replica
+         */
+        private String url;
+
+        /**
+         * Replica username. Defaults to spring.datasource.username.
+         */
+        private String username;
+
+        /**
+         * Replica password. Defaults to spring.datasource.password.
+         */
+        private String password;
+
+        /**
+         * Maximum size of the replica connection pool
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * Replication lag above which reads go to the primary
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        /**
+         * How often the replication lag is measured
+         */
+        private Duration lagCheckInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class CountEstimates {
+        /**
+         * How long an estimate is reused for the same query, parameters and user, or table
+         */
+        private Duration cacheTtl = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of cached estimates, counting each combination of query shape,
+         * parameters and user, and each table
+         */
+        private int maximumShapes = 1000;
+    }
+
+    @Data
+    public static class Export {
+        /**
+         * Rows read from the server-side cursor per round trip
+         */
+        private int fetchSize = 1000;
+
+        /**
+         * Rows written between flushes to the client
+         */
+        private int flushRows = 500;
+    }
+}
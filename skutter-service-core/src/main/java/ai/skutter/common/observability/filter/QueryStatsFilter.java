@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.observability.filter;
+
+import ai.skutter.common.data.jdbc.RequestQueryStats;
+import ai.skutter.common.data.jdbc.RequestQueryTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the statements each request executes and flags likely N+1 access patterns.
+ * <p>
+ * Each request is tracked under its own {@link RequestQueryTracker} key, put in the MDC for the
+ * duration of the request. Per request, the statement count and database time are
+ * recorded by route. A request in which one SQL fingerprint runs more than the threshold is
+ * counted and logged with the offending fingerprints. With headers exposed (meant for
+ * non-production profiles), {@code X-Query-Count}, {@code X-Query-Time-Ms} and
+ * {@code X-Query-Repeated} are added when the response is committed.
+ */
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+    public static final String QUERY_REPEATED_HEADER = "X-Query-Repeated";
+
+    private final RequestQueryTracker tracker;
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+    private final boolean exposeHeaders;
+
+    public QueryStatsFilter(RequestQueryTracker tracker, MeterRegistry meterRegistry, int repeatThreshold,
+                            boolean exposeHeaders) {
+        this.tracker = tracker;
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = tracker.begin();
+        String previous = MDC.get(RequestQueryTracker.MDC_KEY);
+        MDC.put(RequestQueryTracker.MDC_KEY, stats.getKey());
+        HttpServletResponse target = exposeHeaders ? new HeaderWritingResponse(response, stats) : response;
+        try {
+            filterChain.doFilter(request, target);
+            if (exposeHeaders && !response.isCommitted()) {
+                writeHeaders(response, stats);
+            }
+        } finally {
+            tracker.end(stats.getKey());
+            if (previous != null) {
+                MDC.put(RequestQueryTracker.MDC_KEY, previous);
+            } else {
+                MDC.remove(RequestQueryTracker.MDC_KEY);
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("skutter.data.request.queries")
+                .description("Statements executed per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getQueryCount());
+        Timer.builder("skutter.data.request.db.time")
+                .description("Database time per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getDbTimeNanos(), TimeUnit.NANOSECONDS);
+        Map<String, Integer> repeated = stats.getRepeatedFingerprints(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("skutter.data.request.repeated.statements")
+                    .description("Requests in which one statement ran more often than the threshold (likely N+1)")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Likely N+1 access in {} {} ({} statements): {}",
+                    request.getMethod(), uri, stats.getQueryCount(), repeated);
+        }
+    }
+
+    private void writeHeaders(HttpServletResponse response, RequestQueryStats stats) {
+        response.setHeader(QUERY_COUNT_HEADER, Integer.toString(stats.getQueryCount()));
+        response.setHeader(QUERY_TIME_HEADER, Long.toString(stats.getDbTimeNanos() / 1_000_000));
+        response.setHeader(QUERY_REPEATED_HEADER, Integer.toString(stats.getRepeatedFingerprints(repeatThreshold).size()));
+    }
+
+    /**
+     * Adds the statistics so far as headers just before the response is committed
+     */
+    private final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final RequestQueryStats stats;
+
+        private HeaderWritingResponse(HttpServletResponse response, RequestQueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders((HttpServletResponse) getResponse(), stats);
+        }
+    }
+}
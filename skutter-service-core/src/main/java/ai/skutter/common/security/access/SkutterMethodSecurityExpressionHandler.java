@@ -20,6 +20,7 @@
 
 package ai.skutter.common.security.access;
 
+import ai.skutter.common.security.project.ProjectMembershipService;
 import org.aopalliance.intercept.MethodInvocation;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
@@ -33,6 +34,14 @@ import org.springframework.security.core.Authentication;
 public class SkutterMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
     
     private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private ProjectMembershipService projectMembershipService;
+
+    /**
+     * Set the service backing {@code hasProjectRole}; without it, project role checks are denied
+     */
+    public void setProjectMembershipService(ProjectMembershipService projectMembershipService) {
+        this.projectMembershipService = projectMembershipService;
+    }
     
     @Override
     protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication, MethodInvocation invocation) {
@@ -40,6 +49,7 @@ public class SkutterMethodSecurityExpressionHandler extends DefaultMethodSecurit
         root.setTrustResolver(trustResolver);
         root.setPermissionEvaluator(getPermissionEvaluator());
         root.setRoleHierarchy(getRoleHierarchy());
+        root.setProjectMembershipService(projectMembershipService);
         return root;
     }
 } 
\ No newline at end of file
@@ -21,12 +21,16 @@
 package ai.skutter.common.security.access;
 
 import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import ai.skutter.common.security.project.ProjectMembershipService;
+import ai.skutter.common.security.project.ProjectRole;
 import ai.skutter.common.security.role.SkutterRole;
 import org.springframework.security.access.expression.SecurityExpressionRoot;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.util.UUID;
+
 /**
  * Custom security expression root that provides platform-wide access control
  */
@@ -35,43 +39,51 @@ public class SkutterSecurityExpressionRoot extends SecurityExpressionRoot implem
     private Object filterObject;
     private Object returnObject;
     private Object target;
+    private ProjectMembershipService projectMembershipService;
 
     public SkutterSecurityExpressionRoot(Authentication authentication) {
         super(authentication);
     }
 
+    public void setProjectMembershipService(ProjectMembershipService projectMembershipService) {
+        this.projectMembershipService = projectMembershipService;
+    }
+
     /**
      * Check if the user has the PLATFORM_OWNER role
      */
     public boolean isPlatformOwner() {
-        return hasRole(SkutterRole.PLATFORM_OWNER.name());
+        return hasSkutterRole(SkutterRole.PLATFORM_OWNER);
     }
 
     /**
      * Check if the user has the PLATFORM_VIEWER role
      */
     public boolean isPlatformViewer() {
-        return hasRole(SkutterRole.PLATFORM_VIEWER.name());
+        return hasSkutterRole(SkutterRole.PLATFORM_VIEWER);
     }
 
     /**
      * Check if the user has the PROJECT_ADMIN role
      */
     public boolean isProjectAdmin() {
-        return hasRole(SkutterRole.PROJECT_ADMIN.name());
+        return hasSkutterRole(SkutterRole.PROJECT_ADMIN);
     }
 
     /**
      * Check if the user has the PROJECT_VIEWER role
      */
     public boolean isProjectViewer() {
-        return hasRole(SkutterRole.PROJECT_VIEWER.name());
+        return hasSkutterRole(SkutterRole.PROJECT_VIEWER);
     }
 
     /**
      * Check if the user has platform-wide access
      */
     public boolean hasPlatformAccess() {
+        if (getPrincipal() instanceof SupabaseUserDetails userDetails) {
+            return userDetails.hasPlatformAccess();
+        }
         // Check for platform-specific scope
         boolean hasPlatformScope = getAuthentication().getAuthorities().stream()
                 .filter(a -> a instanceof SimpleGrantedAuthority)
@@ -95,6 +107,51 @@ public class SkutterSecurityExpressionRoot extends SecurityExpressionRoot implem
         return isPlatformOwner() || isPlatformViewer();
     }
 
+    /**
+     * Check if the user holds at least the given role in a project,
+     * e.g. {@code hasProjectRole(#projectId, 'PROJECT_EDITOR')}
+     *
+     * @param projectId the project's ID as a {@link UUID} or its string form
+     * @param role      name of a {@link ProjectRole}
+     */
+    public boolean hasProjectRole(Object projectId, String role) {
+        ProjectRole required = ProjectRole.fromName(role);
+        if (required == null) {
+            throw new IllegalArgumentException("Unknown project role: " + role);
+        }
+        UUID project = toUuid(projectId);
+        if (projectMembershipService == null || project == null
+                || !(getPrincipal() instanceof SupabaseUserDetails userDetails)) {
+            return false;
+        }
+        return projectMembershipService.hasProjectRole(userDetails.getUserId(), project, required);
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check a role with a bit test against the principal's role mask when available,
+     * falling back to the authority scan for other principal types
+     */
+    private boolean hasSkutterRole(SkutterRole role) {
+        if (getPrincipal() instanceof SupabaseUserDetails userDetails) {
+            return userDetails.hasRole(role);
+        }
+        return hasRole(role.name());
+    }
+
     @Override
     public void setFilterObject(Object filterObject) {
         this.filterObject = filterObject;
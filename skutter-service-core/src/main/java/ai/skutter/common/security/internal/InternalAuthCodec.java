@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.internal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+
+/**
+ * Mints and verifies the compact, HMAC-signed internal auth context passed between services.
+ * <p>
+ * An edge service that has verified the user's JWT encodes the user ID, role mask,
+ * correlation ID and a short expiry into a binary payload and signs it with a secret shared
+ * by the internal services. Downstream services check the signature with one HMAC-SHA256
+ * instead of verifying the original (typically RSA-signed) JWT again on every hop.
+ * <p>
+ * Encoded form: {@code base64url(payload) "." base64url(HMAC-SHA256(payload))}, where the
+ * payload is a version byte, the expiry in epoch seconds, the role mask, and the
+ * length-prefixed UTF-8 user ID and correlation ID.
+ */
+@Slf4j
+public class InternalAuthCodec {
+
+    private static final byte VERSION = 1;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final LongSupplier clock;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param secret shared secret of at least 256 bits
+     * @param ttl    how long a minted context is accepted
+     */
+    public InternalAuthCodec(byte[] secret, Duration ttl) {
+        this(secret, ttl, System::currentTimeMillis);
+    }
+
+    InternalAuthCodec(byte[] secret, Duration ttl, LongSupplier clock) {
+        if (secret == null || secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("Internal auth secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secret, MAC_ALGORITHM);
+        this.ttlSeconds = Math.max(1, ttl.toSeconds());
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        newMac();
+    }
+
+    /**
+     * Mint a context for the given caller, valid for the configured TTL
+     */
+    public String encode(String userId, int roleMask, String correlationId) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] correlation = correlationId != null ? correlationId.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (user.length > 0xFFFF || correlation.length > 0xFFFF) {
+            throw new IllegalArgumentException("User ID or correlation ID too long for internal auth context");
+        }
+        long expiresAt = clock.getAsLong() / 1000 + ttlSeconds;
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 4 + 2 + user.length + 2 + correlation.length)
+                .put(VERSION)
+                .putLong(expiresAt)
+                .putInt(roleMask)
+                .putShort((short) user.length).put(user)
+                .putShort((short) correlation.length).put(correlation);
+        byte[] bytes = payload.array();
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(macs.get().doFinal(bytes));
+    }
+
+    /**
+     * Verify and decode a context
+     *
+     * @return the context, or null if it is malformed, its signature does not match or it has expired
+     */
+    public InternalAuthContext decode(String value) {
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(value.substring(0, dot));
+            signature = DECODER.decode(value.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(macs.get().doFinal(payload), signature)) {
+            log.debug("Internal auth context signature mismatch");
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if (buffer.get() != VERSION) {
+                return null;
+            }
+            long expiresAt = buffer.getLong();
+            int roleMask = buffer.getInt();
+            String userId = readString(buffer);
+            String correlationId = readString(buffer);
+            if (clock.getAsLong() / 1000 >= expiresAt) {
+                log.debug("Internal auth context expired at {}", expiresAt);
+                return null;
+            }
+            return new InternalAuthContext(userId, roleMask, correlationId.isEmpty() ? null : correlationId, expiresAt);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + MAC_ALGORITHM, e);
+        }
+    }
+}
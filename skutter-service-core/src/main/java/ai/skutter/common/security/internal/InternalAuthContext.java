@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.internal;
+
+/**
+ * Caller identity propagated between internal services in place of the user's JWT
+ *
+ * @param userId             ID of the end user the call is made for
+ * @param roleMask           the user's roles as a {@link ai.skutter.common.security.role.SkutterRole} bit mask
+ * @param correlationId      correlation ID of the originating request, or null
+ * @param expiresAtEpochSecond when the context stops being accepted
+ */
+public record InternalAuthContext(String userId, int roleMask, String correlationId, long expiresAtEpochSecond) {
+}
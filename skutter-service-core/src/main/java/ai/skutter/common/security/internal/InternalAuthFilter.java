@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.internal;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import ai.skutter.common.security.logging.SecurityEventAggregator;
+import ai.skutter.common.security.logging.SecurityEventType;
+import ai.skutter.common.security.role.SkutterAuthorities;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates calls from other internal services by their internal auth context header.
+ * <p>
+ * Runs before {@link ai.skutter.common.security.jwt.JwtAuthenticationFilter}; a request
+ * authenticated here is not verified again from a bearer token. A context is only accepted
+ * if its signature and expiry check out and it carries at least one role.
+ * <p>
+ * The context is a bearer credential: until it expires, anyone holding it can present it to
+ * any service sharing the secret. Its correlation ID is informational only (the correlation
+ * header is client-controlled, so comparing the two would prove nothing). Keep the TTL short
+ * and internal traffic confidential.
+ */
+@Slf4j
+public class InternalAuthFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding the accepted {@link InternalAuthContext}
+     */
+    public static final String CONTEXT_ATTRIBUTE = InternalAuthContext.class.getName();
+
+    private final InternalAuthCodec codec;
+    private final String headerName;
+    private SecurityEventAggregator securityEvents = SecurityEventAggregator.NOOP;
+
+    public InternalAuthFilter(InternalAuthCodec codec, String headerName) {
+        this.codec = codec;
+        this.headerName = headerName;
+    }
+
+    @Autowired(required = false)
+    public void setSecurityEventAggregator(SecurityEventAggregator securityEvents) {
+        this.securityEvents = securityEvents;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String value = request.getHeader(headerName);
+        if (value != null) {
+            InternalAuthContext context = codec.decode(value);
+            if (context != null && context.roleMask() != 0) {
+                List<SimpleGrantedAuthority> authorities = SkutterAuthorities.forRoleMask(context.roleMask());
+                SupabaseUserDetails userDetails =
+                        new SupabaseUserDetails(context.userId(), null, context.roleMask(), null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities));
+                request.setAttribute(CONTEXT_ATTRIBUTE, context);
+                log.trace("Authenticated internal call for user {}", context.userId());
+            } else {
+                securityEvents.record(SecurityEventType.INVALID_TOKEN, request.getRemoteAddr(),
+                        "internal auth context rejected");
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
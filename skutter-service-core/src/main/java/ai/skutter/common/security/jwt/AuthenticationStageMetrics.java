@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the stages of the JWT authentication pipeline, published as
+ * {@code skutter.security.auth.stage} tagged by stage
+ */
+public class AuthenticationStageMetrics {
+
+    /**
+     * Stages of authenticating a request from its bearer token
+     */
+    public enum Stage {
+        VERIFY, EXPIRY, AUTHORITIES, PRINCIPAL;
+
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Instance that records nothing, used until a meter registry is available
+     */
+    public static final AuthenticationStageMetrics NOOP = new AuthenticationStageMetrics();
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+    private AuthenticationStageMetrics() {
+    }
+
+    public AuthenticationStageMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("skutter.security.auth.stage")
+                    .description("Time spent in each stage of JWT authentication")
+                    .tag("stage", stage.tagValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record the time elapsed since {@code startNanos} (from {@link System#nanoTime()}) against a stage
+     */
+    public void record(Stage stage, long startNanos) {
+        Timer timer = timers.get(stage);
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
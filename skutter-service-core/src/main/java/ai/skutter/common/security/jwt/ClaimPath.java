@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dot-separated path to a claim, such as {@code app_metadata.skutter_role}, split into its
+ * segments once so resolving it against a token's claims is a direct walk through nested maps.
+ * <p>
+ * Instances are immutable and intended to be compiled from configuration at startup.
+ * Methods that take a path as a string per call look it up with {@link #cached(String)}
+ * instead of splitting it again.
+ */
+public final class ClaimPath {
+
+    /**
+     * Paths kept by {@link #cached(String)}; further paths are compiled per call, so callers
+     * building paths from request data cannot grow the cache without bound
+     */
+    static final int MAX_CACHED = 256;
+
+    private static final Map<String, ClaimPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final String[] segments;
+
+    private ClaimPath(String path, String[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * Compile a claim path
+     *
+     * @throws IllegalArgumentException if the path is blank or has an empty segment
+     */
+    public static ClaimPath of(String path) {
+        if (!StringUtils.hasText(path)) {
+            throw new IllegalArgumentException("Claim path must not be empty");
+        }
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int dot;
+        while ((dot = path.indexOf('.', start)) >= 0) {
+            segments.add(segment(path, start, dot));
+            start = dot + 1;
+        }
+        segments.add(segment(path, start, path.length()));
+        return new ClaimPath(path, segments.toArray(new String[0]));
+    }
+
+    /**
+     * Compile a claim path, reusing the result for paths compiled through here before
+     *
+     * @throws IllegalArgumentException if the path is blank or has an empty segment
+     */
+    static ClaimPath cached(String path) {
+        ClaimPath compiled = path != null ? CACHE.get(path) : null;
+        if (compiled == null) {
+            compiled = of(path);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Resolve the path against a claims map (a {@link io.jsonwebtoken.Claims} or any nested map)
+     *
+     * @return the value, or null if any segment is missing or an intermediate value is not a map
+     */
+    public Object resolve(Map<?, ?> claims) {
+        Object current = claims;
+        for (String segment : segments) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = map.get(segment);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Resolve the path against a claims map
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> find(Map<?, ?> claims) {
+        return Optional.ofNullable((T) resolve(claims));
+    }
+
+    /**
+     * The top-level claim the path starts from
+     */
+    public String getRoot() {
+        return segments[0];
+    }
+
+    /**
+     * The dot-separated path this was compiled from
+     */
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ClaimPath claimPath && path.equals(claimPath.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static String segment(String path, int start, int end) {
+        if (start == end) {
+            throw new IllegalArgumentException("Claim path '" + path + "' has an empty segment");
+        }
+        return path.substring(start, end);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ClaimsBuilder;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Verifier for HS256-signed compact JWS tokens that avoids the generic parser pipeline.
+ * <p>
+ * The signature is computed over the raw {@code header.payload} bytes with a {@link Mac}
+ * reused per thread and compared in constant time. Only after the signature matches is the
+ * payload decoded, with a streaming JSON parser that keeps the registered claims and a
+ * configured set of top-level claims and skips everything else.
+ * <p>
+ * Tokens that are not plain HS256 JWS (another algorithm, {@code crit}, {@code zip} or
+ * unencoded payload headers) are not handled; {@link #verify} returns null for them so the
+ * caller can fall back to the generic parser.
+ */
+class Hs256TokenVerifier {
+
+    private static final String ALGORITHM = "HS256";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKey key;
+    private final Set<String> extraClaims;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param key         the HMAC secret
+     * @param extraClaims top-level claim names to decode in addition to the registered claims
+     */
+    Hs256TokenVerifier(SecretKey key, Collection<String> extraClaims) {
+        this.key = key;
+        this.extraClaims = Set.copyOf(extraClaims);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        // Fail at startup rather than on the first request if the key cannot be used
+        newMac();
+    }
+
+    /**
+     * Verify a token's signature and time-based claims and decode its claims
+     *
+     * @return the claims, or null if the token is not a plain HS256 JWS and must be parsed generically
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, its signature does not match,
+     *                                      or it is expired or not yet valid
+     */
+    Claims verify(String token, long nowMillis) {
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new MalformedJwtException("JWT must have exactly two period separators");
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+        if (!isPlainHs256(decode(bytes, 0, firstDot))) {
+            return null;
+        }
+
+        Mac mac = macs.get();
+        mac.update(bytes, 0, secondDot);
+        byte[] expected = mac.doFinal();
+        byte[] actual = decode(bytes, secondDot + 1, bytes.length);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new SignatureException("JWT signature does not match locally computed signature");
+        }
+
+        Claims claims = parseClaims(decode(bytes, firstDot + 1, secondDot));
+        Date expiration = claims.getExpiration();
+        if (expiration != null && nowMillis > expiration.getTime()) {
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + expiration.toInstant());
+        }
+        Date notBefore = claims.getNotBefore();
+        if (notBefore != null && nowMillis < notBefore.getTime()) {
+            throw new PrematureJwtException(null, claims, "JWT must not be accepted before " + notBefore.toInstant());
+        }
+        return claims;
+    }
+
+    private boolean isPlainHs256(byte[] header) {
+        boolean hs256 = false;
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(header)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "alg" -> hs256 = ALGORITHM.equals(parser.getValueAsString());
+                    case "crit", "zip", "b64" -> {
+                        return false;
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new MalformedJwtException("Invalid JWT header: " + e.getMessage(), e);
+        }
+        return hs256;
+    }
+
+    private Claims parseClaims(byte[] payload) {
+        ClaimsBuilder claims = Jwts.claims();
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(payload)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case Claims.SUBJECT -> claims.subject(parser.getValueAsString());
+                    case Claims.ISSUER -> claims.issuer(parser.getValueAsString());
+                    case Claims.ID -> claims.id(parser.getValueAsString());
+                    case Claims.EXPIRATION -> claims.expiration(toDate(parser));
+                    case Claims.NOT_BEFORE -> claims.notBefore(toDate(parser));
+                    case Claims.ISSUED_AT -> claims.issuedAt(toDate(parser));
+                    case Claims.AUDIENCE -> claims.add(Claims.AUDIENCE, parser.readValueAs(Object.class));
+                    default -> {
+                        if (extraClaims.contains(name)) {
+                            claims.add(name, value == JsonToken.VALUE_NULL ? null : parser.readValueAs(Object.class));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MalformedJwtException("Invalid JWT payload: " + e.getMessage(), e);
+        }
+        return claims.build();
+    }
+
+    private static Date toDate(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isNumeric()) {
+            throw new MalformedJwtException("JWT date claim '" + parser.currentName() + "' must be numeric");
+        }
+        return new Date(parser.getLongValue() * 1000);
+    }
+
+    private static void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new MalformedJwtException("JWT segment is not a JSON object");
+        }
+    }
+
+    private static byte[] decode(byte[] bytes, int from, int to) {
+        try {
+            ByteBuffer decoded = DECODER.decode(ByteBuffer.wrap(bytes, from, to - from));
+            byte[] result = new byte[decoded.remaining()];
+            decoded.get(result);
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Invalid Base64URL in JWT: " + e.getMessage(), e);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + MAC_ALGORITHM, e);
+        }
+    }
+}
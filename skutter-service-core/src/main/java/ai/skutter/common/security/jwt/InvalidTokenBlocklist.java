@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Temporarily ignores bearer tokens from sources that keep presenting invalid ones.
+ * <p>
+ * Each source (client address) gets a failure count that starts with its first forged or
+ * malformed token and lasts for the configured window; expired tokens and tokens without
+ * roles are not counted, so clients retrying with a lapsed token are not locked out. A source reaching the failure limit within
+ * its window is blocked for the block duration: {@link JwtAuthenticationFilter} then skips
+ * token verification for it entirely, so its requests are treated as unauthenticated
+ * without spending any crypto on them. Both maps are bounded.
+ */
+@Slf4j
+public class InvalidTokenBlocklist {
+
+    private final int maxFailures;
+    private final Cache<String, AtomicInteger> failures;
+    private final Cache<String, Boolean> blocked;
+    private final LongAdder blockedRequests = new LongAdder();
+
+    /**
+     * @param maxFailures    rejected tokens within the window after which a source is blocked
+     * @param window         how long failures are counted from a source's first failure
+     * @param blockDuration  how long a source stays blocked
+     * @param maximumSources maximum number of sources tracked in each map
+     */
+    public InvalidTokenBlocklist(int maxFailures, Duration window, Duration blockDuration, long maximumSources) {
+        this(maxFailures, window, blockDuration, maximumSources, Ticker.systemTicker());
+    }
+
+    InvalidTokenBlocklist(int maxFailures, Duration window, Duration blockDuration, long maximumSources, Ticker ticker) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("maxFailures must be at least 1");
+        }
+        this.maxFailures = maxFailures;
+        this.failures = CacheBuilder.newBuilder()
+                .maximumSize(maximumSources)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+        this.blocked = CacheBuilder.newBuilder()
+                .maximumSize(maximumSources)
+                .expireAfterWrite(blockDuration)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Whether tokens from a source are currently ignored. Counts the request if so.
+     */
+    public boolean isBlocked(String source) {
+        if (blocked.getIfPresent(source) == null) {
+            return false;
+        }
+        blockedRequests.increment();
+        return true;
+    }
+
+    /**
+     * Record a rejected token from a source, blocking the source once it reaches the limit
+     */
+    public void recordFailure(String source) {
+        try {
+            int count = failures.get(source, AtomicInteger::new).incrementAndGet();
+            if (count >= maxFailures) {
+                failures.invalidate(source);
+                blocked.put(source, Boolean.TRUE);
+                log.warn("Blocking bearer tokens from {} after {} invalid tokens", source, count);
+            }
+        } catch (ExecutionException e) {
+            // AtomicInteger::new cannot fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long getBlockedRequestCount() {
+        return blockedRequests.sum();
+    }
+
+    public long getBlockedSourceCount() {
+        return blocked.size();
+    }
+
+    /**
+     * Register blocked request and source meters
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("skutter.security.jwt.blocklist.requests", this, InvalidTokenBlocklist::getBlockedRequestCount)
+                .description("Requests whose bearer token was ignored because the source is blocked")
+                .register(meterRegistry);
+        Gauge.builder("skutter.security.jwt.blocklist.size", this, InvalidTokenBlocklist::getBlockedSourceCount)
+                .description("Sources currently blocked for presenting invalid tokens")
+                .register(meterRegistry);
+    }
+}
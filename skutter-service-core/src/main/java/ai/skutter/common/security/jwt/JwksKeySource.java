@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verification keys loaded from a JSON Web Key Set, looked up by {@code kid}.
+ * <p>
+ * Keys are parsed once per fetch into an immutable snapshot that is swapped atomically, so
+ * lookups never block. The set is refreshed in the background at a fixed interval, and an
+ * unknown {@code kid} schedules an early refresh at most once per minimum refetch interval;
+ * the request presenting the unknown key fails rather than waiting for the fetch.
+ * <p>
+ * The location may be any URL Spring's {@link ResourceUtils} understands, e.g.
+ * {@code https://<project>.supabase.co/auth/v1/.well-known/jwks.json}, {@code file:} or {@code classpath:}.
+ */
+@Slf4j
+public class JwksKeySource implements AutoCloseable {
+
+    private final String location;
+    private final Duration refreshInterval;
+    private final Duration minRefetchInterval;
+    private final Duration timeout;
+    private final Runnable onKeysChanged;
+
+    private final AtomicReference<KeySnapshot> snapshot = new AtomicReference<>(KeySnapshot.EMPTY);
+    private final AtomicLong lastFetchAttemptNanos = new AtomicLong(System.nanoTime() - TimeUnit.DAYS.toNanos(1));
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param location           JWKS location
+     * @param refreshInterval    interval between background refreshes
+     * @param minRefetchInterval minimum time between fetches triggered by unknown key IDs
+     * @param timeout            connect and read timeout for each fetch
+     * @param onKeysChanged      called after a refresh changed the set of keys, e.g. to drop cached verifications
+     */
+    public JwksKeySource(String location, Duration refreshInterval, Duration minRefetchInterval, Duration timeout,
+                         Runnable onKeysChanged) {
+        this.location = location;
+        this.refreshInterval = refreshInterval;
+        this.minRefetchInterval = minRefetchInterval;
+        this.timeout = timeout;
+        this.onKeysChanged = onKeysChanged;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the key set once and schedule background refreshes. A failed initial load is
+     * logged and retried on the refresh schedule rather than failing startup.
+     */
+    public void start() {
+        refresh();
+        long intervalMillis = refreshInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("JWKS key source started for {} with {} keys, refreshing every {}",
+                location, snapshot.get().keys().size(), refreshInterval);
+    }
+
+    /**
+     * Get the key for a key ID from the current snapshot. When the token has no {@code kid}
+     * and the set holds a single key, that key is returned.
+     *
+     * @return the key, or null if unknown (an early refresh is then scheduled)
+     */
+    public Key getKey(String keyId) {
+        KeySnapshot current = snapshot.get();
+        Key key = StringUtils.hasText(keyId) ? current.keys().get(keyId)
+                : current.keys().size() == 1 ? current.keys().values().iterator().next() : null;
+        if (key == null) {
+            log.debug("No JWKS key found for kid '{}'", keyId);
+            requestRefresh();
+        }
+        return key;
+    }
+
+    /**
+     * Number of keys in the current snapshot
+     */
+    public int size() {
+        return snapshot.get().keys().size();
+    }
+
+    /**
+     * Time the current snapshot was loaded, or null if no key set has been loaded yet
+     */
+    public Instant getLoadedAt() {
+        return snapshot.get().loadedAt();
+    }
+
+    /**
+     * Schedule an asynchronous refresh unless one ran within the minimum refetch interval
+     */
+    void requestRefresh() {
+        long last = lastFetchAttemptNanos.get();
+        long now = System.nanoTime();
+        if (now - last < minRefetchInterval.toNanos() || !lastFetchAttemptNanos.compareAndSet(last, now)) {
+            return;
+        }
+        executor.execute(this::refresh);
+    }
+
+    /**
+     * Fetch and parse the key set, then publish it as the new snapshot
+     */
+    void refresh() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastFetchAttemptNanos.set(System.nanoTime());
+            Map<String, Key> keys = fetchKeys();
+            KeySnapshot previous = snapshot.getAndSet(new KeySnapshot(Map.copyOf(keys), Instant.now()));
+            if (!previous.keys().keySet().equals(keys.keySet())) {
+                log.info("JWKS keys updated from {}: {}", location, keys.keySet());
+                if (onKeysChanged != null) {
+                    onKeysChanged.run();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh JWKS from {}; keeping {} previously loaded keys: {}",
+                    location, snapshot.get().keys().size(), e.getMessage());
+        } finally {
+            refreshInProgress.set(false);
+        }
+    }
+
+    private Map<String, Key> fetchKeys() throws Exception {
+        URLConnection connection = ResourceUtils.getURL(location).openConnection();
+        connection.setConnectTimeout((int) timeout.toMillis());
+        connection.setReadTimeout((int) timeout.toMillis());
+        connection.setRequestProperty("Accept", "application/json");
+
+        JwkSet jwkSet;
+        try (InputStream in = connection.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            jwkSet = Jwks.setParser().build().parse(reader);
+        }
+
+        Map<String, Key> keys = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            if (!StringUtils.hasText(jwk.getId())) {
+                log.warn("Ignoring JWKS key without a kid from {}", location);
+                continue;
+            }
+            keys.put(jwk.getId(), jwk.toKey());
+        }
+        return keys;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private record KeySnapshot(Map<String, Key> keys, Instant loadedAt) {
+        static final KeySnapshot EMPTY = new KeySnapshot(Map.of(), null);
+    }
+}
@@ -20,6 +20,8 @@
 
 package ai.skutter.common.security.jwt;
 
+import ai.skutter.common.security.logging.SecurityEventAggregator;
+import ai.skutter.common.security.logging.SecurityEventType;
 import ai.skutter.common.security.properties.SkutterSecurityProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,7 +29,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -47,19 +51,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final SupabaseJwtProcessor jwtProcessor;
     private final SkutterSecurityProperties properties;
 
+    private InvalidTokenBlocklist blocklist;
+    private SecurityEventAggregator securityEvents = SecurityEventAggregator.NOOP;
+
+    @Autowired(required = false)
+    public void setInvalidTokenBlocklist(InvalidTokenBlocklist blocklist) {
+        this.blocklist = blocklist;
+    }
+
+    @Autowired(required = false)
+    public void setSecurityEventAggregator(SecurityEventAggregator securityEvents) {
+        this.securityEvents = securityEvents;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                var authentication = jwtProcessor.process(jwt);
-                if (authentication != null) {
-                    log.debug("Setting authentication: {}", authentication);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            // Already authenticated upstream, e.g. by an internal service auth context
+            Authentication existing = SecurityContextHolder.getContext().getAuthentication();
+            String jwt = existing == null || !existing.isAuthenticated() ? getJwtFromRequest(request) : null;
+            String source = request.getRemoteAddr();
+            if (jwt != null && blocklist != null && blocklist.isBlocked(source)) {
+                // Known-abusive source: don't spend any verification work on its token
+                securityEvents.record(SecurityEventType.BLOCKED_SOURCE, source, request.getRequestURI());
+                jwt = null;
+            }
+            // Parse and verify once; the verified token is carried through the remaining stages
+            TokenVerification verification = jwt != null ? tokenProvider.verifyOrReject(jwt) : null;
+            Authentication authentication = verification != null && verification.isVerified()
+                    ? jwtProcessor.authenticate(verification.token())
+                    : null;
+            if (authentication != null) {
+                log.debug("Setting authentication: {}", authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } else if (jwt != null) {
+                // Never log the token itself
+                securityEvents.record(SecurityEventType.INVALID_TOKEN, source, request.getRequestURI());
+                // Only forged or garbage tokens count; clients retrying with a lapsed token are not abusive
+                if (blocklist != null && verification != null && verification.rejection() != null
+                        && verification.rejection().isInvalidToken()) {
+                    blocklist.recordFailure(source);
                 }
-            } else {
-                log.warn("Invalid JWT token: {}", jwt);
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
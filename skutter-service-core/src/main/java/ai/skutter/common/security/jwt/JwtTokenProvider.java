@@ -20,17 +20,25 @@
 
 package ai.skutter.common.security.jwt;
 
+import ai.skutter.common.security.logging.SecurityEventAggregator;
+import ai.skutter.common.security.logging.SecurityEventType;
 import ai.skutter.common.security.properties.SkutterSecurityProperties;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
@@ -38,16 +46,23 @@ import org.springframework.util.StringUtils;
 import javax.crypto.SecretKey;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.Key;
 import java.security.KeyFactory;
 import java.security.PublicKey;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 @Slf4j
@@ -56,15 +71,59 @@ import java.util.function.Function;
 public class JwtTokenProvider {
 
     private final SkutterSecurityProperties properties;
-    private Key key;
-    private JwtParser jwtParser;
+    /**
+     * Current key, parser and fast path, replaced as a whole on rotation
+     */
+    private final AtomicReference<VerifierSet> verifiers = new AtomicReference<>();
+    /**
+     * Incremented on every key change, before the caches are cleared
+     */
+    private final AtomicLong keyGeneration = new AtomicLong();
+    private VerifiedTokenCache tokenCache;
+    private RejectedTokenCache rejectedTokens;
+    private JwksKeySource jwksKeySource;
+    private KeyFileWatcher keyFileWatcher;
+    private MeterRegistry meterRegistry;
+    private AuthenticationStageMetrics stageMetrics = AuthenticationStageMetrics.NOOP;
+    private TokenRejectionMetrics rejectionMetrics = TokenRejectionMetrics.NOOP;
+    private SecurityEventAggregator securityEvents = SecurityEventAggregator.NOOP;
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stageMetrics = new AuthenticationStageMetrics(meterRegistry);
+        this.rejectionMetrics = new TokenRejectionMetrics(meterRegistry);
+    }
+
+    @Autowired(required = false)
+    public void setSecurityEventAggregator(SecurityEventAggregator securityEvents) {
+        this.securityEvents = securityEvents;
+    }
 
     @PostConstruct
     public void init() {
+        SkutterSecurityProperties.Jwt.Cache cacheProperties = properties.getJwt().getCache();
+        if (cacheProperties.isEnabled()) {
+            this.tokenCache = new VerifiedTokenCache(cacheProperties.getMaximumSize(), cacheProperties.getMaxTtl());
+            if (meterRegistry != null) {
+                tokenCache.bindTo(meterRegistry);
+            }
+            log.info("Verified token cache enabled: maximumSize={}, maxTtl={}",
+                    cacheProperties.getMaximumSize(), cacheProperties.getMaxTtl());
+        }
+        SkutterSecurityProperties.Jwt.NegativeCache negativeCacheProperties = properties.getJwt().getNegativeCache();
+        if (negativeCacheProperties.isEnabled()) {
+            this.rejectedTokens = new RejectedTokenCache(negativeCacheProperties.getMaximumSize(),
+                    negativeCacheProperties.getTtl());
+        }
         initializeKey();
     }
 
     public String generateToken(String subject) {
+        Key key = verifiers.get().getKey();
+        if (key == null) {
+            throw new IllegalStateException("No signing key configured; JWKS keys can only verify tokens");
+        }
         log.debug("Generating JWT token for subject: {}", subject);
         String token = Jwts.builder()
                 .subject(subject)
@@ -77,15 +136,12 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
-        try {
-            log.trace("Validating JWT token");
-            jwtParser.parseSignedClaims(token);
+        log.trace("Validating JWT token");
+        boolean valid = verify(token).isPresent();
+        if (valid) {
             log.debug("JWT token validation successful");
-            return true;
-        } catch (Exception e) {
-            log.debug("Invalid JWT token: {}", e.getMessage());
-            return false;
         }
+        return valid;
     }
 
     public String getUsernameFromToken(String token) {
@@ -103,7 +159,74 @@ public class JwtTokenProvider {
 
     private Claims getAllClaimsFromToken(String token) {
         log.trace("Getting all claims from JWT token");
-        return jwtParser.parseSignedClaims(token).getPayload();
+        return parseVerifiedClaims(token, true);
+    }
+
+    /**
+     * Parse the token and verify its signature, or return the claims of an identical token
+     * verified earlier. Expiration and other claim checks are left to the caller.
+     *
+     * @param complete whether all claims are needed. Otherwise, with the HS256 fast path
+     *                 enabled, only the claims the authentication pipeline reads are decoded,
+     *                 and the cache may hold such partial claims, so it is then bypassed for
+     *                 complete lookups.
+     */
+    private Claims parseVerifiedClaims(String token, boolean complete) {
+        // Read before the verifiers, so a key change after this point is seen below
+        long generation = keyGeneration.get();
+        VerifierSet current = verifiers.get();
+        if (tokenCache != null && (!complete || !current.hasPartialClaims())) {
+            Claims cached = tokenCache.get(token);
+            if (cached != null) {
+                log.trace("Using cached verified claims");
+                return cached;
+            }
+        }
+        long now = System.currentTimeMillis();
+        Claims claims;
+        try {
+            claims = current.verify(token, now, complete);
+        } catch (SecurityException e) {
+            VerifierSet previous = current.previousAt(now);
+            if (previous == null) {
+                throw e;
+            }
+            // Signed with the key being rotated out. Not cached, so it stops being
+            // accepted as soon as the overlap window closes.
+            claims = previous.verify(token, now, complete);
+            log.trace("Token verified with the previous key during rotation overlap");
+            return claims;
+        }
+        if (tokenCache != null) {
+            tokenCache.put(token, claims);
+            if (keyGeneration.get() != generation) {
+                // The key changed while verifying; the clear may have run before the put
+                tokenCache.remove(token);
+            }
+        }
+        return claims;
+    }
+
+    private void clearTokenCache() {
+        keyGeneration.incrementAndGet();
+        if (tokenCache != null) {
+            tokenCache.clear();
+            log.debug("Cleared verified token cache after key change");
+        }
+        if (rejectedTokens != null) {
+            rejectedTokens.clear();
+        }
+    }
+
+    /**
+     * Record that a token was rejected after verification, e.g. because it carries no roles,
+     * so replays of it are refused without being parsed again
+     */
+    public void reject(VerifiedToken token, TokenRejectionReason reason) {
+        rejectionMetrics.record(reason, false);
+        if (rejectedTokens != null && token.getToken() != null) {
+            rejectedTokens.put(token.getToken(), reason);
+        }
     }
 
     /**
@@ -111,38 +234,38 @@ public class JwtTokenProvider {
      */
     private void initializeKey() {
         try {
+            boolean jwksConfigured = StringUtils.hasText(properties.getJwt().getJwksUri());
+            Key key;
             if (StringUtils.hasText(properties.getJwt().getPublicKeyPath())) {
                 // Load public key from file
-                this.key = loadPublicKey(properties.getJwt().getPublicKeyPath());
+                key = loadPublicKey(properties.getJwt().getPublicKeyPath());
                 log.info("Initialized JWT provider with public key from: {}", 
                          properties.getJwt().getPublicKeyPath());
             } else if (StringUtils.hasText(properties.getJwt().getSecret())) {
                 // Use secret key
-                this.key = Keys.hmacShaKeyFor(
+                key = Keys.hmacShaKeyFor(
                     properties.getJwt().getSecret().getBytes(StandardCharsets.UTF_8));
                 log.info("Initialized JWT provider with provided secret key");
+            } else if (jwksConfigured) {
+                // Asymmetric keys only, resolved by kid
+                key = null;
             } else {
                 // Generate a random key for dev environments
                 log.warn("No JWT secret or public key provided, generating a temporary one. " + 
                          "This is not secure for production use!");
-                this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+                key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
             }
-            
-            // Create JWT parser
-            var parserBuilder = Jwts.parser();
-            if (this.key instanceof SecretKey) {
-                log.debug("Using HMAC secret key for JWT validation");
-                parserBuilder = parserBuilder.verifyWith((SecretKey) this.key);
-            } else if (this.key instanceof PublicKey) {
-                log.debug("Using public key for JWT validation");
-                parserBuilder = parserBuilder.verifyWith((PublicKey) this.key);
-            } else {
-                String error = "Unsupported key type: " + this.key.getClass().getName();
-                log.error(error);
-                throw new IllegalStateException(error);
+
+            if (jwksConfigured && jwksKeySource == null) {
+                SkutterSecurityProperties.Jwt jwt = properties.getJwt();
+                this.jwksKeySource = new JwksKeySource(jwt.getJwksUri(), jwt.getJwksRefreshInterval(),
+                        jwt.getJwksMinRefetchInterval(), jwt.getJwksTimeout(), this::clearTokenCache);
+                jwksKeySource.start();
             }
             
-            this.jwtParser = parserBuilder.build();
+            verifiers.set(buildVerifierSet(key));
+            clearTokenCache();
+            startKeyFileWatcher();
             log.info("JWT parser initialized successfully");
             
         } catch (Exception e) {
@@ -151,6 +274,120 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Build the parser and optional HS256 fast path for a key
+     */
+    private VerifierSet buildVerifierSet(Key key) {
+        return new VerifierSet(key, buildParser(key), buildHs256Verifier(key));
+    }
+
+    /**
+     * Publish a new key. Tokens signed with the key it replaces keep verifying for the
+     * configured rotation overlap, so rotation causes no authentication failures.
+     */
+    private void rotateKey(Key newKey) {
+        VerifierSet next = buildVerifierSet(newKey);
+        long overlapMillis = properties.getJwt().getKeyRotationOverlap().toMillis();
+        long now = System.currentTimeMillis();
+        verifiers.updateAndGet(current -> current.rotateTo(next, overlapMillis, now));
+        clearTokenCache();
+        log.info("JWT verification key rotated; previous key accepted for {} ms", overlapMillis);
+    }
+
+    /**
+     * Watch the public key file for changes when reload-on-update is enabled
+     */
+    private void startKeyFileWatcher() throws IOException {
+        SkutterSecurityProperties.Jwt jwt = properties.getJwt();
+        if (!jwt.isReloadOnUpdate() || !StringUtils.hasText(jwt.getPublicKeyPath()) || keyFileWatcher != null) {
+            return;
+        }
+        Path file = ResourceUtils.getFile(jwt.getPublicKeyPath()).toPath();
+        this.keyFileWatcher = new KeyFileWatcher(file, jwt.getReloadQuietPeriod(), this::reloadPublicKey);
+        keyFileWatcher.start();
+    }
+
+    /**
+     * Reload the public key file and rotate to it if it changed. A file that cannot be read
+     * or parsed leaves the current key in place.
+     */
+    private void reloadPublicKey() {
+        String publicKeyPath = properties.getJwt().getPublicKeyPath();
+        try {
+            PublicKey newKey = loadPublicKey(publicKeyPath);
+            Key currentKey = verifiers.get().getKey();
+            if (currentKey != null && Arrays.equals(currentKey.getEncoded(), newKey.getEncoded())) {
+                log.debug("Public key file {} changed but the key is the same", publicKeyPath);
+                return;
+            }
+            rotateKey(newKey);
+            log.info("Reloaded JWT public key from: {}", publicKeyPath);
+        } catch (Exception e) {
+            log.error("Failed to reload JWT public key from {}; keeping the current key", publicKeyPath, e);
+        }
+    }
+
+    /**
+     * Create the JWT parser for a key. With a JWKS source, asymmetric tokens are
+     * verified with the key matching their kid and HMAC tokens with the configured secret.
+     */
+    private JwtParser buildParser(Key key) {
+        var parserBuilder = Jwts.parser();
+        if (jwksKeySource != null) {
+            log.debug("Using JWKS key locator for JWT validation");
+            final Key fallbackKey = key;
+            final JwksKeySource keySource = this.jwksKeySource;
+            return parserBuilder.keyLocator(new LocatorAdapter<Key>() {
+                @Override
+                protected Key locate(JwsHeader header) {
+                    String algorithm = header.getAlgorithm();
+                    if (algorithm != null && algorithm.startsWith("HS")) {
+                        return fallbackKey instanceof SecretKey ? fallbackKey : null;
+                    }
+                    return keySource.getKey(header.getKeyId());
+                }
+            }).build();
+        }
+        if (key instanceof SecretKey) {
+            log.debug("Using HMAC secret key for JWT validation");
+            parserBuilder = parserBuilder.verifyWith((SecretKey) key);
+        } else if (key instanceof PublicKey) {
+            log.debug("Using public key for JWT validation");
+            parserBuilder = parserBuilder.verifyWith((PublicKey) key);
+        } else {
+            String error = "Unsupported key type: " + (key != null ? key.getClass().getName() : "none");
+            log.error(error);
+            throw new IllegalStateException(error);
+        }
+        return parserBuilder.build();
+    }
+
+    /**
+     * Create the HS256 fast-path verifier when enabled and an HMAC secret is configured.
+     * It decodes the registered claims plus the ones the authentication pipeline reads.
+     */
+    private Hs256TokenVerifier buildHs256Verifier(Key key) {
+        SkutterSecurityProperties.Jwt jwt = properties.getJwt();
+        if (!jwt.isHs256FastPath() || !(key instanceof SecretKey secretKey)) {
+            return null;
+        }
+        Set<String> claims = new HashSet<>(Set.of("email", "role"));
+        claims.add(ClaimPath.of(jwt.getRoleClaim()).getRoot());
+        claims.add(ClaimPath.of(jwt.getUserIdClaim()).getRoot());
+        log.debug("Using HS256 fast-path verifier for claims {}", claims);
+        return new Hs256TokenVerifier(secretKey, claims);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (jwksKeySource != null) {
+            jwksKeySource.close();
+        }
+        if (keyFileWatcher != null) {
+            keyFileWatcher.close();
+        }
+    }
+
     /**
      * Load a public key from a file path
      */
@@ -185,19 +422,14 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Update the JWT secret and reinitialize the provider
+     * Update the JWT secret. Tokens signed with the old secret are still accepted for the
+     * configured rotation overlap.
      * @param newSecret The new secret to use
      */
     public void updateSecret(String newSecret) {
         if (StringUtils.hasText(newSecret)) {
             log.info("Updating JWT provider with new secret key");
-            this.key = Keys.hmacShaKeyFor(newSecret.getBytes(StandardCharsets.UTF_8));
-            
-            // Recreate JWT parser with new key
-            this.jwtParser = Jwts.parser()
-                .verifyWith((SecretKey) this.key)
-                .build();
-            
+            rotateKey(Keys.hmacShaKeyFor(newSecret.getBytes(StandardCharsets.UTF_8)));
             log.info("JWT parser reinitialized with new secret");
         }
     }
@@ -212,7 +444,7 @@ public class JwtTokenProvider {
             }
             
             log.trace("Extracting issuer from JWT token");
-            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            Claims claims = parseVerifiedClaims(token, true);
             String issuer = claims.getIssuer();
             
             if (StringUtils.hasText(issuer)) {
@@ -228,46 +460,104 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Validate a JWT token and return the claims if valid
+     * Parse a JWT token and verify its signature, once per request.
+     * Expiration policy is checked separately with {@link #isUnexpired(VerifiedToken)}.
+     * <p>
+     * Meant for the authentication pipeline: with the HS256 fast path enabled the claims only
+     * include the registered claims, email, role and the roots of the role and user ID claim
+     * paths. Use {@link #validateAndGetClaims(String)} when all claims are needed.
      */
-    public Optional<Claims> validateAndGetClaims(String token) {
+    public Optional<VerifiedToken> verify(String token) {
+        return verify(token, false).toOptional();
+    }
+
+    /**
+     * Like {@link #verify(String)}, but returns why the token was rejected when it was
+     */
+    public TokenVerification verifyOrReject(String token) {
+        return verify(token, false);
+    }
+
+    private TokenVerification verify(String token, boolean complete) {
+        if (!StringUtils.hasText(token)) {
+            log.debug("Empty token provided for validation");
+            return TokenVerification.rejected(TokenRejectionReason.MALFORMED);
+        }
+        long start = System.nanoTime();
+        // Read before verifying, so a key change during verification is seen below
+        long generation = keyGeneration.get();
         try {
-            if (!StringUtils.hasText(token)) {
-                log.debug("Empty token provided for validation");
-                return Optional.empty();
+            TokenRejectionReason knownRejection = rejectedTokens != null ? rejectedTokens.get(token) : null;
+            if (knownRejection != null) {
+                log.trace("Token previously rejected: {}", knownRejection);
+                rejectionMetrics.record(knownRejection, true);
+                return TokenVerification.rejected(knownRejection);
             }
-            
             log.trace("Validating and parsing JWT token");
-            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
-            
-            // Validate expiration if enabled
-            if (properties.getJwt().isValidateExpiration()) {
-                Date expiration = claims.getExpiration();
-                if (expiration == null || expiration.before(new Date())) {
-                    log.debug("JWT token is expired. Expiration: {}, Current time: {}", 
-                            expiration, new Date());
-                    return Optional.empty();
-                }
-                
-                // Check if token will expire in less than an hour
-                Date oneHourFromNow = new Date(System.currentTimeMillis() + 3600000); // 1 hour in milliseconds
-                if (expiration.before(oneHourFromNow)) {
-                    log.warn("JWT token will expire soon. Token expires at: {}, current time: {}, minutes remaining: {}", 
-                            expiration, new Date(), (expiration.getTime() - System.currentTimeMillis()) / 60000);
+            return TokenVerification.verified(VerifiedToken.of(token, parseVerifiedClaims(token, complete)));
+        } catch (Exception e) {
+            TokenRejectionReason reason = TokenRejectionReason.of(e);
+            log.debug("Invalid JWT token ({}): {}", reason, e.getMessage());
+            rejectionMetrics.record(reason, false);
+            if (rejectedTokens != null) {
+                rejectedTokens.put(token, reason);
+                if (keyGeneration.get() != generation) {
+                    // The key changed while verifying, so the token may be valid now; the clear may have run before the put
+                    rejectedTokens.remove(token);
                 }
-                log.trace("JWT token expiration validated successfully");
+            }
+            return TokenVerification.rejected(reason);
+        } finally {
+            stageMetrics.record(AuthenticationStageMetrics.Stage.VERIFY, start);
+        }
+    }
+
+    /**
+     * Check a verified token against the expiration policy
+     */
+    public boolean isUnexpired(VerifiedToken token) {
+        if (!properties.getJwt().isValidateExpiration()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        try {
+            long now = System.currentTimeMillis();
+            Date expiration = token.getExpiration();
+            if (token.isExpiredAt(now)) {
+                log.debug("JWT token is expired. Expiration: {}, Current time: {}", 
+                        expiration, new Date(now));
+                reject(token, TokenRejectionReason.EXPIRED);
+                return false;
             }
             
+            // Check if token will expire in less than an hour
+            long oneHourFromNow = now + 3600000; // 1 hour in milliseconds
+            if (expiration.getTime() < oneHourFromNow) {
+                securityEvents.record(SecurityEventType.TOKEN_EXPIRING_SOON, token.getSubject(), expiration);
+            }
+            log.trace("JWT token expiration validated successfully");
+            return true;
+        } finally {
+            stageMetrics.record(AuthenticationStageMetrics.Stage.EXPIRY, start);
+        }
+    }
+
+    /**
+     * Validate a JWT token and return all of its claims if valid
+     */
+    public Optional<Claims> validateAndGetClaims(String token) {
+        Optional<Claims> claims = verify(token, true).toOptional()
+            .filter(this::isUnexpired)
+            .map(VerifiedToken::getClaims);
+        if (claims.isPresent()) {
             log.debug("JWT token validation successful");
-            return Optional.of(claims);
-        } catch (Exception e) {
-            log.debug("Invalid JWT token: {}", e.getMessage());
-            return Optional.empty();
         }
+        return claims;
     }
 
     /**
-     * Extract a nested claim value from a path like "app_metadata.skutter_role"
+     * Extract a nested claim value from a path like "app_metadata.skutter_role". The path is
+     * compiled once and reused; callers on a hot path can hold a {@link ClaimPath} instead.
      */
     public Optional<Object> extractNestedClaim(Claims claims, String claimPath) {
         if (claims == null || !StringUtils.hasText(claimPath)) {
@@ -275,28 +565,20 @@ public class JwtTokenProvider {
                     claims, claimPath);
             return Optional.empty();
         }
-        
-        log.trace("Extracting nested claim: {}", claimPath);
-        String[] pathParts = claimPath.split("\\.");
-        Object currentValue = claims;
-        
-        for (String part : pathParts) {
-            if (currentValue instanceof Claims) {
-                currentValue = ((Claims) currentValue).get(part);
-            } else if (currentValue instanceof java.util.Map) {
-                currentValue = ((java.util.Map<?, ?>) currentValue).get(part);
-            } else {
-                log.debug("Invalid claim structure at path part: {}", part);
-                return Optional.empty();
-            }
-            
-            if (currentValue == null) {
-                log.debug("Claim not found at path part: {}", part);
-                return Optional.empty();
-            }
+        return extractNestedClaim(claims, ClaimPath.cached(claimPath));
+    }
+
+    /**
+     * Extract a nested claim value using a precompiled path
+     */
+    public Optional<Object> extractNestedClaim(Claims claims, ClaimPath claimPath) {
+        if (claims == null) {
+            return Optional.empty();
         }
-        
-        log.trace("Successfully extracted nested claim: {} = {}", claimPath, currentValue);
-        return Optional.ofNullable(currentValue);
+        Object value = claimPath.resolve(claims);
+        if (value == null) {
+            log.debug("Claim not found at path: {}", claimPath);
+        }
+        return Optional.ofNullable(value);
     }
 } 
\ No newline at end of file
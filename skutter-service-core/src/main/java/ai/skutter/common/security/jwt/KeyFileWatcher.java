@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a key file and runs a callback once changes to it have settled, in the manner of
+ * Spring Boot's {@code reload-on-update} SSL bundles.
+ * <p>
+ * The file's directory is watched rather than the file itself so that atomic replacements,
+ * including the symlink swaps used by Kubernetes secret volumes, are noticed. Any change in
+ * the directory starts a quiet period; the callback runs once no further change has been
+ * seen for that long. The callback is responsible for checking whether the key actually
+ * changed.
+ */
+@Slf4j
+public class KeyFileWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final Duration quietPeriod;
+    private final Runnable onChange;
+    private WatchService watchService;
+    private Thread thread;
+
+    public KeyFileWatcher(Path file, Duration quietPeriod, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.quietPeriod = quietPeriod;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Start watching on a daemon thread
+     */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        Path directory = file.getParent();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::watch, "jwt-key-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for key updates (quiet period {})", file, quietPeriod);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                drain(watchService.take());
+                // Wait for the changes to settle before reloading
+                WatchKey next;
+                while ((next = watchService.poll(quietPeriod.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    drain(next);
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    log.error("Failed to reload key from {}", file, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed by close()
+        }
+    }
+
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Error closing key file watch service", e);
+        }
+        thread = null;
+    }
+}
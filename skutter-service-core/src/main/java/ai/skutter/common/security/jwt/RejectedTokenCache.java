@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import ai.skutter.common.util.FastHash;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Duration;
+
+/**
+ * Bounded, short-lived cache of tokens that failed verification or authentication.
+ * <p>
+ * Clients and bots often replay the same expired or forged token many times; a hit here
+ * rejects the replay before any parsing or signature work. Entries are keyed by a 64-bit
+ * hash of the token and hold the token itself, which is compared on lookup. Like
+ * {@link VerifiedTokenCache}, the cache must be cleared whenever the verification keys
+ * change, since a token signed with a newly published key may then become valid.
+ */
+public class RejectedTokenCache {
+
+    private final Cache<Long, Entry> cache;
+
+    /**
+     * @param maximumSize maximum number of remembered tokens
+     * @param ttl         how long a rejection is remembered
+     */
+    public RejectedTokenCache(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, Ticker.systemTicker());
+    }
+
+    RejectedTokenCache(long maximumSize, Duration ttl, Ticker ticker) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Get the reason a token was previously rejected
+     *
+     * @return the reason, or null if the token is not known to be bad
+     */
+    public TokenRejectionReason get(String token) {
+        Entry entry = cache.getIfPresent(FastHash.hash64(token));
+        return entry != null && entry.token.equals(token) ? entry.reason : null;
+    }
+
+    /**
+     * Remember that a token was rejected
+     */
+    public void put(String token, TokenRejectionReason reason) {
+        cache.put(FastHash.hash64(token), new Entry(token, reason));
+    }
+
+    /**
+     * Forget a token's rejection
+     */
+    public void remove(String token) {
+        long key = FastHash.hash64(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.token.equals(token)) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Forget all rejections, e.g. after the verification keys changed
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private record Entry(String token, TokenRejectionReason reason) {
+    }
+}
@@ -20,69 +20,119 @@
 
 package ai.skutter.common.security.jwt;
 
+import ai.skutter.common.security.logging.SecurityEventAggregator;
+import ai.skutter.common.security.logging.SecurityEventType;
+import ai.skutter.common.security.properties.SkutterSecurityProperties;
+import ai.skutter.common.security.role.SkutterAuthorities;
 import ai.skutter.common.security.role.SkutterRole;
 import io.jsonwebtoken.Claims;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.util.StringUtils;
 
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.ArrayList;
-import org.springframework.security.core.GrantedAuthority;
 
 /**
  * Processor for Supabase JWT tokens that extracts authentication details
  */
 @Slf4j
-@RequiredArgsConstructor
 public class SupabaseJwtProcessor {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final ClaimPath roleClaim;
+    private final ClaimPath userIdClaim;
+
+    private AuthenticationStageMetrics stageMetrics = AuthenticationStageMetrics.NOOP;
+    private SecurityEventAggregator securityEvents = SecurityEventAggregator.NOOP;
+
+    /**
+     * Create a processor reading roles from {@code app_metadata.skutter_role} and the user id from {@code sub}
+     */
+    public SupabaseJwtProcessor(JwtTokenProvider jwtTokenProvider) {
+        this(jwtTokenProvider, new SkutterSecurityProperties());
+    }
+
+    /**
+     * Create a processor reading roles and the user id from the configured claim paths
+     */
+    public SupabaseJwtProcessor(JwtTokenProvider jwtTokenProvider, SkutterSecurityProperties securityProperties) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.roleClaim = ClaimPath.of(securityProperties.getJwt().getRoleClaim());
+        this.userIdClaim = ClaimPath.of(securityProperties.getJwt().getUserIdClaim());
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.stageMetrics = new AuthenticationStageMetrics(meterRegistry);
+    }
+
+    @Autowired(required = false)
+    public void setSecurityEventAggregator(SecurityEventAggregator securityEvents) {
+        this.securityEvents = securityEvents;
+    }
 
     /**
      * Process a JWT token and create an Authentication object
      */
     public Authentication process(String token) {
-        return jwtTokenProvider.validateAndGetClaims(token)
-            .flatMap(this::createAuthentication)
+        return jwtTokenProvider.verify(token)
+            .map(this::authenticate)
             .orElse(null);
     }
 
     /**
-     * Create an Authentication object from JWT claims
+     * Create an Authentication object from a token whose signature has already been verified.
+     * Returns null if the token is expired or carries no usable identity or roles.
+     */
+    public Authentication authenticate(VerifiedToken token) {
+        if (!jwtTokenProvider.isUnexpired(token)) {
+            return null;
+        }
+        return createAuthentication(token).orElse(null);
+    }
+
+    /**
+     * Create an Authentication object from a verified token's claims
      */
-    private Optional<Authentication> createAuthentication(Claims claims) {
+    private Optional<Authentication> createAuthentication(VerifiedToken token) {
+        Claims claims = token.getClaims();
         try {
-            String userId = claims.getSubject();
+            Object userIdValue = userIdClaim.resolve(claims);
+            String userId = userIdValue != null ? userIdValue.toString() : null;
             if (!StringUtils.hasText(userId)) {
-                log.debug("JWT subject is empty");
+                log.debug("JWT claim '{}' is empty", userIdClaim);
+                jwtTokenProvider.reject(token, TokenRejectionReason.MALFORMED);
                 return Optional.empty();
             }
 
             // Get user role from the nested claim structure
-            List<SimpleGrantedAuthority> authorities = getAuthorities(claims);
+            long start = System.nanoTime();
+            int roleMask = getRoleMask(claims, userId);
+            List<SimpleGrantedAuthority> authorities = SkutterAuthorities.forRoleMask(roleMask);
+            stageMetrics.record(AuthenticationStageMetrics.Stage.AUTHORITIES, start);
             
             // Reject users without any roles/authorities
             if (authorities.isEmpty()) {
-                log.warn("User {} has no roles/authorities assigned. Authentication rejected.", userId);
+                securityEvents.record(SecurityEventType.MISSING_ROLES, userId, "authentication rejected");
+                jwtTokenProvider.reject(token, TokenRejectionReason.NO_ROLES);
                 return Optional.empty();
             }
             
             // Create user principal with the authorities
-            SupabaseUserDetails userDetails = createUserDetails(claims, authorities);
+            start = System.nanoTime();
+            SupabaseUserDetails userDetails = createUserDetails(token, userId, roleMask, authorities);
             
             // Create authentication token with authorities
             UsernamePasswordAuthenticationToken authentication = 
                 new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+            stageMetrics.record(AuthenticationStageMetrics.Stage.PRINCIPAL, start);
 
             return Optional.of(authentication);
         } catch (Exception e) {
@@ -92,77 +142,64 @@ public class SupabaseJwtProcessor {
     }
 
     /**
-     * Extract authorities from JWT claims
+     * Extract the user's roles from JWT claims as a {@link SkutterRole} bit mask.
+     * Role names that are not {@link SkutterRole}s are skipped.
      */
-    private List<SimpleGrantedAuthority> getAuthorities(Claims claims) {
-        Optional<Object> roleClaim = jwtTokenProvider.extractNestedClaim(claims, "app_metadata.skutter_role");
+    private int getRoleMask(Claims claims, String userId) {
+        Object roles = roleClaim.resolve(claims);
         
-        if (roleClaim.isEmpty()) {
-            log.warn("No 'app_metadata.skutter_role' claim found in token for user: {}", claims.getSubject());
-            return Collections.emptyList();
+        if (roles == null) {
+            log.debug("No '{}' claim found in token for user: {}", roleClaim, userId);
+            return 0;
         }
         
-        Object roles = roleClaim.get();
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        int roleMask = 0;
         
         if (roles instanceof List) {
             // Handle multiple roles
             for (Object role : (List<?>) roles) {
-                addAuthorityForRole(authorities, role.toString());
+                roleMask |= roleBit(String.valueOf(role));
             }
         } else if (roles instanceof String) {
             // Handle single role
-            addAuthorityForRole(authorities, (String) roles);
+            roleMask = roleBit((String) roles);
         } else {
-            log.warn("Unexpected role format in token: {}", roles.getClass().getName());
+            log.debug("Unexpected role format in token: {}", roles.getClass().getName());
         }
         
-        if (authorities.isEmpty()) {
-            log.warn("No authorities could be extracted from role claim for user: {}", claims.getSubject());
-        }
-        
-        return authorities;
+        return roleMask;
     }
     
     /**
-     * Add the appropriate authority for a role
+     * Get the bit for a role name
+     *
+     * @return the role's bit, or 0 for roles outside {@link SkutterRole}
      */
-    private void addAuthorityForRole(List<SimpleGrantedAuthority> authorities, String roleName) {
-        // Add the role with ROLE_ prefix (Spring Security convention)
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + roleName));
-        
-        // Add additional permissions based on role capabilities
-        try {
-            SkutterRole role = SkutterRole.valueOf(roleName);
-            
-            // Add READ permission for all roles
-            authorities.add(new SimpleGrantedAuthority("PERMISSION_READ"));
-            
-            // Add WRITE permission for roles that can write
-            if (role.canWrite()) {
-                authorities.add(new SimpleGrantedAuthority("PERMISSION_WRITE"));
-            }
-            
-            // Add platform-wide indicator for platform roles
-            if (role.isPlatformWide()) {
-                authorities.add(new SimpleGrantedAuthority("SCOPE_PLATFORM"));
-            }
-        } catch (IllegalArgumentException e) {
-            log.warn("Unknown role found in token: {}", roleName);
+    private int roleBit(String roleName) {
+        SkutterRole role = SkutterRole.fromName(roleName);
+        if (role == null) {
+            securityEvents.record(SecurityEventType.UNKNOWN_ROLE, roleName, "role ignored");
+            return 0;
         }
+        return role.bit();
     }
 
     /**
-     * Create user details from JWT claims
+     * Create user details from a verified token. The claims themselves are not retained;
+     * the principal keeps the encoded payload and decodes it only on demand.
      */
-    private SupabaseUserDetails createUserDetails(Claims claims, Collection<? extends GrantedAuthority> authorities) {
-        String userId = claims.getSubject();
-            
+    private SupabaseUserDetails createUserDetails(VerifiedToken token, String userId, int roleMask,
+                                                  Collection<? extends GrantedAuthority> authorities) {
+        Claims claims = token.getClaims();
+
         // Extract email if available
         String email = Optional.ofNullable(claims.get("email"))
             .map(Object::toString)
             .orElse(null);
-            
-        return new SupabaseUserDetails(userId, email, claims, authorities);
+
+        if (token.getEncodedPayload() == null) {
+            return new SupabaseUserDetails(userId, email, claims, authorities);
+        }
+        return new SupabaseUserDetails(userId, email, roleMask, token.getEncodedPayload(), authorities);
     }
-} 
\ No newline at end of file
+}
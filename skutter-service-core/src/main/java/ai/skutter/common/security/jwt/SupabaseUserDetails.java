@@ -20,46 +20,114 @@
 
 package ai.skutter.common.security.jwt;
 
+import ai.skutter.common.security.role.SkutterPermission;
 import ai.skutter.common.security.role.SkutterRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
- * User details extracted from a Supabase JWT token
+ * User details extracted from a Supabase JWT token.
+ * <p>
+ * Roles and permissions are held as bit masks computed once at authentication, so role and
+ * permission checks are single bit tests. Claims are kept in their encoded form and only
+ * decoded if a caller asks for them.
  */
 @Getter
-@ToString(exclude = "claims")
+@ToString(exclude = {"claims", "encodedClaims"})
 public class SupabaseUserDetails {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final String userId;
     private final String email;
-    private final Claims claims;
     private final Collection<? extends GrantedAuthority> authorities;
 
+    /**
+     * Bit mask of {@link SkutterRole}s, see {@link SkutterRole#bit()}
+     */
+    private final int roleMask;
+
+    /**
+     * Bit mask of {@link SkutterPermission}s, see {@link SkutterPermission#bit()}
+     */
+    private final int permissionMask;
+
+    @Getter(AccessLevel.NONE)
+    private final String encodedClaims;
+
+    @Getter(AccessLevel.NONE)
+    private volatile Claims claims;
+
     public SupabaseUserDetails(String userId, String email, Claims claims, Collection<? extends GrantedAuthority> authorities) {
         this.userId = userId;
         this.email = email;
         this.claims = claims;
-        this.authorities = authorities;
+        this.encodedClaims = null;
+        this.authorities = authorities != null ? authorities : Collections.emptyList();
+
+        // Derive the masks from the authority strings once
+        int roles = 0;
+        int permissions = 0;
+        for (GrantedAuthority authority : this.authorities) {
+            String name = authority.getAuthority();
+            if (name == null) {
+                continue;
+            }
+            if (name.startsWith("ROLE_")) {
+                SkutterRole role = SkutterRole.fromName(name.substring(5));
+                if (role != null) {
+                    roles |= role.bit();
+                }
+            } else {
+                SkutterPermission permission = SkutterPermission.fromAuthority(name);
+                if (permission != null) {
+                    permissions |= permission.bit();
+                }
+            }
+        }
+        this.roleMask = roles;
+        this.permissionMask = permissions;
+    }
+
+    /**
+     * Create user details with precomputed masks
+     *
+     * @param encodedClaims the token's Base64URL-encoded payload, decoded on first access to the claims
+     */
+    public SupabaseUserDetails(String userId, String email, int roleMask, String encodedClaims,
+                               Collection<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.email = email;
+        this.roleMask = roleMask;
+        this.permissionMask = SkutterPermission.maskForRoles(roleMask);
+        this.encodedClaims = encodedClaims;
+        this.authorities = authorities != null ? authorities : Collections.emptyList();
     }
 
     /**
-     * Get raw claims from the JWT
+     * Get raw claims from the JWT, decoding them on first access
      */
     public Claims getClaims() {
-        return claims;
+        Claims decoded = claims;
+        if (decoded == null && encodedClaims != null) {
+            decoded = decodeClaims(encodedClaims);
+            claims = decoded;
+        }
+        return decoded;
     }
     
     /**
@@ -67,82 +135,94 @@ public class SupabaseUserDetails {
      */
     @SuppressWarnings("unchecked")
     public <T> Optional<T> getClaim(String name) {
-        return Optional.ofNullable((T) claims.get(name));
+        Claims all = getClaims();
+        return all != null ? Optional.ofNullable((T) all.get(name)) : Optional.empty();
     }
     
     /**
-     * Get authorities, returns empty list if null
+     * Get a nested claim value by path (e.g., "app_metadata.organization"). The path is
+     * compiled once and reused; callers on a hot path can hold a {@link ClaimPath} instead.
      */
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return authorities != null ? authorities : Collections.emptyList();
+    public <T> Optional<T> getNestedClaim(String path) {
+        return getNestedClaim(ClaimPath.cached(path));
     }
-    
+
     /**
-     * Get a nested claim value by path (e.g., "app_metadata.organization")
+     * Get a nested claim value using a precompiled path
      */
-    @SuppressWarnings("unchecked")
-    public <T> Optional<T> getNestedClaim(String path) {
-        String[] parts = path.split("\\.");
-        Object current = claims;
-        
-        for (String part : parts) {
-            if (current instanceof Map) {
-                current = ((Map<String, Object>) current).get(part);
-                if (current == null) {
-                    return Optional.empty();
-                }
-            } else {
-                return Optional.empty();
-            }
-        }
-        
-        return Optional.ofNullable((T) current);
+    public <T> Optional<T> getNestedClaim(ClaimPath path) {
+        Claims all = getClaims();
+        return all != null ? path.find(all) : Optional.empty();
+    }
+
+    /**
+     * Get the user's roles
+     */
+    public EnumSet<SkutterRole> getRoles() {
+        return SkutterRole.fromMask(roleMask);
     }
     
     /**
      * Check if user has the specified role
      */
     public boolean hasRole(String roleName) {
-        return authorities.stream()
-            .filter(a -> a instanceof SimpleGrantedAuthority)
-            .map(a -> ((SimpleGrantedAuthority) a).getAuthority())
-            .anyMatch(a -> a.equals("ROLE_" + roleName));
+        SkutterRole role = SkutterRole.fromName(roleName);
+        if (role != null) {
+            return hasRole(role);
+        }
+        // Not a SkutterRole, so not in the role mask. SupabaseJwtProcessor drops such roles, so this
+        // only matches authorities a caller passed to the constructor explicitly.
+        String authority = "ROLE_" + roleName;
+        for (GrantedAuthority granted : authorities) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
      * Check if user has the specified role
      */
     public boolean hasRole(SkutterRole role) {
-        return hasRole(role.name());
+        return (roleMask & role.bit()) != 0;
+    }
+
+    /**
+     * Check if user has the specified permission
+     */
+    public boolean hasPermission(SkutterPermission permission) {
+        return (permissionMask & permission.bit()) != 0;
     }
     
     /**
      * Check if user has permission to read
      */
     public boolean canRead() {
-        return authorities.stream()
-            .filter(a -> a instanceof SimpleGrantedAuthority)
-            .map(a -> ((SimpleGrantedAuthority) a).getAuthority())
-            .anyMatch(a -> a.equals("PERMISSION_READ"));
+        return hasPermission(SkutterPermission.READ);
     }
     
     /**
      * Check if user has permission to write
      */
     public boolean canWrite() {
-        return authorities.stream()
-            .filter(a -> a instanceof SimpleGrantedAuthority)
-            .map(a -> ((SimpleGrantedAuthority) a).getAuthority())
-            .anyMatch(a -> a.equals("PERMISSION_WRITE"));
+        return hasPermission(SkutterPermission.WRITE);
     }
     
     /**
      * Check if user has platform-wide access
      */
     public boolean hasPlatformAccess() {
-        return authorities.stream()
-            .filter(a -> a instanceof SimpleGrantedAuthority)
-            .map(a -> ((SimpleGrantedAuthority) a).getAuthority())
-            .anyMatch(a -> a.equals("SCOPE_PLATFORM"));
+        return hasPermission(SkutterPermission.PLATFORM);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Claims decodeClaims(String encodedClaims) {
+        try {
+            Map<String, Object> values = OBJECT_MAPPER.readValue(Decoders.BASE64URL.decode(encodedClaims), Map.class);
+            return Jwts.claims().add(values).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode JWT claims", e);
+        }
     }
-} 
\ No newline at end of file
+}
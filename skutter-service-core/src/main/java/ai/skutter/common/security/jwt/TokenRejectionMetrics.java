@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counters for rejected bearer tokens, published as {@code skutter.security.jwt.rejections}
+ * tagged by reason and by whether the rejection was served from {@link RejectedTokenCache}
+ */
+public class TokenRejectionMetrics {
+
+    /**
+     * Instance that records nothing, used until a meter registry is available
+     */
+    public static final TokenRejectionMetrics NOOP = new TokenRejectionMetrics();
+
+    private final Map<TokenRejectionReason, Counter> verified = new EnumMap<>(TokenRejectionReason.class);
+    private final Map<TokenRejectionReason, Counter> cached = new EnumMap<>(TokenRejectionReason.class);
+
+    private TokenRejectionMetrics() {
+    }
+
+    public TokenRejectionMetrics(MeterRegistry meterRegistry) {
+        for (TokenRejectionReason reason : TokenRejectionReason.values()) {
+            verified.put(reason, counter(meterRegistry, reason, false));
+            cached.put(reason, counter(meterRegistry, reason, true));
+        }
+    }
+
+    /**
+     * Count one rejected token
+     *
+     * @param fromCache whether the token was rejected by the negative cache without being parsed
+     */
+    public void record(TokenRejectionReason reason, boolean fromCache) {
+        Counter counter = (fromCache ? cached : verified).get(reason);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, TokenRejectionReason reason, boolean fromCache) {
+        return Counter.builder("skutter.security.jwt.rejections")
+                .description("Bearer tokens rejected during authentication")
+                .tag("reason", reason.tagValue())
+                .tag("cached", String.valueOf(fromCache))
+                .register(meterRegistry);
+    }
+}
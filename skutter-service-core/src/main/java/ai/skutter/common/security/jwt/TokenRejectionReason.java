@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.security.SecurityException;
+
+/**
+ * Why a bearer token was rejected, used to tag rejection metrics and to remember
+ * known-bad tokens in {@link RejectedTokenCache}
+ */
+public enum TokenRejectionReason {
+    /**
+     * Outside its validity window: expired, or not yet valid
+     */
+    EXPIRED,
+
+    /**
+     * Signature did not verify, or no key is available for it
+     */
+    BAD_SIGNATURE,
+
+    /**
+     * Not a well-formed signed JWT, or missing the subject
+     */
+    MALFORMED,
+
+    /**
+     * Valid token whose claims carry no Skutter role
+     */
+    NO_ROLES;
+
+    /**
+     * Classify an exception thrown while parsing and verifying a token
+     */
+    public static TokenRejectionReason of(Exception e) {
+        if (e instanceof ExpiredJwtException || e instanceof PrematureJwtException) {
+            return EXPIRED;
+        }
+        if (e instanceof SecurityException) {
+            return BAD_SIGNATURE;
+        }
+        return MALFORMED;
+    }
+
+    /**
+     * Whether the token itself is forged or garbage, as opposed to a genuine token that has
+     * lapsed or grants nothing. Only these count towards blocking the source that sent it.
+     */
+    public boolean isInvalidToken() {
+        return this == BAD_SIGNATURE || this == MALFORMED;
+    }
+
+    String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import java.util.Optional;
+
+/**
+ * Outcome of verifying a bearer token: the verified token, or why it was rejected
+ *
+ * @param token     the verified token, or null if it was rejected
+ * @param rejection why the token was rejected, or null if it was verified
+ */
+public record TokenVerification(VerifiedToken token, TokenRejectionReason rejection) {
+
+    static TokenVerification verified(VerifiedToken token) {
+        return new TokenVerification(token, null);
+    }
+
+    static TokenVerification rejected(TokenRejectionReason reason) {
+        return new TokenVerification(null, reason);
+    }
+
+    public boolean isVerified() {
+        return token != null;
+    }
+
+    public Optional<VerifiedToken> toOptional() {
+        return Optional.ofNullable(token);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * A token whose signature has been verified, carried through the authentication pipeline
+ * so the token is parsed only once per request
+ */
+@Getter
+public class VerifiedToken {
+
+    private final Claims claims;
+    private final String subject;
+    private final Date expiration;
+
+    /**
+     * Base64URL-encoded payload segment of the compact token, or null if not known
+     */
+    private final String encodedPayload;
+
+    /**
+     * The compact token itself, or null if not known
+     */
+    private final String token;
+
+    public VerifiedToken(Claims claims) {
+        this(claims, null);
+    }
+
+    public VerifiedToken(Claims claims, String encodedPayload) {
+        this(claims, encodedPayload, null);
+    }
+
+    public VerifiedToken(Claims claims, String encodedPayload, String token) {
+        this.claims = claims;
+        this.subject = claims.getSubject();
+        this.expiration = claims.getExpiration();
+        this.encodedPayload = encodedPayload;
+        this.token = token;
+    }
+
+    /**
+     * Create a verified token from its compact form and the claims verified from it
+     */
+    public static VerifiedToken of(String compactToken, Claims claims) {
+        return new VerifiedToken(claims, payloadOf(compactToken), compactToken);
+    }
+
+    /**
+     * Extract the payload segment of a compact JWS ({@code header.payload.signature})
+     *
+     * @return the payload segment, or null if the token is not in compact form
+     */
+    public static String payloadOf(String compactToken) {
+        int first = compactToken.indexOf('.');
+        int second = first >= 0 ? compactToken.indexOf('.', first + 1) : -1;
+        return second > first ? compactToken.substring(first + 1, second) : null;
+    }
+
+    /**
+     * Whether the token has no expiration or has expired at the given time
+     */
+    public boolean isExpiredAt(long epochMillis) {
+        return expiration == null || expiration.getTime() <= epochMillis;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import ai.skutter.common.util.FastHash;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache of claims from tokens whose signature has already been verified.
+ * <p>
+ * Entries are keyed by a 64-bit hash of the token string and hold the token itself, which is
+ * compared on lookup so a hash collision can never return another token's claims. An entry is
+ * only served until the token's {@code exp}; tokens without an expiration are not cached.
+ * The cache must be cleared whenever the verification key changes.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<Long, Entry> cache;
+    private final ToLongFunction<String> hasher;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of cached tokens
+     * @param maxTtl      upper bound on how long an entry is kept, regardless of its expiration
+     */
+    public VerifiedTokenCache(long maximumSize, Duration maxTtl) {
+        this(maximumSize, maxTtl, FastHash::hash64, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(long maximumSize, Duration maxTtl, ToLongFunction<String> hasher, LongSupplier clock) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxTtl)
+                .build();
+        this.hasher = hasher;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the verified claims for a token, if present and not yet expired
+     */
+    public Claims get(String token) {
+        long key = hasher.applyAsLong(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || !entry.token.equals(token)) {
+            misses.increment();
+            return null;
+        }
+        if (clock.getAsLong() >= entry.expiresAtMillis) {
+            cache.invalidate(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims;
+    }
+
+    /**
+     * Cache the claims of a token whose signature has been verified
+     */
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.getTime() <= clock.getAsLong()) {
+            return;
+        }
+        cache.put(hasher.applyAsLong(token), new Entry(token, claims, expiration.getTime()));
+    }
+
+    /**
+     * Drop the entry of a token, if cached
+     */
+    public void remove(String token) {
+        long key = hasher.applyAsLong(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.token.equals(token)) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    /**
+     * Drop all cached tokens, e.g. after the verification key changed
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Register hit, miss and size meters
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("skutter.security.jwt.cache.requests", this, VerifiedTokenCache::getHitCount)
+                .description("Verified token cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("skutter.security.jwt.cache.requests", this, VerifiedTokenCache::getMissCount)
+                .description("Verified token cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("skutter.security.jwt.cache.size", this, VerifiedTokenCache::size)
+                .description("Tokens held in the verified token cache")
+                .register(meterRegistry);
+    }
+
+    private record Entry(String token, Claims claims, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+
+import java.security.Key;
+
+/**
+ * Immutable snapshot of everything needed to verify tokens with one key: the key itself,
+ * the parser built for it and the optional HS256 fast path.
+ * <p>
+ * {@link JwtTokenProvider} publishes the current set through an atomic reference, so request
+ * threads always see a key together with its matching parser. After a rotation the set also
+ * holds the set it replaced, which keeps verifying tokens signed with the old key until the
+ * overlap window ends.
+ */
+final class VerifierSet {
+
+    private final Key key;
+    private final JwtParser parser;
+    private final Hs256TokenVerifier hs256Verifier;
+    private final VerifierSet previous;
+    private final long previousValidUntilMillis;
+
+    /**
+     * @param key           signing/verification key, or null when keys come only from a JWKS
+     * @param parser        parser verifying with {@code key}
+     * @param hs256Verifier HS256 fast path for {@code key}, or null
+     */
+    VerifierSet(Key key, JwtParser parser, Hs256TokenVerifier hs256Verifier) {
+        this(key, parser, hs256Verifier, null, 0);
+    }
+
+    private VerifierSet(Key key, JwtParser parser, Hs256TokenVerifier hs256Verifier,
+                        VerifierSet previous, long previousValidUntilMillis) {
+        this.key = key;
+        this.parser = parser;
+        this.hs256Verifier = hs256Verifier;
+        this.previous = previous;
+        this.previousValidUntilMillis = previousValidUntilMillis;
+    }
+
+    Key getKey() {
+        return key;
+    }
+
+    /**
+     * Verify a token's signature with this set's key and return its claims
+     *
+     * @param complete whether all claims are needed; otherwise the HS256 fast path may return
+     *                 only the claims it was configured to decode
+     * @throws io.jsonwebtoken.JwtException if the token is invalid for this key
+     */
+    Claims verify(String token, long nowMillis, boolean complete) {
+        Claims claims = hs256Verifier != null && !complete ? hs256Verifier.verify(token, nowMillis) : null;
+        return claims != null ? claims : parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Whether {@link #verify} may return a subset of the claims when not asked for all of them
+     */
+    boolean hasPartialClaims() {
+        return hs256Verifier != null;
+    }
+
+    /**
+     * The replaced set, if its overlap window is still open at the given time
+     */
+    VerifierSet previousAt(long nowMillis) {
+        return previous != null && nowMillis < previousValidUntilMillis ? previous : null;
+    }
+
+    /**
+     * Create the set that replaces this one, accepting this set's key for {@code overlapMillis}.
+     * Only one previous key is kept; an older one still in its window is dropped.
+     */
+    VerifierSet rotateTo(VerifierSet next, long overlapMillis, long nowMillis) {
+        if (overlapMillis <= 0) {
+            return next.withoutPrevious();
+        }
+        return new VerifierSet(next.key, next.parser, next.hs256Verifier,
+                withoutPrevious(), nowMillis + overlapMillis);
+    }
+
+    private VerifierSet withoutPrevious() {
+        return previous == null ? this : new VerifierSet(key, parser, hs256Verifier);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts security events by type and key instead of logging each one.
+ * <p>
+ * Events are added to lock-free counters for the current interval. At the end of each
+ * interval one summary line is logged with the total per type and its busiest keys, and the
+ * counters start over. Only the first few events of an interval are logged individually as
+ * exemplars, so log volume stays constant however much traffic is rejected. Totals are also
+ * published as the {@code skutter.security.events} counter tagged by type.
+ * <p>
+ * The number of distinct keys per type is bounded; further keys are counted under
+ * {@value #OTHER_KEY}. Events recorded by a thread while the interval rolls over may be
+ * missing from that summary, but are always counted in the metric.
+ */
+@Slf4j
+public class SecurityEventAggregator implements AutoCloseable {
+
+    static final String OTHER_KEY = "other";
+
+    /**
+     * Instance that aggregates nothing and logs each event at debug level, used until an
+     * aggregator bean is available
+     */
+    public static final SecurityEventAggregator NOOP = new SecurityEventAggregator();
+
+    private final boolean enabled;
+    private final Duration interval;
+    private final int exemplarsPerInterval;
+    private final int maxKeysPerType;
+    private final int topKeys;
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window());
+    private final AtomicInteger exemplarBudget = new AtomicInteger();
+    private final Map<SecurityEventType, Counter> counters = new EnumMap<>(SecurityEventType.class);
+    private ScheduledExecutorService executor;
+
+    private SecurityEventAggregator() {
+        this.enabled = false;
+        this.interval = Duration.ZERO;
+        this.exemplarsPerInterval = 0;
+        this.maxKeysPerType = 0;
+        this.topKeys = 0;
+    }
+
+    /**
+     * @param interval             how often a summary is logged
+     * @param exemplarsPerInterval events logged individually per interval
+     * @param maxKeysPerType       distinct keys counted per type before falling back to {@value #OTHER_KEY}
+     * @param topKeys              keys listed per type in the summary
+     */
+    public SecurityEventAggregator(Duration interval, int exemplarsPerInterval, int maxKeysPerType, int topKeys) {
+        if (interval.toMillis() < 1) {
+            throw new IllegalArgumentException("interval must be at least 1ms");
+        }
+        this.enabled = true;
+        this.interval = interval;
+        this.exemplarsPerInterval = exemplarsPerInterval;
+        this.maxKeysPerType = maxKeysPerType;
+        this.topKeys = topKeys;
+        this.exemplarBudget.set(exemplarsPerInterval);
+    }
+
+    /**
+     * Register one counter per event type. Call before the aggregator is shared.
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (SecurityEventType type : SecurityEventType.values()) {
+            counters.put(type, Counter.builder("skutter.security.events")
+                    .description("Security events observed while handling requests")
+                    .tag("type", type.tagValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Start logging a summary every interval
+     */
+    public synchronized void start() {
+        if (!enabled || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "security-event-summary");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        executor.scheduleAtFixedRate(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record an event
+     *
+     * @param key    what the event is about, such as a client address or user ID; never a credential
+     * @param detail context for the exemplar line; only converted to a string if the event is logged
+     */
+    public void record(SecurityEventType type, String key, Object detail) {
+        if (!enabled) {
+            log.debug("Security event {} [{}]: {}", type, key, detail);
+            return;
+        }
+        window.get().increment(type, key != null ? key : "unknown", maxKeysPerType);
+        Counter counter = counters.get(type);
+        if (counter != null) {
+            counter.increment();
+        }
+        if (exemplarBudget.get() > 0 && exemplarBudget.getAndDecrement() > 0) {
+            log.warn("Security event {} [{}]: {}", type, key, detail);
+        }
+    }
+
+    /**
+     * Log the summary for the current interval and start a new one
+     */
+    void flush() {
+        Window completed = window.getAndSet(new Window());
+        exemplarBudget.set(exemplarsPerInterval);
+        String summary = completed.summarize(topKeys);
+        if (!summary.isEmpty()) {
+            log.info("Security events in the last {}: {}", interval, summary);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            flush();
+        }
+    }
+
+    /**
+     * Counters for one interval
+     */
+    private static final class Window {
+        private final Map<SecurityEventType, Map<String, LongAdder>> counts = new EnumMap<>(SecurityEventType.class);
+
+        private Window() {
+            for (SecurityEventType type : SecurityEventType.values()) {
+                counts.put(type, new ConcurrentHashMap<>());
+            }
+        }
+
+        private void increment(SecurityEventType type, String key, int maxKeys) {
+            Map<String, LongAdder> keys = counts.get(type);
+            LongAdder adder = keys.get(key);
+            if (adder == null) {
+                adder = keys.computeIfAbsent(keys.size() < maxKeys ? key : OTHER_KEY, k -> new LongAdder());
+            }
+            adder.increment();
+        }
+
+        private String summarize(int topKeys) {
+            StringBuilder summary = new StringBuilder();
+            counts.forEach((type, keys) -> {
+                long total = keys.values().stream().mapToLong(LongAdder::sum).sum();
+                if (total == 0) {
+                    return;
+                }
+                if (summary.length() > 0) {
+                    summary.append(", ");
+                }
+                summary.append(type).append('=').append(total).append(" [")
+                        .append(keys.entrySet().stream()
+                                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                                .limit(topKeys)
+                                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                                .collect(Collectors.joining(", ")))
+                        .append(']');
+            });
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.logging;
+
+/**
+ * Kinds of security events counted by {@link SecurityEventAggregator}
+ */
+public enum SecurityEventType {
+    /**
+     * A bearer token failed verification or authentication
+     */
+    INVALID_TOKEN,
+
+    /**
+     * A bearer token was ignored because its source is on the invalid-token block list
+     */
+    BLOCKED_SOURCE,
+
+    /**
+     * An accepted token expires within the next hour
+     */
+    TOKEN_EXPIRING_SOON,
+
+    /**
+     * A verified token carries no usable Skutter role
+     */
+    MISSING_ROLES,
+
+    /**
+     * A token names a role that is not a Skutter role
+     */
+    UNKNOWN_ROLE,
+
+    /**
+     * A request was rejected by the rate limiter
+     */
+    RATE_LIMITED,
+
+    /**
+     * A request ended with 401 Unauthorized or 403 Forbidden
+     */
+    ACCESS_DENIED;
+
+    String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -26,11 +26,10 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.util.Optional;
@@ -41,43 +40,26 @@ import java.util.Optional;
 @Slf4j
 public class SecurityLoggingFilter extends OncePerRequestFilter {
 
+    private SecurityEventAggregator securityEvents = SecurityEventAggregator.NOOP;
+
+    @Autowired(required = false)
+    public void setSecurityEventAggregator(SecurityEventAggregator securityEvents) {
+        this.securityEvents = securityEvents;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
             
-        ContentCachingRequestWrapper requestWrapper = wrapRequest(request);
-        ContentCachingResponseWrapper responseWrapper = wrapResponse(response);
-        
+        // The request and response are not wrapped: buffering the body would defeat streamed responses
         try {
             // Handle request
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            filterChain.doFilter(request, response);
         } finally {
             // Log authentication information
-            logAuthenticationDetails(requestWrapper);
-            
-            // Always copy response content
-            responseWrapper.copyBodyToResponse();
-        }
-    }
-
-    /**
-     * Wrap the request to be able to read its content multiple times
-     */
-    private ContentCachingRequestWrapper wrapRequest(HttpServletRequest request) {
-        if (request instanceof ContentCachingRequestWrapper) {
-            return (ContentCachingRequestWrapper) request;
+            logAuthenticationDetails(request);
+            recordAccessDenied(request, response.getStatus());
         }
-        return new ContentCachingRequestWrapper(request);
-    }
-
-    /**
-     * Wrap the response to be able to read its content multiple times
-     */
-    private ContentCachingResponseWrapper wrapResponse(HttpServletResponse response) {
-        if (response instanceof ContentCachingResponseWrapper) {
-            return (ContentCachingResponseWrapper) response;
-        }
-        return new ContentCachingResponseWrapper(response);
     }
 
     /**
@@ -103,6 +85,21 @@ public class SecurityLoggingFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Count requests that ended in 401 or 403, keyed by user or client address
+     */
+    private void recordAccessDenied(HttpServletRequest request, int status) {
+        if (status != HttpServletResponse.SC_UNAUTHORIZED && status != HttpServletResponse.SC_FORBIDDEN) {
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String key = Optional.ofNullable(authentication)
+                .flatMap(this::getUserDetails)
+                .map(userDetails -> "user-" + userDetails.getUserId())
+                .orElseGet(() -> "ip-" + request.getRemoteAddr());
+        securityEvents.record(SecurityEventType.ACCESS_DENIED, key, status + " " + request.getMethod() + " " + request.getRequestURI());
+    }
+
     /**
      * Extract user details from authentication if possible
      */
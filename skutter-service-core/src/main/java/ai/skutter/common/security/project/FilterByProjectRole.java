@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Filter a method's {@code Collection}, {@code List} or {@code Slice} result down to the elements
+ * whose project the current user holds at least the given role in.
+ * <p>
+ * A bulk replacement for {@code @PostFilter("hasProjectRole(filterObject.projectId, ...)")}:
+ * the distinct project IDs of all elements are authorized in one {@link ProjectAuthorizer}
+ * call instead of evaluating an expression per element. Elements must be {@link ProjectScoped}
+ * or project {@link java.util.UUID}s.
+ * <p>
+ * Paged methods must be declared to return {@code Slice}: filtering one page says nothing about
+ * how many elements other pages would lose, so a filtered result has no meaningful total. A
+ * method declared to return {@code Page} fails the application context at startup. Pages
+ * filtered this way may hold fewer elements than the page size; filter in the query instead
+ * where that matters.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface FilterByProjectRole {
+
+    /**
+     * Minimum role required in an element's project
+     */
+    ProjectRole value() default ProjectRole.PROJECT_VIEWER;
+}
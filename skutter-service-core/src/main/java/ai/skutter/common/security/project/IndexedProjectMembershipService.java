@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link ProjectMembershipService} that answers from a {@link ProjectMembershipIndex} holding
+ * every assignment, for deployments where per-user caching would keep missing.
+ * <p>
+ * {@link #start()} loads the index in the background and rebuilds it periodically; a rebuild
+ * loads a fresh index next to the live one and swaps it in, replaying change events received
+ * meanwhile. Until the first load has succeeded the index is empty, so every check fails
+ * closed (see {@link #isReady()}); a failed first load is retried after {@link #RETRY_DELAY}.
+ * Applications that change assignments should report them through
+ * {@link #assignmentChanged(UUID, UUID, ProjectRole)} so checks see them immediately.
+ */
+@Slf4j
+public class IndexedProjectMembershipService implements ProjectMembershipService, AutoCloseable {
+
+    /**
+     * Delay before retrying a failed first load
+     */
+    static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final ProjectMembershipIndexLoader loader;
+    private final Duration refreshInterval;
+    private final Object rebuildLock = new Object();
+
+    private volatile ProjectMembershipIndex index = new ProjectMembershipIndex();
+    private volatile boolean ready;
+    // Changes received during a rebuild, replayed onto the new index; guarded by this
+    private List<Consumer<ProjectMembershipIndex>> pendingChanges;
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param refreshInterval how often the index is rebuilt from the database; zero disables periodic rebuilds
+     */
+    public IndexedProjectMembershipService(ProjectMembershipIndexLoader loader, Duration refreshInterval) {
+        this.loader = loader;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Start loading the index in the background, then rebuild it periodically. Does not wait
+     * for the first load.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "project-membership-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::loadInitial);
+    }
+
+    /**
+     * Whether the first load has completed; until then every check is denied
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Load a fresh index from the database and swap it in
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            ProjectMembershipIndex current = index;
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            ProjectMembershipIndex fresh = null;
+            try {
+                fresh = loader.loadAll(current.getUserCount(), current.getProjectCount());
+            } finally {
+                synchronized (this) {
+                    if (fresh != null) {
+                        for (Consumer<ProjectMembershipIndex> change : pendingChanges) {
+                            change.accept(fresh);
+                        }
+                        index = fresh;
+                        ready = true;
+                    }
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply an assignment change
+     *
+     * @param role the new role, or null if the assignment was removed or disabled
+     */
+    public void assignmentChanged(UUID user, UUID project, ProjectRole role) {
+        Consumer<ProjectMembershipIndex> change = role != null
+                ? target -> target.put(user, project, role)
+                : target -> target.remove(user, project);
+        synchronized (this) {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    @Override
+    public Map<UUID, ProjectRole> getProjectRoles(String userId) {
+        UUID user = parse(userId);
+        if (user == null) {
+            return Map.of();
+        }
+        Map<UUID, ProjectRole> roles = new HashMap<>();
+        index.forEachProject(user, roles::put);
+        return roles;
+    }
+
+    @Override
+    public ProjectRole getProjectRole(String userId, UUID projectId) {
+        UUID user = parse(userId);
+        return user != null ? index.getRole(user, projectId) : null;
+    }
+
+    /**
+     * Reload the user's assignments from the database
+     */
+    @Override
+    public void invalidate(String userId) {
+        UUID user = parse(userId);
+        if (user == null) {
+            return;
+        }
+        ProjectMembershipIndex reloaded = new ProjectMembershipIndex(1, 16);
+        loader.loadUser(reloaded, user);
+        List<UUID> projects = new ArrayList<>();
+        List<ProjectRole> roles = new ArrayList<>();
+        reloaded.forEachProject(user, (project, role) -> {
+            projects.add(project);
+            roles.add(role);
+        });
+        Consumer<ProjectMembershipIndex> change = target -> target.replaceUser(user, projects, roles);
+        synchronized (this) {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @Override
+    public void invalidateAll() {
+        rebuild();
+    }
+
+    /**
+     * Register size gauges
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("skutter.security.project.membership.index.users", this, s -> s.index.getUserCount())
+                .description("Users in the project membership index")
+                .register(meterRegistry);
+        Gauge.builder("skutter.security.project.membership.index.assignments", this, s -> s.index.getMembershipCount())
+                .description("Assignments in the project membership index")
+                .register(meterRegistry);
+    }
+
+    private void loadInitial() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Project membership index load failed, denying project checks until it succeeds; retrying in {}",
+                    RETRY_DELAY, e);
+            schedule(this::loadInitial, RETRY_DELAY.toMillis());
+            return;
+        }
+        long millis = refreshInterval.toMillis();
+        if (millis > 0) {
+            synchronized (this) {
+                if (executor != null) {
+                    executor.scheduleWithFixedDelay(this::rebuildQuietly, millis, millis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    private synchronized void schedule(Runnable task, long delayMillis) {
+        if (executor != null) {
+            executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Project membership index rebuild failed, keeping the current index: {}", e.getMessage());
+        }
+    }
+
+    private static UUID parse(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ProjectMembershipService} that loads a user's assignments from
+ * {@code skutter.user_project_assignments} on first use and caches them per user.
+ * <p>
+ * The query applies the same conditions as the {@code project_access_policy} RLS policy
+ * (enabled assignment, enabled project). Cached entries expire after the configured TTL, so
+ * assignment changes made elsewhere become visible within that time; call
+ * {@link #invalidate(String)} to apply them immediately.
+ */
+@Slf4j
+public class JdbcProjectMembershipService implements ProjectMembershipService {
+
+    static final String MEMBERSHIP_QUERY = """
+            SELECT upa.project_id, upa.role::text
+            FROM skutter.user_project_assignments upa
+            JOIN skutter.projects p ON p.id = upa.project_id
+            WHERE upa.user_id = ? AND upa.enabled AND p.enabled""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadingCache<String, Map<UUID, ProjectRole>> cache;
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * @param ttl          how long a user's assignments are cached
+     * @param maximumUsers maximum number of users whose assignments are cached
+     */
+    public JdbcProjectMembershipService(JdbcTemplate jdbcTemplate, Duration ttl, long maximumUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(ttl)
+                .build(CacheLoader.from(this::load));
+    }
+
+    @Override
+    public Map<UUID, ProjectRole> getProjectRoles(String userId) {
+        if (userId == null) {
+            return Map.of();
+        }
+        try {
+            return cache.getUnchecked(userId);
+        } catch (UncheckedExecutionException e) {
+            // Don't cache failures; the next check retries the query
+            log.warn("Failed to load project assignments for user {}: {}", userId, e.getCause().getMessage());
+            return Map.of();
+        }
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Register load count and size meters
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("skutter.security.project.membership.loads", this, JdbcProjectMembershipService::getLoadCount)
+                .description("Project assignment lookups that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("skutter.security.project.membership.cache.size", this, JdbcProjectMembershipService::size)
+                .description("Users whose project assignments are cached")
+                .register(meterRegistry);
+    }
+
+    private Map<UUID, ProjectRole> load(String userId) {
+        UUID user;
+        try {
+            user = UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return Map.of();
+        }
+        loads.increment();
+        Map<UUID, ProjectRole> roles = new HashMap<>();
+        jdbcTemplate.query(MEMBERSHIP_QUERY, rs -> {
+            ProjectRole role = ProjectRole.fromName(rs.getString(2));
+            if (role != null) {
+                roles.put(rs.getObject(1, UUID.class), role);
+            }
+        }, user);
+        return Map.copyOf(roles);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Authorizes many projects for one user in a single operation.
+ * <p>
+ * Uses the {@link ProjectMembershipService} when one is configured, so no SQL runs. Otherwise
+ * the permitted subset is selected with one {@code project_id = ANY(?)} query applying the
+ * same conditions as the {@code project_access_policy} RLS policy. Without either, nothing
+ * is permitted.
+ */
+@Slf4j
+public class ProjectAuthorizer {
+
+    static final String PERMITTED_QUERY = """
+            SELECT upa.project_id
+            FROM skutter.user_project_assignments upa
+            JOIN skutter.projects p ON p.id = upa.project_id
+            WHERE upa.user_id = ? AND upa.project_id = ANY(?) AND upa.enabled AND p.enabled
+              AND upa.role >= ?::skutter.project_role""";
+
+    private final ProjectMembershipService membershipService;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param membershipService membership source to answer from, or null to query the database
+     * @param jdbcTemplate      used when no membership service is configured, may be null
+     */
+    public ProjectAuthorizer(ProjectMembershipService membershipService, JdbcTemplate jdbcTemplate) {
+        this.membershipService = membershipService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the subset of the projects in which the user holds at least the required role
+     */
+    public Set<UUID> permittedProjects(String userId, Collection<UUID> projectIds, ProjectRole required) {
+        if (userId == null || projectIds.isEmpty()) {
+            return Set.of();
+        }
+        if (membershipService != null) {
+            Map<UUID, ProjectRole> roles = membershipService.getProjectRoles(userId);
+            Set<UUID> permitted = new HashSet<>();
+            for (UUID projectId : projectIds) {
+                ProjectRole role = roles.get(projectId);
+                if (role != null && role.includes(required)) {
+                    permitted.add(projectId);
+                }
+            }
+            return permitted;
+        }
+        if (jdbcTemplate == null) {
+            log.warn("No project membership source configured, denying access to {} projects", projectIds.size());
+            return Set.of();
+        }
+        UUID user;
+        try {
+            user = UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return Set.of();
+        }
+        Object[] ids = new LinkedHashSet<>(projectIds).toArray();
+        Set<UUID> permitted = new HashSet<>();
+        jdbcTemplate.query(PERMITTED_QUERY, ps -> {
+            ps.setObject(1, user);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids));
+            ps.setString(3, required.name());
+        }, rs -> {
+            permitted.add(rs.getObject(1, UUID.class));
+        });
+        return permitted;
+    }
+
+    /**
+     * Keep the items whose project the user holds at least the required role in, preserving order
+     */
+    public <T> List<T> filter(String userId, Collection<T> items, Function<? super T, UUID> projectIdOf,
+                              ProjectRole required) {
+        Set<UUID> projectIds = new HashSet<>();
+        for (T item : items) {
+            UUID projectId = projectIdOf.apply(item);
+            if (projectId != null) {
+                projectIds.add(projectId);
+            }
+        }
+        Set<UUID> permitted = permittedProjects(userId, projectIds, required);
+        List<T> result = new ArrayList<>(items.size());
+        for (T item : items) {
+            UUID projectId = projectIdOf.apply(item);
+            if (projectId != null && permitted.contains(projectId)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
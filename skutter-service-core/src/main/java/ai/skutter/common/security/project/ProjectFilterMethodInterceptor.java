@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Applies {@link FilterByProjectRole} to method results with one {@link ProjectAuthorizer} call
+ * per invocation
+ */
+public class ProjectFilterMethodInterceptor implements MethodInterceptor {
+
+    private final Supplier<ProjectAuthorizer> authorizer;
+
+    public ProjectFilterMethodInterceptor(Supplier<ProjectAuthorizer> authorizer) {
+        this.authorizer = authorizer;
+    }
+
+    /**
+     * Pointcut matching {@link FilterByProjectRole} methods. Matching a class with such a method
+     * declared to return a {@link Page} throws {@link IllegalStateException}, so a misdeclared
+     * method fails the application context when its bean is checked for proxying rather than on
+     * every call.
+     */
+    public static Pointcut pointcut() {
+        return new FilterByProjectRolePointcut();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // The pointcut matched the implementation's method, which may differ from the invoked interface method
+        Object target = invocation.getThis();
+        Method method = target != null
+                ? AopUtils.getMostSpecificMethod(invocation.getMethod(), AopUtils.getTargetClass(target))
+                : invocation.getMethod();
+        FilterByProjectRole annotation = AnnotatedElementUtils.findMergedAnnotation(method, FilterByProjectRole.class);
+        if (annotation == null) {
+            throw new IllegalStateException("@FilterByProjectRole not found on " + method);
+        }
+        checkReturnType(method);
+        Object result = invocation.proceed();
+        if (result == null) {
+            return null;
+        }
+        String userId = currentUserId();
+        ProjectRole required = annotation.value();
+        if (result instanceof Slice<?> slice) {
+            return new SliceImpl<>(filter(userId, slice.getContent(), required), slice.getPageable(), slice.hasNext());
+        }
+        if (result instanceof Set<?> set) {
+            return new LinkedHashSet<>(filter(userId, set, required));
+        }
+        if (result instanceof Collection<?> collection) {
+            return filter(userId, collection, required);
+        }
+        throw new IllegalStateException("@FilterByProjectRole requires a Collection or Slice result, but "
+                + method + " returned " + result.getClass().getName());
+    }
+
+    private static void checkReturnType(Method method) {
+        if (Page.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalStateException("@FilterByProjectRole cannot keep the total of a Page; declare "
+                    + method + " to return Slice instead");
+        }
+    }
+
+    private List<?> filter(String userId, Collection<?> items, ProjectRole required) {
+        return authorizer.get().filter(userId, items, ProjectFilterMethodInterceptor::projectIdOf, required);
+    }
+
+    private static UUID projectIdOf(Object item) {
+        if (item instanceof ProjectScoped scoped) {
+            return scoped.getProjectId();
+        }
+        if (item instanceof UUID projectId) {
+            return projectId;
+        }
+        throw new IllegalStateException("@FilterByProjectRole elements must be ProjectScoped or UUID, got "
+                + (item != null ? item.getClass().getName() : "null"));
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof SupabaseUserDetails user
+                ? user.getUserId() : null;
+    }
+
+    private static final class FilterByProjectRolePointcut extends StaticMethodMatcherPointcut {
+
+        private FilterByProjectRolePointcut() {
+            // Checks every method of a class before any is matched, as matching stops at the first hit
+            setClassFilter(targetClass -> {
+                if (AnnotationUtils.isCandidateClass(targetClass, FilterByProjectRole.class)) {
+                    ReflectionUtils.doWithMethods(targetClass, method -> {
+                        if (AnnotatedElementUtils.hasAnnotation(method, FilterByProjectRole.class)) {
+                            checkReturnType(method);
+                        }
+                    });
+                }
+                return true;
+            });
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return AnnotatedElementUtils.hasAnnotation(method, FilterByProjectRole.class)
+                    || AnnotatedElementUtils.hasAnnotation(AopUtils.getMostSpecificMethod(method, targetClass),
+                    FilterByProjectRole.class);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import ai.skutter.common.util.FastHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-optimized in-memory index of all project assignments.
+ * <p>
+ * UUIDs are stored as pairs of {@code long}s in open-addressed primitive tables: projects are
+ * interned once and given a dense ordinal, and each user maps to a single sorted {@code int[]}
+ * whose entries pack a project ordinal with the role held in it:
+ * <pre>
+ *  31                       2 1    0
+ * [project ordinal           ][role ]
+ * </pre>
+ * A membership check is one user table probe and a binary search, with no boxing and no
+ * per-membership objects, so millions of assignments cost a few bytes each.
+ * <p>
+ * Lookups take a shared read lock; updates take the write lock and replace the affected user's
+ * array. Projects are never removed from the dictionary; users whose last assignment is
+ * removed keep their table slot with an empty array.
+ */
+public class ProjectMembershipIndex {
+
+    private static final int ROLE_BITS = 2;
+    private static final int ROLE_MASK = (1 << ROLE_BITS) - 1;
+    private static final int MAX_PROJECTS = 1 << (31 - ROLE_BITS);
+    private static final ProjectRole[] ROLES = ProjectRole.values();
+    private static final int[] NO_ENTRIES = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // User table: slot -> (msb, lsb, sorted entries); a null entries array marks an empty slot
+    private long[] userMsb;
+    private long[] userLsb;
+    private int[][] userEntries;
+    private int userCount;
+
+    // Project dictionary: slot -> (msb, lsb, ordinal + 1), and ordinal -> (msb, lsb)
+    private long[] projectMsb;
+    private long[] projectLsb;
+    private int[] projectOrdinals;
+    private long[] ordinalMsb;
+    private long[] ordinalLsb;
+    private int projectCount;
+
+    private long membershipCount;
+
+    public ProjectMembershipIndex() {
+        this(1024, 256);
+    }
+
+    /**
+     * @param expectedUsers    number of users to size the user table for
+     * @param expectedProjects number of projects to size the project dictionary for
+     */
+    public ProjectMembershipIndex(int expectedUsers, int expectedProjects) {
+        int userCapacity = tableCapacity(expectedUsers);
+        this.userMsb = new long[userCapacity];
+        this.userLsb = new long[userCapacity];
+        this.userEntries = new int[userCapacity][];
+        int projectCapacity = tableCapacity(expectedProjects);
+        this.projectMsb = new long[projectCapacity];
+        this.projectLsb = new long[projectCapacity];
+        this.projectOrdinals = new int[projectCapacity];
+        this.ordinalMsb = new long[Math.max(16, expectedProjects)];
+        this.ordinalLsb = new long[ordinalMsb.length];
+    }
+
+    /**
+     * Check whether the user is assigned to the project
+     */
+    public boolean isMember(UUID user, UUID project) {
+        return getRole(user, project) != null;
+    }
+
+    /**
+     * Get the user's role in a project
+     *
+     * @return the role, or null if the user is not assigned to the project
+     */
+    public ProjectRole getRole(UUID user, UUID project) {
+        lock.readLock().lock();
+        try {
+            int userSlot = findUser(user.getMostSignificantBits(), user.getLeastSignificantBits());
+            int ordinal = findProject(project.getMostSignificantBits(), project.getLeastSignificantBits());
+            if (userSlot < 0 || ordinal < 0) {
+                return null;
+            }
+            int[] entries = userEntries[userSlot];
+            int index = search(entries, ordinal);
+            return index < 0 ? null : ROLES[entries[index] & ROLE_MASK];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the projects the user is assigned to, ordered by when each project was first indexed
+     */
+    public List<UUID> projectsOf(UUID user) {
+        List<UUID> projects = new ArrayList<>();
+        forEachProject(user, (project, role) -> projects.add(project));
+        return projects;
+    }
+
+    /**
+     * Call the consumer with each project the user is assigned to and the role held in it
+     */
+    public void forEachProject(UUID user, BiConsumer<UUID, ProjectRole> consumer) {
+        lock.readLock().lock();
+        try {
+            int userSlot = findUser(user.getMostSignificantBits(), user.getLeastSignificantBits());
+            if (userSlot < 0) {
+                return;
+            }
+            for (int entry : userEntries[userSlot]) {
+                int ordinal = entry >>> ROLE_BITS;
+                consumer.accept(new UUID(ordinalMsb[ordinal], ordinalLsb[ordinal]), ROLES[entry & ROLE_MASK]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add an assignment or change its role
+     */
+    public void put(UUID user, UUID project, ProjectRole role) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = internProject(project.getMostSignificantBits(), project.getLeastSignificantBits());
+            int userSlot = internUser(user.getMostSignificantBits(), user.getLeastSignificantBits());
+            int[] entries = userEntries[userSlot];
+            int entry = (ordinal << ROLE_BITS) | role.ordinal();
+            int index = search(entries, ordinal);
+            if (index >= 0) {
+                int[] updated = entries.clone();
+                updated[index] = entry;
+                userEntries[userSlot] = updated;
+                return;
+            }
+            int insertAt = -index - 1;
+            int[] updated = new int[entries.length + 1];
+            System.arraycopy(entries, 0, updated, 0, insertAt);
+            updated[insertAt] = entry;
+            System.arraycopy(entries, insertAt, updated, insertAt + 1, entries.length - insertAt);
+            userEntries[userSlot] = updated;
+            membershipCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an assignment, if present
+     */
+    public void remove(UUID user, UUID project) {
+        lock.writeLock().lock();
+        try {
+            int userSlot = findUser(user.getMostSignificantBits(), user.getLeastSignificantBits());
+            int ordinal = findProject(project.getMostSignificantBits(), project.getLeastSignificantBits());
+            if (userSlot < 0 || ordinal < 0) {
+                return;
+            }
+            int[] entries = userEntries[userSlot];
+            int index = search(entries, ordinal);
+            if (index < 0) {
+                return;
+            }
+            int[] updated = entries.length == 1 ? NO_ENTRIES : new int[entries.length - 1];
+            System.arraycopy(entries, 0, updated, 0, index);
+            System.arraycopy(entries, index + 1, updated, index, entries.length - index - 1);
+            userEntries[userSlot] = updated;
+            membershipCount--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all of a user's assignments
+     *
+     * @param projects the user's projects; each project must appear at most once
+     * @param roles    the role held in the project at the same position
+     */
+    public void replaceUser(UUID user, List<UUID> projects, List<ProjectRole> roles) {
+        if (projects.size() != roles.size()) {
+            throw new IllegalArgumentException("projects and roles must have the same size");
+        }
+        lock.writeLock().lock();
+        try {
+            int[] entries = projects.isEmpty() ? NO_ENTRIES : new int[projects.size()];
+            for (int i = 0; i < entries.length; i++) {
+                UUID project = projects.get(i);
+                int ordinal = internProject(project.getMostSignificantBits(), project.getLeastSignificantBits());
+                entries[i] = (ordinal << ROLE_BITS) | roles.get(i).ordinal();
+            }
+            Arrays.sort(entries);
+            int userSlot = internUser(user.getMostSignificantBits(), user.getLeastSignificantBits());
+            membershipCount += entries.length - userEntries[userSlot].length;
+            userEntries[userSlot] = entries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getUserCount() {
+        lock.readLock().lock();
+        try {
+            return userCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getProjectCount() {
+        lock.readLock().lock();
+        try {
+            return projectCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getMembershipCount() {
+        lock.readLock().lock();
+        try {
+            return membershipCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Tables, called with the lock held ---
+
+    /**
+     * Binary search a user's entries by project ordinal
+     *
+     * @return the entry's index, or {@code -(insertion point) - 1} if absent
+     */
+    private static int search(int[] entries, int ordinal) {
+        int low = 0;
+        int high = entries.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midOrdinal = entries[mid] >>> ROLE_BITS;
+            if (midOrdinal < ordinal) {
+                low = mid + 1;
+            } else if (midOrdinal > ordinal) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int findUser(long msb, long lsb) {
+        int mask = userEntries.length - 1;
+        for (int slot = slotOf(msb, lsb, mask); ; slot = (slot + 1) & mask) {
+            if (userEntries[slot] == null) {
+                return -1;
+            }
+            if (userMsb[slot] == msb && userLsb[slot] == lsb) {
+                return slot;
+            }
+        }
+    }
+
+    private int internUser(long msb, long lsb) {
+        int slot = findUser(msb, lsb);
+        if (slot >= 0) {
+            return slot;
+        }
+        if ((userCount + 1) * 2 > userEntries.length) {
+            growUsers();
+        }
+        int mask = userEntries.length - 1;
+        slot = slotOf(msb, lsb, mask);
+        while (userEntries[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        userMsb[slot] = msb;
+        userLsb[slot] = lsb;
+        userEntries[slot] = NO_ENTRIES;
+        userCount++;
+        return slot;
+    }
+
+    private void growUsers() {
+        long[] oldMsb = userMsb;
+        long[] oldLsb = userLsb;
+        int[][] oldEntries = userEntries;
+        int capacity = oldEntries.length * 2;
+        userMsb = new long[capacity];
+        userLsb = new long[capacity];
+        userEntries = new int[capacity][];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldEntries.length; i++) {
+            if (oldEntries[i] != null) {
+                int slot = slotOf(oldMsb[i], oldLsb[i], mask);
+                while (userEntries[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                userMsb[slot] = oldMsb[i];
+                userLsb[slot] = oldLsb[i];
+                userEntries[slot] = oldEntries[i];
+            }
+        }
+    }
+
+    private int findProject(long msb, long lsb) {
+        int mask = projectOrdinals.length - 1;
+        for (int slot = slotOf(msb, lsb, mask); ; slot = (slot + 1) & mask) {
+            int ordinal = projectOrdinals[slot];
+            if (ordinal == 0) {
+                return -1;
+            }
+            if (projectMsb[slot] == msb && projectLsb[slot] == lsb) {
+                return ordinal - 1;
+            }
+        }
+    }
+
+    private int internProject(long msb, long lsb) {
+        int ordinal = findProject(msb, lsb);
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+        if (projectCount == MAX_PROJECTS) {
+            throw new IllegalStateException("Project membership index is limited to " + MAX_PROJECTS + " projects");
+        }
+        if ((projectCount + 1) * 2 > projectOrdinals.length) {
+            growProjects();
+        }
+        if (projectCount == ordinalMsb.length) {
+            ordinalMsb = Arrays.copyOf(ordinalMsb, ordinalMsb.length * 2);
+            ordinalLsb = Arrays.copyOf(ordinalLsb, ordinalLsb.length * 2);
+        }
+        ordinal = projectCount++;
+        ordinalMsb[ordinal] = msb;
+        ordinalLsb[ordinal] = lsb;
+        placeProject(msb, lsb, ordinal);
+        return ordinal;
+    }
+
+    private void growProjects() {
+        int capacity = projectOrdinals.length * 2;
+        projectMsb = new long[capacity];
+        projectLsb = new long[capacity];
+        projectOrdinals = new int[capacity];
+        for (int ordinal = 0; ordinal < projectCount; ordinal++) {
+            placeProject(ordinalMsb[ordinal], ordinalLsb[ordinal], ordinal);
+        }
+    }
+
+    private void placeProject(long msb, long lsb, int ordinal) {
+        int mask = projectOrdinals.length - 1;
+        int slot = slotOf(msb, lsb, mask);
+        while (projectOrdinals[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        projectMsb[slot] = msb;
+        projectLsb[slot] = lsb;
+        projectOrdinals[slot] = ordinal + 1;
+    }
+
+    private static int slotOf(long msb, long lsb, int mask) {
+        return (int) FastHash.combine(msb, lsb) & mask;
+    }
+
+    private static int tableCapacity(int expected) {
+        int capacity = 16;
+        while (capacity < (long) expected * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Loads {@link ProjectMembershipIndex} contents from {@code skutter.user_project_assignments}.
+ * <p>
+ * A full load streams the assignments ordered by user with a bounded fetch size, inside a
+ * read-only transaction so the PostgreSQL driver uses a cursor instead of buffering the whole
+ * result, and fills each user's entries in one step.
+ * <p>
+ * The index must hold every user's assignments, so the loader's database role has to bypass
+ * row-level security on both tables: a superuser, a role with {@code BYPASSRLS}, or the
+ * tables' owner without {@code FORCE ROW LEVEL SECURITY}. Otherwise RLS would silently hide
+ * rows and the index would deny legitimate access, so the first full load checks this and
+ * fails if the role is subject to RLS.
+ */
+@Slf4j
+public class ProjectMembershipIndexLoader {
+
+    private static final String ASSIGNMENTS = """
+            SELECT upa.user_id, upa.project_id, upa.role::text
+            FROM skutter.user_project_assignments upa
+            JOIN skutter.projects p ON p.id = upa.project_id
+            WHERE upa.enabled AND p.enabled""";
+
+    static final String ALL_QUERY = ASSIGNMENTS + " ORDER BY upa.user_id";
+    static final String USER_QUERY = ASSIGNMENTS + " AND upa.user_id = ?";
+
+    /**
+     * Tables read by the loader on which row-level security applies to the current role
+     */
+    static final String RLS_SUBJECT_TABLES_QUERY = """
+            SELECT n.nspname || '.' || c.relname
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            JOIN pg_roles r ON r.rolname = current_user
+            WHERE n.nspname = 'skutter' AND c.relname IN ('projects', 'user_project_assignments')
+              AND c.relrowsecurity
+              AND NOT (r.rolsuper OR r.rolbypassrls OR (c.relowner = r.oid AND NOT c.relforcerowsecurity))""";
+
+    private final DataSource dataSource;
+    private final int fetchSize;
+    private volatile boolean rlsChecked;
+
+    public ProjectMembershipIndexLoader(DataSource dataSource, int fetchSize) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Build a new index from all enabled assignments
+     *
+     * @param expectedUsers    number of users to size the index for
+     * @param expectedProjects number of projects to size the index for
+     */
+    public ProjectMembershipIndex loadAll(int expectedUsers, int expectedProjects) {
+        long start = System.nanoTime();
+        ProjectMembershipIndex index = new ProjectMembershipIndex(expectedUsers, expectedProjects);
+        try (Connection connection = dataSource.getConnection()) {
+            if (!rlsChecked) {
+                checkBypassesRowLevelSecurity(connection);
+                rlsChecked = true;
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(ALL_QUERY,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet rs = statement.executeQuery()) {
+                    readUsers(rs, index);
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Load project membership index", ALL_QUERY, e);
+        }
+        log.info("Loaded project membership index: {} users, {} projects, {} assignments in {} ms",
+                index.getUserCount(), index.getProjectCount(), index.getMembershipCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    /**
+     * Reload one user's assignments into an existing index
+     */
+    public void loadUser(ProjectMembershipIndex index, UUID user) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(USER_QUERY)) {
+            statement.setObject(1, user);
+            List<UUID> projects = new ArrayList<>();
+            List<ProjectRole> roles = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    addRow(rs, projects, roles);
+                }
+            }
+            index.replaceUser(user, projects, roles);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Load project memberships of user", USER_QUERY, e);
+        }
+    }
+
+    private static void checkBypassesRowLevelSecurity(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(RLS_SUBJECT_TABLES_QUERY);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        if (!tables.isEmpty()) {
+            throw new IllegalStateException("The project membership index loader's database role is subject to "
+                    + "row-level security on " + tables + " and would load an incomplete index; use a role with "
+                    + "BYPASSRLS or the tables' owner");
+        }
+    }
+
+    /**
+     * Fill the index from rows ordered by user, one user at a time
+     */
+    private static void readUsers(ResultSet rs, ProjectMembershipIndex index) throws SQLException {
+        UUID currentUser = null;
+        List<UUID> projects = new ArrayList<>();
+        List<ProjectRole> roles = new ArrayList<>();
+        while (rs.next()) {
+            UUID user = rs.getObject(1, UUID.class);
+            if (!user.equals(currentUser)) {
+                if (currentUser != null) {
+                    index.replaceUser(currentUser, projects, roles);
+                    projects.clear();
+                    roles.clear();
+                }
+                currentUser = user;
+            }
+            addRow(rs, projects, roles);
+        }
+        if (currentUser != null) {
+            index.replaceUser(currentUser, projects, roles);
+        }
+    }
+
+    private static void addRow(ResultSet rs, List<UUID> projects, List<ProjectRole> roles) throws SQLException {
+        ProjectRole role = ProjectRole.fromName(rs.getString(3));
+        if (role != null) {
+            projects.add(rs.getObject(2, UUID.class));
+            roles.add(role);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the projects a user is assigned to and the role held in each, so project-level
+ * authorization can be decided in the application before any SQL runs
+ */
+public interface ProjectMembershipService {
+
+    /**
+     * Get the user's enabled project assignments
+     *
+     * @return project ID to role; empty if the user has no assignments or the ID is not a UUID
+     */
+    Map<UUID, ProjectRole> getProjectRoles(String userId);
+
+    /**
+     * Get the user's role in a project
+     *
+     * @return the role, or null if the user is not assigned to the project
+     */
+    default ProjectRole getProjectRole(String userId, UUID projectId) {
+        return getProjectRoles(userId).get(projectId);
+    }
+
+    /**
+     * Check whether the user holds at least the required role in a project
+     */
+    default boolean hasProjectRole(String userId, UUID projectId, ProjectRole required) {
+        ProjectRole role = getProjectRole(userId, projectId);
+        return role != null && role.includes(required);
+    }
+
+    /**
+     * Drop anything held for the user, e.g. after their assignments changed
+     */
+    void invalidate(String userId);
+
+    /**
+     * Drop anything held for all users
+     */
+    void invalidateAll();
+}
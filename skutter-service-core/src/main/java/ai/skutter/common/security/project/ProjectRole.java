@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.project;
+
+/**
+ * Roles a user can hold within a single project, mirroring the {@code skutter.project_role}
+ * database enum. Declared from least to most privileged; a role includes every role before it.
+ */
+public enum ProjectRole {
+    PROJECT_VIEWER,
+    PROJECT_EDITOR,
+    PROJECT_OWNER;
+
+    private static final ProjectRole[] VALUES = values();
+
+    /**
+     * Check whether this role grants at least the privileges of the required role
+     */
+    public boolean includes(ProjectRole required) {
+        return ordinal() >= required.ordinal();
+    }
+
+    /**
+     * Look up a role by name
+     *
+     * @return the role, or null if the name does not match any role
+     */
+    public static ProjectRole fromName(String name) {
+        for (ProjectRole role : VALUES) {
+            if (role.name().equals(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
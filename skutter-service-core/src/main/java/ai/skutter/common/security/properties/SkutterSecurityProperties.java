@@ -23,6 +23,7 @@ package ai.skutter.common.security.properties;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -55,6 +56,21 @@ public class SkutterSecurityProperties {
      */
     private final Https https = new Https();
     
+    /**
+     * Aggregated security event logging
+     */
+    private final Events events = new Events();
+
+    /**
+     * Service-to-service auth context
+     */
+    private final Internal internal = new Internal();
+
+    /**
+     * Cached project membership for project-level authorization
+     */
+    private final ProjectMembership projectMembership = new ProjectMembership();
+    
     /**
      * Paths that should be publicly accessible without authentication
      */
@@ -77,6 +93,27 @@ public class SkutterSecurityProperties {
          * Public key path for JWT validation
          */
         private String publicKeyPath;
+
+        /**
+         * JWKS location (https:, file: or classpath:) for asymmetric keys resolved by kid.
+         * May be combined with a secret, which then verifies HMAC-signed tokens.
+         */
+        private String jwksUri;
+
+        /**
+         * Interval between background JWKS refreshes
+         */
+        private Duration jwksRefreshInterval = Duration.ofMinutes(10);
+
+        /**
+         * Minimum time between JWKS fetches triggered by an unknown kid
+         */
+        private Duration jwksMinRefetchInterval = Duration.ofSeconds(30);
+
+        /**
+         * Connect and read timeout for JWKS fetches
+         */
+        private Duration jwksTimeout = Duration.ofSeconds(5);
         
         /**
          * Issuer URL for JWT validation
@@ -99,12 +136,12 @@ public class SkutterSecurityProperties {
         private boolean validateIssuer = true;
         
         /**
-         * JWT claim containing roles information
+         * Dot-separated path of the JWT claim containing roles information
          */
         private String roleClaim = "app_metadata.skutter_role";
         
         /**
-         * JWT claim containing user ID
+         * Dot-separated path of the JWT claim containing the user ID
          */
         private String userIdClaim = "sub";
         
@@ -112,6 +149,109 @@ public class SkutterSecurityProperties {
          * Should the JWT user ID be set as a Postgres user ID via SET LOCAL
          */
         private boolean setPostgresUserId = true;
+
+        /**
+         * Verify HS256 tokens with a lightweight built-in verifier instead of the generic JWT parser.
+         * Only registered claims, email, role and the top-level claims of the role and user ID paths
+         * are decoded into the verified claims; other algorithms always use the generic parser.
+         * Only authentication uses the fast path: {@code JwtTokenProvider#validateAndGetClaims}
+         * and the other claim accessors always return all claims.
+         */
+        private boolean hs256FastPath = false;
+
+        /**
+         * How long tokens signed with a replaced key or secret are still accepted after rotation
+         */
+        private Duration keyRotationOverlap = Duration.ofMinutes(5);
+
+        /**
+         * Watch the public key file and rotate to its new contents when it changes
+         */
+        private boolean reloadOnUpdate = false;
+
+        /**
+         * Time with no further changes to the public key file before it is reloaded
+         */
+        private Duration reloadQuietPeriod = Duration.ofSeconds(10);
+
+        /**
+         * Cache of verified token claims
+         */
+        private final Cache cache = new Cache();
+
+        /**
+         * Short-lived cache of tokens that were rejected, so replays are refused before verification
+         */
+        private final NegativeCache negativeCache = new NegativeCache();
+
+        /**
+         * Blocking of sources that keep presenting invalid tokens
+         */
+        private final Blocklist blocklist = new Blocklist();
+
+        @Data
+        public static class Cache {
+            /**
+             * Whether to cache the claims of verified tokens until they expire
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of cached tokens
+             */
+            private long maximumSize = 10000;
+
+            /**
+             * Upper bound on how long a verified token is cached, regardless of its expiration
+             */
+            private Duration maxTtl = Duration.ofHours(1);
+        }
+
+        @Data
+        public static class NegativeCache {
+            /**
+             * Whether to remember rejected tokens
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of remembered tokens
+             */
+            private long maximumSize = 10000;
+
+            /**
+             * How long a rejected token is remembered
+             */
+            private Duration ttl = Duration.ofMinutes(1);
+        }
+
+        @Data
+        public static class Blocklist {
+            /**
+             * Whether to ignore tokens from sources that keep presenting invalid ones
+             */
+            private boolean enabled = false;
+
+            /**
+             * Rejected tokens within the window after which a source is blocked
+             */
+            private int maxFailures = 50;
+
+            /**
+             * Window over which a source's rejected tokens are counted
+             */
+            private Duration window = Duration.ofMinutes(1);
+
+            /**
+             * How long a blocked source's tokens are ignored
+             */
+            private Duration blockDuration = Duration.ofMinutes(5);
+
+            /**
+             * Maximum number of sources tracked
+             */
+            private long maximumSources = 100000;
+        }
     }
     
     @Data
@@ -237,4 +377,95 @@ public class SkutterSecurityProperties {
          */
         private boolean hstsPreload = false;
     }
-} 
\ No newline at end of file
+
+    @Data
+    public static class Events {
+        /**
+         * Aggregate security events into periodic summaries instead of logging each one
+         */
+        private boolean enabled = true;
+
+        /**
+         * How often a summary of security events is logged
+         */
+        private Duration summaryInterval = Duration.ofMinutes(1);
+
+        /**
+         * Events logged individually per interval as exemplars
+         */
+        private int exemplarsPerInterval = 10;
+
+        /**
+         * Distinct keys (addresses, users, roles) counted per event type in one interval
+         */
+        private int maxKeysPerType = 1000;
+
+        /**
+         * Busiest keys listed per event type in each summary
+         */
+        private int topKeys = 5;
+    }
+
+    @Data
+    public static class Internal {
+        /**
+         * Propagate a signed internal auth context to downstream services instead of the user's JWT,
+         * and accept it on incoming requests
+         */
+        private boolean enabled = false;
+
+        /**
+         * Secret shared by all internal services for signing the context (at least 32 bytes)
+         */
+        private String secret;
+
+        /**
+         * How long a minted context is accepted
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Header carrying the context
+         */
+        private String headerName = "X-Skutter-Internal-Auth";
+    }
+
+    @Data
+    public static class ProjectMembership {
+        /**
+         * Load users' project assignments from the database and enable hasProjectRole checks
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long a user's assignments are cached before being reloaded
+         */
+        private Duration cacheTtl = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of users whose assignments are cached
+         */
+        private long maximumUsers = 100_000;
+
+        /**
+         * CACHE loads each user's assignments on first use; INDEX keeps every assignment in a
+         * compact in-memory index loaded in the background at startup (checks are denied until it
+         * is loaded; the database role must bypass RLS on the assignment and project tables)
+         */
+        private Store store = Store.CACHE;
+
+        /**
+         * How often the INDEX store is rebuilt from the database (0 disables periodic rebuilds)
+         */
+        private Duration indexRefreshInterval = Duration.ofMinutes(15);
+
+        /**
+         * Rows fetched per round-trip while loading the INDEX store
+         */
+        private int indexFetchSize = 10_000;
+
+        public enum Store {
+            CACHE, INDEX
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.role;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed Spring Security authorities for every combination of {@link SkutterRole}s.
+ * <p>
+ * The table is indexed by role mask (see {@link SkutterRole#maskOf}) and built once when the
+ * class is loaded, so mapping a token's roles to authorities is an array lookup that shares
+ * the same immutable list and {@link SimpleGrantedAuthority} instances across requests.
+ */
+public final class SkutterAuthorities {
+
+    private static final List<SimpleGrantedAuthority>[] BY_ROLE_MASK = buildTable();
+
+    private SkutterAuthorities() {
+    }
+
+    /**
+     * Get the authorities granted by a role mask: {@code ROLE_<name>} for each role, followed
+     * by the {@link SkutterPermission} authorities the roles grant
+     *
+     * @return an immutable list, empty for a mask of 0
+     */
+    public static List<SimpleGrantedAuthority> forRoleMask(int roleMask) {
+        return BY_ROLE_MASK[roleMask & (SkutterRole.MASK_COUNT - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<SimpleGrantedAuthority>[] buildTable() {
+        SkutterRole[] roles = SkutterRole.values();
+        SkutterPermission[] permissions = SkutterPermission.values();
+
+        SimpleGrantedAuthority[] roleAuthorities = new SimpleGrantedAuthority[roles.length];
+        for (SkutterRole role : roles) {
+            roleAuthorities[role.ordinal()] = new SimpleGrantedAuthority("ROLE_" + role.name());
+        }
+        SimpleGrantedAuthority[] permissionAuthorities = new SimpleGrantedAuthority[permissions.length];
+        for (SkutterPermission permission : permissions) {
+            permissionAuthorities[permission.ordinal()] = new SimpleGrantedAuthority(permission.getAuthority());
+        }
+
+        List<SimpleGrantedAuthority>[] table = new List[SkutterRole.MASK_COUNT];
+        for (int mask = 0; mask < table.length; mask++) {
+            List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+            for (SkutterRole role : roles) {
+                if ((mask & role.bit()) != 0) {
+                    authorities.add(roleAuthorities[role.ordinal()]);
+                }
+            }
+            int permissionMask = SkutterPermission.maskForRoles(mask);
+            for (SkutterPermission permission : permissions) {
+                if ((permissionMask & permission.bit()) != 0) {
+                    authorities.add(permissionAuthorities[permission.ordinal()]);
+                }
+            }
+            table[mask] = List.copyOf(authorities);
+        }
+        return table;
+    }
+}
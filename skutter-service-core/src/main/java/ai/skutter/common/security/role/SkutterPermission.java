@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.security.role;
+
+/**
+ * Permissions derived from a user's {@link SkutterRole}s, each represented by one bit so
+ * permission checks on the principal are a single mask test
+ */
+public enum SkutterPermission {
+    /**
+     * Read access, granted by every role
+     */
+    READ("PERMISSION_READ"),
+
+    /**
+     * Write access, granted by roles that can write
+     */
+    WRITE("PERMISSION_WRITE"),
+
+    /**
+     * Platform-wide scope, granted by platform roles
+     */
+    PLATFORM("SCOPE_PLATFORM");
+
+    private final String authority;
+
+    SkutterPermission(String authority) {
+        this.authority = authority;
+    }
+
+    /**
+     * Spring Security authority string granted for this permission
+     */
+    public String getAuthority() {
+        return authority;
+    }
+
+    /**
+     * Bit representing this permission in a permission mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Compute the permission mask granted by a role mask
+     */
+    public static int maskForRoles(int roleMask) {
+        if (roleMask == 0) {
+            return 0;
+        }
+        int permissions = READ.bit();
+        if (SkutterRole.canWrite(roleMask)) {
+            permissions |= WRITE.bit();
+        }
+        if (SkutterRole.isPlatformWide(roleMask)) {
+            permissions |= PLATFORM.bit();
+        }
+        return permissions;
+    }
+
+    /**
+     * Look up a permission by its authority string
+     *
+     * @return the permission, or null if the authority is not a permission
+     */
+    public static SkutterPermission fromAuthority(String authority) {
+        for (SkutterPermission permission : values()) {
+            if (permission.authority.equals(authority)) {
+                return permission;
+            }
+        }
+        return null;
+    }
+}
@@ -21,7 +21,11 @@
 package ai.skutter.common.security.role;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -47,6 +51,32 @@ public enum SkutterRole {
      * Project viewer with read access to specific projects they're assigned to
      */
     PROJECT_VIEWER(false, false);
+
+    /**
+     * Number of distinct role masks, i.e. the size of a table indexed by {@link #maskOf}
+     */
+    public static final int MASK_COUNT = 1 << values().length;
+
+    private static final SkutterRole[] VALUES = values();
+    private static final Map<String, SkutterRole> BY_NAME = new HashMap<>();
+    private static final int PLATFORM_WIDE_MASK;
+    private static final int WRITE_ACCESS_MASK;
+
+    static {
+        int platformWide = 0;
+        int write = 0;
+        for (SkutterRole role : VALUES) {
+            BY_NAME.put(role.name(), role);
+            if (role.platformWide) {
+                platformWide |= role.bit();
+            }
+            if (role.canWrite) {
+                write |= role.bit();
+            }
+        }
+        PLATFORM_WIDE_MASK = platformWide;
+        WRITE_ACCESS_MASK = write;
+    }
     
     private final boolean platformWide;
     private final boolean canWrite;
@@ -55,6 +85,60 @@ public enum SkutterRole {
         this.platformWide = platformWide;
         this.canWrite = canWrite;
     }
+
+    /**
+     * Bit representing this role in a role mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Look up a role by its exact name without throwing for unknown names
+     *
+     * @return the role, or null if no role has that name
+     */
+    public static SkutterRole fromName(String name) {
+        return name != null ? BY_NAME.get(name) : null;
+    }
+
+    /**
+     * Combine roles into a bit mask
+     */
+    public static int maskOf(Collection<SkutterRole> roles) {
+        int mask = 0;
+        for (SkutterRole role : roles) {
+            mask |= role.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Expand a bit mask into the roles it contains
+     */
+    public static EnumSet<SkutterRole> fromMask(int mask) {
+        EnumSet<SkutterRole> roles = EnumSet.noneOf(SkutterRole.class);
+        for (SkutterRole role : VALUES) {
+            if ((mask & role.bit()) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Whether any role in the mask has platform-wide access
+     */
+    public static boolean isPlatformWide(int mask) {
+        return (mask & PLATFORM_WIDE_MASK) != 0;
+    }
+
+    /**
+     * Whether any role in the mask can write
+     */
+    public static boolean canWrite(int mask) {
+        return (mask & WRITE_ACCESS_MASK) != 0;
+    }
     
     /**
      * Whether this role has platform-wide access
@@ -31,8 +31,11 @@ public class CheckMemoryLimit {
     private static final Runtime runtime = Runtime.getRuntime();
 
     /**
-     * Checks if current memory usage exceeds the specified percentage limit.
+     * Checks if current memory usage exceeds the specified percentage limit of the maximum heap.
      * If the limit is exceeded, throws a NotEnoughMemoryException.
+     * <p>
+     * Usage is measured against {@link Runtime#maxMemory()} rather than the currently committed
+     * heap, which can be far smaller than the heap the JVM is allowed to grow to.
      *
      * @param maxMemoryUsedPercent Maximum allowed memory usage as a percentage (0-100)
      * @throws NotEnoughMemoryException if memory usage exceeds the specified limit
@@ -42,22 +45,29 @@ public class CheckMemoryLimit {
             return; // No limit specified, skip check
         }
 
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = totalMemory - freeMemory;
-        double usedPercent = (double) usedMemory / totalMemory * 100;
+        long maxMemory = getMaxMemory();
+        long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        double usedPercent = (double) usedMemory / maxMemory * 100;
 
-        log.debug("Memory usage: {}/{} bytes ({}%)", usedMemory, totalMemory, String.format("%.2f", usedPercent));
+        log.debug("Memory usage: {}/{} bytes ({}%)", usedMemory, maxMemory, String.format("%.2f", usedPercent));
 
         if (usedPercent > maxMemoryUsedPercent) {
             String message = String.format(
-                "Not enough memory to meet current demands. Memory used is %.2f%% (limit is %.2f%%). Total memory is %,.2f MB, used memory is %,.2f MB",
+                "Not enough memory to meet current demands. Memory used is %.2f%% (limit is %.2f%%). Max memory is %,.2f MB, used memory is %,.2f MB",
                 usedPercent,
                 maxMemoryUsedPercent,
-                DataSizeConverter.convert(totalMemory, DataSizeUnit.BYTES, DataSizeUnit.MEGABYTES),
+                DataSizeConverter.convert(maxMemory, DataSizeUnit.BYTES, DataSizeUnit.MEGABYTES),
                 DataSizeConverter.convert(usedMemory, DataSizeUnit.BYTES, DataSizeUnit.MEGABYTES)
             );
             throw new NotEnoughMemoryException(message);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Maximum heap the JVM may use, falling back to the committed heap when no limit is set
+     */
+    private static long getMaxMemory() {
+        long maxMemory = runtime.maxMemory();
+        return maxMemory == Long.MAX_VALUE ? runtime.totalMemory() : maxMemory;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.util;
+
+/**
+ * Allocation-free 64-bit hashing for strings used as keys in compact primitive tables.
+ * <p>
+ * Not a cryptographic hash; use only where collisions are tolerable or verified separately.
+ */
+public final class FastHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private FastHash() {
+    }
+
+    /**
+     * Hash the characters of a sequence to 64 bits (FNV-1a over UTF-16 code units, with a final avalanche mix)
+     */
+    public static long hash64(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * Combine two hashes into one, e.g. a namespace hash and a key hash
+     */
+    public static long combine(long first, long second) {
+        return mix64(first * 31 + second);
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer: spreads every input bit across the whole result
+     */
+    public static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
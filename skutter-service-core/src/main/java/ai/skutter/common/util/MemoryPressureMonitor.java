@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+
+package ai.skutter.common.util;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks old-generation occupancy after garbage collection and exposes a cached pressure level.
+ * <p>
+ * The level is recomputed only when the JVM reports a garbage collection or a collection usage
+ * threshold crossing, so reading it on the request path is a single volatile read.
+ */
+@Slf4j
+public class MemoryPressureMonitor implements AutoCloseable {
+
+    /**
+     * Memory pressure levels, ordered by severity
+     */
+    public enum PressureLevel {
+        NORMAL, ELEVATED, CRITICAL
+    }
+
+    /**
+     * Occupancy must drop this far below a threshold before the level is lowered again
+     */
+    private static final double HYSTERESIS = 0.05;
+
+    private final double elevatedThreshold;
+    private final double criticalThreshold;
+    private final List<MemoryPoolMXBean> oldGenPools;
+    private final List<Runnable> deregistrations = new ArrayList<>();
+
+    private volatile PressureLevel level = PressureLevel.NORMAL;
+    private volatile double occupancy;
+
+    /**
+     * @param elevatedThreshold old-gen occupancy after GC (0-1) at which low-priority traffic is shed
+     * @param criticalThreshold old-gen occupancy after GC (0-1) at which all non-essential traffic is shed
+     */
+    public MemoryPressureMonitor(double elevatedThreshold, double criticalThreshold) {
+        if (elevatedThreshold <= 0 || elevatedThreshold > criticalThreshold || criticalThreshold > 1) {
+            throw new IllegalArgumentException("Thresholds must satisfy 0 < elevated <= critical <= 1");
+        }
+        this.elevatedThreshold = elevatedThreshold;
+        this.criticalThreshold = criticalThreshold;
+        this.oldGenPools = findOldGenPools();
+    }
+
+    /**
+     * Subscribe to GC notifications and collection usage threshold notifications
+     */
+    public void start() {
+        for (MemoryPoolMXBean pool : oldGenPools) {
+            long max = pool.getUsage().getMax();
+            if (pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * elevatedThreshold));
+            }
+        }
+
+        NotificationListener thresholdListener = (notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                refresh();
+            }
+        };
+        subscribe((NotificationEmitter) ManagementFactory.getMemoryMXBean(), thresholdListener);
+
+        NotificationListener gcListener = this::onGarbageCollection;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                subscribe(emitter, gcListener);
+            }
+        }
+
+        refresh();
+        log.info("Memory pressure monitor started for pools {} (elevated={}, critical={})",
+                oldGenPools.stream().map(MemoryPoolMXBean::getName).toList(), elevatedThreshold, criticalThreshold);
+    }
+
+    /**
+     * Current pressure level, as computed after the most recent garbage collection
+     */
+    public PressureLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Old-generation occupancy (0-1) observed after the most recent relevant garbage collection
+     */
+    public double getOccupancy() {
+        return occupancy;
+    }
+
+    @Override
+    public void close() {
+        deregistrations.forEach(Runnable::run);
+        deregistrations.clear();
+    }
+
+    private void onGarbageCollection(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        // After a major collection the old generation holds only live data, so its post-GC usage is exact.
+        // Minor collections leave old-gen garbage in place; fall back to the pools' last collection usage.
+        if (info.getGcAction() != null && info.getGcAction().contains("major")) {
+            update(occupancyOf(info.getGcInfo().getMemoryUsageAfterGc()));
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Recompute the pressure level from the old-gen pools' usage after their last collection
+     */
+    void refresh() {
+        long used = 0;
+        long max = 0;
+        for (MemoryPoolMXBean pool : oldGenPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null) {
+                usage = pool.getUsage();
+            }
+            used += usage.getUsed();
+            max += capacityOf(usage);
+        }
+        update(max > 0 ? (double) used / max : 0);
+    }
+
+    private double occupancyOf(Map<String, MemoryUsage> usageAfterGc) {
+        long used = 0;
+        long max = 0;
+        for (MemoryPoolMXBean pool : oldGenPools) {
+            MemoryUsage usage = usageAfterGc.get(pool.getName());
+            if (usage != null) {
+                used += usage.getUsed();
+                max += capacityOf(usage);
+            }
+        }
+        return max > 0 ? (double) used / max : occupancy;
+    }
+
+    private void update(double newOccupancy) {
+        PressureLevel previous = level;
+        PressureLevel next = levelFor(newOccupancy, previous);
+        occupancy = newOccupancy;
+        if (next != previous) {
+            level = next;
+            log.warn("Memory pressure level changed {} -> {} (old-gen occupancy after GC {}%)",
+                    previous, next, String.format("%.1f", newOccupancy * 100));
+        }
+    }
+
+    PressureLevel levelFor(double value, PressureLevel current) {
+        double elevated = current.compareTo(PressureLevel.ELEVATED) >= 0 ? elevatedThreshold - HYSTERESIS : elevatedThreshold;
+        double critical = current == PressureLevel.CRITICAL ? criticalThreshold - HYSTERESIS : criticalThreshold;
+        if (value >= critical) {
+            return PressureLevel.CRITICAL;
+        }
+        if (value >= elevated) {
+            return PressureLevel.ELEVATED;
+        }
+        return PressureLevel.NORMAL;
+    }
+
+    private void subscribe(NotificationEmitter emitter, NotificationListener listener) {
+        emitter.addNotificationListener(listener, null, null);
+        deregistrations.add(() -> {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                log.trace("Notification listener already removed");
+            }
+        });
+    }
+
+    private static long capacityOf(MemoryUsage usage) {
+        return usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+    }
+
+    /**
+     * Find the heap pools that hold long-lived objects. Collectors without a separate old
+     * generation (e.g. single-generation ZGC, Shenandoah) expose one heap pool, which is used instead.
+     */
+    private static List<MemoryPoolMXBean> findOldGenPools() {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        List<MemoryPoolMXBean> oldPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            heapPools.add(pool);
+            String name = pool.getName();
+            if (name.contains("Old") || name.contains("Tenured")) {
+                oldPools.add(pool);
+            }
+        }
+        return oldPools.isEmpty() ? heapPools : oldPools;
+    }
+}
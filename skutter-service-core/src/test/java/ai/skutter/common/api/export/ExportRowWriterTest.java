@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportRowWriterTest {
+
+    private static final String[] COLUMNS = {"id", "name", "settings"};
+
+    private static String export(ExportFormat format, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportRowWriter writer = format.newWriter(out, new ObjectMapper());
+        writer.start(COLUMNS);
+        for (Object[] row : rows) {
+            writer.write(row);
+        }
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSV has a header line and quotes fields with separators, quotes or newlines")
+    void csv_SpecialCharacters_Quoted() throws IOException {
+        String csv = export(ExportFormat.CSV,
+                new Object[]{1, "plain", null},
+                new Object[]{2, "a, \"b\"\nc", new ExportRowWriter.RawJson("{\"x\":1}")});
+
+        assertEquals("id,name,settings\r\n"
+                + "1,plain,\r\n"
+                + "2,\"a, \"\"b\"\"\nc\",\"{\"\"x\"\":1}\"\r\n", csv);
+    }
+
+    @Test
+    @DisplayName("CSV prefixes text cells that would be evaluated as formulas, but not numbers")
+    void csv_FormulaPrefix_Escaped() throws IOException {
+        String csv = export(ExportFormat.CSV,
+                new Object[]{-1, "=HYPERLINK(\"http://x\")", "+1"},
+                new Object[]{-2.5, "@SUM(A1)", "-cmd"},
+                new Object[]{3, "\tx", "a=b"});
+
+        assertEquals("id,name,settings\r\n"
+                + "-1,\"'=HYPERLINK(\"\"http://x\"\")\",'+1\r\n"
+                + "-2.5,'@SUM(A1),'-cmd\r\n"
+                + "3,'\tx,a=b\r\n", csv);
+    }
+
+    @Test
+    @DisplayName("NDJSON writes one object per line and embeds JSON columns")
+    void ndjson_Rows_OneObjectPerLine() throws IOException {
+        UUID id = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+        String ndjson = export(ExportFormat.NDJSON,
+                new Object[]{id, "first", new ExportRowWriter.RawJson("{\"x\":1}")},
+                new Object[]{id, "second", null});
+
+        assertEquals("{\"id\":\"00000000-0000-0000-0000-000000000001\",\"name\":\"first\",\"settings\":{\"x\":1}}\n"
+                + "{\"id\":\"00000000-0000-0000-0000-000000000001\",\"name\":\"second\",\"settings\":null}\n", ndjson);
+    }
+
+    @Test
+    @DisplayName("Format names resolve case-insensitively")
+    void fromName_LowerCase_Resolves() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromName("csv"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromName(" NDJSON "));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromName("xml"));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StreamingExporterTest {
+
+    private static final String SQL = "SELECT id, name FROM project WHERE org_id = ?";
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StreamingExporter exporter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnTypeName(1)).thenReturn("int4");
+        when(metaData.getColumnLabel(2)).thenReturn("name");
+        when(metaData.getColumnTypeName(2)).thenReturn("text");
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        exporter = new StreamingExporter(dataSource, transactionManager, new ObjectMapper(), meterRegistry, 50, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    private void givenRows(int count) throws SQLException {
+        AtomicInteger row = new AtomicInteger();
+        when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() <= count);
+        when(resultSet.getObject(1)).thenAnswer(invocation -> row.get());
+        when(resultSet.getObject(2)).thenAnswer(invocation -> "row-" + row.get());
+    }
+
+    @Test
+    @DisplayName("Should run the query in a read-only transaction with the configured fetch size")
+    void stream_Query_ReadOnlyTransactionAndFetchSize() throws Exception {
+        givenRows(2);
+
+        exporter.stream("projects", ExportFormat.CSV, SQL, "org-1").writeTo(new ByteArrayOutputStream());
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(transactionManager).commit(any());
+        verify(statement).setFetchSize(50);
+        verify(statement).setString(1, "org-1");
+        verify(resultSet).close();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Should flush to the client every flushRows rows and once at the end")
+    void stream_Rows_FlushedEveryFlushRows() throws Exception {
+        givenRows(7);
+        FlushRecordingStream out = new FlushRecordingStream();
+
+        exporter.stream("projects", ExportFormat.CSV, SQL, "org-1").writeTo(out);
+
+        // Header plus 3, 6 and all 7 rows
+        assertEquals(List.of(4, 7, 8), out.linesAtFlush);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("7,row-7\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should carry the caller's security context and MDC to the async thread and restore it after")
+    void stream_AsyncThread_CarriesSecurityContextAndMdc() throws Exception {
+        givenRows(1);
+        Authentication authentication = new TestingAuthenticationToken("user-1", null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MDC.put("correlationId", "corr-1");
+        AtomicReference<Authentication> queryAuthentication = new AtomicReference<>();
+        AtomicReference<String> queryCorrelationId = new AtomicReference<>();
+        when(connection.prepareStatement(SQL)).thenAnswer(invocation -> {
+            queryAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+            queryCorrelationId.set(MDC.get("correlationId"));
+            return statement;
+        });
+        StreamingResponseBody body = exporter.stream("projects", ExportFormat.NDJSON, SQL, "org-1");
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+
+        ExecutorService asyncThread = Executors.newSingleThreadExecutor();
+        try {
+            asyncThread.submit(() -> {
+                body.writeTo(new ByteArrayOutputStream());
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+
+            assertSame(authentication, queryAuthentication.get());
+            assertEquals("corr-1", queryCorrelationId.get());
+            // The pooled thread is left as it was found
+            assertNull(asyncThread.submit(() -> SecurityContextHolder.getContext().getAuthentication())
+                    .get(5, TimeUnit.SECONDS));
+            assertNull(asyncThread.submit(() -> MDC.get("correlationId")).get(5, TimeUnit.SECONDS));
+        } finally {
+            asyncThread.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should record rows and a successful duration when the export completes")
+    void stream_Completed_RecordsMetrics() throws Exception {
+        givenRows(7);
+
+        exporter.stream("projects", ExportFormat.CSV, SQL, "org-1").writeTo(new ByteArrayOutputStream());
+
+        assertEquals(7.0, meterRegistry.get("skutter.export.rows")
+                .tag("export", "projects").tag("format", "CSV").counter().count());
+        assertEquals(1, meterRegistry.get("skutter.export.duration")
+                .tag("export", "projects").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should roll back, close the cursor and record a cancelled export when the client aborts")
+    void stream_ClientAbort_RollsBackAndRecordsCancelled() throws Exception {
+        givenRows(10);
+        OutputStream brokenPipe = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        StreamingResponseBody body = exporter.stream("projects", ExportFormat.CSV, SQL, "org-1");
+
+        IOException thrown = assertThrows(IOException.class, () -> body.writeTo(brokenPipe));
+        assertEquals("Broken pipe", thrown.getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(resultSet).close();
+        verify(connection).close();
+        // Aborted at the first flush, so no rows reached the client
+        assertEquals(0.0, meterRegistry.get("skutter.export.rows").counter().count());
+        assertEquals(1, meterRegistry.get("skutter.export.duration")
+                .tag("outcome", "cancelled").timer().count());
+    }
+
+    /**
+     * Records the number of complete lines received at each flush
+     */
+    private static final class FlushRecordingStream extends ByteArrayOutputStream {
+
+        private final List<Integer> linesAtFlush = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            linesAtFlush.add(toString(StandardCharsets.UTF_8).split("\r\n", -1).length - 1);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.pagination;
+
+import ai.skutter.common.api.exception.InvalidCursorException;
+import ai.skutter.common.api.exception.InvalidSortException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class KeysetPageQueryTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id"));
+
+    private static final SortColumns SORT_COLUMNS = SortColumns.builder()
+            .column("createdAt", Instant.class)
+            .column("name", "lower(name)", String.class)
+            .column("id", long.class)
+            .build();
+
+    private static CursorPageRequest request(String cursor, CursorPageRequest.SortDirection direction, Sort sort) {
+        return new CursorPageRequest(cursor, 2, direction, sort);
+    }
+
+    @Test
+    @DisplayName("Cursor round-trips typed key values")
+    void codec_RoundTrip_PreservesTypes() {
+        Sort sort = Sort.by("createdAt", "id", "rank");
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 1, 12, 30, 0, 123_000, ZoneOffset.ofHours(2));
+        UUID id = UUID.randomUUID();
+
+        String cursor = KeysetCursorCodec.encode(sort, new Object[]{createdAt, id, 7L});
+        Object[] decoded = KeysetCursorCodec.decode(sort, cursor);
+
+        assertArrayEquals(new Object[]{createdAt, id, 7L}, decoded);
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    @DisplayName("Cursor issued for another sort is rejected")
+    void codec_DifferentSort_Rejected() {
+        String cursor = KeysetCursorCodec.encode(Sort.by("name", "id"), new Object[]{"a", 1L});
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursorCodec.decode(Sort.by(Sort.Direction.DESC, "name").and(Sort.by("id")), cursor));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursorCodec.decode(Sort.by("name", "id"), "not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursorCodec.encode(Sort.by("name", "id"), new Object[]{null, 1L}));
+    }
+
+    @Test
+    @DisplayName("Id tiebreaker is appended to the request sort")
+    void of_SortWithoutId_AppendsTiebreaker() {
+        KeysetPageQuery query = KeysetPageQuery.of(request(null, CursorPageRequest.SortDirection.AFTER, Sort.by("name")));
+
+        assertEquals(Sort.by("name", "id"), query.getSort());
+        assertEquals(3, query.getFetchSize());
+        assertNull(query.toSqlPredicate(SORT_COLUMNS));
+    }
+
+    @Test
+    @DisplayName("Uniform directions use a row comparison")
+    void toSqlPredicate_UniformDirection_RowComparison() {
+        Sort sort = Sort.by("createdAt", "id");
+        Instant createdAt = Instant.parse("2025-01-01T00:00:00Z");
+        String cursor = KeysetCursorCodec.encode(sort, new Object[]{createdAt, 42L});
+
+        KeysetPageQuery.SqlPredicate after = KeysetPageQuery.of(request(cursor, CursorPageRequest.SortDirection.AFTER, sort))
+                .toSqlPredicate(SORT_COLUMNS);
+        KeysetPageQuery.SqlPredicate before = KeysetPageQuery.of(request(cursor, CursorPageRequest.SortDirection.BEFORE, sort))
+                .toSqlPredicate(SORT_COLUMNS);
+
+        assertEquals("(created_at, id) > (?, ?)", after.sql());
+        assertEquals(List.of(createdAt.atOffset(ZoneOffset.UTC), 42L), after.parameters());
+        assertEquals("(created_at, id) < (?, ?)", before.sql());
+    }
+
+    @Test
+    @DisplayName("Mixed directions expand with a leading range bound")
+    void toSqlPredicate_MixedDirection_Expanded() {
+        String cursor = KeysetCursorCodec.encode(NEWEST_FIRST, new Object[]{Instant.EPOCH, 5L});
+
+        KeysetPageQuery query = KeysetPageQuery.of(request(cursor, CursorPageRequest.SortDirection.AFTER, NEWEST_FIRST));
+        KeysetPageQuery.SqlPredicate predicate = query.toSqlPredicate(SORT_COLUMNS);
+
+        assertEquals("created_at <= ? AND ((created_at < ?) OR (created_at = ? AND id > ?))", predicate.sql());
+        assertEquals(4, predicate.parameters().size());
+        assertEquals("created_at DESC, id ASC", query.toOrderByClause(SORT_COLUMNS));
+    }
+
+    @Test
+    @DisplayName("BEFORE page is reversed into page order with both cursors")
+    void toPage_Before_ReversesAndSetsCursors() {
+        Sort sort = Sort.by("id");
+        String cursor = KeysetCursorCodec.encode(sort, new Object[]{10L});
+        KeysetPageQuery query = KeysetPageQuery.of(request(cursor, CursorPageRequest.SortDirection.BEFORE, sort));
+
+        // Fetched in reversed order, one extra row
+        KeysetPage<Long> page = query.toPage(List.of(9L, 8L, 7L), row -> new Object[]{row});
+
+        assertEquals(List.of(8L, 9L), page.getContent());
+        assertTrue(page.getCursor().isHasNext());
+        assertTrue(page.getCursor().isHasPrevious());
+        assertArrayEquals(new Object[]{9L}, KeysetCursorCodec.decode(sort, page.getCursor().getNext()));
+        assertArrayEquals(new Object[]{8L}, KeysetCursorCodec.decode(sort, page.getCursor().getPrevious()));
+    }
+
+    @Test
+    @DisplayName("Last AFTER page has no next cursor")
+    void toPage_AfterLastPage_NoNext() {
+        KeysetPageQuery query = KeysetPageQuery.of(request(null, CursorPageRequest.SortDirection.AFTER, Sort.by("id")));
+
+        KeysetPage<Long> page = query.toPage(List.of(1L), row -> new Object[]{row});
+
+        assertEquals(List.of(1L), page.getContent());
+        assertNull(page.getCursor().getNext());
+        assertNull(page.getCursor().getPrevious());
+    }
+
+    @Test
+    @DisplayName("Sort properties outside the whitelist are rejected before any SQL is built")
+    void toSqlPredicate_HostileSort_Rejected() {
+        Sort hostile = Sort.by("id; DROP TABLE orders --");
+        KeysetPageQuery query = KeysetPageQuery.of(request(null, CursorPageRequest.SortDirection.AFTER, hostile));
+
+        assertThrows(InvalidSortException.class, () -> query.toSqlPredicate(SORT_COLUMNS));
+        assertThrows(InvalidSortException.class, () -> query.toOrderByClause(SORT_COLUMNS));
+    }
+
+    @Test
+    @DisplayName("Whitelisted properties map to their registered column expressions")
+    void toOrderByClause_MapsRegisteredColumns() {
+        KeysetPageQuery query = KeysetPageQuery.of(request(null, CursorPageRequest.SortDirection.AFTER,
+                Sort.by(Sort.Direction.DESC, "name")));
+
+        assertEquals("lower(name) DESC, id ASC", query.toOrderByClause(SORT_COLUMNS));
+    }
+
+    @Test
+    @DisplayName("Cursor values of the wrong type are rejected as invalid cursors")
+    void toSqlPredicate_CursorValueWrongType_InvalidCursor() {
+        Sort sort = Sort.by("createdAt", "id");
+        String forged = KeysetCursorCodec.encode(sort, new Object[]{"2025-01-01", 42L});
+        String wrongId = KeysetCursorCodec.encode(sort, new Object[]{Instant.EPOCH, 42});
+
+        assertThrows(InvalidCursorException.class, () -> KeysetPageQuery.of(
+                request(forged, CursorPageRequest.SortDirection.AFTER, sort)).toSqlPredicate(SORT_COLUMNS));
+        assertThrows(InvalidCursorException.class, () -> KeysetPageQuery.of(
+                request(wrongId, CursorPageRequest.SortDirection.AFTER, sort)).toSqlPredicate(SORT_COLUMNS));
+    }
+
+    @Test
+    @DisplayName("First-page JPA query with a sort outside the whitelist is rejected before querying")
+    @SuppressWarnings("unchecked")
+    void of_JpaUnknownSortWithoutCursor_RejectedBeforeQuery() {
+        JpaSpecificationExecutor<Object> repository = mock(JpaSpecificationExecutor.class);
+        CursorPageRequest pageRequest = request(null, CursorPageRequest.SortDirection.AFTER, Sort.by("passwordHash"));
+
+        assertThrows(InvalidSortException.class, () ->
+                KeysetPageQuery.of(pageRequest, SORT_COLUMNS).fetch(repository, (Specification<Object>) null));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("First-page JPA query sorting by an unknown attribute is answered as an invalid sort")
+    @SuppressWarnings("unchecked")
+    void fetch_JpaUnknownAttribute_InvalidSort() {
+        JpaSpecificationExecutor<Object> repository = mock(JpaSpecificationExecutor.class);
+        when(repository.findBy(any(), any())).thenThrow(
+                new PropertyReferenceException("bogus", TypeInformation.of(Object.class), List.of()));
+        KeysetPageQuery query = KeysetPageQuery.of(request(null, CursorPageRequest.SortDirection.AFTER, Sort.by("bogus")));
+
+        assertThrows(InvalidSortException.class, () -> query.fetch(repository, (Specification<Object>) null));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.pagination;
+
+import ai.skutter.common.api.exception.InvalidSortException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SlicePaginationTest {
+
+    private final AtomicInteger countQueries = new AtomicInteger();
+    private final LongSupplier exactCount = () -> {
+        countQueries.incrementAndGet();
+        return 95;
+    };
+
+    private static UriComponentsBuilder uri() {
+        return UriComponentsBuilder.fromUriString("https://api.skutter.ai/orders");
+    }
+
+    @Test
+    @DisplayName("Extra fetched row sets has_next and is dropped")
+    void toSlice_ExtraRow_HasNext() {
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(1, 2, 3), PageRequest.of(0, 2));
+
+        assertEquals(List.of(1, 2), slice.getContent());
+        assertTrue(slice.hasNext());
+        assertFalse(SlicePagination.toSlice(List.of(1, 2), PageRequest.of(0, 2)).hasNext());
+    }
+
+    @Test
+    @DisplayName("NONE mode omits totals and never counts")
+    void toResponse_None_NoTotals() {
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(1, 2, 3), PageRequest.of(0, 2));
+
+        PagedResponse<Integer> response = SlicePagination.toResponse(OffsetPageRequest.CountMode.NONE, slice, exactCount, () -> 1000, uri());
+
+        assertNull(response.getMetadata().getTotalElements());
+        assertNull(response.getMetadata().getTotalPages());
+        assertTrue(response.getMetadata().getHasNext());
+        assertEquals(0, countQueries.get());
+        assertTrue(response.getLink("next").isPresent());
+        assertTrue(response.getLink("last").isEmpty());
+    }
+
+    @Test
+    @DisplayName("ESTIMATED mode reports the estimate, flagged and never below rows already seen")
+    void toResponse_Estimated_FlaggedAndClamped() {
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(1, 2, 3), PageRequest.of(5, 2));
+
+        PagedResponse<Integer> estimated = SlicePagination.toResponse(OffsetPageRequest.CountMode.ESTIMATED, slice, exactCount, () -> 1000, uri());
+        PagedResponse<Integer> clamped = SlicePagination.toResponse(OffsetPageRequest.CountMode.ESTIMATED, slice, exactCount, () -> 3, uri());
+
+        assertEquals(1000L, estimated.getMetadata().getTotalElements());
+        assertEquals(500, estimated.getMetadata().getTotalPages());
+        assertTrue(estimated.getMetadata().getTotalEstimated());
+        assertEquals(13L, clamped.getMetadata().getTotalElements());
+        assertEquals(0, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("Unknown estimate falls back to no totals")
+    void toResponse_EstimateUnknown_NoTotals() {
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(1, 2, 3), PageRequest.of(0, 2));
+
+        PagedResponse<Integer> response = SlicePagination.toResponse(OffsetPageRequest.CountMode.ESTIMATED, slice, exactCount, () -> -1, uri());
+
+        assertNull(response.getMetadata().getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Last page derives the exact total without counting")
+    void toResponse_LastPage_ExactWithoutCount() {
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(1), PageRequest.of(3, 2));
+
+        PagedResponse<Integer> response = SlicePagination.toResponse(OffsetPageRequest.CountMode.ESTIMATED, slice, exactCount, () -> 1000, uri());
+
+        assertEquals(7L, response.getMetadata().getTotalElements());
+        assertNull(response.getMetadata().getTotalEstimated());
+        assertEquals(0, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("EXACT mode runs the count query")
+    void toResponse_Exact_Counts() {
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(1, 2, 3), PageRequest.of(0, 2));
+
+        PagedResponse<Integer> response = SlicePagination.toResponse(OffsetPageRequest.CountMode.EXACT, slice, exactCount, () -> 1000, uri());
+
+        assertEquals(95L, response.getMetadata().getTotalElements());
+        assertEquals(1, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("Exactly full last page derives the total without counting in any mode")
+    void toResponse_FullLastPage_ExactWithoutCount() {
+        // Page 2 of size 2 fetched without the extra row: 6 rows in total
+        Slice<Integer> slice = SlicePagination.toSlice(List.of(5, 6), PageRequest.of(2, 2));
+
+        PagedResponse<Integer> estimated = SlicePagination.toResponse(OffsetPageRequest.CountMode.ESTIMATED, slice, exactCount, () -> 1000, uri());
+        PagedResponse<Integer> exact = SlicePagination.toResponse(OffsetPageRequest.CountMode.EXACT, slice, exactCount, () -> 1000, uri());
+
+        assertFalse(slice.hasNext());
+        assertEquals(6L, estimated.getMetadata().getTotalElements());
+        assertEquals(6L, exact.getMetadata().getTotalElements());
+        assertEquals(3, exact.getMetadata().getTotalPages());
+        assertEquals(0, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("Client sort outside the whitelist is rejected without running the query")
+    void fetch_HostileSort_Rejected() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        SortColumns sortColumns = SortColumns.builder().column("createdAt", java.time.Instant.class).build();
+        OffsetPageRequest request = new OffsetPageRequest();
+        request.setSort("id; DROP TABLE orders --,asc");
+        Pageable pageable = request.toPageable();
+
+        assertThrows(InvalidSortException.class, () -> SlicePagination.fetch(jdbcTemplate, sortColumns,
+                "SELECT * FROM orders", (rs, rowNum) -> rs.getInt(1), pageable));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Whitelisted sort is mapped to its column")
+    @SuppressWarnings("unchecked")
+    void fetch_WhitelistedSort_MapsColumn() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        SortColumns sortColumns = SortColumns.builder().column("createdAt", java.time.Instant.class).build();
+        OffsetPageRequest request = new OffsetPageRequest();
+        request.setSort("createdAt,desc");
+        request.setSize(2);
+
+        SlicePagination.fetch(jdbcTemplate, sortColumns, "SELECT * FROM orders", (rs, rowNum) -> rs.getInt(1), request.toPageable());
+
+        verify(jdbcTemplate).query(eq("SELECT * FROM orders ORDER BY created_at DESC LIMIT ? OFFSET ?"),
+                any(RowMapper.class), any(Object[].class));
+    }
+}
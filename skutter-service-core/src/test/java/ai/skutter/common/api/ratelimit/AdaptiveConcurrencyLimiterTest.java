@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST_RTT = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW_RTT = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private AdaptiveConcurrencyLimiter newLimiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 2, 100, 0.5, 1.5, 1, 1000);
+    }
+
+    /**
+     * Fill the limiter to its current limit, then complete every request with the given latency
+     */
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject requests once the in-flight count reaches the limit")
+    void tryAcquire_LimitReached_Rejects() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(3);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(), "Fourth request should exceed the limit of 3");
+
+        assertEquals(3, limiter.getInFlight());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release(FAST_RTT);
+        assertEquals(2, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire(), "Released slot should be available again");
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while latency stays at the baseline")
+    void release_StableLatency_GrowsLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(10);
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, FAST_RTT);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "Limit should grow under stable latency but was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 100, "Limit must not exceed the configured maximum");
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency rises above the baseline")
+    void release_RisingLatency_ShrinksLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(20);
+
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, FAST_RTT);
+        }
+        int baselineLimit = limiter.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, SLOW_RTT);
+        }
+
+        assertTrue(limiter.getLimit() < baselineLimit,
+                "Limit should shrink from " + baselineLimit + " but was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 2, "Limit must not drop below the configured minimum");
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit when the group is not using it")
+    void release_AppLimited_KeepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(20);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST_RTT);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should not let slots released without a sample move the limit")
+    void release_WithoutSample_KeepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(20);
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, FAST_RTT);
+        }
+        int baselineLimit = limiter.getLimit();
+
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release();
+        }
+
+        assertEquals(baselineLimit, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
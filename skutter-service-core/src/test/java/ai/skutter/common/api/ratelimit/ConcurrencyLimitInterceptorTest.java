@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.ratelimit;
+
+import ai.skutter.common.api.exception.GlobalExceptionHandler;
+import ai.skutter.common.api.properties.SkutterApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("ConcurrencyLimitInterceptor Tests")
+class ConcurrencyLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TestController controller = new TestController();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SkutterApiProperties.ConcurrencyLimit properties = new SkutterApiProperties.ConcurrencyLimit();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addInterceptors(new ConcurrencyLimitInterceptor(properties, meterRegistry))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("skutter.api.concurrency.inflight").tag("group", ConcurrencyLimitInterceptor.DEFAULT_GROUP)
+                .gauge().value();
+    }
+
+    @Test
+    @DisplayName("Should release the slot when a synchronous request completes")
+    void syncRequest_ReleasesSlot() throws Exception {
+        mockMvc.perform(get("/sync")).andExpect(status().isOk());
+        mockMvc.perform(get("/sync")).andExpect(status().isOk());
+
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    @DisplayName("Should release the slot when the handler fails")
+    void failingRequest_ReleasesSlot() throws Exception {
+        mockMvc.perform(get("/fail")).andExpect(status().isInternalServerError());
+
+        assertEquals(0, inFlight());
+        mockMvc.perform(get("/sync")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should release the slot when concurrent handling starts, before the async result is ready")
+    void asyncRequest_ReleasesSlotWhenHandlingStarts() throws Exception {
+        MvcResult started = mockMvc.perform(get("/async")).andExpect(request().asyncStarted()).andReturn();
+
+        assertEquals(0, inFlight());
+        mockMvc.perform(get("/sync")).andExpect(status().isOk());
+
+        controller.deferred.setResult("done");
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 and Retry-After once the limit is exhausted")
+    void limitExhausted_RejectsWithRetryAfter() throws Exception {
+        Thread blocked = new Thread(() -> {
+            try {
+                mockMvc.perform(get("/block"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        blocked.start();
+        try {
+            assertTrue(controller.entered.await(5, TimeUnit.SECONDS));
+
+            mockMvc.perform(get("/sync"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "3"));
+        } finally {
+            controller.release.countDown();
+            blocked.join(5000);
+        }
+        assertEquals(0, inFlight());
+    }
+
+    @RestController
+    static class TestController {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile DeferredResult<String> deferred;
+
+        @GetMapping("/sync")
+        String sync() {
+            return "ok";
+        }
+
+        @GetMapping("/fail")
+        String fail() {
+            throw new IllegalStateException("Handler failed");
+        }
+
+        @GetMapping("/async")
+        DeferredResult<String> async() {
+            deferred = new DeferredResult<>();
+            return deferred;
+        }
+
+        @GetMapping("/block")
+        String block() throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.ratelimit;
+
+import ai.skutter.common.api.exception.ServiceOverloadedException;
+import ai.skutter.common.api.properties.SkutterApiProperties;
+import ai.skutter.common.util.MemoryPressureMonitor;
+import ai.skutter.common.util.MemoryPressureMonitor.PressureLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadSheddingInterceptorTest {
+
+    private final MemoryPressureMonitor monitor = mock(MemoryPressureMonitor.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoadSheddingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        SkutterApiProperties.LoadShedding properties = new SkutterApiProperties.LoadShedding();
+        properties.setLargePageSize(100);
+        interceptor = new LoadSheddingInterceptor(properties, monitor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRequestURI(path);
+        return request;
+    }
+
+    private static void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private boolean admit(MockHttpServletRequest request) {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("skutter.api.load-shedding.rejected").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    @DisplayName("Normal pressure admits anonymous large-page requests")
+    void preHandle_Normal_Admits() {
+        when(monitor.getLevel()).thenReturn(PressureLevel.NORMAL);
+        MockHttpServletRequest request = request("/projects");
+        request.setParameter("size", "2500");
+
+        assertTrue(admit(request));
+    }
+
+    @Test
+    @DisplayName("Elevated pressure sheds anonymous requests")
+    void preHandle_ElevatedAnonymous_Shed() {
+        when(monitor.getLevel()).thenReturn(PressureLevel.ELEVATED);
+
+        assertThrows(ServiceOverloadedException.class, () -> admit(request("/projects")));
+        assertEquals(1, rejected("anonymous"));
+    }
+
+    @Test
+    @DisplayName("Elevated pressure sheds authenticated large-page requests but admits small pages")
+    void preHandle_ElevatedLargePage_Shed() {
+        when(monitor.getLevel()).thenReturn(PressureLevel.ELEVATED);
+        authenticate();
+        MockHttpServletRequest large = request("/projects");
+        large.setParameter("limit", "101");
+        MockHttpServletRequest small = request("/projects");
+        small.setParameter("size", "100");
+
+        assertThrows(ServiceOverloadedException.class, () -> admit(large));
+        assertTrue(admit(small));
+        assertEquals(1, rejected("large_page"));
+    }
+
+    @Test
+    @DisplayName("Critical pressure sheds authenticated requests except excluded paths")
+    void preHandle_Critical_ShedsAllButExcluded() {
+        when(monitor.getLevel()).thenReturn(PressureLevel.CRITICAL);
+        authenticate();
+
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class, () -> admit(request("/projects")));
+        assertEquals(5, e.getRetryAfterSeconds());
+        assertTrue(admit(request("/actuator/health")));
+        assertEquals(1, rejected("critical"));
+    }
+
+    @Test
+    @DisplayName("Malformed page sizes are not treated as large pages")
+    void isLargePage_Malformed_False() {
+        MockHttpServletRequest request = request("/projects");
+        request.setParameter("size", "lots");
+
+        assertFalse(interceptor.isLargePage(request));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(60);
+    // Window-aligned and after the packed-state epoch, so the packed algorithms can use the same clock
+    private static final long WINDOW_START = RateLimitAlgorithm.PACKED_EPOCH_MILLIS + 1_000L * WINDOW.toMillis();
+
+    private final AtomicLong clock = new AtomicLong(WINDOW_START);
+
+    private int consumeAll(RateLimitCounter counter) {
+        int admitted = 0;
+        while (counter.tryConsume()) {
+            admitted++;
+        }
+        return admitted;
+    }
+
+    @Test
+    @DisplayName("Should admit exactly the limit within a single window")
+    void tryConsume_SingleWindow_AdmitsLimit() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10, WINDOW, clock::get);
+
+        assertEquals(10, consumeAll(counter));
+        assertEquals(0, counter.getRemaining());
+    }
+
+    @Test
+    @DisplayName("Should not admit a second full burst right after a window boundary")
+    void tryConsume_BurstAcrossBoundary_IsSmoothed() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(100, WINDOW, clock::get);
+
+        clock.set(WINDOW_START + WINDOW.toMillis() - 1);
+        assertEquals(100, consumeAll(counter));
+
+        // Exactly at the boundary the whole previous window still counts
+        clock.set(WINDOW_START + WINDOW.toMillis());
+        assertEquals(0, consumeAll(counter), "Burst just after the boundary should be rejected");
+
+        // Halfway through, half of the previous window's requests have aged out
+        clock.set(WINDOW_START + WINDOW.toMillis() + WINDOW.toMillis() / 2);
+        assertEquals(50, consumeAll(counter));
+
+    }
+
+    @Test
+    @DisplayName("Token bucket, unlike the sliding window, admits a second full burst across a refill")
+    void tryConsume_TokenBucketAcrossBoundary_AdmitsTwiceTheLimit() {
+        RateLimitAlgorithm bucket = RateLimitAlgorithm.TOKEN_BUCKET;
+        long period = WINDOW.toMillis();
+        long state = bucket.initialState(WINDOW_START, 100, period);
+
+        int admitted = 0;
+        for (long now : new long[]{WINDOW_START + period - 1, WINDOW_START + period}) {
+            long next;
+            while ((next = bucket.tryConsume(state, now, 100, period)) != RateLimitAlgorithm.REJECTED) {
+                state = next;
+                admitted++;
+            }
+        }
+
+        assertEquals(200, admitted);
+    }
+
+    @Test
+    @DisplayName("Should forget counts once more than one window has passed")
+    void tryConsume_IdleForTwoWindows_Resets() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10, WINDOW, clock::get);
+        assertEquals(10, consumeAll(counter));
+
+        clock.addAndGet(2 * WINDOW.toMillis());
+
+        assertEquals(10, counter.getRemaining());
+        assertEquals(10, consumeAll(counter));
+    }
+}
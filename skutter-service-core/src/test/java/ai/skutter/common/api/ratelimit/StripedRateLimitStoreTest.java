@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.api.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedRateLimitStoreTest {
+
+    private static final long START = RateLimitAlgorithm.PACKED_EPOCH_MILLIS + 3_600_000L;
+
+    private final AtomicLong clock = new AtomicLong(START);
+
+    private static RateLimitPolicy policy(String name, int limit, RateLimitAlgorithm algorithm) {
+        return new RateLimitPolicy(name, List.of("/**"), limit, Duration.ofMinutes(1), algorithm);
+    }
+
+    private static int consumeAll(RateLimitStore store, RateLimitPolicy policy, String key) {
+        int admitted = 0;
+        while (store.tryConsume(policy, key)) {
+            admitted++;
+        }
+        return admitted;
+    }
+
+    @Test
+    @DisplayName("Should admit exactly the limit per key for both algorithms")
+    void tryConsume_SingleKey_AdmitsLimit() {
+        StripedRateLimitStore store = new StripedRateLimitStore(1024, 4, clock::get);
+
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            RateLimitPolicy policy = policy(algorithm.name(), 5, algorithm);
+            assertEquals(5, consumeAll(store, policy, "client-1"), algorithm.name());
+            assertEquals(0, store.getRemaining(policy, "client-1"), algorithm.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should track keys and policies independently")
+    void tryConsume_DifferentKeysAndPolicies_AreIndependent() {
+        StripedRateLimitStore store = new StripedRateLimitStore(1024, 4, clock::get);
+        RateLimitPolicy api = policy("api", 3, RateLimitAlgorithm.SLIDING_WINDOW);
+        RateLimitPolicy auth = policy("auth", 3, RateLimitAlgorithm.SLIDING_WINDOW);
+
+        assertEquals(3, consumeAll(store, api, "client-1"));
+
+        assertEquals(3, store.getRemaining(api, "client-2"));
+        assertEquals(3, store.getRemaining(auth, "client-1"));
+        assertTrue(store.tryConsume(auth, "client-1"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Should report the full limit and no reset time for unknown keys")
+    void getRemaining_UnknownKey_ReturnsLimit() {
+        StripedRateLimitStore store = new StripedRateLimitStore(64, 1, clock::get);
+        RateLimitPolicy policy = policy("api", 7, RateLimitAlgorithm.TOKEN_BUCKET);
+
+        assertEquals(7, store.getRemaining(policy, "unknown"));
+        assertEquals(0, store.getResetTimeSeconds(policy, "unknown"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Should keep many keys apart without evicting while the table has room")
+    void tryConsume_ManyKeys_NoEvictions() {
+        StripedRateLimitStore store = new StripedRateLimitStore(4096, 8, clock::get);
+        RateLimitPolicy policy = policy("api", 10, RateLimitAlgorithm.SLIDING_WINDOW);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(store.tryConsume(policy, "client-" + i));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(9, store.getRemaining(policy, "client-" + i), "client-" + i);
+        }
+        assertEquals(500, store.size());
+        assertEquals(0, store.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used key when the probe window is full")
+    void tryConsume_FullProbeWindow_EvictsLeastRecentlyUsed() {
+        // A single stripe of 8 slots: every key's probe window covers the whole table
+        StripedRateLimitStore store = new StripedRateLimitStore(8, 1, clock::get);
+        RateLimitPolicy policy = policy("api", 2, RateLimitAlgorithm.TOKEN_BUCKET);
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(2, consumeAll(store, policy, "client-" + i));
+            // Access stamps are in whole seconds
+            clock.addAndGet(1_000);
+        }
+        assertEquals(8, store.size());
+        assertEquals(0, store.getEvictionCount());
+
+        assertTrue(store.tryConsume(policy, "client-8"));
+
+        assertEquals(1, store.getEvictionCount());
+        assertEquals(8, store.size());
+        // The oldest key lost its state and starts over with a fresh budget
+        assertEquals(2, store.getRemaining(policy, "client-0"));
+        assertEquals(0, store.getRemaining(policy, "client-1"));
+    }
+
+    @Test
+    @DisplayName("Should reject limits that do not fit the packed state")
+    void validate_LimitAboveMaxPacked_Throws() {
+        StripedRateLimitStore store = new StripedRateLimitStore(64, 1, clock::get);
+        RateLimitPolicy policy = policy("huge", RateLimitAlgorithm.SLIDING_WINDOW.getMaxPackedLimit() + 1,
+                RateLimitAlgorithm.SLIDING_WINDOW);
+
+        assertThrows(IllegalArgumentException.class, () -> store.validate(policy));
+        assertDoesNotThrow(() -> store.validate(policy("api", RateLimitAlgorithm.SLIDING_WINDOW.getMaxPackedLimit(),
+                RateLimitAlgorithm.SLIDING_WINDOW)));
+    }
+
+    @Test
+    @DisplayName("Should fail interceptor creation when a configured policy does not fit the striped store")
+    void interceptor_PolicyAboveMaxPacked_FailsAtConstruction() {
+        StripedRateLimitStore store = new StripedRateLimitStore(64, 1, clock::get);
+        RateLimitPolicy huge = policy("huge", RateLimitAlgorithm.TOKEN_BUCKET.getMaxPackedLimit() + 1,
+                RateLimitAlgorithm.TOKEN_BUCKET);
+        RateLimitPolicy api = policy(RateLimitPolicy.DEFAULT_POLICY, 5, RateLimitAlgorithm.TOKEN_BUCKET);
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor(List.of(huge), api, store));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor(List.of(), huge, store));
+        assertDoesNotThrow(() -> new RateLimitInterceptor(List.of(api), api, store));
+    }
+
+    @Test
+    @DisplayName("Should reject a clock before the packed-state epoch instead of corrupting the state")
+    void tryConsume_ClockBeforePackedEpoch_Throws() {
+        clock.set(RateLimitAlgorithm.PACKED_EPOCH_MILLIS - 1);
+        StripedRateLimitStore store = new StripedRateLimitStore(64, 1, clock::get);
+        RateLimitPolicy policy = policy("api", 5, RateLimitAlgorithm.TOKEN_BUCKET);
+
+        assertThrows(IllegalArgumentException.class, () -> store.tryConsume(policy, "client-1"));
+    }
+
+    @Test
+    @DisplayName("Should agree with the map store on admissions within a window")
+    void tryConsume_MatchesMapStore() {
+        RateLimitStore striped = new StripedRateLimitStore(1024, 4);
+        RateLimitStore map = new MapRateLimitStore();
+
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            RateLimitPolicy policy = policy(algorithm.name(), 20, algorithm);
+            assertEquals(consumeAll(map, policy, "client-1"), consumeAll(striped, policy, "client-1"), algorithm.name());
+            assertEquals(map.getRemaining(policy, "client-2"), striped.getRemaining(policy, "client-2"), algorithm.name());
+        }
+        assertEquals(map.size(), striped.size());
+    }
+}
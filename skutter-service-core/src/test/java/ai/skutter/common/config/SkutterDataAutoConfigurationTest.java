@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.config;
+
+import ai.skutter.common.data.jdbc.ObservedDataSource;
+import ai.skutter.common.data.jdbc.SqlExecutionListener;
+import ai.skutter.common.data.jdbc.UserIdPropagatingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SkutterDataAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(SkutterDataAutoConfiguration.DataSourceWrapperConfiguration.class,
+                    TestDataSourceConfiguration.class);
+
+    @Test
+    void shouldPropagateUserIdByDefault() {
+        contextRunner.run(context ->
+                assertThat(context.getBean(DataSource.class)).isInstanceOf(UserIdPropagatingDataSource.class));
+    }
+
+    @Test
+    void shouldNotWrapDataSourceWhenUserIdPropagationIsDisabled() {
+        contextRunner
+                .withPropertyValues("skutter.data.enable-user-id-propagation=false")
+                .run(context ->
+                        assertThat(context.getBean(DataSource.class)).isNotInstanceOf(UserIdPropagatingDataSource.class));
+    }
+
+    @Test
+    void shouldWrapUserIdPropagationInsideObservedDataSource() {
+        contextRunner
+                .withUserConfiguration(TestListenerConfiguration.class)
+                .run(context -> {
+                    DataSource dataSource = context.getBean(DataSource.class);
+                    assertThat(dataSource).isInstanceOf(ObservedDataSource.class);
+                    assertThat(((ObservedDataSource) dataSource).getTargetDataSource())
+                            .isInstanceOf(UserIdPropagatingDataSource.class);
+
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.prepareStatement("SELECT 1").executeQuery();
+                    }
+
+                    // The set_config statement runs inside the observed wrapper and is not reported
+                    assertThat(context.getBean(RecordingListener.class).fingerprints).containsExactly("select ?");
+                });
+    }
+
+    @Configuration
+    static class TestDataSourceConfiguration {
+        @Bean
+        DataSource dataSource() throws Exception {
+            DataSource dataSource = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+            return dataSource;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Configuration
+    static class TestListenerConfiguration {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements SqlExecutionListener {
+
+        final List<String> fingerprints = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onExecution(String fingerprint, long executionNanos, long updateCount) {
+            fingerprints.add(fingerprint);
+        }
+
+        @Override
+        public void onFetch(String fingerprint, long fetchNanos, long rows) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ObservedDataSource Tests")
+class ObservedDataSourceTest {
+
+    private static final String QUERY = "SELECT id FROM users WHERE team_id = ?";
+    private static final String FINGERPRINT = "select id from users where team_id = ?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResultSet targetResultSet = mock(ResultSet.class);
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource targetDataSource = mock(DataSource.class);
+        Connection targetConnection = mock(Connection.class);
+        PreparedStatement targetStatement = mock(PreparedStatement.class);
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        when(targetConnection.prepareStatement(QUERY)).thenReturn(targetStatement);
+        when(targetStatement.executeQuery()).thenReturn(targetResultSet);
+        when(targetResultSet.next()).thenReturn(true, true, false);
+        ObservedDataSource dataSource = new ObservedDataSource(targetDataSource, new SqlFingerprinter(),
+                List.of(new SqlMetricsRecorder(meterRegistry, 100, 200)));
+        connection = dataSource.getConnection();
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.get(name).tag("fingerprint", FINGERPRINT).timer();
+    }
+
+    private DistributionSummary rows() {
+        return meterRegistry.get("skutter.data.sql.rows").tag("fingerprint", FINGERPRINT).summary();
+    }
+
+    @Test
+    @DisplayName("Should report the rows read and the fetch time when the result set is closed")
+    void next_ThenClose_ReportsRowsAndFetch() throws Exception {
+        ResultSet resultSet = connection.prepareStatement(QUERY).executeQuery();
+        assertInstanceOf(ObservedResultSet.class, resultSet);
+        while (resultSet.next()) {
+            resultSet.getLong(1);
+        }
+        assertEquals(0, timer("skutter.data.sql.fetch").count(), "Fetch is reported on close");
+
+        resultSet.close();
+
+        assertEquals(1, timer("skutter.data.sql.execution").count());
+        assertEquals(1, timer("skutter.data.sql.fetch").count());
+        assertEquals(1, rows().count());
+        assertEquals(2, rows().totalAmount());
+        verify(targetResultSet, times(2)).getLong(1);
+        verify(targetResultSet).close();
+    }
+
+    @Test
+    @DisplayName("Should report the fetch once when the statement is closed before the result set")
+    void statementClose_ReportsOpenResultSetOnce() throws Exception {
+        PreparedStatement statement = connection.prepareStatement(QUERY);
+        ResultSet resultSet = statement.executeQuery();
+        resultSet.next();
+
+        statement.close();
+        resultSet.close();
+
+        assertEquals(1, timer("skutter.data.sql.fetch").count());
+        assertEquals(1, rows().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should unwrap the result set to itself or the driver's")
+    void unwrap_ReturnsWrapperOrTarget() throws Exception {
+        ResultSet resultSet = connection.prepareStatement(QUERY).executeQuery();
+        when(targetResultSet.unwrap(Connection.class)).thenThrow(new SQLException("not a wrapper"));
+
+        assertSame(resultSet, resultSet.unwrap(ResultSet.class));
+        assertThrows(SQLException.class, () -> resultSet.unwrap(Connection.class));
+    }
+}
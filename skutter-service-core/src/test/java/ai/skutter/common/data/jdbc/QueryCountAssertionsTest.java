@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QueryCountAssertions Tests")
+class QueryCountAssertionsTest {
+
+    private final RequestQueryTracker tracker = new RequestQueryTracker();
+    private final QueryCountAssertions queries = new QueryCountAssertions(tracker);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    private Runnable run(String... fingerprints) {
+        return () -> {
+            for (String fingerprint : fingerprints) {
+                tracker.onExecution(fingerprint, 1_000, -1);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should capture the block's statements and its result")
+    void captureResult_ReturnsResultAndStats() {
+        QueryCountAssertions.Captured<String> captured = queries.captureResult(() -> {
+            run("select a", "select b").run();
+            return "done";
+        });
+
+        assertEquals("done", captured.result());
+        assertEquals(2, captured.stats().getQueryCount());
+        assertNull(MDC.get(RequestQueryTracker.MDC_KEY), "Key removed after the block");
+    }
+
+    @Test
+    @DisplayName("Should count a nested capture separately and restore the outer key")
+    void capture_Nested_RestoresOuterKey() {
+        RequestQueryStats outer = tracker.begin();
+        MDC.put(RequestQueryTracker.MDC_KEY, outer.getKey());
+
+        RequestQueryStats inner = queries.capture(run("select a"));
+        tracker.onExecution("select b", 1_000, -1);
+
+        assertEquals(1, inner.getQueryCount());
+        assertEquals(1, outer.getQueryCount());
+        assertEquals(outer.getKey(), MDC.get(RequestQueryTracker.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("Should fail when the block executes more statements than allowed")
+    void assertMaxQueries_TooMany_Fails() {
+        assertEquals(2, queries.assertMaxQueries(2, run("select a", "select b")).getQueryCount());
+
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> queries.assertMaxQueries(2, run("select a", "select b", "select c")));
+        assertTrue(error.getMessage().contains("at most 2"));
+    }
+
+    @Test
+    @DisplayName("Should fail when one statement repeats more often than allowed")
+    void assertNoRepeatedStatements_Repeated_Fails() {
+        queries.assertNoRepeatedStatements(2, run("select a", "select a", "select b"));
+
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> queries.assertNoRepeatedStatements(2, run("select a", "select a", "select a")));
+        assertTrue(error.getMessage().contains("select a"));
+    }
+
+    @Test
+    @DisplayName("Should stop tracking when the block throws")
+    void capture_BlockThrows_EndsTracking() {
+        assertThrows(IllegalStateException.class, () -> queries.capture(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertNull(MDC.get(RequestQueryTracker.MDC_KEY));
+        assertNull(tracker.current());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReadReplicaRoutingDataSource Tests")
+class ReadReplicaRoutingDataSourceTest {
+
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+            mock(DataSource.class), mock(DataSource.class), lagMonitor, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private double reads(String target, String reason) {
+        return meterRegistry.get("skutter.data.routing.reads").tags("target", target, "reason", reason).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to a usable replica")
+    void determineCurrentLookupKey_ReadOnly_Replica() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        beginTransaction(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+        assertEquals(1, reads("replica", "read_only"));
+    }
+
+    @Test
+    @DisplayName("Should route reads to the primary while the replica is unusable")
+    void determineCurrentLookupKey_ReplicaUnusable_Primary() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        beginTransaction(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1, reads("primary", "replica_unavailable"));
+    }
+
+    @Test
+    @DisplayName("Should keep a request on the primary after a write outside any transaction")
+    void determineCurrentLookupKey_WriteWithoutTransactionInRequest_StickyForRequest() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        beginTransaction(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1, reads("primary", "read_your_writes"));
+    }
+
+    @Test
+    @DisplayName("Should not carry a request's write into the next request on the same thread")
+    void determineCurrentLookupKey_NextRequest_NotSticky() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        completeTransaction();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        beginTransaction(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Should keep reads nested in a writing transaction off the replica until it completes, without a request")
+    void determineCurrentLookupKey_NoRequest_StickyForTransaction() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        beginTransaction(false);
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+
+        // A read-only transaction started within the writing one
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+
+        completeTransaction();
+        beginTransaction(true);
+        assertEquals(ReadReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey(),
+                "Nothing leaks past the writing transaction");
+    }
+
+    @Test
+    @DisplayName("Should not remember writes made with neither a request nor a transaction")
+    void determineCurrentLookupKey_NoRequestNoTransaction_NotRemembered() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        beginTransaction(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReplicaLagMonitor Tests")
+class ReplicaLagMonitorTest {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+    }
+
+    private void givenReceiver(Integer pid, String status, double lagMillis) throws SQLException {
+        when(resultSet.getObject(1)).thenReturn(pid);
+        when(resultSet.getString(2)).thenReturn(status);
+        when(resultSet.getDouble(3)).thenReturn(lagMillis);
+    }
+
+    @Test
+    @DisplayName("Should use a streaming replica within the lag limit")
+    void check_StreamingWithinLimit_Usable() throws SQLException {
+        givenReceiver(42, "streaming", 1_200);
+
+        monitor.check();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals(1_200, monitor.getLagMillis());
+    }
+
+    @Test
+    @DisplayName("Should not use a streaming replica beyond the lag limit")
+    void check_StreamingBeyondLimit_Unusable() throws SQLException {
+        givenReceiver(42, "streaming", 6_000);
+
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(6_000, monitor.getLagMillis());
+    }
+
+    @Test
+    @DisplayName("Should not use a replica whose WAL receiver is not streaming, even if fully replayed")
+    void check_NotStreaming_Unusable() throws SQLException {
+        givenReceiver(42, "streaming", 0);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        givenReceiver(42, "waiting", 0);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(-1, monitor.getLagMillis());
+    }
+
+    @Test
+    @DisplayName("Should not use a replica without a WAL receiver or whose status is not visible")
+    void check_NoReceiver_Unusable() throws SQLException {
+        givenReceiver(null, null, 0);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+
+        givenReceiver(42, null, 0);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    @DisplayName("Should not use the replica when the check fails")
+    void check_QueryFails_Unusable() throws SQLException {
+        givenReceiver(42, "streaming", 0);
+        monitor.check();
+
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(-1, monitor.getLagMillis());
+    }
+}
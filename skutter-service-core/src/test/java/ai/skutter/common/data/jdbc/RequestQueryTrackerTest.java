@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestQueryTracker Tests")
+class RequestQueryTrackerTest {
+
+    private final RequestQueryTracker tracker = new RequestQueryTracker();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Should record statements under the key in the MDC")
+    void onExecution_ActiveKey_Records() {
+        RequestQueryStats stats = tracker.begin();
+        MDC.put(RequestQueryTracker.MDC_KEY, stats.getKey());
+
+        tracker.onExecution("select a", 1_000, -1);
+        tracker.onExecution("select a", 2_000, -1);
+        tracker.onFetch("select a", 500, 3);
+
+        assertSame(stats, tracker.current());
+        assertEquals(2, stats.getQueryCount());
+        assertEquals(3_500, stats.getDbTimeNanos());
+        assertEquals(Map.of("select a", 2), stats.getFingerprintCounts());
+    }
+
+    @Test
+    @DisplayName("Should generate a distinct key per begin, so concurrent requests do not share statistics")
+    void begin_GeneratesDistinctKeys() {
+        RequestQueryStats first = tracker.begin();
+        RequestQueryStats second = tracker.begin();
+        assertNotEquals(first.getKey(), second.getKey());
+
+        MDC.put(RequestQueryTracker.MDC_KEY, first.getKey());
+        tracker.onExecution("select a", 1_000, -1);
+        MDC.put(RequestQueryTracker.MDC_KEY, second.getKey());
+        tracker.onExecution("select b", 1_000, -1);
+        tracker.onExecution("select b", 1_000, -1);
+
+        assertEquals(1, first.getQueryCount());
+        assertEquals(2, second.getQueryCount());
+    }
+
+    @Test
+    @DisplayName("Should not record statements without an active key")
+    void onExecution_NoActiveKey_Ignored() {
+        RequestQueryStats stats = tracker.begin();
+        assertNull(tracker.current(), "No key in the MDC");
+        tracker.onExecution("select a", 1_000, -1);
+
+        MDC.put(RequestQueryTracker.MDC_KEY, stats.getKey());
+        assertSame(stats, tracker.end(stats.getKey()));
+        tracker.onExecution("select a", 1_000, -1);
+
+        assertNull(tracker.current());
+        assertNull(tracker.end(stats.getKey()));
+        assertEquals(0, stats.getQueryCount());
+    }
+
+    @Test
+    @DisplayName("Should list only fingerprints above the threshold, most frequent first")
+    void getRepeatedFingerprints_AboveThreshold() {
+        RequestQueryStats stats = tracker.begin();
+        MDC.put(RequestQueryTracker.MDC_KEY, stats.getKey());
+        for (int i = 0; i < 3; i++) {
+            tracker.onExecution("select b", 1, -1);
+        }
+        for (int i = 0; i < 5; i++) {
+            tracker.onExecution("select c", 1, -1);
+        }
+        tracker.onExecution("select a", 1, -1);
+
+        assertEquals(Map.of("select c", 5, "select b", 3), stats.getRepeatedFingerprints(2));
+        assertEquals("select c", stats.getRepeatedFingerprints(2).keySet().iterator().next());
+        assertEquals(Map.of(), stats.getRepeatedFingerprints(5));
+    }
+}
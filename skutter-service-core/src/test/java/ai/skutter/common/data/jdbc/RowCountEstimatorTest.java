@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RowCountEstimator Tests")
+class RowCountEstimatorTest {
+
+    private static final String QUERY = "SELECT * FROM task WHERE project_id = ?";
+    private static final String EXPLAIN = "EXPLAIN (FORMAT JSON) " + QUERY;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RowCountEstimator estimator = new RowCountEstimator(jdbcTemplate, Duration.ofMinutes(5), 100);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static String plan(long rows) {
+        return "[{\"Plan\": {\"Node Type\": \"Hash Join\", \"Startup Cost\": 1.5, \"Plan Rows\": " + rows
+                + ", \"Plan Width\": 64, \"Plans\": [{\"Node Type\": \"Seq Scan\", \"Plan Rows\": 99999}]}}]";
+    }
+
+    private static void authenticate(String userId) {
+        SupabaseUserDetails user = new SupabaseUserDetails(userId, "user@example.com", mock(Claims.class), Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+
+    @Test
+    @DisplayName("Should take the top plan node's row estimate, not a child's")
+    void parsePlanRows_NestedPlan_ReturnsTopNode() {
+        assertEquals(1234, RowCountEstimator.parsePlanRows(plan(1234)));
+        assertEquals(0, RowCountEstimator.parsePlanRows("[{\"Plan\":{\"Plan Rows\":0}}]"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to UNKNOWN for missing, malformed or out-of-range plan rows")
+    void parsePlanRows_MissingOrMalformed_ReturnsUnknown() {
+        assertEquals(RowCountEstimator.UNKNOWN, RowCountEstimator.parsePlanRows(null));
+        assertEquals(RowCountEstimator.UNKNOWN, RowCountEstimator.parsePlanRows(""));
+        assertEquals(RowCountEstimator.UNKNOWN, RowCountEstimator.parsePlanRows("[{\"Plan\": {\"Node Type\": \"Result\"}}]"));
+        assertEquals(RowCountEstimator.UNKNOWN, RowCountEstimator.parsePlanRows("[{\"Plan\": {\"Plan Rows\": \"many\""));
+        assertEquals(RowCountEstimator.UNKNOWN, RowCountEstimator.parsePlanRows("{\"Plan Rows\": -5}"));
+        assertEquals(RowCountEstimator.UNKNOWN, RowCountEstimator.parsePlanRows("{\"Plan Rows\": 99999999999999999999}"));
+    }
+
+    @Test
+    @DisplayName("Should cache estimates per parameter values so tenants do not share an estimate")
+    void estimate_DifferentParameters_CachedSeparately() {
+        when(jdbcTemplate.queryForObject(EXPLAIN, String.class, "project-a")).thenReturn(plan(10));
+        when(jdbcTemplate.queryForObject(EXPLAIN, String.class, "project-b")).thenReturn(plan(5000));
+
+        assertEquals(10, estimator.estimate(QUERY, "project-a"));
+        assertEquals(5000, estimator.estimate(QUERY, "project-b"));
+        assertEquals(10, estimator.estimate(QUERY, "project-a"));
+        // Same shape with different whitespace
+        assertEquals(5000, estimator.estimate("SELECT *  FROM task WHERE project_id = ?", "project-b"));
+
+        verify(jdbcTemplate, times(1)).queryForObject(EXPLAIN, String.class, "project-a");
+        verify(jdbcTemplate, times(1)).queryForObject(EXPLAIN, String.class, "project-b");
+    }
+
+    @Test
+    @DisplayName("Should cache estimates per user because row-level security changes them")
+    void estimate_DifferentUsers_CachedSeparately() {
+        when(jdbcTemplate.queryForObject(EXPLAIN, String.class, "project-a")).thenReturn(plan(10), plan(3));
+
+        authenticate("user-1");
+        assertEquals(10, estimator.estimate(QUERY, "project-a"));
+        authenticate("user-2");
+        assertEquals(3, estimator.estimate(QUERY, "project-a"));
+        authenticate("user-1");
+        assertEquals(10, estimator.estimate(QUERY, "project-a"));
+
+        verify(jdbcTemplate, times(2)).queryForObject(EXPLAIN, String.class, "project-a");
+    }
+
+    @Test
+    @DisplayName("Should return UNKNOWN when EXPLAIN returns no plan")
+    void estimate_NoPlan_ReturnsUnknown() {
+        when(jdbcTemplate.queryForObject(EXPLAIN, String.class, "project-a")).thenReturn(null);
+
+        assertEquals(RowCountEstimator.UNKNOWN, estimator.estimate(QUERY, "project-a"));
+    }
+
+    @Test
+    @DisplayName("Should read reltuples and treat never-analyzed tables as UNKNOWN")
+    void estimateTable_Reltuples_ParsedAndCached() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("public.task"))).thenReturn(4200L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("public.fresh"))).thenReturn(-1L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("public.missing"))).thenReturn(null);
+
+        assertEquals(4200, estimator.estimateTable("public.task"));
+        assertEquals(4200, estimator.estimateTable("public.task"));
+        assertEquals(RowCountEstimator.UNKNOWN, estimator.estimateTable("public.fresh"));
+        assertEquals(RowCountEstimator.UNKNOWN, estimator.estimateTable("public.missing"));
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class), eq("public.task"));
+    }
+}
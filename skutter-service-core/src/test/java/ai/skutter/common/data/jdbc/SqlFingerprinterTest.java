@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SqlFingerprinter Tests")
+class SqlFingerprinterTest {
+
+    @Test
+    @DisplayName("Should replace literals and collapse placeholder lists")
+    void normalize_Literals_ReplacedWithPlaceholders() {
+        String fingerprint = SqlFingerprinter.normalize(
+                "SELECT * FROM Users\n  WHERE id = 42 AND name IN ('a', 'it''s', 'c') AND score > 1.5e3");
+
+        assertEquals("select * from users where id = ? and name in (?+) and score > ?", fingerprint);
+    }
+
+    @Test
+    @DisplayName("Should give the same fingerprint for different bind values")
+    void normalize_DifferentValues_SameFingerprint() {
+        assertEquals(SqlFingerprinter.normalize("select x from t1 where a = 1 -- first\n"),
+                SqlFingerprinter.normalize("SELECT x FROM t1 /* second */ WHERE a = 2"));
+    }
+
+    @Test
+    @DisplayName("Should keep quoted identifiers and digits inside identifiers")
+    void normalize_Identifiers_Preserved() {
+        assertEquals("select \"UserId\" from t2 where c = ? and d = ?",
+                SqlFingerprinter.normalize("SELECT \"UserId\" FROM t2 WHERE c = $1 AND d = $$x$$"));
+    }
+
+    @Test
+    @DisplayName("Should extract the leading keyword as the operation")
+    void operation_Fingerprint_ReturnsLeadingKeyword() {
+        assertEquals("insert", SqlFingerprinter.operation("insert into t values (?+)"));
+        assertEquals("other", SqlFingerprinter.operation("(select ?)"));
+    }
+}
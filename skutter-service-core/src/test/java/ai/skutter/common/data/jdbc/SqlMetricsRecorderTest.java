@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SqlMetricsRecorder Tests")
+class SqlMetricsRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Set<String> fingerprintTags(String name) {
+        return meterRegistry.find(name).meters().stream()
+                .map(meter -> meter.getId().getTag("fingerprint"))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("Should remove an evicted fingerprint's meters from the registry")
+    void onExecution_BeyondMaxFingerprints_RemovesEvictedMeters() {
+        SqlMetricsRecorder recorder = new SqlMetricsRecorder(meterRegistry, 10, 200);
+
+        for (int i = 0; i < 100; i++) {
+            recorder.onExecution("select * from t" + i + " where id = ?", 1_000, -1);
+            recorder.onFetch("select * from t" + i + " where id = ?", 1_000, 1);
+        }
+
+        Set<String> executions = fingerprintTags("skutter.data.sql.execution");
+        assertTrue(executions.size() <= 10, "At most 10 fingerprints may be tagged but found " + executions.size());
+        assertTrue(executions.contains("select * from t99 where id = ?"), "The latest fingerprint must be kept");
+        assertFalse(executions.contains("select * from t0 where id = ?"), "The oldest fingerprint must be evicted");
+        assertEquals(executions, fingerprintTags("skutter.data.sql.fetch"));
+        assertEquals(executions, fingerprintTags("skutter.data.sql.rows"));
+        assertEquals(executions.size() * 3, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    @DisplayName("Should keep recording a fingerprint that was evicted and seen again")
+    void onExecution_EvictedFingerprintSeenAgain_Recreated() {
+        SqlMetricsRecorder recorder = new SqlMetricsRecorder(meterRegistry, 1, 200);
+
+        recorder.onExecution("select ?", 1_000, -1);
+        recorder.onExecution("delete from t where id = ?", 1_000, 1);
+        recorder.onExecution("select ?", 1_000, -1);
+
+        Timer execution = meterRegistry.get("skutter.data.sql.execution").tag("fingerprint", "select ?").timer();
+        assertEquals(1, meterRegistry.find("skutter.data.sql.execution").meters().size());
+        assertEquals(1, execution.count());
+    }
+
+    @Test
+    @DisplayName("Should truncate long fingerprints with a hash suffix")
+    void onExecution_LongFingerprint_TruncatedWithHash() {
+        SqlMetricsRecorder recorder = new SqlMetricsRecorder(meterRegistry, 10, 40);
+        String prefix = "select a, b, c, d, e, f, g, h from t where x = ?";
+
+        recorder.onExecution(prefix + " and y = ?", 1_000, -1);
+        recorder.onExecution(prefix + " and z = ?", 1_000, -1);
+
+        Set<String> tags = fingerprintTags("skutter.data.sql.execution");
+        assertEquals(2, tags.size());
+        tags.forEach(tag -> assertTrue(tag.length() <= 40 && tag.contains("#"), tag));
+    }
+}
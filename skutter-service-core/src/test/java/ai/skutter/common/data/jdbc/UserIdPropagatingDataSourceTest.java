@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.data.jdbc;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("UserIdPropagatingDataSource Tests")
+class UserIdPropagatingDataSourceTest {
+
+    private static final String QUERY = "SELECT 1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection target = mock(Connection.class);
+    private final PreparedStatement setConfig = mock(PreparedStatement.class);
+    private UserIdPropagatingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource targetDataSource = mock(DataSource.class);
+        when(targetDataSource.getConnection()).thenReturn(target);
+        when(target.prepareStatement(UserIdPropagatingDataSource.SET_LOCAL_CONFIG)).thenReturn(setConfig);
+        when(target.prepareStatement(UserIdPropagatingDataSource.SET_SESSION_CONFIG)).thenReturn(setConfig);
+        when(target.prepareStatement(QUERY)).thenReturn(mock(PreparedStatement.class));
+        dataSource = new UserIdPropagatingDataSource(targetDataSource, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(String userId) {
+        SupabaseUserDetails user = new SupabaseUserDetails(userId, "user@example.com", mock(Claims.class), Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("skutter.data.rls.user_id").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should apply the user ID transaction-locally once per transaction")
+    void prepareStatement_InTransaction_AppliesOnce() throws Exception {
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+
+        connection.prepareStatement(QUERY);
+        connection.prepareStatement(QUERY);
+
+        verify(target, times(1)).prepareStatement(UserIdPropagatingDataSource.SET_LOCAL_CONFIG);
+        verify(setConfig).setString(1, "user-1");
+        verify(target, never()).prepareStatement(UserIdPropagatingDataSource.SET_SESSION_CONFIG);
+        assertEquals(1, count("applied"));
+        assertEquals(1, count("skipped"));
+    }
+
+    @Test
+    @DisplayName("Should apply the user ID again in the next transaction after a commit or rollback")
+    void prepareStatement_AfterCommitOrRollback_AppliesAgain() throws Exception {
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+
+        connection.prepareStatement(QUERY);
+        connection.commit();
+        connection.prepareStatement(QUERY);
+        connection.rollback();
+        connection.prepareStatement(QUERY);
+
+        verify(target, times(3)).prepareStatement(UserIdPropagatingDataSource.SET_LOCAL_CONFIG);
+        verify(target).commit();
+        verify(target).rollback();
+        assertEquals(3, count("applied"));
+        assertEquals(0, count("skipped"));
+    }
+
+    @Test
+    @DisplayName("Should not reuse another borrow's applied value")
+    void getConnection_NewBorrow_AppliesAgain() throws Exception {
+        authenticate("user-1");
+        Connection first = dataSource.getConnection();
+        first.prepareStatement(QUERY);
+        first.close();
+
+        dataSource.getConnection().prepareStatement(QUERY);
+
+        verify(target, times(2)).prepareStatement(UserIdPropagatingDataSource.SET_LOCAL_CONFIG);
+    }
+
+    @Test
+    @DisplayName("Should apply an empty user ID when the work becomes anonymous")
+    void prepareStatement_Anonymous_ResetsUserId() throws Exception {
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+        connection.prepareStatement(QUERY);
+
+        SecurityContextHolder.clearContext();
+        connection.prepareStatement(QUERY);
+
+        verify(setConfig).setString(1, "user-1");
+        verify(setConfig).setString(1, "");
+        assertEquals(2, count("applied"));
+    }
+
+    @Test
+    @DisplayName("Should apply the user ID at session scope once while the user is unchanged in auto-commit mode")
+    void prepareStatement_AutoCommit_AppliesOncePerUser() throws Exception {
+        when(target.getAutoCommit()).thenReturn(true);
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+
+        connection.prepareStatement(QUERY);
+        connection.prepareStatement(QUERY);
+        authenticate("user-2");
+        connection.prepareStatement(QUERY);
+
+        verify(target, times(2)).prepareStatement(UserIdPropagatingDataSource.SET_SESSION_CONFIG);
+        verify(target, never()).prepareStatement(UserIdPropagatingDataSource.SET_LOCAL_CONFIG);
+        verify(setConfig).setString(1, "user-1");
+        verify(setConfig).setString(1, "user-2");
+        verify(target, times(1)).getAutoCommit();
+        assertEquals(2, count("applied"));
+        assertEquals(1, count("skipped"));
+    }
+
+    @Test
+    @DisplayName("Should reset a session-scoped user ID when the connection is closed")
+    void close_AfterAutoCommit_ResetsSessionUserId() throws Exception {
+        when(target.getAutoCommit()).thenReturn(true);
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+        connection.prepareStatement(QUERY);
+
+        connection.close();
+
+        verify(setConfig).setString(1, "user-1");
+        verify(setConfig).setString(1, "");
+        verify(target).close();
+    }
+
+    @Test
+    @DisplayName("Should not reset anything on close when only transaction-local values were applied")
+    void close_AfterTransaction_DoesNotReset() throws Exception {
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+        connection.prepareStatement(QUERY);
+
+        connection.close();
+
+        verify(target, never()).prepareStatement(UserIdPropagatingDataSource.SET_SESSION_CONFIG);
+        verify(target).close();
+    }
+
+    @Test
+    @DisplayName("Should switch to transaction-local values after auto-commit is turned off")
+    void setAutoCommit_False_AppliesLocally() throws Exception {
+        when(target.getAutoCommit()).thenReturn(true);
+        authenticate("user-1");
+        Connection connection = dataSource.getConnection();
+        connection.prepareStatement(QUERY);
+
+        connection.setAutoCommit(false);
+        connection.prepareStatement(QUERY);
+
+        verify(target).prepareStatement(UserIdPropagatingDataSource.SET_SESSION_CONFIG);
+        verify(target).prepareStatement(UserIdPropagatingDataSource.SET_LOCAL_CONFIG);
+    }
+
+    @Test
+    @DisplayName("Should not run the setting for calls that create no statement")
+    void getMetaData_DoesNotApply() throws Exception {
+        authenticate("user-1");
+
+        dataSource.getConnection().getMetaData();
+
+        verify(target, never()).prepareStatement(anyString());
+        verify(setConfig, never()).setString(eq(1), anyString());
+    }
+}
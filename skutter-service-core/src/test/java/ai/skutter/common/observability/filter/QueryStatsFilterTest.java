@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.observability.filter;
+
+import ai.skutter.common.data.jdbc.RequestQueryTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QueryStatsFilter Tests")
+class QueryStatsFilterTest {
+
+    private static final String CORRELATION_ID = "client-supplied-id";
+
+    private final RequestQueryTracker tracker = new RequestQueryTracker();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryStatsFilter filter = new QueryStatsFilter(tracker, meterRegistry, 2, true);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    private FilterChain executing(String... fingerprints) {
+        return (request, response) -> {
+            ((MockHttpServletRequest) request).setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/projects");
+            for (String fingerprint : fingerprints) {
+                tracker.onExecution(fingerprint, 1_000_000, -1);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should count the request's statements into headers and metrics")
+    void doFilter_RecordsStatements() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/projects"), response, executing("select a", "select b"));
+
+        assertEquals("2", response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER));
+        assertEquals("2", response.getHeader(QueryStatsFilter.QUERY_TIME_HEADER));
+        assertEquals("0", response.getHeader(QueryStatsFilter.QUERY_REPEATED_HEADER));
+        assertEquals(2, meterRegistry.get("skutter.data.request.queries").tag("uri", "/projects").summary().totalAmount());
+        assertNull(MDC.get(RequestQueryTracker.MDC_KEY), "Key removed after the request");
+    }
+
+    @Test
+    @DisplayName("Should flag statements repeated more often than the threshold")
+    void doFilter_Repeated_CountsLikelyNPlusOne() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/projects"), response,
+                executing("select a", "select a", "select a"));
+
+        assertEquals("1", response.getHeader(QueryStatsFilter.QUERY_REPEATED_HEADER));
+        assertEquals(1, meterRegistry.get("skutter.data.request.repeated.statements").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should track concurrent requests sharing a correlation ID separately")
+    void doFilter_SameCorrelationId_CountedSeparately() throws Exception {
+        MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, CORRELATION_ID);
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+        MockHttpServletResponse innerResponse = new MockHttpServletResponse();
+        AtomicReference<Throwable> innerFailure = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/projects"), outerResponse, (request, response) -> {
+            tracker.onExecution("select a", 1_000, -1);
+            // A second request with the same correlation ID runs while this one is in flight
+            Thread other = new Thread(() -> {
+                MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, CORRELATION_ID);
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/projects"), innerResponse,
+                            executing("select b", "select c"));
+                } catch (Throwable e) {
+                    innerFailure.set(e);
+                }
+            });
+            other.start();
+            try {
+                other.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            tracker.onExecution("select a", 1_000, -1);
+        });
+
+        assertNull(innerFailure.get());
+        assertEquals("2", outerResponse.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER));
+        assertEquals("2", innerResponse.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER));
+        assertEquals(CORRELATION_ID, MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY));
+    }
+
+    @Test
+    @DisplayName("Should not add headers unless exposed")
+    void doFilter_HeadersNotExposed_OmitsHeaders() throws Exception {
+        QueryStatsFilter quiet = new QueryStatsFilter(tracker, meterRegistry, 2, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        quiet.doFilter(new MockHttpServletRequest("GET", "/projects"), response, executing("select a"));
+
+        assertNull(response.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER));
+        assertEquals(1, meterRegistry.get("skutter.data.request.queries").summary().count());
+    }
+}
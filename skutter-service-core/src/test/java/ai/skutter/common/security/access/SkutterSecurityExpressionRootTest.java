@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.access;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import ai.skutter.common.security.project.ProjectMembershipService;
+import ai.skutter.common.security.project.ProjectRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SkutterSecurityExpressionRoot hasProjectRole Tests")
+class SkutterSecurityExpressionRootTest {
+
+    private final String userId = UUID.randomUUID().toString();
+    private final UUID project = UUID.randomUUID();
+
+    private final ProjectMembershipService membershipService = new ProjectMembershipService() {
+        @Override
+        public Map<UUID, ProjectRole> getProjectRoles(String user) {
+            return userId.equals(user) ? Map.of(project, ProjectRole.PROJECT_EDITOR) : Map.of();
+        }
+
+        @Override
+        public void invalidate(String user) {
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+    };
+
+    private SkutterSecurityExpressionRoot root(Object principal, ProjectMembershipService service) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        SkutterSecurityExpressionRoot root = new SkutterSecurityExpressionRoot(authentication);
+        root.setProjectMembershipService(service);
+        return root;
+    }
+
+    private SkutterSecurityExpressionRoot root(ProjectMembershipService service) {
+        return root(new SupabaseUserDetails(userId, null, 0, null, List.of()), service);
+    }
+
+    @Test
+    @DisplayName("Should grant the held role and every role it includes, but not higher ones")
+    void hasProjectRole_RoleInclusion() {
+        SkutterSecurityExpressionRoot root = root(membershipService);
+
+        assertTrue(root.hasProjectRole(project, "PROJECT_VIEWER"));
+        assertTrue(root.hasProjectRole(project, "PROJECT_EDITOR"));
+        assertFalse(root.hasProjectRole(project, "PROJECT_OWNER"));
+        assertFalse(root.hasProjectRole(UUID.randomUUID(), "PROJECT_VIEWER"));
+    }
+
+    @Test
+    @DisplayName("Should accept the project ID as a string and deny malformed IDs")
+    void hasProjectRole_StringProjectId() {
+        SkutterSecurityExpressionRoot root = root(membershipService);
+
+        assertTrue(root.hasProjectRole(project.toString(), "PROJECT_EDITOR"));
+        assertFalse(root.hasProjectRole("not-a-uuid", "PROJECT_VIEWER"));
+        assertFalse(root.hasProjectRole(null, "PROJECT_VIEWER"));
+    }
+
+    @Test
+    @DisplayName("Should fail on a role name that is not a project role")
+    void hasProjectRole_UnknownRole_Throws() {
+        SkutterSecurityExpressionRoot root = root(membershipService);
+
+        assertThrows(IllegalArgumentException.class, () -> root.hasProjectRole(project, "PROJECT_ADMIN"));
+        // Even without a service a typo in an expression must not silently deny
+        assertThrows(IllegalArgumentException.class, () -> root(null).hasProjectRole(project, "EDITOR"));
+    }
+
+    @Test
+    @DisplayName("Should deny when project membership is not enabled")
+    void hasProjectRole_NoService_Denies() {
+        assertFalse(root(null).hasProjectRole(project, "PROJECT_VIEWER"));
+    }
+
+    @Test
+    @DisplayName("Should deny principals that are not Skutter users")
+    void hasProjectRole_OtherPrincipal_Denies() {
+        assertFalse(root(userId, membershipService).hasProjectRole(project, "PROJECT_VIEWER"));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InternalAuthCodec Tests")
+class InternalAuthCodecTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong now = new AtomicLong(1_750_000_000_000L);
+    private final InternalAuthCodec codec = new InternalAuthCodec(SECRET, Duration.ofSeconds(30), now::get);
+
+    @Test
+    @DisplayName("Should round-trip user ID, role mask and correlation ID")
+    void decode_ValidContext_ReturnsContext() {
+        InternalAuthContext context = codec.decode(codec.encode("user-1", 0b101, "corr-1"));
+
+        assertNotNull(context);
+        assertEquals("user-1", context.userId());
+        assertEquals(0b101, context.roleMask());
+        assertEquals("corr-1", context.correlationId());
+    }
+
+    @Test
+    @DisplayName("Should reject a context whose payload was altered")
+    void decode_TamperedPayload_ReturnsNull() {
+        String encoded = codec.encode("user-1", 1, null);
+        String forged = codec.encode("user-2", 0xFF, null);
+        String spliced = forged.substring(0, forged.indexOf('.')) + encoded.substring(encoded.indexOf('.'));
+
+        assertNull(codec.decode(spliced));
+        assertNull(codec.decode("not-a-context"));
+    }
+
+    @Test
+    @DisplayName("Should reject a context signed with another secret")
+    void decode_OtherSecret_ReturnsNull() {
+        byte[] otherSecret = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+        InternalAuthCodec other = new InternalAuthCodec(otherSecret, Duration.ofSeconds(30), now::get);
+
+        assertNull(codec.decode(other.encode("user-1", 1, null)));
+    }
+
+    @Test
+    @DisplayName("Should reject an expired context")
+    void decode_Expired_ReturnsNull() {
+        String encoded = codec.encode("user-1", 1, null);
+        now.addAndGet(Duration.ofSeconds(31).toMillis());
+
+        assertNull(codec.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Should refuse secrets shorter than 256 bits")
+    void constructor_ShortSecret_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InternalAuthCodec(new byte[16], Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.internal;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import ai.skutter.common.security.logging.SecurityEventAggregator;
+import ai.skutter.common.security.logging.SecurityEventType;
+import ai.skutter.common.security.role.SkutterRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class InternalAuthFilterTest {
+
+    private static final String HEADER = "X-Skutter-Internal-Auth";
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final int ADMIN_MASK = SkutterRole.maskOf(List.of(SkutterRole.PROJECT_ADMIN));
+
+    private final AtomicLong now = new AtomicLong(1_750_000_000_000L);
+    private final InternalAuthCodec codec = new InternalAuthCodec(SECRET, Duration.ofSeconds(30), now::get);
+    private final SecurityEventAggregator securityEvents = mock(SecurityEventAggregator.class);
+    private final InternalAuthFilter filter = new InternalAuthFilter(codec, HEADER);
+
+    InternalAuthFilterTest() {
+        filter.setSecurityEventAggregator(securityEvents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest filter(String context) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+        if (context != null) {
+            request.addHeader(HEADER, context);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest(), "The request always proceeds");
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should authenticate a valid context with the roles it carries")
+    void doFilter_ValidContext_Authenticates() throws Exception {
+        MockHttpServletRequest request = filter(codec.encode("user-1", ADMIN_MASK, "corr-1"));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        SupabaseUserDetails user = (SupabaseUserDetails) authentication.getPrincipal();
+        assertEquals("user-1", user.getUserId());
+        assertEquals(EnumSet.of(SkutterRole.PROJECT_ADMIN), user.getRoles());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_PROJECT_ADMIN".equals(authority.getAuthority())));
+        InternalAuthContext context = (InternalAuthContext) request.getAttribute(InternalAuthFilter.CONTEXT_ATTRIBUTE);
+        assertEquals("corr-1", context.correlationId());
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered or expired context and record the event")
+    void doFilter_InvalidContext_NotAuthenticated() throws Exception {
+        String valid = codec.encode("user-1", ADMIN_MASK, null);
+        String forged = codec.encode("user-2", ADMIN_MASK, null);
+        filter(forged.substring(0, forged.indexOf('.')) + valid.substring(valid.indexOf('.')));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        MockHttpServletRequest request = filter(valid);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(request.getAttribute(InternalAuthFilter.CONTEXT_ATTRIBUTE));
+        verify(securityEvents, times(2)).record(eq(SecurityEventType.INVALID_TOKEN), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a context without roles")
+    void doFilter_NoRoles_NotAuthenticated() throws Exception {
+        filter(codec.encode("user-1", 0, null));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(securityEvents).record(eq(SecurityEventType.INVALID_TOKEN), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave requests without the header to the other filters")
+    void doFilter_NoHeader_PassesThrough() throws Exception {
+        filter(null);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(securityEvents);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimPathTest {
+
+    private static final Map<String, Object> CLAIMS = Map.of(
+            "sub", "user-1",
+            "app_metadata", Map.of(
+                    "skutter_role", "admin",
+                    "organization", Map.of("id", "org-1")),
+            "amr", List.of(Map.of("method", "password")));
+
+    @Test
+    @DisplayName("Should resolve top-level and nested claims")
+    void resolve_NestedPath_ReturnsValue() {
+        assertEquals("user-1", ClaimPath.of("sub").resolve(CLAIMS));
+        assertEquals("admin", ClaimPath.of("app_metadata.skutter_role").resolve(CLAIMS));
+        assertEquals("org-1", ClaimPath.of("app_metadata.organization.id").resolve(CLAIMS));
+        assertEquals(Map.of("id", "org-1"), ClaimPath.of("app_metadata.organization").resolve(CLAIMS));
+        assertEquals(Optional.of("admin"), ClaimPath.of("app_metadata.skutter_role").find(CLAIMS));
+    }
+
+    @Test
+    @DisplayName("Should return null for missing segments and paths through non-map values")
+    void resolve_MissingOrNonMapSegment_ReturnsNull() {
+        assertNull(ClaimPath.of("email").resolve(CLAIMS));
+        assertNull(ClaimPath.of("app_metadata.missing.id").resolve(CLAIMS));
+        // Arrays are not indexed; a path through one resolves to nothing
+        assertNull(ClaimPath.of("amr.0.method").resolve(CLAIMS));
+        assertNull(ClaimPath.of("amr.method").resolve(CLAIMS));
+        // A scalar cannot be descended into
+        assertNull(ClaimPath.of("sub.id").resolve(CLAIMS));
+        assertEquals(Optional.empty(), ClaimPath.of("app_metadata.missing").find(CLAIMS));
+    }
+
+    @Test
+    @DisplayName("Should reject blank paths and paths with empty segments")
+    void of_MalformedPath_Throws() {
+        for (String path : new String[]{null, "", "  ", ".sub", "sub.", "app_metadata..role", "."}) {
+            assertThrows(IllegalArgumentException.class, () -> ClaimPath.of(path), String.valueOf(path));
+            assertThrows(IllegalArgumentException.class, () -> ClaimPath.cached(path), String.valueOf(path));
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose the root claim and compare by path")
+    void of_Path_RootAndEquality() {
+        ClaimPath path = ClaimPath.of("app_metadata.skutter_role");
+
+        assertEquals("app_metadata", path.getRoot());
+        assertEquals("app_metadata.skutter_role", path.getPath());
+        assertEquals(ClaimPath.of("app_metadata.skutter_role"), path);
+        assertEquals(path.hashCode(), ClaimPath.of("app_metadata.skutter_role").hashCode());
+        assertNotEquals(ClaimPath.of("app_metadata"), path);
+    }
+
+    @Test
+    @DisplayName("Should reuse compiled paths, up to a bounded number")
+    void cached_RepeatedPath_ReusesInstance() {
+        assertSame(ClaimPath.cached("app_metadata.tier"), ClaimPath.cached("app_metadata.tier"));
+
+        for (int i = 0; i < ClaimPath.MAX_CACHED; i++) {
+            ClaimPath.cached("generated.path" + i);
+        }
+        ClaimPath first = ClaimPath.cached("beyond.the.cap");
+        ClaimPath second = ClaimPath.cached("beyond.the.cap");
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals("user-1", ClaimPath.cached("sub").resolve(CLAIMS));
+    }
+}
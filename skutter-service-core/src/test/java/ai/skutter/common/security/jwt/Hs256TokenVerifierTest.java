@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Hs256TokenVerifierTest {
+
+    private final SecretKey key = Keys.hmacShaKeyFor(
+            "TestSecretKeyMustBeLongEnoughForHS256Algorithm".getBytes(StandardCharsets.UTF_8));
+    private final Hs256TokenVerifier verifier = new Hs256TokenVerifier(key, Set.of("email", "app_metadata"));
+    private final long now = System.currentTimeMillis();
+
+    private String token(long expirationMillis, SecretKey signingKey) {
+        return Jwts.builder()
+                .subject("user-1")
+                .issuer("test-issuer")
+                .issuedAt(new Date(now))
+                .expiration(new Date(expirationMillis))
+                .claim("email", "test@example.com")
+                .claim("app_metadata", Map.of("skutter_role", "PROJECT_ADMIN"))
+                .claim("user_metadata", Map.of("name", "Test"))
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Should decode registered and configured claims of a valid token")
+    void verify_ValidToken_ReturnsSelectedClaims() {
+        Claims claims = verifier.verify(token(now + 60_000, key), now);
+
+        assertNotNull(claims);
+        assertEquals("user-1", claims.getSubject());
+        assertEquals("test-issuer", claims.getIssuer());
+        assertEquals((now + 60_000) / 1000, claims.getExpiration().getTime() / 1000);
+        assertEquals("test@example.com", claims.get("email"));
+        assertEquals("PROJECT_ADMIN", ((Map<?, ?>) claims.get("app_metadata")).get("skutter_role"));
+        assertNull(claims.get("user_metadata"), "Unconfigured claims should be skipped");
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with a different key")
+    void verify_WrongKey_ThrowsSignatureException() {
+        SecretKey otherKey = Keys.hmacShaKeyFor(
+                "AnotherSecretKeyThatIsAlsoLongEnoughForHS256".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(SignatureException.class, () -> verifier.verify(token(now + 60_000, otherKey), now));
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token after verifying its signature")
+    void verify_ExpiredToken_ThrowsExpiredJwtException() {
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token(now - 60_000, key), now));
+    }
+
+    @Test
+    @DisplayName("Should leave tokens with other algorithms to the generic parser")
+    void verify_OtherAlgorithm_ReturnsNull() {
+        SecretKey hs512Key = Keys.hmacShaKeyFor(new byte[64]);
+        String token = Jwts.builder().subject("user-1").signWith(hs512Key, Jwts.SIG.HS512).compact();
+
+        assertNull(verifier.verify(token, now));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidTokenBlocklistTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+    private final InvalidTokenBlocklist blocklist = new InvalidTokenBlocklist(3, Duration.ofMinutes(1),
+            Duration.ofMinutes(5), 1000, ticker);
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("Should block a source exactly when it reaches the failure limit")
+    void recordFailure_AtLimit_BlocksSource() {
+        blocklist.recordFailure("10.0.0.1");
+        blocklist.recordFailure("10.0.0.1");
+        assertFalse(blocklist.isBlocked("10.0.0.1"));
+
+        blocklist.recordFailure("10.0.0.1");
+
+        assertTrue(blocklist.isBlocked("10.0.0.1"));
+        assertFalse(blocklist.isBlocked("10.0.0.2"));
+        assertEquals(1, blocklist.getBlockedSourceCount());
+        assertEquals(1, blocklist.getBlockedRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should not block a source whose failures are spread over more than one window")
+    void recordFailure_AfterWindow_StartsOver() {
+        blocklist.recordFailure("10.0.0.1");
+        blocklist.recordFailure("10.0.0.1");
+
+        advance(Duration.ofMinutes(1));
+        blocklist.recordFailure("10.0.0.1");
+
+        assertFalse(blocklist.isBlocked("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Should unblock a source after the block duration")
+    void isBlocked_AfterBlockDuration_ReturnsFalse() {
+        for (int i = 0; i < 3; i++) {
+            blocklist.recordFailure("10.0.0.1");
+        }
+
+        advance(Duration.ofMinutes(5).minusSeconds(1));
+        assertTrue(blocklist.isBlocked("10.0.0.1"));
+
+        advance(Duration.ofSeconds(1));
+        assertFalse(blocklist.isBlocked("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Should reject a failure limit below one")
+    void constructor_InvalidMaxFailures_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InvalidTokenBlocklist(0, Duration.ofMinutes(1), Duration.ofMinutes(5), 1000));
+    }
+}
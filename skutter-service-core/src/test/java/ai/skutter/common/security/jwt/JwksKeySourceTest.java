@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import ai.skutter.common.security.properties.SkutterSecurityProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeySourceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<PublicJwk<?>> publishedKeys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private HttpServer server;
+    private String jwksUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Local stand-in for the JWKS endpoint
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetchCount.incrementAndGet();
+            byte[] body = objectMapper.writeValueAsString(Map.of("keys", new ArrayList<>(publishedKeys)))
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        jwksUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private KeyPair publishKey(String keyId) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publishedKeys.add(Jwks.builder().key((RSAPublicKey) keyPair.getPublic()).id(keyId).build());
+        return keyPair;
+    }
+
+    private String signToken(KeyPair keyPair, String keyId) {
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("user-1")
+                .expiration(new Date(System.currentTimeMillis() + 600_000))
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+
+    private JwtTokenProvider newProvider() {
+        SkutterSecurityProperties properties = new SkutterSecurityProperties();
+        properties.getJwt().setJwksUri(jwksUrl);
+        properties.getJwt().setJwksMinRefetchInterval(Duration.ZERO);
+        JwtTokenProvider provider = new JwtTokenProvider(properties);
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    @DisplayName("Should verify tokens signed with a key from the JWKS, selected by kid")
+    void verify_KnownKid_Succeeds() throws Exception {
+        KeyPair first = publishKey("key-1");
+        KeyPair second = publishKey("key-2");
+        JwtTokenProvider provider = newProvider();
+        try {
+            assertTrue(provider.verify(signToken(first, "key-1")).isPresent());
+            assertTrue(provider.verify(signToken(second, "key-2")).isPresent());
+            assertFalse(provider.verify(signToken(first, "key-2")).isPresent(), "Signature must match the kid's key");
+        } finally {
+            provider.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown kid without blocking and pick up the rotated key in the background")
+    void verify_UnknownKid_RefreshesInBackground() throws Exception {
+        publishKey("key-1");
+        JwtTokenProvider provider = newProvider();
+        try {
+            KeyPair rotated = publishKey("key-2");
+            String token = signToken(rotated, "key-2");
+
+            assertFalse(provider.verify(token).isPresent(), "Unknown kid fails fast instead of waiting for a fetch");
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            boolean verified = false;
+            while (!verified && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                verified = provider.verify(token).isPresent();
+            }
+            assertTrue(verified, "Rotated key should be available after the background refresh");
+        } finally {
+            provider.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should re-fetch at most once per minimum interval for unknown kids")
+    void getKey_RepeatedUnknownKid_RateLimitsFetches() throws Exception {
+        publishKey("key-1");
+        JwksKeySource source = new JwksKeySource(jwksUrl, Duration.ofHours(1), Duration.ofHours(1),
+                Duration.ofSeconds(5), null);
+        try {
+            source.start();
+            assertEquals(1, source.size());
+            int fetchesAfterStart = fetchCount.get();
+
+            for (int i = 0; i < 100; i++) {
+                assertNull(source.getKey("missing"));
+            }
+            Thread.sleep(200);
+
+            assertEquals(fetchesAfterStart, fetchCount.get(), "Fetch just ran at startup, so no refetch is allowed yet");
+        } finally {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import ai.skutter.common.security.properties.SkutterSecurityProperties;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+    private final SupabaseJwtProcessor jwtProcessor = mock(SupabaseJwtProcessor.class);
+    private final InvalidTokenBlocklist blocklist = new InvalidTokenBlocklist(2, Duration.ofMinutes(1),
+            Duration.ofMinutes(5), 1000);
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(tokenProvider, jwtProcessor, new SkutterSecurityProperties());
+
+    JwtAuthenticationFilterTest() {
+        filter.setInvalidTokenBlocklist(blocklist);
+        when(tokenProvider.verifyOrReject(anyString())).thenReturn(TokenVerification.rejected(TokenRejectionReason.BAD_SIGNATURE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockFilterChain filter(String source, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+        request.setRemoteAddr(source);
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    @Test
+    @DisplayName("Should authenticate a valid token and record no failure")
+    void doFilter_ValidToken_SetsAuthentication() throws Exception {
+        VerifiedToken verified = new VerifiedToken(Jwts.claims().subject("user-1").build());
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user-1", null,
+                List.of(new SimpleGrantedAuthority("ROLE_PROJECT_MEMBER")));
+        when(tokenProvider.verifyOrReject("valid")).thenReturn(TokenVerification.verified(verified));
+        when(jwtProcessor.authenticate(verified)).thenReturn(authentication);
+
+        filter("10.0.0.1", "valid");
+
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+        assertFalse(blocklist.isBlocked("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Should stop verifying tokens from a source once it is blocked")
+    void doFilter_BlockedSource_SkipsVerification() throws Exception {
+        filter("10.0.0.1", "bad-1");
+        filter("10.0.0.1", "bad-2");
+        verify(tokenProvider, times(2)).verifyOrReject(anyString());
+
+        MockFilterChain chain = filter("10.0.0.1", "bad-3");
+
+        verify(tokenProvider, never()).verifyOrReject("bad-3");
+        assertNotNull(chain.getRequest(), "The request still proceeds, unauthenticated");
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, blocklist.getBlockedRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should keep verifying tokens from other sources")
+    void doFilter_OtherSource_StillVerified() throws Exception {
+        filter("10.0.0.1", "bad-1");
+        filter("10.0.0.1", "bad-2");
+
+        filter("10.0.0.2", "bad-3");
+
+        verify(tokenProvider).verifyOrReject("bad-3");
+        assertFalse(blocklist.isBlocked("10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should not block a source that keeps retrying with an expired token")
+    void doFilter_ExpiredToken_NotCounted() throws Exception {
+        when(tokenProvider.verifyOrReject("expired")).thenReturn(TokenVerification.rejected(TokenRejectionReason.EXPIRED));
+
+        for (int i = 0; i < 5; i++) {
+            filter("10.0.0.1", "expired");
+        }
+
+        assertFalse(blocklist.isBlocked("10.0.0.1"));
+        verify(tokenProvider, times(5)).verifyOrReject("expired");
+    }
+
+    @Test
+    @DisplayName("Should not count verified tokens that fail authentication, such as lapsed or role-less ones")
+    void doFilter_VerifiedButNotAuthenticated_NotCounted() throws Exception {
+        VerifiedToken verified = new VerifiedToken(Jwts.claims().subject("user-1").build());
+        when(tokenProvider.verifyOrReject("lapsed")).thenReturn(TokenVerification.verified(verified));
+        when(jwtProcessor.authenticate(verified)).thenReturn(null);
+
+        for (int i = 0; i < 5; i++) {
+            filter("10.0.0.1", "lapsed");
+        }
+
+        assertFalse(blocklist.isBlocked("10.0.0.1"));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
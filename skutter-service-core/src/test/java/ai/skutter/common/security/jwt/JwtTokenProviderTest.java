@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import ai.skutter.common.security.properties.SkutterSecurityProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "TestSecretKeyMustBeLongEnoughForHS256Algorithm";
+    private static final String NEW_SECRET = "AnotherSecretKeyThatIsAlsoLongEnoughForHS256";
+
+    private SkutterSecurityProperties properties;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SkutterSecurityProperties();
+        properties.getJwt().setSecret(SECRET);
+        properties.getJwt().setKeyRotationOverlap(Duration.ZERO);
+        tokenProvider = new JwtTokenProvider(properties);
+        tokenProvider.init();
+    }
+
+    private static String token(String secret) {
+        return Jwts.builder()
+                .subject("user-1")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Should stop accepting cached tokens of the old secret after updateSecret")
+    void updateSecret_ClearsVerifiedTokenCache() {
+        String token = token(SECRET);
+        // The second verification is served from the cache
+        assertTrue(tokenProvider.verify(token).isPresent());
+        assertTrue(tokenProvider.verify(token).isPresent());
+
+        tokenProvider.updateSecret(NEW_SECRET);
+
+        assertFalse(tokenProvider.verify(token).isPresent());
+        assertTrue(tokenProvider.verify(token(NEW_SECRET)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should stop accepting cached tokens of the old secret after the key is initialized again")
+    void init_NewSecret_ClearsVerifiedTokenCache() {
+        String token = token(SECRET);
+        assertTrue(tokenProvider.verify(token).isPresent());
+
+        properties.getJwt().setSecret(NEW_SECRET);
+        tokenProvider.init();
+
+        assertFalse(tokenProvider.verify(token).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should keep accepting old-key tokens during the rotation overlap")
+    void updateSecret_WithOverlap_AcceptsPreviousKey() {
+        properties.getJwt().setKeyRotationOverlap(Duration.ofMinutes(5));
+        String token = token(SECRET);
+        assertTrue(tokenProvider.verify(token).isPresent());
+
+        tokenProvider.updateSecret(NEW_SECRET);
+
+        assertTrue(tokenProvider.verify(token).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should return all claims from the public accessors even after the fast path cached partial ones")
+    void validateAndGetClaims_Hs256FastPath_ReturnsCompleteClaims() {
+        properties.getJwt().setHs256FastPath(true);
+        tokenProvider = new JwtTokenProvider(properties);
+        tokenProvider.init();
+        String token = Jwts.builder()
+                .subject("user-1")
+                .issuer("test-issuer")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .claim("user_metadata", Map.of("name", "Test"))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // The authentication pipeline only gets the claims it reads
+        Claims partial = tokenProvider.verify(token).orElseThrow().getClaims();
+        assertNull(partial.get("user_metadata"));
+
+        Claims complete = tokenProvider.validateAndGetClaims(token).orElseThrow();
+        assertEquals("Test", ((Map<?, ?>) complete.get("user_metadata")).get("name"));
+        assertEquals("test-issuer", tokenProvider.extractIssuer(token).orElseThrow());
+        assertEquals("user-1", tokenProvider.getUsernameFromToken(token));
+    }
+
+    @Test
+    @DisplayName("Should report why a token was rejected and accept it once its key is installed")
+    void verifyOrReject_UnknownKey_RejectedUntilKeyChanges() {
+        String token = token(NEW_SECRET);
+
+        assertEquals(TokenRejectionReason.BAD_SIGNATURE, tokenProvider.verifyOrReject(token).rejection());
+        assertEquals(TokenRejectionReason.MALFORMED, tokenProvider.verifyOrReject("not-a-jwt").rejection());
+        // Served from the negative cache
+        assertEquals(TokenRejectionReason.BAD_SIGNATURE, tokenProvider.verifyOrReject(token).rejection());
+
+        tokenProvider.updateSecret(NEW_SECRET);
+
+        assertTrue(tokenProvider.verifyOrReject(token).isVerified());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyFileWatcherTest {
+
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(500);
+    // Generous, as some platforms' watch services poll rather than receive events
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @TempDir
+    Path directory;
+
+    private Path keyFile;
+    private final BlockingQueue<String> reloads = new LinkedBlockingQueue<>();
+    private KeyFileWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        keyFile = Files.writeString(directory.resolve("jwt-public.pem"), "key-1");
+        watcher = new KeyFileWatcher(keyFile, QUIET_PERIOD, () -> {
+            try {
+                reloads.add(Files.readString(keyFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.close();
+    }
+
+    @Test
+    @DisplayName("Should reload the replaced key once the quiet period has passed")
+    void fileReplaced_AfterQuietPeriod_Reloads() throws Exception {
+        long start = System.nanoTime();
+        Files.writeString(keyFile, "key-2");
+
+        assertNull(reloads.poll(QUIET_PERIOD.toMillis() / 2, TimeUnit.MILLISECONDS), "reloaded before the quiet period");
+        assertEquals("key-2", reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= QUIET_PERIOD.toNanos());
+    }
+
+    @Test
+    @DisplayName("Should notice a key moved into place with an atomic rename")
+    void atomicRename_Reloads() throws Exception {
+        Path staged = Files.writeString(directory.resolve(".jwt-public.pem.tmp"), "key-2");
+
+        Files.move(staged, keyFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        assertEquals("key-2", reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should reload once for a burst of writes within the quiet period")
+    void burstOfWrites_SingleReload() throws Exception {
+        for (int i = 2; i <= 10; i++) {
+            Files.writeString(keyFile, "key-" + i);
+            Thread.sleep(QUIET_PERIOD.toMillis() / 10);
+        }
+
+        assertEquals("key-10", reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertNull(reloads.poll(QUIET_PERIOD.toMillis() * 3, TimeUnit.MILLISECONDS), "reloaded more than once");
+    }
+
+    @Test
+    @DisplayName("Should stop reloading once closed")
+    void close_StopsWatching() throws Exception {
+        watcher.close();
+
+        Files.writeString(keyFile, "key-2");
+
+        assertNull(reloads.poll(QUIET_PERIOD.toMillis() * 3, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RejectedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+    private final RejectedTokenCache cache = new RejectedTokenCache(100, Duration.ofMinutes(1), ticker);
+
+    @Test
+    @DisplayName("Should remember the rejection reason of a token")
+    void get_RejectedToken_ReturnsReason() {
+        cache.put("token-1", TokenRejectionReason.EXPIRED);
+
+        assertEquals(TokenRejectionReason.EXPIRED, cache.get("token-1"));
+        assertNull(cache.get("token-2"));
+    }
+
+    @Test
+    @DisplayName("Should forget a rejection once the TTL has passed")
+    void get_AfterTtl_ReturnsNull() {
+        cache.put("token-1", TokenRejectionReason.EXPIRED);
+
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals(TokenRejectionReason.EXPIRED, cache.get("token-1"));
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get("token-1"));
+    }
+
+    @Test
+    @DisplayName("Should forget all rejections on clear")
+    void clear_RemovesEntries() {
+        cache.put("token-1", TokenRejectionReason.EXPIRED);
+
+        cache.clear();
+
+        assertNull(cache.get("token-1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should forget only the removed token's rejection")
+    void remove_ForgetsToken() {
+        cache.put("token-1", TokenRejectionReason.BAD_SIGNATURE);
+        cache.put("token-2", TokenRejectionReason.BAD_SIGNATURE);
+
+        cache.remove("token-1");
+        cache.remove("token-3");
+
+        assertNull(cache.get("token-1"));
+        assertEquals(TokenRejectionReason.BAD_SIGNATURE, cache.get("token-2"));
+    }
+}
@@ -32,6 +32,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
@@ -264,4 +265,67 @@ class SupabaseJwtProcessorTest {
 
         assertNull(authentication, "Authentication should be null when role claim is missing");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should ignore unknown role names alongside known ones")
+    void processToken_UnknownRoleWithKnownRole_GrantsKnownRoleOnly() {
+        Authentication authentication = jwtProcessor.process(tokenWithRoles(List.of("PROJECT_VIEWER", "SUPERUSER")));
+
+        assertNotNull(authentication);
+        assertEquals(List.of("ROLE_PROJECT_VIEWER", "PERMISSION_READ"), authentication.getAuthorities().stream()
+                .map(Object::toString)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should reject authentication when every role name is unknown")
+    void processToken_OnlyUnknownRoles_ReturnsNullAuthentication() {
+        assertNull(jwtProcessor.process(tokenWithRoles(List.of("SUPERUSER", "platform_owner"))));
+        assertNull(jwtProcessor.process(tokenWithRoles("ROLE_PLATFORM_OWNER")));
+    }
+
+    private String tokenWithRoles(Object roles) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(testUserId)
+                .setIssuer(testIssuer)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expirationMs))
+                .claim("app_metadata", Map.of("skutter_role", roles))
+                .signWith(getSigningKey())
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Should accept tokens signed with the previous secret during the rotation overlap")
+    void processToken_SecretRotated_AcceptsOldAndNewSecret() {
+        Map<String, Object> appMetadata = new HashMap<>();
+        appMetadata.put("skutter_role", testRole);
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + expirationMs);
+        String newSecret = "RotatedSecretKeyThatIsAlsoLongEnoughForHS256";
+
+        String oldToken = Jwts.builder()
+                .setSubject(testUserId)
+                .setExpiration(expiryDate)
+                .claim("app_metadata", appMetadata)
+                .signWith(getSigningKey())
+                .compact();
+        String newToken = Jwts.builder()
+                .setSubject(testUserId)
+                .setExpiration(expiryDate)
+                .claim("app_metadata", appMetadata)
+                .signWith(Keys.hmacShaKeyFor(newSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        tokenProvider.updateSecret(newSecret);
+
+        assertNotNull(jwtProcessor.process(newToken), "Token signed with the new secret should be accepted");
+        assertNotNull(jwtProcessor.process(oldToken), "Token signed with the old secret should be accepted during the overlap");
+
+        // Without an overlap the old secret stops working immediately
+        securityProperties.getJwt().setKeyRotationOverlap(Duration.ZERO);
+        tokenProvider.updateSecret(plainTextSecret);
+        assertNull(jwtProcessor.process(newToken), "Token signed with the replaced secret should be rejected");
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_750_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofHours(1),
+            token -> 42L, clock::get);
+
+    private static Claims claims(String subject, Long expirationMillis) {
+        return Jwts.claims()
+                .subject(subject)
+                .expiration(expirationMillis == null ? null : new Date(expirationMillis))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return the cached claims for the same token")
+    void get_SameToken_ReturnsClaims() {
+        Claims claims = claims("user-1", NOW + 60_000);
+        cache.put("token-1", claims);
+
+        assertSame(claims, cache.get("token-1"));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should not return another token's claims when the hashes collide")
+    void get_HashCollision_ReturnsNull() {
+        // Every token hashes to the same key
+        cache.put("token-1", claims("user-1", NOW + 60_000));
+
+        assertNull(cache.get("token-2"));
+        assertEquals(1, cache.getMissCount());
+
+        Claims second = claims("user-2", NOW + 60_000);
+        cache.put("token-2", second);
+        assertSame(second, cache.get("token-2"));
+        assertNull(cache.get("token-1"), "The colliding entry replaced the first token, never aliased it");
+    }
+
+    @Test
+    @DisplayName("Should serve an entry until just before exp and drop it at exp")
+    void get_AtExpiration_ReturnsNull() {
+        cache.put("token-1", claims("user-1", NOW + 60_000));
+
+        clock.set(NOW + 59_999);
+        assertNotNull(cache.get("token-1"));
+
+        clock.set(NOW + 60_000);
+        assertNull(cache.get("token-1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens without an expiration or already expired")
+    void put_NoOrPastExpiration_NotCached() {
+        cache.put("token-1", claims("user-1", null));
+        assertNull(cache.get("token-1"));
+
+        cache.put("token-2", claims("user-2", NOW));
+        assertNull(cache.get("token-2"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should remove a token's entry but not a colliding token's")
+    void remove_OnlyMatchingToken() {
+        cache.put("token-1", claims("user-1", NOW + 60_000));
+
+        cache.remove("token-2");
+        assertNotNull(cache.get("token-1"));
+
+        cache.remove("token-1");
+        assertNull(cache.get("token-1"));
+    }
+
+    @Test
+    @DisplayName("Should drop every entry on clear")
+    void clear_RemovesEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofHours(1));
+        cache.put("token-1", claims("user-1", System.currentTimeMillis() + 60_000));
+        cache.put("token-2", claims("user-2", System.currentTimeMillis() + 60_000));
+        assertEquals(2, cache.size());
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("token-1"));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityEventAggregatorTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SecurityEventAggregator.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private Level previousLevel;
+    private SecurityEventAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+        aggregator = new SecurityEventAggregator(Duration.ofMinutes(1), 3, 2, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    private List<String> messages(Level level) {
+        return appender.list.stream()
+                .filter(event -> event.getLevel() == level)
+                .map(ILoggingEvent::getFormattedMessage)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should log only the exemplar budget of events individually per interval")
+    void record_BeyondExemplarBudget_NotLogged() {
+        for (int i = 0; i < 10; i++) {
+            aggregator.record(SecurityEventType.INVALID_TOKEN, "10.0.0.1", "/api/" + i);
+        }
+
+        assertEquals(3, messages(Level.WARN).size());
+        assertTrue(messages(Level.WARN).get(0).contains("/api/0"));
+    }
+
+    @Test
+    @DisplayName("Should restore the exemplar budget when the interval rolls over")
+    void flush_ResetsExemplarBudget() {
+        for (int i = 0; i < 5; i++) {
+            aggregator.record(SecurityEventType.INVALID_TOKEN, "10.0.0.1", null);
+        }
+        aggregator.flush();
+        for (int i = 0; i < 5; i++) {
+            aggregator.record(SecurityEventType.INVALID_TOKEN, "10.0.0.1", null);
+        }
+
+        assertEquals(6, messages(Level.WARN).size());
+    }
+
+    @Test
+    @DisplayName("Should count keys beyond the per-type limit under the overflow key")
+    void record_TooManyKeys_CountedAsOther() {
+        for (String key : List.of("a", "b", "c", "d", "a")) {
+            aggregator.record(SecurityEventType.INVALID_TOKEN, key, null);
+        }
+
+        aggregator.flush();
+
+        String summary = messages(Level.INFO).get(0);
+        assertTrue(summary.contains("INVALID_TOKEN=5"), summary);
+        assertTrue(summary.contains(SecurityEventAggregator.OTHER_KEY + "=2"), summary);
+        assertTrue(summary.contains("a=2"), summary);
+        assertFalse(summary.contains("c="), summary);
+    }
+
+    @Test
+    @DisplayName("Should summarize totals per type with the busiest keys first and start over after a flush")
+    void flush_SummarizesAndRollsOver() {
+        aggregator.record(SecurityEventType.RATE_LIMITED, "client-1", null);
+        aggregator.record(SecurityEventType.RATE_LIMITED, "client-2", null);
+        aggregator.record(SecurityEventType.RATE_LIMITED, "client-2", null);
+        aggregator.record(SecurityEventType.ACCESS_DENIED, null, null);
+
+        aggregator.flush();
+
+        assertEquals(List.of("Security events in the last PT1M: RATE_LIMITED=3 [client-2=2, client-1=1], "
+                + "ACCESS_DENIED=1 [unknown=1]"), messages(Level.INFO));
+
+        aggregator.flush();
+        assertEquals(1, messages(Level.INFO).size(), "An empty interval logs no summary");
+
+        aggregator.record(SecurityEventType.RATE_LIMITED, "client-1", null);
+        aggregator.flush();
+        assertEquals("Security events in the last PT1M: RATE_LIMITED=1 [client-1=1]", messages(Level.INFO).get(1));
+    }
+
+    @Test
+    @DisplayName("Should count every event in the metric, not only the summarized ones")
+    void record_CountsMetricPerType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        aggregator.bindTo(registry);
+
+        for (int i = 0; i < 4; i++) {
+            aggregator.record(SecurityEventType.BLOCKED_SOURCE, "10.0.0." + i, null);
+        }
+        aggregator.flush();
+        aggregator.record(SecurityEventType.BLOCKED_SOURCE, "10.0.0.1", null);
+
+        assertEquals(5.0, registry.get("skutter.security.events").tag("type", "blocked_source").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should only log at debug level when disabled")
+    void record_Noop_DoesNotAggregate() {
+        SecurityEventAggregator.NOOP.record(SecurityEventType.INVALID_TOKEN, "10.0.0.1", null);
+        SecurityEventAggregator.NOOP.flush();
+
+        assertTrue(messages(Level.WARN).isEmpty());
+        assertTrue(messages(Level.INFO).isEmpty());
+    }
+}
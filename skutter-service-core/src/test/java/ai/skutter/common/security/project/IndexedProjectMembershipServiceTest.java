@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.project;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IndexedProjectMembershipService Tests")
+class IndexedProjectMembershipServiceTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID project = UUID.randomUUID();
+    private final UUID otherProject = UUID.randomUUID();
+
+    private final ProjectMembershipIndexLoader loader = mock(ProjectMembershipIndexLoader.class);
+    private final IndexedProjectMembershipService service = new IndexedProjectMembershipService(loader, Duration.ZERO);
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    private static ProjectMembershipIndex indexOf(UUID user, UUID project, ProjectRole role) {
+        ProjectMembershipIndex index = new ProjectMembershipIndex();
+        index.put(user, project, role);
+        return index;
+    }
+
+    @Test
+    @DisplayName("Should deny every check until the first load completes")
+    void getProjectRole_BeforeFirstLoad_Denies() {
+        assertFalse(service.isReady());
+        assertFalse(service.hasProjectRole(user.toString(), project, ProjectRole.PROJECT_VIEWER));
+
+        when(loader.loadAll(anyInt(), anyInt())).thenReturn(indexOf(user, project, ProjectRole.PROJECT_EDITOR));
+        service.rebuild();
+
+        assertTrue(service.isReady());
+        assertTrue(service.hasProjectRole(user.toString(), project, ProjectRole.PROJECT_EDITOR));
+        assertEquals(Map.of(project, ProjectRole.PROJECT_EDITOR), service.getProjectRoles(user.toString()));
+    }
+
+    @Test
+    @DisplayName("Should start without waiting for the first load")
+    void start_DoesNotBlockOnLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(loader.loadAll(anyInt(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return indexOf(user, project, ProjectRole.PROJECT_VIEWER);
+        });
+
+        service.start();
+        assertFalse(service.isReady());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!service.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(service.isReady());
+        assertEquals(ProjectRole.PROJECT_VIEWER, service.getProjectRole(user.toString(), project));
+    }
+
+    @Test
+    @DisplayName("Should replay changes received during a rebuild onto the new index")
+    void rebuild_ChangesDuringLoad_Replayed() {
+        when(loader.loadAll(anyInt(), anyInt())).thenReturn(indexOf(user, project, ProjectRole.PROJECT_VIEWER));
+        service.rebuild();
+
+        when(loader.loadAll(anyInt(), anyInt())).thenAnswer(invocation -> {
+            // Committed while the snapshot was being read, so missing from it
+            service.assignmentChanged(user, otherProject, ProjectRole.PROJECT_OWNER);
+            service.assignmentChanged(user, project, null);
+            return indexOf(user, project, ProjectRole.PROJECT_VIEWER);
+        });
+        service.rebuild();
+
+        assertEquals(Map.of(otherProject, ProjectRole.PROJECT_OWNER), service.getProjectRoles(user.toString()));
+    }
+
+    @Test
+    @DisplayName("Should apply changes outside a rebuild to the live index only")
+    void assignmentChanged_AppliesImmediately() {
+        when(loader.loadAll(anyInt(), anyInt())).thenAnswer(invocation -> new ProjectMembershipIndex());
+        service.rebuild();
+
+        service.assignmentChanged(user, project, ProjectRole.PROJECT_EDITOR);
+
+        assertEquals(ProjectRole.PROJECT_EDITOR, service.getProjectRole(user.toString(), project));
+        service.rebuild();
+        assertNull(service.getProjectRole(user.toString(), project), "Not replayed onto later rebuilds");
+    }
+
+    @Test
+    @DisplayName("Should keep the current index when a rebuild fails")
+    void rebuild_LoadFails_KeepsIndex() {
+        when(loader.loadAll(anyInt(), anyInt())).thenReturn(indexOf(user, project, ProjectRole.PROJECT_OWNER));
+        service.rebuild();
+
+        when(loader.loadAll(anyInt(), anyInt()))
+                .thenThrow(new UncategorizedSQLException("Load", "SELECT", new SQLException("connection reset")));
+        assertThrows(UncategorizedSQLException.class, service::rebuild);
+
+        assertEquals(ProjectRole.PROJECT_OWNER, service.getProjectRole(user.toString(), project));
+        // Changes are no longer buffered for the abandoned rebuild
+        service.assignmentChanged(user, otherProject, ProjectRole.PROJECT_VIEWER);
+        assertEquals(ProjectRole.PROJECT_VIEWER, service.getProjectRole(user.toString(), otherProject));
+    }
+
+    @Test
+    @DisplayName("Should reload only the invalidated user's assignments")
+    void invalidate_ReplacesUser() {
+        UUID otherUser = UUID.randomUUID();
+        ProjectMembershipIndex initial = indexOf(user, project, ProjectRole.PROJECT_VIEWER);
+        initial.put(otherUser, project, ProjectRole.PROJECT_OWNER);
+        when(loader.loadAll(anyInt(), anyInt())).thenReturn(initial);
+        service.rebuild();
+        doAnswer(invocation -> {
+            ProjectMembershipIndex target = invocation.getArgument(0);
+            target.replaceUser(user, List.of(otherProject), List.of(ProjectRole.PROJECT_EDITOR));
+            return null;
+        }).when(loader).loadUser(any(ProjectMembershipIndex.class), eq(user));
+
+        service.invalidate(user.toString());
+
+        assertEquals(Map.of(otherProject, ProjectRole.PROJECT_EDITOR), service.getProjectRoles(user.toString()));
+        assertEquals(ProjectRole.PROJECT_OWNER, service.getProjectRole(otherUser.toString(), project));
+    }
+}
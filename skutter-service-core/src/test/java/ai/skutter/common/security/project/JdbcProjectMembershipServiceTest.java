@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.project;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JdbcProjectMembershipService Tests")
+class JdbcProjectMembershipServiceTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID ownedProject = UUID.randomUUID();
+    private final UUID viewedProject = UUID.randomUUID();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final JdbcProjectMembershipService service =
+            new JdbcProjectMembershipService(jdbcTemplate, Duration.ofMinutes(5), 100);
+
+    private void givenAssignments(Object... projectAndRole) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < projectAndRole.length; i += 2) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getObject(1, UUID.class)).thenReturn((UUID) projectAndRole[i]);
+                when(row.getString(2)).thenReturn((String) projectAndRole[i + 1]);
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(JdbcProjectMembershipService.MEMBERSHIP_QUERY), any(RowCallbackHandler.class), eq(user));
+    }
+
+    @Test
+    @DisplayName("Should load a user's assignments once and ignore unknown database roles")
+    void getProjectRoles_LoadsAndCaches() {
+        givenAssignments(ownedProject, "PROJECT_OWNER", viewedProject, "PROJECT_VIEWER", UUID.randomUUID(), "PROJECT_AUDITOR");
+
+        Map<UUID, ProjectRole> roles = service.getProjectRoles(user.toString());
+        service.getProjectRoles(user.toString());
+
+        assertEquals(Map.of(ownedProject, ProjectRole.PROJECT_OWNER, viewedProject, ProjectRole.PROJECT_VIEWER), roles);
+        assertEquals(1, service.getLoadCount());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(user));
+    }
+
+    @Test
+    @DisplayName("Should grant a required role only to users holding it or a higher one")
+    void hasProjectRole_RoleInclusion() {
+        givenAssignments(ownedProject, "PROJECT_OWNER", viewedProject, "PROJECT_VIEWER");
+        String userId = user.toString();
+
+        assertTrue(service.hasProjectRole(userId, ownedProject, ProjectRole.PROJECT_EDITOR));
+        assertTrue(service.hasProjectRole(userId, viewedProject, ProjectRole.PROJECT_VIEWER));
+        assertFalse(service.hasProjectRole(userId, viewedProject, ProjectRole.PROJECT_EDITOR));
+        assertFalse(service.hasProjectRole(userId, UUID.randomUUID(), ProjectRole.PROJECT_VIEWER));
+    }
+
+    @Test
+    @DisplayName("Should not query for null or non-UUID user IDs")
+    void getProjectRoles_InvalidUserId_ReturnsEmpty() {
+        assertEquals(Map.of(), service.getProjectRoles(null));
+        assertEquals(Map.of(), service.getProjectRoles("not-a-uuid"));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should deny on a failed load without caching the failure")
+    void getProjectRoles_QueryFails_RetriesNextTime() {
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(user));
+
+        assertFalse(service.hasProjectRole(user.toString(), ownedProject, ProjectRole.PROJECT_VIEWER));
+
+        givenAssignments(ownedProject, "PROJECT_VIEWER");
+        assertTrue(service.hasProjectRole(user.toString(), ownedProject, ProjectRole.PROJECT_VIEWER));
+    }
+
+    @Test
+    @DisplayName("Should reload a user's assignments after invalidation")
+    void invalidate_Reloads() {
+        givenAssignments(ownedProject, "PROJECT_VIEWER");
+        assertEquals(ProjectRole.PROJECT_VIEWER, service.getProjectRole(user.toString(), ownedProject));
+
+        givenAssignments(ownedProject, "PROJECT_OWNER");
+        assertEquals(ProjectRole.PROJECT_VIEWER, service.getProjectRole(user.toString(), ownedProject), "Still cached");
+
+        service.invalidate(user.toString());
+        assertEquals(ProjectRole.PROJECT_OWNER, service.getProjectRole(user.toString(), ownedProject));
+        assertEquals(2, service.getLoadCount());
+    }
+}
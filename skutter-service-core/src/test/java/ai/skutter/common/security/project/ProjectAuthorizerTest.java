@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.project;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ProjectAuthorizer Tests")
+class ProjectAuthorizerTest {
+
+    private final String userId = UUID.randomUUID().toString();
+    private final UUID ownedProject = UUID.randomUUID();
+    private final UUID viewedProject = UUID.randomUUID();
+    private final UUID otherProject = UUID.randomUUID();
+
+    private final ProjectMembershipService membershipService = mock(ProjectMembershipService.class);
+
+    private record Item(String name, UUID projectId) {
+    }
+
+    @Test
+    @DisplayName("Should permit the projects in which the user holds the required role or a higher one")
+    void permittedProjects_MembershipService_AppliesRoleInclusion() {
+        when(membershipService.getProjectRoles(userId)).thenReturn(
+                Map.of(ownedProject, ProjectRole.PROJECT_OWNER, viewedProject, ProjectRole.PROJECT_VIEWER));
+        ProjectAuthorizer authorizer = new ProjectAuthorizer(membershipService, null);
+
+        assertEquals(Set.of(ownedProject),
+                authorizer.permittedProjects(userId, List.of(ownedProject, viewedProject, otherProject), ProjectRole.PROJECT_EDITOR));
+        assertEquals(Set.of(ownedProject, viewedProject),
+                authorizer.permittedProjects(userId, List.of(ownedProject, viewedProject, otherProject), ProjectRole.PROJECT_VIEWER));
+        verify(membershipService, times(2)).getProjectRoles(userId);
+    }
+
+    @Test
+    @DisplayName("Should permit nothing without a user or projects, without asking any source")
+    void permittedProjects_NoUserOrProjects_ReturnsEmpty() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ProjectAuthorizer authorizer = new ProjectAuthorizer(membershipService, jdbcTemplate);
+
+        assertEquals(Set.of(), authorizer.permittedProjects(null, List.of(ownedProject), ProjectRole.PROJECT_VIEWER));
+        assertEquals(Set.of(), authorizer.permittedProjects(userId, List.of(), ProjectRole.PROJECT_VIEWER));
+        verifyNoInteractions(membershipService, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should deny everything when no membership source is configured")
+    void permittedProjects_NoSource_DeniesAll() {
+        ProjectAuthorizer authorizer = new ProjectAuthorizer(null, null);
+
+        assertEquals(Set.of(), authorizer.permittedProjects(userId, List.of(ownedProject), ProjectRole.PROJECT_VIEWER));
+    }
+
+    @Test
+    @DisplayName("Should select the permitted projects with one query when no membership service is configured")
+    void permittedProjects_Jdbc_QueriesOnce() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            ResultSet row = mock(ResultSet.class);
+            when(row.getObject(1, UUID.class)).thenReturn(ownedProject);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(eq(ProjectAuthorizer.PERMITTED_QUERY), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+        ProjectAuthorizer authorizer = new ProjectAuthorizer(null, jdbcTemplate);
+
+        assertEquals(Set.of(ownedProject),
+                authorizer.permittedProjects(userId, List.of(ownedProject, otherProject), ProjectRole.PROJECT_EDITOR));
+        assertEquals(Set.of(), authorizer.permittedProjects("not-a-uuid", List.of(ownedProject), ProjectRole.PROJECT_EDITOR));
+        verify(jdbcTemplate, times(1)).query(eq(ProjectAuthorizer.PERMITTED_QUERY), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should keep permitted items in order and drop items without a project")
+    void filter_KeepsPermittedInOrder() {
+        when(membershipService.getProjectRoles(userId)).thenReturn(
+                Map.of(ownedProject, ProjectRole.PROJECT_OWNER, viewedProject, ProjectRole.PROJECT_VIEWER));
+        ProjectAuthorizer authorizer = new ProjectAuthorizer(membershipService, null);
+        Item first = new Item("first", ownedProject);
+        Item denied = new Item("denied", otherProject);
+        Item unscoped = new Item("unscoped", null);
+        Item second = new Item("second", viewedProject);
+        Item third = new Item("third", ownedProject);
+
+        List<Item> filtered = authorizer.filter(userId, List.of(first, denied, unscoped, second, third),
+                Item::projectId, ProjectRole.PROJECT_VIEWER);
+
+        assertEquals(List.of(first, second, third), filtered);
+        verify(membershipService, times(1)).getProjectRoles(userId);
+    }
+}
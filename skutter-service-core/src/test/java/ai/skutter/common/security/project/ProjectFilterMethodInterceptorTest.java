@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.project;
+
+import ai.skutter.common.security.jwt.SupabaseUserDetails;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ProjectFilterMethodInterceptor Tests")
+class ProjectFilterMethodInterceptorTest {
+
+    private static final UUID PERMITTED = UUID.randomUUID();
+    private static final UUID DENIED = UUID.randomUUID();
+
+    private final String userId = UUID.randomUUID().toString();
+    private final ProjectMembershipService membershipService = mock(ProjectMembershipService.class);
+    private Repository repository;
+
+    private record Item(String name, UUID projectId) implements ProjectScoped {
+        @Override
+        public UUID getProjectId() {
+            return projectId;
+        }
+    }
+
+    interface Repository {
+        List<Item> list();
+
+        Set<UUID> projectIds();
+
+        Slice<Item> slice();
+
+        Page<Item> page();
+
+        List<Item> unannotated();
+
+        List<Object> mixed();
+    }
+
+    /**
+     * Annotated on the implementation only, as the advisor's pointcut matches it; the proxy is
+     * invoked through the interface method
+     */
+    static class RepositoryImpl implements Repository {
+        @Override
+        @FilterByProjectRole(ProjectRole.PROJECT_EDITOR)
+        public List<Item> list() {
+            return List.of(new Item("a", PERMITTED), new Item("b", DENIED), new Item("c", PERMITTED));
+        }
+
+        @Override
+        @FilterByProjectRole
+        public Set<UUID> projectIds() {
+            return new LinkedHashSet<>(List.of(DENIED, PERMITTED));
+        }
+
+        @Override
+        @FilterByProjectRole
+        public Slice<Item> slice() {
+            return new SliceImpl<>(List.of(new Item("a", PERMITTED), new Item("b", DENIED)), PageRequest.of(1, 2), true);
+        }
+
+        @Override
+        @FilterByProjectRole
+        public Page<Item> page() {
+            return new PageImpl<>(List.of(new Item("a", PERMITTED)), PageRequest.of(0, 2), 1);
+        }
+
+        @Override
+        public List<Item> unannotated() {
+            return List.of(new Item("a", DENIED));
+        }
+
+        @Override
+        @FilterByProjectRole
+        public List<Object> mixed() {
+            return List.of(new Item("a", PERMITTED), "not project scoped");
+        }
+    }
+
+    static class SliceRepository {
+        @FilterByProjectRole
+        public Slice<Item> slice() {
+            return new SliceImpl<>(List.of());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(membershipService.getProjectRoles(userId)).thenReturn(Map.of(PERMITTED, ProjectRole.PROJECT_OWNER));
+        ProjectAuthorizer authorizer = new ProjectAuthorizer(membershipService, null);
+        ProxyFactory proxyFactory = new ProxyFactory(new RepositoryImpl());
+        proxyFactory.addInterface(Repository.class);
+        proxyFactory.addAdvice(new ProjectFilterMethodInterceptor(() -> authorizer));
+        repository = (Repository) proxyFactory.getProxy();
+
+        SupabaseUserDetails user = new SupabaseUserDetails(userId, "user@example.com", mock(Claims.class), Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should find the annotation on the implementation when invoked through the interface")
+    void invoke_AnnotationOnImplementation_FiltersList() {
+        List<Item> items = repository.list();
+
+        assertEquals(List.of("a", "c"), items.stream().map(Item::name).toList());
+        verify(membershipService, times(1)).getProjectRoles(userId);
+    }
+
+    @Test
+    @DisplayName("Should filter a set of project IDs into a set")
+    void invoke_Set_ReturnsSet() {
+        assertEquals(Set.of(PERMITTED), repository.projectIds());
+    }
+
+    @Test
+    @DisplayName("Should filter a slice and keep its pageable and next-page flag")
+    void invoke_Slice_KeepsPaging() {
+        Slice<Item> slice = repository.slice();
+
+        assertEquals(List.of("a"), slice.getContent().stream().map(Item::name).toList());
+        assertEquals(PageRequest.of(1, 2), slice.getPageable());
+        assertTrue(slice.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should refuse methods declared to return a Page, whose total cannot be kept")
+    void invoke_Page_Throws() {
+        assertThrows(IllegalStateException.class, () -> repository.page());
+    }
+
+    @Test
+    @DisplayName("Should fail when the annotation cannot be found instead of returning unfiltered results")
+    void invoke_NoAnnotation_Throws() {
+        assertThrows(IllegalStateException.class, () -> repository.unannotated());
+        verifyNoInteractions(membershipService);
+    }
+
+    @Test
+    @DisplayName("Should fail on elements that are neither ProjectScoped nor UUIDs")
+    void invoke_UnsupportedElement_Throws() {
+        assertThrows(IllegalStateException.class, () -> repository.mixed());
+    }
+
+    @Test
+    @DisplayName("Should return nothing to anonymous callers")
+    void invoke_Anonymous_ReturnsEmpty() {
+        SecurityContextHolder.clearContext();
+
+        assertEquals(List.of(), repository.list());
+    }
+
+    @Test
+    @DisplayName("Should reject a method declared to return a Page when the bean is matched for proxying")
+    void pointcut_PageMethod_FailsWhenMatched() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(ProjectFilterMethodInterceptor.pointcut(),
+                new ProjectFilterMethodInterceptor(() -> null));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AopUtils.canApply(advisor, RepositoryImpl.class));
+        assertTrue(e.getMessage().contains("page"), e.getMessage());
+        assertTrue(AopUtils.canApply(advisor, SliceRepository.class));
+        assertFalse(AopUtils.canApply(advisor, Item.class));
+    }
+}
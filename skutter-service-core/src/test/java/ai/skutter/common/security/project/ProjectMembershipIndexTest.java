@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.project;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProjectMembershipIndex Tests")
+class ProjectMembershipIndexTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final UUID project = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should answer membership and role for indexed assignments")
+    void getRole_Assigned_ReturnsRole() {
+        ProjectMembershipIndex index = new ProjectMembershipIndex();
+        index.put(user, project, ProjectRole.PROJECT_EDITOR);
+
+        assertTrue(index.isMember(user, project));
+        assertEquals(ProjectRole.PROJECT_EDITOR, index.getRole(user, project));
+        assertFalse(index.isMember(user, UUID.randomUUID()));
+        assertFalse(index.isMember(UUID.randomUUID(), project));
+    }
+
+    @Test
+    @DisplayName("Should apply role changes and removals incrementally")
+    void put_ThenRemove_UpdatesIndex() {
+        ProjectMembershipIndex index = new ProjectMembershipIndex();
+        index.put(user, project, ProjectRole.PROJECT_VIEWER);
+        index.put(user, project, ProjectRole.PROJECT_OWNER);
+
+        assertEquals(ProjectRole.PROJECT_OWNER, index.getRole(user, project));
+        assertEquals(1, index.getMembershipCount());
+
+        index.remove(user, project);
+
+        assertNull(index.getRole(user, project));
+        assertEquals(0, index.getMembershipCount());
+        assertTrue(index.projectsOf(user).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep all assignments when tables grow past their initial size")
+    void put_ManyUsersAndProjects_AllRetrievable() {
+        ProjectMembershipIndex index = new ProjectMembershipIndex(4, 4);
+        List<UUID> users = new ArrayList<>();
+        List<UUID> projects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(UUID.randomUUID());
+            projects.add(UUID.randomUUID());
+        }
+        for (int u = 0; u < users.size(); u++) {
+            for (int p = u % 7; p < projects.size(); p += 7) {
+                index.put(users.get(u), projects.get(p), ProjectRole.values()[p % 3]);
+            }
+        }
+
+        for (int u = 0; u < users.size(); u++) {
+            for (int p = 0; p < projects.size(); p++) {
+                ProjectRole expected = p % 7 == u % 7 ? ProjectRole.values()[p % 3] : null;
+                assertEquals(expected, index.getRole(users.get(u), projects.get(p)));
+            }
+        }
+        assertEquals(200, index.getUserCount());
+        assertEquals(200, index.getProjectCount());
+    }
+
+    @Test
+    @DisplayName("Should replace all of a user's assignments at once")
+    void replaceUser_NewAssignments_ReplacesOld() {
+        ProjectMembershipIndex index = new ProjectMembershipIndex();
+        UUID other = UUID.randomUUID();
+        index.put(user, project, ProjectRole.PROJECT_OWNER);
+
+        index.replaceUser(user, List.of(other), List.of(ProjectRole.PROJECT_VIEWER));
+
+        assertNull(index.getRole(user, project));
+        assertEquals(List.of(other), index.projectsOf(user));
+        assertEquals(1, index.getMembershipCount());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.security.role;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static ai.skutter.common.security.role.SkutterRole.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkutterAuthoritiesTest {
+
+    static Stream<Arguments> roleAuthorities() {
+        return Stream.of(
+                Arguments.of(EnumSet.noneOf(SkutterRole.class), List.of()),
+                Arguments.of(EnumSet.of(PLATFORM_OWNER),
+                        List.of("ROLE_PLATFORM_OWNER", "PERMISSION_READ", "PERMISSION_WRITE", "SCOPE_PLATFORM")),
+                Arguments.of(EnumSet.of(PLATFORM_VIEWER),
+                        List.of("ROLE_PLATFORM_VIEWER", "PERMISSION_READ", "SCOPE_PLATFORM")),
+                Arguments.of(EnumSet.of(PROJECT_ADMIN),
+                        List.of("ROLE_PROJECT_ADMIN", "PERMISSION_READ", "PERMISSION_WRITE")),
+                Arguments.of(EnumSet.of(PROJECT_VIEWER),
+                        List.of("ROLE_PROJECT_VIEWER", "PERMISSION_READ")),
+                Arguments.of(EnumSet.of(PLATFORM_VIEWER, PROJECT_ADMIN),
+                        List.of("ROLE_PLATFORM_VIEWER", "ROLE_PROJECT_ADMIN", "PERMISSION_READ", "PERMISSION_WRITE", "SCOPE_PLATFORM")),
+                Arguments.of(EnumSet.of(PROJECT_ADMIN, PROJECT_VIEWER),
+                        List.of("ROLE_PROJECT_ADMIN", "ROLE_PROJECT_VIEWER", "PERMISSION_READ", "PERMISSION_WRITE")),
+                Arguments.of(EnumSet.allOf(SkutterRole.class),
+                        List.of("ROLE_PLATFORM_OWNER", "ROLE_PLATFORM_VIEWER", "ROLE_PROJECT_ADMIN", "ROLE_PROJECT_VIEWER",
+                                "PERMISSION_READ", "PERMISSION_WRITE", "SCOPE_PLATFORM")));
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @MethodSource("roleAuthorities")
+    @DisplayName("Should grant each role's authority followed by the permissions the roles grant")
+    void forRoleMask_Roles_GrantsExpectedAuthorities(EnumSet<SkutterRole> roles, List<String> expected) {
+        List<String> authorities = SkutterAuthorities.forRoleMask(SkutterRole.maskOf(roles)).stream()
+                .map(SimpleGrantedAuthority::getAuthority)
+                .toList();
+
+        assertEquals(expected, authorities);
+    }
+
+    @Test
+    @DisplayName("Should agree with the role and permission masks for every combination")
+    void forRoleMask_EveryMask_MatchesRolesAndPermissions() {
+        for (int mask = 0; mask < SkutterRole.MASK_COUNT; mask++) {
+            List<SimpleGrantedAuthority> authorities = SkutterAuthorities.forRoleMask(mask);
+            int permissionMask = SkutterPermission.maskForRoles(mask);
+
+            for (SkutterRole role : SkutterRole.values()) {
+                assertEquals((mask & role.bit()) != 0,
+                        authorities.contains(new SimpleGrantedAuthority("ROLE_" + role.name())), role + " in mask " + mask);
+            }
+            for (SkutterPermission permission : SkutterPermission.values()) {
+                assertEquals((permissionMask & permission.bit()) != 0,
+                        authorities.contains(new SimpleGrantedAuthority(permission.getAuthority())), permission + " in mask " + mask);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should share one immutable list per mask and ignore bits beyond the known roles")
+    void forRoleMask_SameMask_SharedImmutableList() {
+        int mask = SkutterRole.maskOf(EnumSet.of(PROJECT_ADMIN));
+        List<SimpleGrantedAuthority> authorities = SkutterAuthorities.forRoleMask(mask);
+
+        assertSame(authorities, SkutterAuthorities.forRoleMask(mask));
+        assertSame(authorities, SkutterAuthorities.forRoleMask(mask | SkutterRole.MASK_COUNT));
+        assertThrows(UnsupportedOperationException.class, () -> authorities.add(new SimpleGrantedAuthority("ROLE_X")));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"SUPERUSER", "platform_owner", "ROLE_PLATFORM_OWNER", " PROJECT_ADMIN", "PROJECT_ADMIN ", "authenticated"})
+    @DisplayName("Should not resolve names that are not exactly a role")
+    void fromName_UnknownRole_ReturnsNull(String name) {
+        assertNull(SkutterRole.fromName(name));
+    }
+
+    @Test
+    @DisplayName("Should resolve every role by its exact name")
+    void fromName_KnownRole_ReturnsRole() {
+        for (SkutterRole role : SkutterRole.values()) {
+            assertSame(role, SkutterRole.fromName(role.name()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastHashTest {
+
+    @Test
+    @DisplayName("Should hash equal character sequences to the same value")
+    void hash64_EqualContent_SameHash() {
+        assertEquals(FastHash.hash64("client-42"), FastHash.hash64(new StringBuilder("client-").append(42)));
+    }
+
+    @Test
+    @DisplayName("Should not collide on a run of similar keys")
+    void hash64_SimilarKeys_Distinct() {
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(hashes.add(FastHash.hash64("192.168." + (i >> 8) + "." + (i & 0xFF))), "collision at " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread single-bit input differences across the upper bits")
+    void hash64_OneCharDifference_ChangesUpperBits() {
+        // Compact stores use the upper bits as fingerprints and stripe selectors
+        long a = FastHash.hash64("key-a");
+        long b = FastHash.hash64("key-b");
+
+        assertTrue(Long.bitCount((a ^ b) >>> 32) > 4);
+    }
+
+    @Test
+    @DisplayName("Should combine hashes order-sensitively")
+    void combine_SwappedArguments_Differ() {
+        long first = FastHash.hash64("api");
+        long second = FastHash.hash64("client-1");
+
+        assertEquals(FastHash.combine(first, second), FastHash.combine(first, second));
+        assertNotEquals(FastHash.combine(first, second), FastHash.combine(second, first));
+    }
+}
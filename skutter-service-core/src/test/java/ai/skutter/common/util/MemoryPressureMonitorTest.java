@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025 Skutter.ai
+ *
+ * This code is proprietary and confidential. Unauthorized copying, modification,
+ * distribution, or use of this software, via any medium is strictly prohibited.
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * @author mattduggan
+ */
+package ai.skutter.common.util;
+
+import ai.skutter.common.util.MemoryPressureMonitor.PressureLevel;
+import ai.skutter.common.util.exception.NotEnoughMemoryException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MemoryPressureMonitorTest {
+
+    private final MemoryPressureMonitor monitor = new MemoryPressureMonitor(0.75, 0.90);
+
+    @Test
+    @DisplayName("Levels rise as soon as a threshold is reached")
+    void levelFor_Rising_UsesThresholds() {
+        assertEquals(PressureLevel.NORMAL, monitor.levelFor(0.74, PressureLevel.NORMAL));
+        assertEquals(PressureLevel.ELEVATED, monitor.levelFor(0.75, PressureLevel.NORMAL));
+        assertEquals(PressureLevel.CRITICAL, monitor.levelFor(0.90, PressureLevel.NORMAL));
+        assertEquals(PressureLevel.CRITICAL, monitor.levelFor(0.90, PressureLevel.ELEVATED));
+    }
+
+    @Test
+    @DisplayName("Levels fall only once occupancy drops below the hysteresis band")
+    void levelFor_Falling_AppliesHysteresis() {
+        assertEquals(PressureLevel.ELEVATED, monitor.levelFor(0.71, PressureLevel.ELEVATED));
+        assertEquals(PressureLevel.NORMAL, monitor.levelFor(0.69, PressureLevel.ELEVATED));
+        assertEquals(PressureLevel.CRITICAL, monitor.levelFor(0.86, PressureLevel.CRITICAL));
+        assertEquals(PressureLevel.ELEVATED, monitor.levelFor(0.84, PressureLevel.CRITICAL));
+        assertEquals(PressureLevel.NORMAL, monitor.levelFor(0.50, PressureLevel.CRITICAL));
+    }
+
+    @Test
+    @DisplayName("Invalid thresholds are rejected")
+    void constructor_InvalidThresholds_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new MemoryPressureMonitor(0, 0.9));
+        assertThrows(IllegalArgumentException.class, () -> new MemoryPressureMonitor(0.9, 0.8));
+        assertThrows(IllegalArgumentException.class, () -> new MemoryPressureMonitor(0.5, 1.1));
+    }
+
+    @Test
+    @DisplayName("Memory limit is measured against the maximum heap")
+    void checkMemoryUsage_MeasuredAgainstMaxMemory() {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        assumeTrue(maxMemory != Long.MAX_VALUE, "Heap has no maximum");
+
+        // Used heap can never exceed the maximum heap, however little of it is committed
+        assertDoesNotThrow(() -> CheckMemoryLimit.checkMemoryUsage(100));
+        assertDoesNotThrow(() -> CheckMemoryLimit.checkMemoryUsage(0));
+
+        NotEnoughMemoryException e = assertThrows(NotEnoughMemoryException.class,
+                () -> CheckMemoryLimit.checkMemoryUsage(0.000001));
+        String expectedMax = String.format("Max memory is %,.2f MB",
+                DataSizeConverter.convert(maxMemory, DataSizeUnit.BYTES, DataSizeUnit.MEGABYTES));
+        assertTrue(e.getMessage().contains(expectedMax), e.getMessage());
+    }
+}